@@ -105,6 +105,18 @@ public interface IStorageCell extends ICellWorkbenchItem
 	 */
 	boolean isStorageCell( ItemStack i );
 
+	/**
+	 * Allows AE to remember the result of {@link #isStorageCell(ItemStack)}
+	 * for this item instead of asking for every stack.
+	 *
+	 * @return true if isStorageCell gives the same answer for every stack of
+	 * this item.
+	 */
+	default boolean isStorageCellCacheable()
+	{
+		return false;
+	}
+
 	/**
 	 * @return drain in ae/t this storage cell will use.
 	 */
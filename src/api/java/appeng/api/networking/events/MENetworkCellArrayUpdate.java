@@ -24,6 +24,13 @@
 package appeng.api.networking.events;
 
 
+import java.util.Collections;
+import java.util.List;
+
+import appeng.api.storage.ICellProvider;
+import appeng.api.storage.IMEInventoryHandler;
+
+
 /**
  * Posted by storage devices to inform AE to refresh its storage structure.
  *
@@ -32,8 +39,49 @@ package appeng.api.networking.events;
  *
  * you do not need to send this event when your node is added / removed from the
  * grid.
+ *
+ * Providers that know exactly which of their handlers changed should use the
+ * scoped constructor, the network then only has to account for those cells
+ * instead of rescanning every provider on the grid.
  */
 public class MENetworkCellArrayUpdate extends MENetworkEvent
 {
 
+	/**
+	 * the provider whose cells changed, or null if every provider should be refreshed.
+	 */
+	public final ICellProvider provider;
+
+	/**
+	 * handlers no longer returned by {@link ICellProvider#getCellArray}.
+	 */
+	public final List<IMEInventoryHandler> removedCells;
+
+	/**
+	 * handlers newly returned by {@link ICellProvider#getCellArray}, a handler that is also in
+	 * {@link #removedCells} kept its contents but changed its priority.
+	 */
+	public final List<IMEInventoryHandler> addedCells;
+
+	public MENetworkCellArrayUpdate()
+	{
+		this.provider = null;
+		this.removedCells = Collections.emptyList();
+		this.addedCells = Collections.emptyList();
+	}
+
+	public MENetworkCellArrayUpdate( final ICellProvider provider, final List<IMEInventoryHandler> removedCells, final List<IMEInventoryHandler> addedCells )
+	{
+		this.provider = provider;
+		this.removedCells = removedCells;
+		this.addedCells = addedCells;
+	}
+
+	/**
+	 * @return true if this event only describes the listed cells of {@link #provider}
+	 */
+	public boolean isScoped()
+	{
+		return this.provider != null;
+	}
 }
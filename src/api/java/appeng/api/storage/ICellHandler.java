@@ -46,6 +46,22 @@ public interface ICellHandler
 	 */
 	boolean isCell( ItemStack is );
 
+	/**
+	 * Return true if {@link #isCell(ItemStack)} only depends on the item itself, not on damage or NBT. AE then
+	 * remembers which handler took an item and reuses that decision for every stack of the same item, otherwise the
+	 * handler is asked every time.
+	 *
+	 * This has to give the same answer for every stack of the item.
+	 *
+	 * @param is to be checked item
+	 *
+	 * @return true, if the result of isCell applies to every stack of this item.
+	 */
+	default boolean isCacheable( ItemStack is )
+	{
+		return false;
+	}
+
 	/**
 	 * If you cannot handle the provided item, return null
 	 *
@@ -52,6 +52,24 @@ public interface IExternalStorageHandler
 	@Deprecated
 	boolean canHandle( TileEntity te, EnumFacing d, StorageChannel channel, BaseActionSource mySrc );
 
+	/**
+	 * Return true if {@link #canHandle(TileEntity, EnumFacing, StorageChannel, BaseActionSource)} only depends on the
+	 * class of the tile, the side and the channel. AE then remembers which handler took a kind of tile entity on a side
+	 * and reuses that decision for every tile of the same class, otherwise the handler is asked every time.
+	 *
+	 * This has to give the same answer for every tile of the class.
+	 *
+	 * @param te to be handled tile entity
+	 * @param d direction
+	 * @param channel channel
+	 *
+	 * @return true, if the result of canHandle applies to every tile of this class.
+	 */
+	default boolean isCacheable( TileEntity te, EnumFacing d, StorageChannel channel )
+	{
+		return false;
+	}
+
 	/**
 	 * if this can handle the given inventory, return the a IMEInventory implementing class for it, if not return null
 	 *
@@ -64,6 +64,51 @@ public interface IMEInventory<StackType extends IAEStack>
 	 */
 	StackType extractItems( StackType request, Actionable mode, BaseActionSource src );
 
+	/**
+	 * Store several stacks at once, or simulate it. Behaves like calling {@link #injectItems} for every stack, but lets
+	 * implementations route, check and report the whole list in one go.
+	 *
+	 * @param input items to add, left unchanged.
+	 * @param type action type
+	 * @param src action source
+	 *
+	 * @return a new list with the items not added, empty if everything was added.
+	 */
+	@SuppressWarnings( "unchecked" )
+	default IItemList<StackType> injectAll( final IItemList<StackType> input, final Actionable type, final BaseActionSource src )
+	{
+		final IItemList<StackType> leftovers = this.getChannel().createList();
+
+		for( final StackType stack : input )
+		{
+			leftovers.add( this.injectItems( (StackType) stack.copy(), type, src ) );
+		}
+
+		return leftovers;
+	}
+
+	/**
+	 * Extract several stacks at once, or simulate it. Behaves like calling {@link #extractItems} for every stack.
+	 *
+	 * @param request items to request ( with stack sizes ), left unchanged.
+	 * @param mode simulate, or perform action?
+	 * @param src action source
+	 *
+	 * @return a new list with the items extracted, empty if nothing was extracted.
+	 */
+	@SuppressWarnings( "unchecked" )
+	default IItemList<StackType> extractAll( final IItemList<StackType> request, final Actionable mode, final BaseActionSource src )
+	{
+		final IItemList<StackType> extracted = this.getChannel().createList();
+
+		for( final StackType stack : request )
+		{
+			extracted.add( this.extractItems( (StackType) stack.copy(), mode, src ) );
+		}
+
+		return extracted;
+	}
+
 	/**
 	 * request a full report of all available items, storage.
 	 *
@@ -0,0 +1,129 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.benchmark;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.fml.common.Loader;
+import net.minecraftforge.fml.common.ModContainer;
+
+import appeng.api.storage.data.IAEItemStack;
+import appeng.core.AEConfig;
+import appeng.util.item.AEItemStack;
+
+
+/**
+ * Sets up just enough of Minecraft and AE2 to run network code outside of a world.
+ *
+ * Vanilla items are bootstrapped, and a throwaway {@link AEConfig} is created so that {@link appeng.api.AEApi} can be
+ * resolved for the item lists the storage and crafting code allocates. Nothing is registered with Forge, so blocks,
+ * tiles and parts are out of reach; benchmarks should stay on the grid cache / inventory level.
+ */
+public final class BenchmarkEnvironment
+{
+
+	private static List<Item> items;
+
+	private BenchmarkEnvironment()
+	{
+	}
+
+	public static synchronized void init()
+	{
+		if( items != null )
+		{
+			return;
+		}
+
+		Bootstrap.register();
+
+		if( AEConfig.instance == null )
+		{
+			primeModList();
+
+			try
+			{
+				final File config = File.createTempFile( "appliedenergistics2-bench", ".cfg" );
+				config.deleteOnExit();
+				AEConfig.instance = new AEConfig( config );
+			}
+			catch( final IOException e )
+			{
+				throw new IllegalStateException( "Unable to create a temporary config", e );
+			}
+		}
+
+		final List<Item> all = new ArrayList<Item>();
+		for( final Item item : Item.REGISTRY )
+		{
+			all.add( item );
+		}
+		items = all;
+	}
+
+	/**
+	 * @return a deterministic stack of a single item, distinct for every index
+	 */
+	public static IAEItemStack stack( final int index, final long size )
+	{
+		final IAEItemStack stack = AEItemStack.create( new ItemStack( items.get( index % items.size() ), 1, index / items.size() ) );
+		stack.setStackSize( size );
+		return stack;
+	}
+
+	public static List<IAEItemStack> stacks( final int count, final long size )
+	{
+		final List<IAEItemStack> out = new ArrayList<IAEItemStack>( count );
+		for( int i = 0; i < count; i++ )
+		{
+			out.add( stack( i, size ) );
+		}
+		return out;
+	}
+
+	/**
+	 * AEConfig checks for other mods while loading, but FML only builds its mod index during a real launch.
+	 */
+	private static void primeModList()
+	{
+		try
+		{
+			final Field namedMods = Loader.class.getDeclaredField( "namedMods" );
+			namedMods.setAccessible( true );
+
+			if( namedMods.get( Loader.instance() ) == null )
+			{
+				namedMods.set( Loader.instance(), new HashMap<String, ModContainer>() );
+			}
+		}
+		catch( final ReflectiveOperationException e )
+		{
+			throw new IllegalStateException( "Unable to prepare FML for a headless run", e );
+		}
+	}
+}
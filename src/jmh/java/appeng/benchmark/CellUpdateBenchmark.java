@@ -0,0 +1,112 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.benchmark;
+
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.events.MENetworkCellArrayUpdate;
+import appeng.api.networking.security.BaseActionSource;
+import appeng.api.storage.IMEInventoryHandler;
+
+
+/**
+ * Swaps a single cell in one drive of a large grid and lets the storage cache catch up, either from a plain
+ * cell array update or from one that names the swapped cells.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class CellUpdateBenchmark
+{
+
+	private static final int CELLS_PER_DRIVE = 10;
+
+	private static final int TYPES_PER_CELL = 16;
+
+	@Param( { "16", "128" } )
+	public int drives;
+
+	private final BaseActionSource src = new BaseActionSource();
+
+	private SyntheticGrid grid;
+
+	private SyntheticCellProvider drive;
+
+	private IMEInventoryHandler spare;
+
+	@Setup
+	public void setup()
+	{
+		BenchmarkEnvironment.init();
+
+		final SyntheticStorageCell type = new SyntheticStorageCell( 1 << 16, 63 );
+		this.grid = new SyntheticGrid();
+
+		for( int i = 0; i < this.drives; i++ )
+		{
+			this.drive = new SyntheticCellProvider( type, CELLS_PER_DRIVE, i % 4 );
+			this.grid.getStorage().registerCellProvider( this.drive );
+		}
+
+		// fills the cells in order, so every cell ends up with some types
+		final int types = this.drives * CELLS_PER_DRIVE * TYPES_PER_CELL;
+		for( int i = 0; i < types; i++ )
+		{
+			this.grid.getStorage().getItemInventory().injectItems( BenchmarkEnvironment.stack( i, 64 ), Actionable.MODULATE, this.src );
+		}
+
+		this.spare = type.createCell();
+		this.spare.injectItems( BenchmarkEnvironment.stack( types, 64 ), Actionable.MODULATE, this.src );
+	}
+
+	@Benchmark
+	public Object bareUpdate()
+	{
+		this.spare = this.drive.swap( 0, this.spare );
+		return this.grid.postEvent( new MENetworkCellArrayUpdate() );
+	}
+
+	@Benchmark
+	public Object scopedUpdate()
+	{
+		final IMEInventoryHandler removed = this.drive.swap( 0, this.spare );
+		final IMEInventoryHandler added = this.spare;
+		this.spare = removed;
+
+		return this.grid.postEvent( new MENetworkCellArrayUpdate( this.drive, Collections.singletonList( removed ), Collections.singletonList( added ) ) );
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.benchmark;
+
+
+import java.lang.reflect.Field;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Multimap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minecraft.world.World;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.BaseActionSource;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.crafting.CraftingJob;
+import appeng.hooks.TickHandler;
+
+
+/**
+ * Plans a request against a complete tree of processing patterns, {@code fanout} inputs per pattern and
+ * {@code depth} levels deep, with every leaf available in storage.
+ *
+ * The job runs on its own thread and is handed time slices the way the server tick does, so the measurement
+ * includes the hand-over between the two.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class CraftingJobBenchmark
+{
+
+	private static final int SLICE_MICROS = 50000;
+
+	@Param( { "2", "4", "6" } )
+	public int depth;
+
+	@Param( { "2", "3" } )
+	public int fanout;
+
+	private final BaseActionSource src = new BaseActionSource();
+
+	private SyntheticGrid grid;
+
+	private IAEItemStack target;
+
+	private ExecutorService executor;
+
+	private Multimap<World, CraftingJob> simulations;
+
+	@Setup
+	@SuppressWarnings( "unchecked" )
+	public void setup() throws ReflectiveOperationException
+	{
+		BenchmarkEnvironment.init();
+
+		final SyntheticCraftingGrid crafting = new SyntheticCraftingGrid();
+
+		// complete tree, numbered breadth first; the children of n are n * fanout + 1 .. n * fanout + fanout
+		int inner = 0;
+		int nodes = 1;
+		for( int level = 0; level < this.depth; level++ )
+		{
+			final int width = nodes - inner;
+			inner = nodes;
+			nodes += width * this.fanout;
+		}
+
+		for( int n = 0; n < inner; n++ )
+		{
+			final IAEItemStack[] inputs = new IAEItemStack[this.fanout];
+			for( int c = 0; c < this.fanout; c++ )
+			{
+				inputs[c] = BenchmarkEnvironment.stack( n * this.fanout + c + 1, 1 );
+			}
+			crafting.addPattern( new SyntheticPattern( BenchmarkEnvironment.stack( n, 1 ), inputs ) );
+		}
+
+		final int leaves = nodes - inner;
+		this.grid = new SyntheticGrid();
+		this.grid.setCraftingGrid( crafting );
+		this.grid.getStorage().registerCellProvider( new SyntheticCellProvider( new SyntheticStorageCell( 1 << 24, 63 ), leaves / 63 + 1, 0 ) );
+
+		for( int n = inner; n < nodes; n++ )
+		{
+			this.grid.getStorage().getItemInventory().injectItems( BenchmarkEnvironment.stack( n, 1 << 16 ), Actionable.MODULATE, this.src );
+		}
+
+		this.target = BenchmarkEnvironment.stack( 0, 1 );
+		this.executor = Executors.newSingleThreadExecutor();
+
+		// jobs register themselves for the tick based time slicing, which never runs here
+		final Field jobs = TickHandler.class.getDeclaredField( "craftingJobs" );
+		jobs.setAccessible( true );
+		this.simulations = (Multimap<World, CraftingJob>) jobs.get( TickHandler.INSTANCE );
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		this.executor.shutdownNow();
+	}
+
+	@TearDown( Level.Invocation )
+	public void forgetSimulations()
+	{
+		synchronized( this.simulations )
+		{
+			this.simulations.removeAll( null );
+		}
+	}
+
+	@Benchmark
+	public long plan()
+	{
+		final CraftingJob job = new CraftingJob( null, this.grid, this.src, this.target, null );
+		this.executor.execute( job );
+
+		while( job.simulateFor( SLICE_MICROS ) )
+		{
+			// keep handing out time until the job reports completion
+		}
+
+		return job.getByteTotal();
+	}
+}
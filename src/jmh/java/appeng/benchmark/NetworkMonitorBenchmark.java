@@ -0,0 +1,129 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.benchmark;
+
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.BaseActionSource;
+import appeng.api.networking.storage.IBaseMonitor;
+import appeng.api.storage.IMEMonitor;
+import appeng.api.storage.IMEMonitorHandlerReceiver;
+import appeng.api.storage.data.IAEItemStack;
+
+
+/**
+ * Change fan-out of the network monitor: each modulating inject or extract is posted to every open terminal, so the
+ * cost per operation grows with the number of listeners.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class NetworkMonitorBenchmark
+{
+
+	private static final int TYPES = 128;
+
+	@Param( { "0", "16", "128" } )
+	public int listeners;
+
+	private final BaseActionSource src = new BaseActionSource();
+
+	private IMEMonitor<IAEItemStack> monitor;
+
+	private List<IAEItemStack> stacks;
+
+	@Setup
+	public void setup()
+	{
+		BenchmarkEnvironment.init();
+
+		final SyntheticGrid grid = new SyntheticGrid();
+		grid.getStorage().registerCellProvider( new SyntheticCellProvider( new SyntheticStorageCell( 65536, 63 ), 10, 0 ) );
+
+		this.monitor = grid.getStorage().getItemInventory();
+		for( int i = 0; i < this.listeners; i++ )
+		{
+			this.monitor.addListener( new Terminal(), grid );
+		}
+
+		this.stacks = BenchmarkEnvironment.stacks( TYPES, 16 );
+		for( final IAEItemStack stack : this.stacks )
+		{
+			this.monitor.injectItems( stack.copy(), Actionable.MODULATE, this.src );
+		}
+	}
+
+	@Benchmark
+	public void injectExtract( final Blackhole bh )
+	{
+		for( final IAEItemStack stack : this.stacks )
+		{
+			bh.consume( this.monitor.injectItems( stack.copy(), Actionable.MODULATE, this.src ) );
+			bh.consume( this.monitor.extractItems( stack.copy(), Actionable.MODULATE, this.src ) );
+		}
+	}
+
+	/**
+	 * Walks every change like a terminal building its update packet would.
+	 */
+	private static class Terminal implements IMEMonitorHandlerReceiver<IAEItemStack>
+	{
+
+		private long seen;
+
+		@Override
+		public boolean isValid( final Object verificationToken )
+		{
+			return true;
+		}
+
+		@Override
+		public void postChange( final IBaseMonitor<IAEItemStack> monitor, final Iterable<IAEItemStack> change, final BaseActionSource actionSource )
+		{
+			for( final IAEItemStack stack : change )
+			{
+				this.seen += stack.getStackSize();
+			}
+		}
+
+		@Override
+		public void onListUpdate()
+		{
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.benchmark;
+
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import appeng.api.AEApi;
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.BaseActionSource;
+import appeng.api.storage.IMEInventoryHandler;
+import appeng.api.storage.StorageChannel;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+import appeng.me.storage.NetworkInventoryHandler;
+
+
+/**
+ * Inject and extract through the network inventory of a grid made of several drives full of 64k cells, spread over
+ * a few priorities. Every operation is undone by its counterpart, so the network contents stay the same across
+ * invocations.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class NetworkStorageBenchmark
+{
+
+	private static final int CELLS_PER_DRIVE = 10;
+
+	private static final int PRIORITIES = 4;
+
+	@Param( { "1", "8", "32" } )
+	public int drives;
+
+	@Param( { "64", "512" } )
+	public int types;
+
+	private final BaseActionSource src = new BaseActionSource();
+
+	private NetworkInventoryHandler<IAEItemStack> network;
+
+	private List<IAEItemStack> stored;
+
+	private IItemList<IAEItemStack> list;
+
+	private IItemList<IAEItemStack> storedList;
+
+	@Setup
+	public void setup()
+	{
+		BenchmarkEnvironment.init();
+
+		final SyntheticGrid grid = new SyntheticGrid();
+		final SyntheticStorageCell cell = new SyntheticStorageCell( 65536, 63 );
+
+		this.network = new NetworkInventoryHandler<IAEItemStack>( StorageChannel.ITEMS, grid.getSecurity() );
+		for( int d = 0; d < this.drives; d++ )
+		{
+			final SyntheticCellProvider drive = new SyntheticCellProvider( cell, CELLS_PER_DRIVE, d % PRIORITIES );
+			for( final IMEInventoryHandler<IAEItemStack> h : drive.getCellArray( StorageChannel.ITEMS ) )
+			{
+				this.network.addNewStorage( h );
+			}
+		}
+
+		this.stored = BenchmarkEnvironment.stacks( this.types, 64 );
+		for( final IAEItemStack stack : this.stored )
+		{
+			this.network.injectItems( stack.copy(), Actionable.MODULATE, this.src );
+		}
+
+		this.list = AEApi.instance().storage().createItemList();
+
+		this.storedList = AEApi.instance().storage().createItemList();
+		for( final IAEItemStack stack : this.stored )
+		{
+			this.storedList.add( stack );
+		}
+	}
+
+	@Benchmark
+	public void injectExtract( final Blackhole bh )
+	{
+		for( final IAEItemStack stack : this.stored )
+		{
+			bh.consume( this.network.injectItems( stack.copy(), Actionable.MODULATE, this.src ) );
+			bh.consume( this.network.extractItems( stack.copy(), Actionable.MODULATE, this.src ) );
+		}
+	}
+
+	/**
+	 * Same work as {@link #injectExtract(Blackhole)}, as one batch per direction.
+	 */
+	@Benchmark
+	public void injectExtractAll( final Blackhole bh )
+	{
+		bh.consume( this.network.injectAll( this.storedList, Actionable.MODULATE, this.src ) );
+		bh.consume( this.network.extractAll( this.storedList, Actionable.MODULATE, this.src ) );
+	}
+
+	@Benchmark
+	public void simulateInject( final Blackhole bh )
+	{
+		for( final IAEItemStack stack : this.stored )
+		{
+			bh.consume( this.network.injectItems( stack.copy(), Actionable.SIMULATE, this.src ) );
+		}
+	}
+
+	@Benchmark
+	public void simulateExtract( final Blackhole bh )
+	{
+		for( final IAEItemStack stack : this.stored )
+		{
+			bh.consume( this.network.extractItems( stack.copy(), Actionable.SIMULATE, this.src ) );
+		}
+	}
+
+	@Benchmark
+	public IItemList<IAEItemStack> simulateInjectAll()
+	{
+		return this.network.injectAll( this.storedList, Actionable.SIMULATE, this.src );
+	}
+
+	@Benchmark
+	public IItemList<IAEItemStack> availableItems()
+	{
+		// reuses the list, so a -prof gc run shows what the pass over the network allocates
+		this.list.resetStatus();
+		return this.network.getAvailableItems( this.list );
+	}
+}
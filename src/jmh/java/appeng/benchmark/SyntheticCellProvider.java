@@ -0,0 +1,76 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.benchmark;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import appeng.api.storage.ICellProvider;
+import appeng.api.storage.IMEInventoryHandler;
+import appeng.api.storage.StorageChannel;
+
+
+/**
+ * Stands in for a drive: a fixed set of item cells at one priority.
+ */
+public class SyntheticCellProvider implements ICellProvider
+{
+
+	private final List<IMEInventoryHandler> cells = new ArrayList<IMEInventoryHandler>();
+	private final int priority;
+
+	public SyntheticCellProvider( final SyntheticStorageCell type, final int cellCount, final int priority )
+	{
+		this.priority = priority;
+
+		for( int i = 0; i < cellCount; i++ )
+		{
+			this.cells.add( type.createCell() );
+		}
+	}
+
+	/**
+	 * Puts another cell in the given bay, the way a player swaps cells in a drive.
+	 *
+	 * @return the cell that was taken out
+	 */
+	public IMEInventoryHandler swap( final int index, final IMEInventoryHandler cell )
+	{
+		return this.cells.set( index, cell );
+	}
+
+	@Override
+	public List<IMEInventoryHandler> getCellArray( final StorageChannel channel )
+	{
+		if( channel == StorageChannel.ITEMS )
+		{
+			return this.cells;
+		}
+
+		return Collections.emptyList();
+	}
+
+	@Override
+	public int getPriority()
+	{
+		return this.priority;
+	}
+}
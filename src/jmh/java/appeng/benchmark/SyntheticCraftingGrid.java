@@ -0,0 +1,137 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.benchmark;
+
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import net.minecraft.world.World;
+
+import appeng.api.networking.IGrid;
+import appeng.api.networking.IGridHost;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.IGridStorage;
+import appeng.api.networking.crafting.ICraftingCPU;
+import appeng.api.networking.crafting.ICraftingCallback;
+import appeng.api.networking.crafting.ICraftingGrid;
+import appeng.api.networking.crafting.ICraftingJob;
+import appeng.api.networking.crafting.ICraftingLink;
+import appeng.api.networking.crafting.ICraftingPatternDetails;
+import appeng.api.networking.crafting.ICraftingRequester;
+import appeng.api.networking.security.BaseActionSource;
+import appeng.api.storage.data.IAEItemStack;
+
+
+/**
+ * Serves a fixed set of patterns to the crafting calculation; there are no CPUs, emitters or requests.
+ */
+public class SyntheticCraftingGrid implements ICraftingGrid
+{
+
+	private final Map<IAEItemStack, ImmutableList<ICraftingPatternDetails>> patterns = new HashMap<IAEItemStack, ImmutableList<ICraftingPatternDetails>>();
+
+	public void addPattern( final ICraftingPatternDetails details )
+	{
+		for( final IAEItemStack out : details.getCondensedOutputs() )
+		{
+			final ImmutableList<ICraftingPatternDetails> known = this.patterns.get( out );
+			final ImmutableList.Builder<ICraftingPatternDetails> builder = ImmutableList.builder();
+
+			if( known != null )
+			{
+				builder.addAll( known );
+			}
+
+			this.patterns.put( out, builder.add( details ).build() );
+		}
+	}
+
+	@Override
+	public ImmutableCollection<ICraftingPatternDetails> getCraftingFor( final IAEItemStack whatToCraft, final ICraftingPatternDetails details, final int slot, final World world )
+	{
+		final ImmutableList<ICraftingPatternDetails> res = this.patterns.get( whatToCraft );
+		return res == null ? ImmutableList.<ICraftingPatternDetails>of() : res;
+	}
+
+	@Override
+	public Future<ICraftingJob> beginCraftingJob( final World world, final IGrid grid, final BaseActionSource actionSrc, final IAEItemStack craftWhat, final ICraftingCallback callback )
+	{
+		throw new UnsupportedOperationException( "Construct the CraftingJob directly" );
+	}
+
+	@Override
+	public ICraftingLink submitJob( final ICraftingJob job, final ICraftingRequester requestingMachine, final ICraftingCPU target, final boolean prioritizePower, final BaseActionSource src )
+	{
+		return null;
+	}
+
+	@Override
+	public ImmutableSet<ICraftingCPU> getCpus()
+	{
+		return ImmutableSet.of();
+	}
+
+	@Override
+	public boolean canEmitFor( final IAEItemStack what )
+	{
+		return false;
+	}
+
+	@Override
+	public boolean isRequesting( final IAEItemStack aeStackInSlot )
+	{
+		return false;
+	}
+
+	@Override
+	public void onUpdateTick()
+	{
+	}
+
+	@Override
+	public void removeNode( final IGridNode gridNode, final IGridHost machine )
+	{
+	}
+
+	@Override
+	public void addNode( final IGridNode gridNode, final IGridHost machine )
+	{
+	}
+
+	@Override
+	public void onSplit( final IGridStorage destinationStorage )
+	{
+	}
+
+	@Override
+	public void onJoin( final IGridStorage sourceStorage )
+	{
+	}
+
+	@Override
+	public void populateGridStorage( final IGridStorage destinationStorage )
+	{
+	}
+}
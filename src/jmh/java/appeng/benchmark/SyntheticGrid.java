@@ -0,0 +1,132 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.benchmark;
+
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import appeng.api.networking.IGrid;
+import appeng.api.networking.IGridCache;
+import appeng.api.networking.IGridHost;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.IMachineSet;
+import appeng.api.networking.crafting.ICraftingGrid;
+import appeng.api.networking.events.MENetworkCellArrayUpdate;
+import appeng.api.networking.events.MENetworkEvent;
+import appeng.api.networking.security.ISecurityGrid;
+import appeng.api.networking.storage.IStorageGrid;
+import appeng.api.util.IReadOnlyCollection;
+import appeng.me.cache.GridStorageCache;
+import appeng.me.cache.SecurityCache;
+import appeng.util.ReadOnlyCollection;
+
+
+/**
+ * A grid without nodes, holding only the caches the storage and crafting code look up.
+ *
+ * Events are not dispatched through the usual subscriber scan; the one the storage cache needs to rebuild its
+ * network inventory is forwarded directly.
+ */
+public class SyntheticGrid implements IGrid
+{
+
+	private final Map<Class<? extends IGridCache>, IGridCache> caches = new HashMap<Class<? extends IGridCache>, IGridCache>();
+	private final SecurityCache security;
+	private final GridStorageCache storage;
+
+	public SyntheticGrid()
+	{
+		this.security = new SecurityCache( this );
+		this.storage = new GridStorageCache( this );
+
+		this.caches.put( ISecurityGrid.class, this.security );
+		this.caches.put( IStorageGrid.class, this.storage );
+	}
+
+	public void setCraftingGrid( final ICraftingGrid crafting )
+	{
+		this.caches.put( ICraftingGrid.class, crafting );
+	}
+
+	public SecurityCache getSecurity()
+	{
+		return this.security;
+	}
+
+	public GridStorageCache getStorage()
+	{
+		return this.storage;
+	}
+
+	@Override
+	@SuppressWarnings( "unchecked" )
+	public <C extends IGridCache> C getCache( final Class<? extends IGridCache> iface )
+	{
+		return (C) this.caches.get( iface );
+	}
+
+	@Override
+	public MENetworkEvent postEvent( final MENetworkEvent ev )
+	{
+		if( ev instanceof MENetworkCellArrayUpdate )
+		{
+			this.storage.cellUpdate( (MENetworkCellArrayUpdate) ev );
+		}
+
+		return ev;
+	}
+
+	@Override
+	public MENetworkEvent postEventTo( final IGridNode node, final MENetworkEvent ev )
+	{
+		return ev;
+	}
+
+	@Override
+	public IReadOnlyCollection<Class<? extends IGridHost>> getMachinesClasses()
+	{
+		return new ReadOnlyCollection<Class<? extends IGridHost>>( Collections.<Class<? extends IGridHost>>emptySet() );
+	}
+
+	@Override
+	public IMachineSet getMachines( final Class<? extends IGridHost> gridHostClass )
+	{
+		throw new UnsupportedOperationException( "Synthetic grids have no machines" );
+	}
+
+	@Override
+	public IReadOnlyCollection<IGridNode> getNodes()
+	{
+		return new ReadOnlyCollection<IGridNode>( Collections.<IGridNode>emptySet() );
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return true;
+	}
+
+	@Override
+	public IGridNode getPivot()
+	{
+		return null;
+	}
+}
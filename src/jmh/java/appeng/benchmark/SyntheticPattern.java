@@ -0,0 +1,111 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.benchmark;
+
+
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
+
+import appeng.api.networking.crafting.ICraftingPatternDetails;
+import appeng.api.storage.data.IAEItemStack;
+
+
+/**
+ * A processing pattern with distinct inputs, so it never needs a world or a crafting table to be planned.
+ */
+public class SyntheticPattern implements ICraftingPatternDetails
+{
+
+	private final IAEItemStack[] inputs;
+	private final IAEItemStack[] outputs;
+	private int priority = 0;
+
+	public SyntheticPattern( final IAEItemStack output, final IAEItemStack... inputs )
+	{
+		this.outputs = new IAEItemStack[] { output };
+		this.inputs = inputs;
+	}
+
+	@Override
+	public ItemStack getPattern()
+	{
+		return null;
+	}
+
+	@Override
+	public boolean isValidItemForSlot( final int slotIndex, final ItemStack itemStack, final World world )
+	{
+		throw new IllegalStateException( "Only crafting recipes supported." );
+	}
+
+	@Override
+	public boolean isCraftable()
+	{
+		return false;
+	}
+
+	@Override
+	public IAEItemStack[] getInputs()
+	{
+		return this.inputs;
+	}
+
+	@Override
+	public IAEItemStack[] getCondensedInputs()
+	{
+		return this.inputs;
+	}
+
+	@Override
+	public IAEItemStack[] getCondensedOutputs()
+	{
+		return this.outputs;
+	}
+
+	@Override
+	public IAEItemStack[] getOutputs()
+	{
+		return this.outputs;
+	}
+
+	@Override
+	public boolean canSubstitute()
+	{
+		return false;
+	}
+
+	@Override
+	public ItemStack getOutput( final InventoryCrafting craftingInv, final World world )
+	{
+		throw new IllegalStateException( "Only crafting recipes supported." );
+	}
+
+	@Override
+	public int getPriority()
+	{
+		return this.priority;
+	}
+
+	@Override
+	public void setPriority( final int priority )
+	{
+		this.priority = priority;
+	}
+}
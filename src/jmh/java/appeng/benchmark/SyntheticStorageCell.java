@@ -0,0 +1,127 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.benchmark;
+
+
+import net.minecraft.inventory.IInventory;
+import net.minecraft.inventory.InventoryBasic;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import appeng.api.config.FuzzyMode;
+import appeng.api.implementations.items.IStorageCell;
+import appeng.api.storage.IMEInventoryHandler;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.me.storage.CellInventory;
+
+
+/**
+ * An unregistered, unpartitioned storage cell; its contents live in the NBT of the stacks handed out by
+ * {@link #createCell()}, exactly like a real cell in a drive.
+ */
+public class SyntheticStorageCell extends Item implements IStorageCell
+{
+
+	private final int bytes;
+	private final int types;
+
+	public SyntheticStorageCell( final int bytes, final int types )
+	{
+		this.bytes = bytes;
+		this.types = types;
+		this.setMaxStackSize( 1 );
+	}
+
+	@SuppressWarnings( "unchecked" )
+	public IMEInventoryHandler<IAEItemStack> createCell()
+	{
+		return CellInventory.getCell( new ItemStack( this ), null );
+	}
+
+	@Override
+	public int getBytes( final ItemStack cellItem )
+	{
+		return this.bytes;
+	}
+
+	@Override
+	public int getBytesPerType( final ItemStack cellItem )
+	{
+		return 8;
+	}
+
+	@Override
+	public int getTotalTypes( final ItemStack cellItem )
+	{
+		return this.types;
+	}
+
+	@Override
+	public boolean isBlackListed( final ItemStack cellItem, final IAEItemStack requestedAddition )
+	{
+		return false;
+	}
+
+	@Override
+	public boolean storableInStorageCell()
+	{
+		return false;
+	}
+
+	@Override
+	public boolean isStorageCell( final ItemStack i )
+	{
+		return true;
+	}
+
+	@Override
+	public double getIdleDrain()
+	{
+		return 0;
+	}
+
+	@Override
+	public boolean isEditable( final ItemStack is )
+	{
+		return false;
+	}
+
+	@Override
+	public IInventory getUpgradesInventory( final ItemStack is )
+	{
+		return new InventoryBasic( "upgrades", false, 0 );
+	}
+
+	@Override
+	public IInventory getConfigInventory( final ItemStack is )
+	{
+		return new InventoryBasic( "config", false, 0 );
+	}
+
+	@Override
+	public FuzzyMode getFuzzyMode( final ItemStack is )
+	{
+		return FuzzyMode.IGNORE_ALL;
+	}
+
+	@Override
+	public void setFuzzyMode( final ItemStack is, final FuzzyMode fzMode )
+	{
+	}
+}
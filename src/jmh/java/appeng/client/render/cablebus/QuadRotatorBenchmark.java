@@ -0,0 +1,177 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package appeng.client.render.cablebus;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.block.model.IBakedModel;
+import net.minecraft.client.renderer.block.model.ItemCameraTransforms;
+import net.minecraft.client.renderer.block.model.ItemOverrideList;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.util.EnumFacing;
+
+
+/**
+ * Rotates a synthetic part model into all six attachment facings, as done for every part when a cable bus is baked.
+ * Runs without textures or an OpenGL context, sprites are left empty.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class QuadRotatorBenchmark
+{
+
+	// Roughly the size of a bus or panel model
+	private static final int QUAD_COUNT = 96;
+
+	private List<BakedQuad> quads;
+
+	private IBakedModel model;
+
+	private QuadRotator cachedRotator;
+
+	@Setup
+	public void setup()
+	{
+		this.quads = new ArrayList<>( QUAD_COUNT );
+		for( int i = 0; i < QUAD_COUNT; i++ )
+		{
+			this.quads.add( createQuad( EnumFacing.values()[i % 6], i / (float) QUAD_COUNT ) );
+		}
+		this.model = new StaticModel( this.quads );
+		this.cachedRotator = new QuadRotator();
+	}
+
+	@Benchmark
+	public void rotateQuads( Blackhole bh )
+	{
+		QuadRotator rotator = new QuadRotator();
+		for( EnumFacing facing : EnumFacing.values() )
+		{
+			bh.consume( rotator.rotateQuads( this.quads, facing, EnumFacing.UP ) );
+		}
+	}
+
+	@Benchmark
+	public void rotateModelCached( Blackhole bh )
+	{
+		for( EnumFacing facing : EnumFacing.values() )
+		{
+			bh.consume( this.cachedRotator.rotateModel( this.model, null, facing, EnumFacing.UP, 0 ) );
+		}
+	}
+
+	private static BakedQuad createQuad( EnumFacing face, float depth )
+	{
+		VertexFormat format = DefaultVertexFormats.ITEM;
+		int stride = format.getNextOffset() / 4;
+		int normalIdx = format.getNormalOffset();
+		int[] data = new int[4 * stride];
+
+		for( int v = 0; v < 4; v++ )
+		{
+			int offset = v * stride;
+			data[offset] = Float.floatToIntBits( ( v & 1 ) * 0.25f + 0.375f );
+			data[offset + 1] = Float.floatToIntBits( ( v >> 1 ) * 0.25f + 0.375f );
+			data[offset + 2] = Float.floatToIntBits( depth );
+
+			int normal = offset * 4 + normalIdx;
+			data[normal / 4] |= ( face.getFrontOffsetX() * 127 & 0xFF ) << ( normal % 4 * 8 );
+			data[( normal + 1 ) / 4] |= ( face.getFrontOffsetY() * 127 & 0xFF ) << ( ( normal + 1 ) % 4 * 8 );
+			data[( normal + 2 ) / 4] |= ( face.getFrontOffsetZ() * 127 & 0xFF ) << ( ( normal + 2 ) % 4 * 8 );
+		}
+
+		return new BakedQuad( data, -1, face, null, true, format );
+	}
+
+	private static class StaticModel implements IBakedModel
+	{
+
+		private final List<BakedQuad> quads;
+
+		StaticModel( List<BakedQuad> quads )
+		{
+			this.quads = quads;
+		}
+
+		@Override
+		public List<BakedQuad> getQuads( IBlockState state, EnumFacing side, long rand )
+		{
+			return side == null ? this.quads : Collections.emptyList();
+		}
+
+		@Override
+		public boolean isAmbientOcclusion()
+		{
+			return false;
+		}
+
+		@Override
+		public boolean isGui3d()
+		{
+			return false;
+		}
+
+		@Override
+		public boolean isBuiltInRenderer()
+		{
+			return false;
+		}
+
+		@Override
+		public TextureAtlasSprite getParticleTexture()
+		{
+			return null;
+		}
+
+		@Override
+		public ItemCameraTransforms getItemCameraTransforms()
+		{
+			return ItemCameraTransforms.DEFAULT;
+		}
+
+		@Override
+		public ItemOverrideList getOverrides()
+		{
+			return ItemOverrideList.NONE;
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package appeng.core.sync.packets;
+
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+import appeng.api.storage.data.IAEItemStack;
+import appeng.util.item.AEItemStack;
+
+
+/**
+ * Encodes and decodes a terminal listing of 50k stacks, roughly what a large storage network sends when a terminal is
+ * opened. Every tenth stack carries a small tag.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class ItemListCodecBenchmark
+{
+
+	private static final int STACKS = 50000;
+
+	private static final int BYTE_LIMIT = 16 * 1024 * 1024;
+
+	private final List<IAEItemStack> stacks = new ArrayList<IAEItemStack>( STACKS );
+
+	private ByteBuf encoded;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		Bootstrap.register();
+
+		final List<Item> items = new ArrayList<Item>();
+		for( final Item item : Item.REGISTRY )
+		{
+			items.add( item );
+		}
+
+		for( int i = 0; i < STACKS; i++ )
+		{
+			final ItemStack stack = new ItemStack( items.get( i % items.size() ), 1, i / items.size() );
+			if( i % 10 == 0 )
+			{
+				final NBTTagCompound tag = new NBTTagCompound();
+				tag.setInteger( "benchmark", i );
+				stack.setTagCompound( tag );
+			}
+
+			final IAEItemStack ais = AEItemStack.create( stack );
+			ais.setStackSize( i * 31L );
+			this.stacks.add( ais );
+		}
+
+		this.encoded = this.encode();
+	}
+
+	@Benchmark
+	public ByteBuf encode() throws IOException
+	{
+		final ByteBuf out = Unpooled.buffer( 2 * 1024 );
+		final ItemListCodec.Encoder encoder = ItemListCodec.encoder( out );
+
+		for( final IAEItemStack stack : this.stacks )
+		{
+			encoder.append( stack, BYTE_LIMIT );
+		}
+
+		encoder.finish();
+		return out;
+	}
+
+	@Benchmark
+	public List<IAEItemStack> decode() throws IOException
+	{
+		final List<IAEItemStack> out = new ArrayList<IAEItemStack>( STACKS );
+		ItemListCodec.decode( this.encoded.duplicate(), out, BYTE_LIMIT );
+		return out;
+	}
+}
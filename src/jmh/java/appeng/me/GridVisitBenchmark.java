@@ -0,0 +1,264 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me;
+
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.EnumFacing;
+
+import appeng.api.networking.GridFlags;
+import appeng.api.networking.GridNotification;
+import appeng.api.networking.IGrid;
+import appeng.api.networking.IGridBlock;
+import appeng.api.networking.IGridConnection;
+import appeng.api.networking.IGridHost;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.IGridVisitor;
+import appeng.api.util.AECableType;
+import appeng.api.util.AEColor;
+import appeng.api.util.AEPartLocation;
+import appeng.api.util.DimensionalCoord;
+
+
+/**
+ * Breadth first traversal of a synthetic network: a binary tree of nodes, with every run of eight siblings also
+ * chained together so the visitor has to skip already seen nodes like it does on real cable loops.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class GridVisitBenchmark
+{
+
+	@Param( { "64", "1024", "8192" } )
+	public int nodes;
+
+	private GridNode root;
+
+	@Setup
+	public void setup()
+	{
+		final List<GridNode> all = new ArrayList<GridNode>( this.nodes );
+		for( int i = 0; i < this.nodes; i++ )
+		{
+			all.add( new GridNode( new Block() ) );
+		}
+
+		for( int i = 1; i < this.nodes; i++ )
+		{
+			connect( all.get( ( i - 1 ) / 2 ), all.get( i ) );
+
+			if( i % 8 != 0 )
+			{
+				connect( all.get( i - 1 ), all.get( i ) );
+			}
+		}
+
+		this.root = all.get( 0 );
+	}
+
+	@Benchmark
+	public int visit()
+	{
+		final Counter counter = new Counter();
+		this.root.beginVisit( counter );
+		return counter.visited;
+	}
+
+	private static void connect( final GridNode a, final GridNode b )
+	{
+		final Connection c = new Connection( a, b );
+		a.addConnection( c );
+		b.addConnection( c );
+	}
+
+	private static class Counter implements IGridVisitor
+	{
+
+		private int visited;
+
+		@Override
+		public boolean visitNode( final IGridNode n )
+		{
+			this.visited++;
+			return true;
+		}
+	}
+
+	/**
+	 * A directionless link, like the ones between a cable bus and its parts.
+	 */
+	private static class Connection implements IGridConnection
+	{
+
+		private final GridNode a;
+		private final GridNode b;
+
+		Connection( final GridNode a, final GridNode b )
+		{
+			this.a = a;
+			this.b = b;
+		}
+
+		@Override
+		public IGridNode getOtherSide( final IGridNode gridNode )
+		{
+			return gridNode == this.a ? this.b : this.a;
+		}
+
+		@Override
+		public AEPartLocation getDirection( final IGridNode gridNode )
+		{
+			return AEPartLocation.INTERNAL;
+		}
+
+		@Override
+		public void destroy()
+		{
+		}
+
+		@Override
+		public IGridNode a()
+		{
+			return this.a;
+		}
+
+		@Override
+		public IGridNode b()
+		{
+			return this.b;
+		}
+
+		@Override
+		public boolean hasDirection()
+		{
+			return false;
+		}
+
+		@Override
+		public int getUsedChannels()
+		{
+			return 0;
+		}
+	}
+
+	private static class Block implements IGridBlock, IGridHost
+	{
+
+		@Override
+		public double getIdlePowerUsage()
+		{
+			return 0;
+		}
+
+		@Override
+		public EnumSet<GridFlags> getFlags()
+		{
+			return EnumSet.noneOf( GridFlags.class );
+		}
+
+		@Override
+		public boolean isWorldAccessible()
+		{
+			return false;
+		}
+
+		@Override
+		public DimensionalCoord getLocation()
+		{
+			return null;
+		}
+
+		@Override
+		public AEColor getGridColor()
+		{
+			return AEColor.TRANSPARENT;
+		}
+
+		@Override
+		public void onGridNotification( final GridNotification notification )
+		{
+		}
+
+		@Override
+		public void setNetworkStatus( final IGrid grid, final int channelsInUse )
+		{
+		}
+
+		@Override
+		public EnumSet<EnumFacing> getConnectableSides()
+		{
+			return EnumSet.noneOf( EnumFacing.class );
+		}
+
+		@Override
+		public IGridHost getMachine()
+		{
+			return this;
+		}
+
+		@Override
+		public void gridChanged()
+		{
+		}
+
+		@Override
+		public ItemStack getMachineRepresentation()
+		{
+			return null;
+		}
+
+		@Override
+		public IGridNode getGridNode( final AEPartLocation dir )
+		{
+			return null;
+		}
+
+		@Override
+		public AECableType getCableConnectionType( final AEPartLocation dir )
+		{
+			return AECableType.GLASS;
+		}
+
+		@Override
+		public void securityBreak()
+		{
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util.item;
+
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import appeng.api.config.FuzzyMode;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+import appeng.benchmark.BenchmarkEnvironment;
+
+
+/**
+ * The item list operations behind every storage listing: building a list, merging into it, and precise / fuzzy
+ * lookups and iteration over a populated one.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class ItemListBenchmark
+{
+
+	@Param( { "256", "4096" } )
+	public int size;
+
+	private List<IAEItemStack> stacks;
+
+	private IItemList<IAEItemStack> populated;
+
+	@Setup
+	public void setup()
+	{
+		BenchmarkEnvironment.init();
+
+		this.stacks = BenchmarkEnvironment.stacks( this.size, 32 );
+		this.populated = new ItemList();
+		for( final IAEItemStack stack : this.stacks )
+		{
+			this.populated.add( stack );
+		}
+	}
+
+	@Benchmark
+	public IItemList<IAEItemStack> build()
+	{
+		final IItemList<IAEItemStack> list = new ItemList();
+		for( final IAEItemStack stack : this.stacks )
+		{
+			list.add( stack );
+		}
+		return list;
+	}
+
+	@Benchmark
+	public IItemList<IAEItemStack> merge()
+	{
+		final IItemList<IAEItemStack> list = new ItemList();
+		for( int pass = 0; pass < 4; pass++ )
+		{
+			for( final IAEItemStack stack : this.stacks )
+			{
+				list.add( stack );
+			}
+		}
+		return list;
+	}
+
+	@Benchmark
+	public void findPrecise( final Blackhole bh )
+	{
+		for( final IAEItemStack stack : this.stacks )
+		{
+			bh.consume( this.populated.findPrecise( stack ) );
+		}
+	}
+
+	@Benchmark
+	public void findFuzzy( final Blackhole bh )
+	{
+		for( final IAEItemStack stack : this.stacks )
+		{
+			bh.consume( this.populated.findFuzzy( stack, FuzzyMode.IGNORE_ALL ) );
+		}
+	}
+
+	@Benchmark
+	public void iterate( final Blackhole bh )
+	{
+		for( final IAEItemStack stack : this.populated )
+		{
+			bh.consume( stack );
+		}
+	}
+}
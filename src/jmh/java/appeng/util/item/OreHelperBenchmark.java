@@ -0,0 +1,140 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package appeng.util.item;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.oredict.OreDictionary;
+
+
+/**
+ * Builds the ore index from a synthetic dictionary the size of a large modpack and resolves ore references against
+ * it. The full dictionary scan previously done for every first-seen item is kept as a baseline.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class OreHelperBenchmark
+{
+
+	private static final int ORE_NAMES = 5000;
+
+	private static final int ENTRIES_PER_NAME = 4;
+
+	private final List<ItemStack> lookups = new ArrayList<ItemStack>();
+
+	private OreHelper helper;
+
+	@Setup
+	public void setup()
+	{
+		Bootstrap.register();
+
+		final List<Item> items = new ArrayList<Item>();
+		for( final Item item : Item.REGISTRY )
+		{
+			items.add( item );
+		}
+
+		for( int i = 0; i < ORE_NAMES; i++ )
+		{
+			for( int j = 0; j < ENTRIES_PER_NAME; j++ )
+			{
+				final Item item = items.get( ( i * ENTRIES_PER_NAME + j ) % items.size() );
+				final int damage = j == 0 ? OreDictionary.WILDCARD_VALUE : i % 16;
+				OreDictionary.registerOre( "benchmarkOre" + i, new ItemStack( item, 1, damage ) );
+			}
+		}
+
+		for( int i = 0; i < 256; i++ )
+		{
+			this.lookups.add( new ItemStack( items.get( i * 7 % items.size() ), 1, i % 16 ) );
+		}
+
+		this.helper = this.buildIndex();
+	}
+
+	@Benchmark
+	public OreHelper buildIndex()
+	{
+		final OreHelper index = new OreHelper();
+
+		for( final String name : OreDictionary.getOreNames() )
+		{
+			for( final ItemStack item : OreDictionary.getOres( name ) )
+			{
+				index.oreRegistered( name, item );
+			}
+		}
+
+		return index;
+	}
+
+	@Benchmark
+	public void lookup( final Blackhole bh )
+	{
+		for( final ItemStack stack : this.lookups )
+		{
+			bh.consume( this.helper.isOre( stack ) );
+		}
+	}
+
+	@Benchmark
+	public void scanDictionary( final Blackhole bh )
+	{
+		for( final ItemStack stack : this.lookups )
+		{
+			final List<String> matches = new ArrayList<String>();
+
+			for( final String ore : OreDictionary.getOreNames() )
+			{
+				for( final ItemStack oreItem : OreDictionary.getOres( ore ) )
+				{
+					if( OreDictionary.itemMatches( oreItem, stack, false ) )
+					{
+						matches.add( ore );
+						break;
+					}
+				}
+			}
+
+			bh.consume( matches );
+		}
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package appeng.util.prioitylist;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import appeng.api.config.FuzzyMode;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+import appeng.util.item.AEItemStack;
+import appeng.util.item.ItemList;
+
+
+/**
+ * Per-inject filter cost of a fully configured storage bus (63 slots), for precise and fuzzy partitions. The list
+ * lookups the partitions used to do are measured as a baseline.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class PartitionListBenchmark
+{
+
+	private static final int CONFIG_SLOTS = 63;
+
+	private static final int INPUTS = 256;
+
+	private final IItemList<IAEItemStack> config = new ItemList();
+
+	private final List<IAEItemStack> inputs = new ArrayList<IAEItemStack>( INPUTS );
+
+	private IPartitionList<IAEItemStack> precise;
+
+	private IPartitionList<IAEItemStack> fuzzy;
+
+	@Setup
+	public void setup()
+	{
+		Bootstrap.register();
+
+		final List<Item> items = new ArrayList<Item>();
+		for( final Item item : Item.REGISTRY )
+		{
+			items.add( item );
+		}
+
+		for( int i = 0; i < CONFIG_SLOTS; i++ )
+		{
+			this.config.add( AEItemStack.create( new ItemStack( items.get( i * 5 % items.size() ), 1, i % 4 ) ) );
+		}
+
+		// roughly half of the inputs match a configured item
+		for( int i = 0; i < INPUTS; i++ )
+		{
+			final Item item = items.get( ( i % 2 == 0 ? i * 5 : i * 3 + 1 ) % items.size() );
+			this.inputs.add( AEItemStack.create( new ItemStack( item, 1, i % 4 ) ) );
+		}
+
+		this.precise = new PrecisePriorityList<IAEItemStack>( this.config );
+		this.fuzzy = new FuzzyPriorityList<IAEItemStack>( this.config, FuzzyMode.PERCENT_50 );
+	}
+
+	@Benchmark
+	public void precise( final Blackhole bh )
+	{
+		for( final IAEItemStack input : this.inputs )
+		{
+			bh.consume( this.precise.isListed( input ) );
+		}
+	}
+
+	@Benchmark
+	public void fuzzy( final Blackhole bh )
+	{
+		for( final IAEItemStack input : this.inputs )
+		{
+			bh.consume( this.fuzzy.isListed( input ) );
+		}
+	}
+
+	@Benchmark
+	public void listFindPrecise( final Blackhole bh )
+	{
+		for( final IAEItemStack input : this.inputs )
+		{
+			bh.consume( this.config.findPrecise( input ) != null );
+		}
+	}
+
+	@Benchmark
+	public void listFindFuzzy( final Blackhole bh )
+	{
+		for( final IAEItemStack input : this.inputs )
+		{
+			bh.consume( !this.config.findFuzzy( input, FuzzyMode.PERCENT_50 ).isEmpty() );
+		}
+	}
+}
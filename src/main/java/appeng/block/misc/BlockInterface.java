@@ -21,6 +21,7 @@ package appeng.block.misc;
 
 import javax.annotation.Nullable;
 
+import net.minecraft.block.Block;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.properties.IProperty;
 import net.minecraft.block.properties.PropertyBool;
@@ -94,6 +95,16 @@ public class BlockInterface extends AEBaseTileBlock
 		return false;
 	}
 
+	@Override
+	public void neighborChanged( final IBlockState state, final World w, final BlockPos pos, final Block neighborBlock )
+	{
+		final TileInterface tg = this.getTileEntity( w, pos );
+		if( tg != null )
+		{
+			tg.onNeighborChanged();
+		}
+	}
+
 	@Override
 	protected boolean hasCustomRotation()
 	{
@@ -47,6 +47,14 @@ import appeng.block.networking.BlockCableBus;
 public class CableBusBakedModel implements IBakedModel
 {
 
+	// Number of distinct render state and layer combinations to keep baked quads for
+	private static final int CACHE_SIZE = 2048;
+
+	private final CableBusQuadCache quadCache = new CableBusQuadCache( CACHE_SIZE );
+
+	// Rotated part model quads, dropped together with this model on resource reload
+	private final QuadRotator quadRotator = new QuadRotator();
+
 	private final CableBuilder cableBuilder;
 
 	private final FacadeBuilder facadeBuilder;
@@ -75,6 +83,12 @@ public class CableBusBakedModel implements IBakedModel
 
 		BlockRenderLayer layer = MinecraftForgeClient.getRenderLayer();
 
+		// Equal render states yield equal quads, apart from randomized facade models which will be shared as well
+		return quadCache.get( renderState, layer, () -> buildQuads( state, renderState, layer, rand ) );
+	}
+
+	private List<BakedQuad> buildQuads( IBlockState state, CableBusRenderState renderState, BlockRenderLayer layer, long rand )
+	{
 		List<BakedQuad> quads = new ArrayList<>();
 
 		// The core parts of the cable will only be rendered in the CUTOUT layer. TRANSLUCENT is used only for translucent facades further down below.
@@ -101,13 +115,8 @@ public class CableBusBakedModel implements IBakedModel
 						throw new IllegalStateException( "Trying to use an unregistered part model: " + model );
 					}
 
-					List<BakedQuad> partQuads = bakedModel.getQuads( state, null, rand );
-
-					// Rotate quads accordingly
-					QuadRotator rotator = new QuadRotator();
-					partQuads = rotator.rotateQuads( partQuads, facing, EnumFacing.UP );
-
-					quads.addAll( partQuads );
+					// Rotate quads accordingly, part models are static so the rotated quads are reused
+					quads.addAll( quadRotator.rotateModel( bakedModel, state, facing, EnumFacing.UP, rand ) );
 				}
 			}
 		}
@@ -124,6 +133,22 @@ public class CableBusBakedModel implements IBakedModel
 		return quads;
 	}
 
+	/**
+	 * @return the number of getQuads calls answered from the cache since this model was baked.
+	 */
+	public long getCacheHits()
+	{
+		return quadCache.getHits();
+	}
+
+	/**
+	 * @return the number of getQuads calls which had to bake their quads since this model was baked.
+	 */
+	public long getCacheMisses()
+	{
+		return quadCache.getMisses();
+	}
+
 	// Determines whether a cable is connected to exactly two sides that are opposite each other
 	private static boolean isStraightLine( AECableType cableType, EnumMap<EnumFacing, AECableType> sides )
 	{
@@ -0,0 +1,150 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.client.render.cablebus;
+
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.util.BlockRenderLayer;
+
+
+/**
+ * A bounded cache of the quads baked for a cable bus, keyed by its render state and the layer being rendered.
+ *
+ * Chunks are rebuilt on several threads at once, so all access is synchronized. The least recently used entry is
+ * dropped once the cache is full. Since a new cache is created whenever the model is baked again, entries never have
+ * to be invalidated.
+ */
+class CableBusQuadCache
+{
+
+	private final Map<Key, List<BakedQuad>> cache;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	CableBusQuadCache( int maxSize )
+	{
+		this.cache = new LinkedHashMap<Key, List<BakedQuad>>( 16, 0.75f, true )
+		{
+			@Override
+			protected boolean removeEldestEntry( Map.Entry<Key, List<BakedQuad>> eldest )
+			{
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached quads for the given state and layer, building them if they are not cached yet.
+	 */
+	List<BakedQuad> get( CableBusRenderState renderState, BlockRenderLayer layer, Supplier<List<BakedQuad>> builder )
+	{
+		Key key = new Key( renderState, layer );
+
+		synchronized( cache )
+		{
+			List<BakedQuad> quads = cache.get( key );
+			if( quads != null )
+			{
+				hits.incrementAndGet();
+				return quads;
+			}
+		}
+
+		misses.incrementAndGet();
+
+		// Build outside of the lock, worst case two threads bake the same state at once
+		List<BakedQuad> quads = ImmutableList.copyOf( builder.get() );
+
+		synchronized( cache )
+		{
+			cache.put( key, quads );
+		}
+
+		return quads;
+	}
+
+	long getHits()
+	{
+		return hits.get();
+	}
+
+	long getMisses()
+	{
+		return misses.get();
+	}
+
+	int size()
+	{
+		synchronized( cache )
+		{
+			return cache.size();
+		}
+	}
+
+	private static class Key
+	{
+
+		private final CableBusRenderState renderState;
+
+		private final BlockRenderLayer layer;
+
+		private final int hash;
+
+		Key( CableBusRenderState renderState, BlockRenderLayer layer )
+		{
+			this.renderState = renderState;
+			this.layer = layer;
+			this.hash = Objects.hash( renderState, layer );
+		}
+
+		@Override
+		public boolean equals( Object o )
+		{
+			if( this == o )
+			{
+				return true;
+			}
+			if( o == null || getClass() != o.getClass() )
+			{
+				return false;
+			}
+
+			Key key = (Key) o;
+			return layer == key.layer && renderState.equals( key.renderState );
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+	}
+
+}
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
 
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ResourceLocation;
@@ -35,6 +36,9 @@ import appeng.api.util.AEColor;
 /**
  * This class captures the entire rendering state needed for a cable bus and transports it to the rendering thread
  * for processing.
+ *
+ * Render states are compared by value, as they are used as key for the baked quads of a cable bus. They must not be
+ * modified after being handed to the renderer.
  */
 public class CableBusRenderState
 {
@@ -152,4 +156,35 @@ public class CableBusRenderState
 		return boundingBoxes;
 	}
 
+	@Override
+	public boolean equals( Object o )
+	{
+		if( this == o )
+		{
+			return true;
+		}
+		if( o == null || getClass() != o.getClass() )
+		{
+			return false;
+		}
+
+		CableBusRenderState that = (CableBusRenderState) o;
+		return cableType == that.cableType
+				&& coreType == that.coreType
+				&& cableColor == that.cableColor
+				&& connectionTypes.equals( that.connectionTypes )
+				&& cableBusAdjacent.equals( that.cableBusAdjacent )
+				&& channelsOnSide.equals( that.channelsOnSide )
+				&& attachments.equals( that.attachments )
+				&& attachmentConnections.equals( that.attachmentConnections )
+				&& facades.equals( that.facades )
+				&& boundingBoxes.equals( that.boundingBoxes );
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash( cableType, coreType, cableColor, connectionTypes, cableBusAdjacent, channelsOnSide, attachments, attachmentConnections, facades, boundingBoxes );
+	}
+
 }
@@ -2,6 +2,7 @@ package appeng.client.render.cablebus;
 
 
 import java.util.EnumSet;
+import java.util.Objects;
 
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.EnumFacing;
@@ -35,4 +36,26 @@ public class FacadeRenderState
 		return openFaces;
 	}
 
+	@Override
+	public boolean equals( Object o )
+	{
+		if( this == o )
+		{
+			return true;
+		}
+		if( o == null || getClass() != o.getClass() )
+		{
+			return false;
+		}
+
+		FacadeRenderState that = (FacadeRenderState) o;
+		return sourceBlock == that.sourceBlock && openFaces.equals( that.openFaces );
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash( sourceBlock, openFaces );
+	}
+
 }
@@ -21,12 +21,15 @@ package appeng.client.render.cablebus;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.vecmath.Matrix4f;
-import javax.vecmath.Point3f;
-import javax.vecmath.Vector3f;
 
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.block.model.IBakedModel;
 import net.minecraft.client.renderer.vertex.VertexFormat;
 import net.minecraft.client.renderer.vertex.VertexFormatElement;
 import net.minecraft.util.EnumFacing;
@@ -37,11 +40,44 @@ import appeng.core.AELog;
 
 /**
  * Assuming a default-orientation of forward=NORTH and up=UP, this class rotates a given list of quads to the desired
- * facing
+ * facing.
+ *
+ * All orientations are multiples of 90 degrees, so each of them is precomputed once as a mapping of the source axes
+ * and signs. Rotated part models are cached per instance, which lives as long as the baked cable bus model.
  */
 public class QuadRotator
 {
 
+	private static final Rotation[] ROTATIONS = new Rotation[FacingToRotation.values().length];
+
+	static
+	{
+		for( FacingToRotation rotation : FacingToRotation.values() )
+		{
+			ROTATIONS[rotation.ordinal()] = new Rotation( rotation );
+		}
+	}
+
+	private final Map<ModelKey, List<BakedQuad>> rotatedModels = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the quads of a static part model rotated to the desired facing, rotating them only the first time a
+	 * combination of model and facing is requested.
+	 */
+	public List<BakedQuad> rotateModel( IBakedModel model, IBlockState state, EnumFacing newForward, EnumFacing newUp, long rand )
+	{
+		ModelKey key = new ModelKey( model, newForward, newUp );
+
+		List<BakedQuad> quads = rotatedModels.get( key );
+		if( quads == null )
+		{
+			quads = rotateQuads( model.getQuads( state, null, rand ), newForward, newUp );
+			rotatedModels.put( key, quads );
+		}
+
+		return quads;
+	}
+
 	public List<BakedQuad> rotateQuads( List<BakedQuad> quads, EnumFacing newForward, EnumFacing newUp )
 	{
 		if( newForward == EnumFacing.NORTH && newUp == EnumFacing.UP )
@@ -49,17 +85,18 @@ public class QuadRotator
 			return quads; // This is the default orientation
 		}
 
+		Rotation rotation = getRotation( newForward, newUp );
 		List<BakedQuad> result = new ArrayList<>( quads.size() );
 
 		for( BakedQuad quad : quads )
 		{
-			result.add( rotateQuad( quad, newForward, newUp ) );
+			result.add( rotation.rotateQuad( quad ) );
 		}
 
 		return result;
 	}
 
-	private BakedQuad rotateQuad( BakedQuad quad, EnumFacing forward, EnumFacing up )
+	private static Rotation getRotation( EnumFacing forward, EnumFacing up )
 	{
 		// Sanitize forward/up
 		if( forward.getAxis() == up.getAxis() )
@@ -74,113 +111,199 @@ public class QuadRotator
 			}
 		}
 
-		FacingToRotation rotation = FacingToRotation.get( forward, up );
-		Matrix4f mat = rotation.getMat();
+		return ROTATIONS[FacingToRotation.get( forward, up ).ordinal()];
+	}
 
-		// Clone the vertex data used by the quad
-		int[] newData = quad.getVertexData().clone();
+	private static int getByte( int[] data, int offset )
+	{
+		int idx = offset / 4;
+		int subOffset = offset % 4;
+		return (byte) ( data[idx] >> ( subOffset * 8 ) );
+	}
 
-		// Figure out where the position is in the array
-		VertexFormat format = quad.getFormat();
-		int posIdx = findPositionOffset( format ) / 4;
-		int stride = format.getNextOffset() / 4;
-		int normalIdx = format.getNormalOffset();
-		VertexFormatElement.EnumType normalType = null;
-		// Figure out the type of the normals
-		if( normalIdx != -1 )
+	private static void setByte( int[] data, int offset, int value )
+	{
+		int idx = offset / 4;
+		int subOffset = offset % 4;
+		int mask = 0xFF << ( subOffset * 8 );
+		data[idx] = data[idx] & ( ~mask ) | ( ( value & 0xFF ) << ( subOffset * 8 ) );
+	}
+
+	private static int findPositionOffset( VertexFormat format )
+	{
+		List<VertexFormatElement> elements = format.getElements();
+		for( int i = 0; i < elements.size(); i++ )
 		{
-			for( int i = 0; i < format.getElements().size(); i++ )
+			VertexFormatElement e = elements.get( i );
+			if( e.isPositionElement() )
 			{
-				VertexFormatElement element = format.getElement( i );
-				if( element.getUsage() == VertexFormatElement.EnumUsage.NORMAL )
+				if( e.getType() != VertexFormatElement.EnumType.FLOAT )
 				{
-					normalType = element.getType();
+					throw new IllegalArgumentException( "Only floating point positions are supported" );
 				}
+				return i;
 			}
 		}
 
-		for( int i = 0; i < 4; i++ )
+		throw new IllegalArgumentException( "Vertex format " + format + " has no position attribute!" );
+	}
+
+	private static VertexFormatElement.EnumType findNormalType( VertexFormat format )
+	{
+		VertexFormatElement.EnumType normalType = null;
+
+		for( int i = 0; i < format.getElements().size(); i++ )
 		{
-			Point3f pos = new Point3f( Float.intBitsToFloat( newData[i * stride + posIdx] ) - 0.5f, Float.intBitsToFloat( newData[i * stride + posIdx + 1] ) - 0.5f, Float.intBitsToFloat( newData[i * stride + posIdx + 2] ) - 0.5f );
+			VertexFormatElement element = format.getElement( i );
+			if( element.getUsage() == VertexFormatElement.EnumUsage.NORMAL )
+			{
+				normalType = element.getType();
+			}
+		}
+
+		return normalType;
+	}
+
+	/**
+	 * A rotation by multiples of 90 degrees, expressed as the source axis and sign for every target axis.
+	 */
+	private static class Rotation
+	{
+
+		// For every target axis, the source axis it is taken from and whether it is negated
+		private final int[] axis = new int[3];
 
-			// Rotate stuff around
-			mat.transform( pos );
+		private final float[] sign = new float[3];
 
-			// Write back
-			newData[i * stride + posIdx] = Float.floatToIntBits( pos.getX() + 0.5f );
-			newData[i * stride + posIdx + 1] = Float.floatToIntBits( pos.getY() + 0.5f );
-			newData[i * stride + posIdx + 2] = Float.floatToIntBits( pos.getZ() + 0.5f );
+		private final EnumFacing[] faces = new EnumFacing[EnumFacing.values().length];
 
-			// Transform the normal if one is present
-			if( normalIdx != -1 )
+		Rotation( FacingToRotation rotation )
+		{
+			Matrix4f mat = rotation.getMat();
+			for( int row = 0; row < 3; row++ )
 			{
-				if( normalType == VertexFormatElement.EnumType.FLOAT )
+				for( int column = 0; column < 3; column++ )
 				{
-					Vector3f normal = new Vector3f( Float.intBitsToFloat( newData[i * stride + normalIdx] ), Float.intBitsToFloat( newData[i * stride + normalIdx + 1] ), Float.intBitsToFloat( newData[i * stride + normalIdx + 2] ) );
+					float value = mat.getElement( row, column );
+					if( Math.abs( value ) > 0.5f )
+					{
+						axis[row] = column;
+						sign[row] = Math.signum( value );
+					}
+				}
+			}
 
-					// Rotate stuff around
-					mat.transform( normal );
+			for( EnumFacing facing : EnumFacing.values() )
+			{
+				faces[facing.ordinal()] = rotation.rotate( facing );
+			}
+		}
 
-					// Write back
-					newData[i * stride + normalIdx] = Float.floatToIntBits( normal.getX() );
-					newData[i * stride + normalIdx + 1] = Float.floatToIntBits( normal.getY() );
-					newData[i * stride + normalIdx + 2] = Float.floatToIntBits( normal.getZ() );
-				}
-				else if( normalType == VertexFormatElement.EnumType.BYTE )
-				{
-					int idx = i * stride * 4 + normalIdx;
-					Vector3f normal = new Vector3f( getByte( newData, idx ) / 127.0f, getByte( newData, idx + 1 ) / 127.0f, getByte( newData, idx + 2 ) / 127.0f );
+		BakedQuad rotateQuad( BakedQuad quad )
+		{
+			// Clone the vertex data used by the quad
+			int[] newData = quad.getVertexData().clone();
 
-					// Rotate stuff around
-					mat.transform( normal );
+			// Figure out where the position is in the array
+			VertexFormat format = quad.getFormat();
+			int posIdx = findPositionOffset( format ) / 4;
+			int stride = format.getNextOffset() / 4;
+			int normalIdx = format.getNormalOffset();
+			VertexFormatElement.EnumType normalType = normalIdx != -1 ? findNormalType( format ) : null;
 
-					// Write back
-					setByte( newData, idx, (int) ( normal.getX() * 127 ) );
-					setByte( newData, idx + 1, (int) ( normal.getY() * 127 ) );
-					setByte( newData, idx + 2, (int) ( normal.getZ() * 127 ) );
+			float[] in = new float[3];
+
+			for( int i = 0; i < 4; i++ )
+			{
+				int offset = i * stride + posIdx;
+
+				// Rotate around the center of the block
+				for( int j = 0; j < 3; j++ )
+				{
+					in[j] = Float.intBitsToFloat( newData[offset + j] ) - 0.5f;
 				}
-				else
+				for( int j = 0; j < 3; j++ )
 				{
-					AELog.warn( "Unsupported normal format: {}", normalType );
+					newData[offset + j] = Float.floatToIntBits( sign[j] * in[axis[j]] + 0.5f );
+				}
+
+				// Transform the normal if one is present
+				if( normalIdx != -1 )
+				{
+					if( normalType == VertexFormatElement.EnumType.FLOAT )
+					{
+						int normalOffset = i * stride + normalIdx;
+
+						for( int j = 0; j < 3; j++ )
+						{
+							in[j] = Float.intBitsToFloat( newData[normalOffset + j] );
+						}
+						for( int j = 0; j < 3; j++ )
+						{
+							newData[normalOffset + j] = Float.floatToIntBits( sign[j] * in[axis[j]] );
+						}
+					}
+					else if( normalType == VertexFormatElement.EnumType.BYTE )
+					{
+						int idx = i * stride * 4 + normalIdx;
+
+						for( int j = 0; j < 3; j++ )
+						{
+							in[j] = getByte( newData, idx + j );
+						}
+						for( int j = 0; j < 3; j++ )
+						{
+							setByte( newData, idx + j, (int) ( sign[j] * in[axis[j]] ) );
+						}
+					}
+					else
+					{
+						AELog.warn( "Unsupported normal format: {}", normalType );
+					}
 				}
 			}
-		}
 
-		EnumFacing newFace = rotation.rotate( quad.getFace() );
-		return new BakedQuad( newData, quad.getTintIndex(), newFace, quad.getSprite(), quad.shouldApplyDiffuseLighting(), quad.getFormat() );
+			EnumFacing newFace = faces[quad.getFace().ordinal()];
+			return new BakedQuad( newData, quad.getTintIndex(), newFace, quad.getSprite(), quad.shouldApplyDiffuseLighting(), quad.getFormat() );
+		}
 	}
 
-	private static int getByte( int[] data, int offset )
+	private static class ModelKey
 	{
-		int idx = offset / 4;
-		int subOffset = offset % 4;
-		return (byte) ( data[idx] >> ( subOffset * 8 ) );
-	}
 
-	private static void setByte( int[] data, int offset, int value )
-	{
-		int idx = offset / 4;
-		int subOffset = offset % 4;
-		int mask = 0xFF << ( subOffset * 8 );
-		data[idx] = data[idx] & ( ~mask ) | ( ( value & 0xFF ) << ( subOffset * 8 ) );
-	}
+		private final IBakedModel model;
 
-	private int findPositionOffset( VertexFormat format )
-	{
-		List<VertexFormatElement> elements = format.getElements();
-		for( int i = 0; i < elements.size(); i++ )
+		private final EnumFacing forward;
+
+		private final EnumFacing up;
+
+		ModelKey( IBakedModel model, EnumFacing forward, EnumFacing up )
 		{
-			VertexFormatElement e = elements.get( i );
-			if( e.isPositionElement() )
+			this.model = model;
+			this.forward = forward;
+			this.up = up;
+		}
+
+		@Override
+		public boolean equals( Object o )
+		{
+			if( this == o )
 			{
-				if( e.getType() != VertexFormatElement.EnumType.FLOAT )
-				{
-					throw new IllegalArgumentException( "Only floating point positions are supported" );
-				}
-				return i;
+				return true;
 			}
+			if( o == null || getClass() != o.getClass() )
+			{
+				return false;
+			}
+
+			ModelKey that = (ModelKey) o;
+			return model == that.model && forward == that.forward && up == that.up;
 		}
 
-		throw new IllegalArgumentException( "Vertex format " + format + " has no position attribute!" );
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash( System.identityHashCode( model ), forward, up );
+		}
 	}
 }
@@ -75,6 +75,7 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 	public int minMeteoriteDistanceSq = this.minMeteoriteDistance * this.minMeteoriteDistance;
 	public double spatialPowerExponent = 1.35;
 	public double spatialPowerMultiplier = 1250.0;
+	public int spatialTransferTimePerTick = 10;
 	public String[] grinderOres = {
 			// Vanilla Items
 	"Obsidian", "Ender", "EnderPearl", "Coal", "Iron", "Gold", "Charcoal", "NetherQuartz",
@@ -100,6 +101,12 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 	public double meteoriteSpawnChance = 0.3;
 	public int[] meteoriteDimensionWhitelist = { 0 };
 	public int craftingCalculationTimePerTick = 5;
+	public int craftingCalculationThreads = 4;
+	public int craftingCalculationMaxNodes = 100000;
+	public int craftingCalculationMaxBytes = 1000000000;
+	public int craftingCalculationSpeculativeThreads = 0;
+	public int compassThreads = 2;
+	public int meTunnelGraceTicks = 100;
 	PowerUnits selectedPowerUnit = PowerUnits.AE;
 	private double WirelessBaseCost = 8;
 	private double WirelessCostMultiplier = 1;
@@ -155,6 +162,8 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 
 		this.formationPlaneEntityLimit = this.get( "automation", "formationPlaneEntityLimit", this.formationPlaneEntityLimit ).getInt( this.formationPlaneEntityLimit );
 
+		this.compassThreads = Math.max( 1, this.get( "compass", "compassThreads", this.compassThreads ).getInt( this.compassThreads ) );
+
 		this.wirelessTerminalBattery = this.get( "battery", "wirelessTerminal", this.wirelessTerminalBattery ).getInt( this.wirelessTerminalBattery );
 		this.chargedStaffBattery = this.get( "battery", "chargedStaff", this.chargedStaffBattery ).getInt( this.chargedStaffBattery );
 		this.entropyManipulatorBattery = this.get( "battery", "entropyManipulator", this.entropyManipulatorBattery ).getInt( this.entropyManipulatorBattery );
@@ -209,11 +218,21 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 			this.storageProviderID = this.get( "spatialio", "storageProviderID", this.storageProviderID ).getInt( this.storageProviderID );
 			this.spatialPowerMultiplier = this.get( "spatialio", "spatialPowerMultiplier", this.spatialPowerMultiplier ).getDouble( this.spatialPowerMultiplier );
 			this.spatialPowerExponent = this.get( "spatialio", "spatialPowerExponent", this.spatialPowerExponent ).getDouble( this.spatialPowerExponent );
+			this.spatialTransferTimePerTick = Math.max( 1, this.get( "spatialio", "spatialTransferTimePerTick", this.spatialTransferTimePerTick ).getInt( this.spatialTransferTimePerTick ) );
 		}
 
 		if( this.isFeatureEnabled( AEFeature.CraftingCPU ) )
 		{
 			this.craftingCalculationTimePerTick = this.get( "craftingCPU", "craftingCalculationTimePerTick", this.craftingCalculationTimePerTick ).getInt( this.craftingCalculationTimePerTick );
+			this.craftingCalculationThreads = Math.max( 1, this.get( "craftingCPU", "craftingCalculationThreads", this.craftingCalculationThreads ).getInt( this.craftingCalculationThreads ) );
+			this.craftingCalculationMaxNodes = this.get( "craftingCPU", "craftingCalculationMaxNodes", this.craftingCalculationMaxNodes ).getInt( this.craftingCalculationMaxNodes );
+			this.craftingCalculationMaxBytes = this.get( "craftingCPU", "craftingCalculationMaxBytes", this.craftingCalculationMaxBytes ).getInt( this.craftingCalculationMaxBytes );
+			this.craftingCalculationSpeculativeThreads = Math.max( 0, this.get( "craftingCPU", "craftingCalculationSpeculativeThreads", this.craftingCalculationSpeculativeThreads ).getInt( this.craftingCalculationSpeculativeThreads ) );
+		}
+
+		if( this.isFeatureEnabled( AEFeature.P2PTunnelME ) )
+		{
+			this.meTunnelGraceTicks = Math.max( 0, this.get( "p2ptunnels", "meTunnelGraceTicks", this.meTunnelGraceTicks ).getInt( this.meTunnelGraceTicks ) );
 		}
 
 		this.updatable = true;
@@ -61,6 +61,7 @@ import appeng.services.export.ExportConfig;
 import appeng.services.export.ExportProcess;
 import appeng.services.export.ForgeExportConfig;
 import appeng.services.version.VersionCheckerConfig;
+import appeng.spatial.SpatialTransferManager;
 import appeng.util.Platform;
 
 
@@ -245,6 +246,7 @@ public final class AppEng
 	@EventHandler
 	private void serverStopping( final FMLServerStoppingEvent event )
 	{
+		SpatialTransferManager.INSTANCE.finishAll();
 		WorldData.instance().onServerStopping();
 	}
 
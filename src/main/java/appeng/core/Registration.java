@@ -99,9 +99,11 @@ import appeng.recipes.handlers.Shapeless;
 import appeng.recipes.handlers.Smelt;
 import appeng.recipes.ores.OreDictionaryHandler;
 import appeng.spatial.BiomeGenStorage;
+import appeng.spatial.SpatialTransferManager;
 import appeng.spatial.StorageWorldProvider;
 import appeng.tile.AEBaseTile;
 import appeng.util.Platform;
+import appeng.util.item.OreHelper;
 import appeng.worldgen.MeteoriteWorldGen;
 import appeng.worldgen.QuartzWorldGen;
 
@@ -140,6 +142,7 @@ public final class Registration
 		RecipeSorter.register( "AE2-Shapeless", ShapelessRecipe.class, Category.SHAPELESS, "" );
 
 		MinecraftForge.EVENT_BUS.register( OreDictionaryHandler.INSTANCE );
+		OreDictionaryHandler.INSTANCE.observe( OreHelper.INSTANCE );
 
 		ApiDefinitions definitions = api.definitions();
 
@@ -273,6 +276,7 @@ public final class Registration
 
 		FMLCommonHandler.instance().bus().register( TickHandler.INSTANCE );
 		MinecraftForge.EVENT_BUS.register( TickHandler.INSTANCE );
+		MinecraftForge.EVENT_BUS.register( SpatialTransferManager.INSTANCE );
 
 
 		MinecraftForge.EVENT_BUS.register( new PartPlacement() );
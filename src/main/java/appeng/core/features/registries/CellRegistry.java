@@ -21,7 +21,10 @@ package appeng.core.features.registries;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 
 import appeng.api.storage.ICellHandler;
@@ -35,6 +38,7 @@ public class CellRegistry implements ICellRegistry
 {
 
 	private final List<ICellHandler> handlers;
+	private final Map<Item, Dispatch> dispatch = new ConcurrentHashMap<Item, Dispatch>();
 
 	public CellRegistry()
 	{
@@ -47,57 +51,99 @@ public class CellRegistry implements ICellRegistry
 		if( h != null )
 		{
 			this.handlers.add( h );
+			this.dispatch.clear();
 		}
 	}
 
 	@Override
 	public boolean isCellHandled( final ItemStack is )
+	{
+		return this.getHandler( is ) != null;
+	}
+
+	@Override
+	public ICellHandler getHandler( final ItemStack is )
 	{
 		if( is == null )
 		{
-			return false;
+			return null;
 		}
-		for( final ICellHandler ch : this.handlers )
+
+		final Item item = is.getItem();
+		if( item == null )
 		{
-			if( ch.isCell( is ) )
+			for( final ICellHandler ch : this.handlers )
 			{
-				return true;
+				if( ch.isCell( is ) )
+				{
+					return ch;
+				}
 			}
+			return null;
 		}
-		return false;
-	}
 
-	@Override
-	public ICellHandler getHandler( final ItemStack is )
-	{
-		if( is == null )
+		Dispatch d = this.dispatch.get( item );
+		if( d == null )
 		{
-			return null;
+			d = this.createDispatch( is );
+			this.dispatch.put( item, d );
 		}
-		for( final ICellHandler ch : this.handlers )
+
+		for( final ICellHandler ch : d.uncached )
 		{
 			if( ch.isCell( is ) )
 			{
 				return ch;
 			}
 		}
-		return null;
+
+		return d.handler;
 	}
 
 	@Override
 	public IMEInventoryHandler getCellInventory( final ItemStack is, final ISaveProvider container, final StorageChannel chan )
 	{
-		if( is == null )
+		final ICellHandler ch = this.getHandler( is );
+		if( ch != null )
 		{
-			return null;
+			return ch.getCellInventory( is, container, chan );
 		}
+		return null;
+	}
+
+	/**
+	 * Asks every handler once, keeping the ones which have to be asked for each stack and the first cacheable one which
+	 * took the item.
+	 */
+	private Dispatch createDispatch( final ItemStack is )
+	{
+		final List<ICellHandler> uncached = new ArrayList<ICellHandler>();
+
 		for( final ICellHandler ch : this.handlers )
 		{
-			if( ch.isCell( is ) )
+			if( !ch.isCacheable( is ) )
+			{
+				uncached.add( ch );
+			}
+			else if( ch.isCell( is ) )
 			{
-				return ch.getCellInventory( is, container, chan );
+				return new Dispatch( uncached, ch );
 			}
 		}
-		return null;
+
+		return new Dispatch( uncached, null );
+	}
+
+	private static final class Dispatch
+	{
+
+		private final ICellHandler[] uncached;
+		private final ICellHandler handler;
+
+		private Dispatch( final List<ICellHandler> uncached, final ICellHandler handler )
+		{
+			this.uncached = uncached.toArray( new ICellHandler[uncached.size()] );
+			this.handler = handler;
+		}
 	}
 }
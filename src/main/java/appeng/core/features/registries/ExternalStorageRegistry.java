@@ -21,6 +21,8 @@ package appeng.core.features.registries;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
@@ -35,8 +37,11 @@ import appeng.core.features.registries.entries.ExternalIInv;
 public class ExternalStorageRegistry implements IExternalStorageRegistry
 {
 
+	private static final int SIDES = EnumFacing.values().length + 1;
+
 	private final List<IExternalStorageHandler> Handlers;
 	private final ExternalIInv lastHandler = new ExternalIInv();
+	private final Map<Class<? extends TileEntity>, Dispatch[]> dispatch = new ConcurrentHashMap<Class<? extends TileEntity>, Dispatch[]>();
 
 	public ExternalStorageRegistry()
 	{
@@ -47,12 +52,48 @@ public class ExternalStorageRegistry implements IExternalStorageRegistry
 	public void addExternalStorageInterface( final IExternalStorageHandler ei )
 	{
 		this.Handlers.add( ei );
+		this.dispatch.clear();
 	}
 
 	@Override
 	public IExternalStorageHandler getHandler( final TileEntity te, final EnumFacing d, final StorageChannel chan, final BaseActionSource mySrc )
 	{
-		for( final IExternalStorageHandler x : this.Handlers )
+		if( te == null || chan == null )
+		{
+			for( final IExternalStorageHandler x : this.Handlers )
+			{
+				if( x.canHandle( te, d, chan, mySrc ) )
+				{
+					return x;
+				}
+			}
+
+			if( this.lastHandler.canHandle( te, d, chan, mySrc ) )
+			{
+				return this.lastHandler;
+			}
+
+			return null;
+		}
+
+		Dispatch[] byClass = this.dispatch.get( te.getClass() );
+		if( byClass == null )
+		{
+			byClass = new Dispatch[SIDES * StorageChannel.values().length];
+			this.dispatch.put( te.getClass(), byClass );
+		}
+
+		// null sides go last
+		final int idx = ( d == null ? SIDES - 1 : d.ordinal() ) * StorageChannel.values().length + chan.ordinal();
+
+		Dispatch disp = byClass[idx];
+		if( disp == null )
+		{
+			disp = this.createDispatch( te, d, chan, mySrc );
+			byClass[idx] = disp;
+		}
+
+		for( final IExternalStorageHandler x : disp.uncached )
 		{
 			if( x.canHandle( te, d, chan, mySrc ) )
 			{
@@ -60,11 +101,51 @@ public class ExternalStorageRegistry implements IExternalStorageRegistry
 			}
 		}
 
-		if( this.lastHandler.canHandle( te, d, chan, mySrc ) )
+		return disp.handler;
+	}
+
+	/**
+	 * Asks every handler once, keeping the ones which have to be asked for each tile and the first cacheable one which
+	 * took the tile.
+	 */
+	private Dispatch createDispatch( final TileEntity te, final EnumFacing d, final StorageChannel chan, final BaseActionSource mySrc )
+	{
+		final List<IExternalStorageHandler> uncached = new ArrayList<IExternalStorageHandler>();
+
+		for( final IExternalStorageHandler x : this.Handlers )
 		{
-			return this.lastHandler;
+			if( !x.isCacheable( te, d, chan ) )
+			{
+				uncached.add( x );
+			}
+			else if( x.canHandle( te, d, chan, mySrc ) )
+			{
+				return new Dispatch( uncached, x );
+			}
 		}
 
-		return null;
+		if( !this.lastHandler.isCacheable( te, d, chan ) )
+		{
+			uncached.add( this.lastHandler );
+		}
+		else if( this.lastHandler.canHandle( te, d, chan, mySrc ) )
+		{
+			return new Dispatch( uncached, this.lastHandler );
+		}
+
+		return new Dispatch( uncached, null );
+	}
+
+	private static final class Dispatch
+	{
+
+		private final IExternalStorageHandler[] uncached;
+		private final IExternalStorageHandler handler;
+
+		private Dispatch( final List<IExternalStorageHandler> uncached, final IExternalStorageHandler handler )
+		{
+			this.uncached = uncached.toArray( new IExternalStorageHandler[uncached.size()] );
+			this.handler = handler;
+		}
 	}
 }
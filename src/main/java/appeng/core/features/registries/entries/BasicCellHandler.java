@@ -20,9 +20,11 @@ package appeng.core.features.registries.entries;
 
 
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.tileentity.TileEntity;
 
+import appeng.api.implementations.items.IStorageCell;
 import appeng.api.implementations.tiles.IChestOrDrive;
 import appeng.api.storage.ICellHandler;
 import appeng.api.storage.ICellInventory;
@@ -47,6 +49,13 @@ public class BasicCellHandler implements ICellHandler
 		return CellInventory.isCell( is );
 	}
 
+	@Override
+	public boolean isCacheable( final ItemStack is )
+	{
+		final Item type = is.getItem();
+		return !( type instanceof IStorageCell ) || ( (IStorageCell) type ).isStorageCellCacheable();
+	}
+
 	@Override
 	public IMEInventoryHandler getCellInventory( final ItemStack is, final ISaveProvider container, final StorageChannel channel )
 	{
@@ -45,6 +45,12 @@ public class CreativeCellHandler implements ICellHandler
 		return is != null && is.getItem() instanceof ItemCreativeStorageCell;
 	}
 
+	@Override
+	public boolean isCacheable( final ItemStack is )
+	{
+		return true;
+	}
+
 	@Override
 	public IMEInventoryHandler getCellInventory( final ItemStack is, final ISaveProvider container, final StorageChannel channel )
 	{
@@ -40,6 +40,12 @@ public class ExternalIInv implements IExternalStorageHandler
 		return channel == StorageChannel.ITEMS && te instanceof IInventory;
 	}
 
+	@Override
+	public boolean isCacheable( final TileEntity te, final EnumFacing d, final StorageChannel channel )
+	{
+		return true;
+	}
+
 	@Override
 	public IMEInventory getInventory( final TileEntity te, final EnumFacing d, final StorageChannel channel, final BaseActionSource src )
 	{
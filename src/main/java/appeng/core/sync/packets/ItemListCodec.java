@@ -0,0 +1,224 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package appeng.core.sync.packets;
+
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import appeng.api.storage.data.IAEItemStack;
+import appeng.util.item.AEItemStack;
+
+
+/**
+ * Compresses and decompresses the item listings sent by {@link PacketMEInventoryUpdate}.
+ *
+ * Deflaters, inflaters and scratch buffers are kept per thread and reused between packets. An encoder only collects
+ * the uncompressed listing, the deflater of the thread is borrowed while it is finished, so a packet which is built but
+ * never sent holds no native memory.
+ */
+final class ItemListCodec
+{
+
+	private static final int CHUNK_SIZE = 8 * 1024;
+
+	// scratch buffers grown by huge listings are shrunk back to this when reused
+	private static final int RETAINED_CAPACITY = 64 * 1024;
+
+	private static final ThreadLocal<Deflater> DEFLATERS = new ThreadLocal<Deflater>()
+	{
+		@Override
+		protected Deflater initialValue()
+		{
+			return new Deflater();
+		}
+	};
+
+	private static final ThreadLocal<Decoder> DECODERS = new ThreadLocal<Decoder>()
+	{
+		@Override
+		protected Decoder initialValue()
+		{
+			return new Decoder();
+		}
+	};
+
+	private ItemListCodec()
+	{
+	}
+
+	/**
+	 * Starts a new compressed listing, appended to the end of the given heap buffer.
+	 */
+	static Encoder encoder( final ByteBuf out )
+	{
+		return new Encoder( out );
+	}
+
+	/**
+	 * Decompresses the remaining bytes of the buffer and reads all stacks from them.
+	 *
+	 * @param in compressed listing, will be consumed completely
+	 * @param out receives the decoded stacks
+	 * @param byteLimit maximum size of the uncompressed listing
+	 */
+	static void decode( final ByteBuf in, final List<IAEItemStack> out, final int byteLimit ) throws IOException
+	{
+		DECODERS.get().decode( in, out, byteLimit );
+	}
+
+	static final class Encoder
+	{
+
+		private final ByteBuf out;
+		private ByteBuf uncompressed = Unpooled.buffer( CHUNK_SIZE );
+
+		private Encoder( final ByteBuf out )
+		{
+			this.out = out;
+		}
+
+		/**
+		 * @return false if the stack would exceed the uncompressed byte limit, nothing is written in that case
+		 */
+		boolean append( final IAEItemStack is, final int byteLimit ) throws IOException
+		{
+			final int mark = this.uncompressed.writerIndex();
+			is.writeToPacket( this.uncompressed );
+
+			if( this.uncompressed.readableBytes() > byteLimit )
+			{
+				this.uncompressed.writerIndex( mark );
+				return false;
+			}
+
+			return true;
+		}
+
+		/**
+		 * Compresses the listing into the output buffer, the encoder can not be used afterwards.
+		 */
+		void finish()
+		{
+			final Deflater deflater = DEFLATERS.get();
+
+			try
+			{
+				deflater.setInput( this.uncompressed.array(), this.uncompressed.arrayOffset() + this.uncompressed.readerIndex(), this.uncompressed.readableBytes() );
+				deflater.finish();
+
+				while( !deflater.finished() )
+				{
+					this.out.ensureWritable( CHUNK_SIZE );
+
+					final int offset = this.out.arrayOffset() + this.out.writerIndex();
+					final int written = deflater.deflate( this.out.array(), offset, this.out.writableBytes() );
+
+					this.out.writerIndex( this.out.writerIndex() + written );
+				}
+			}
+			finally
+			{
+				deflater.reset();
+				this.uncompressed = null;
+			}
+		}
+	}
+
+	private static final class Decoder
+	{
+
+		private final Inflater inflater = new Inflater();
+		private final byte[] chunk = new byte[CHUNK_SIZE];
+		private ByteBuf uncompressed = Unpooled.buffer( CHUNK_SIZE );
+
+		private void decode( final ByteBuf in, final List<IAEItemStack> out, final int byteLimit ) throws IOException
+		{
+			this.inflater.reset();
+			this.uncompressed.clear();
+
+			try
+			{
+				while( !this.inflater.finished() )
+				{
+					if( this.inflater.needsInput() )
+					{
+						this.feed( in );
+					}
+					if( this.inflater.needsDictionary() )
+					{
+						throw new IOException( "Unexpected preset dictionary in item listing" );
+					}
+
+					this.uncompressed.ensureWritable( CHUNK_SIZE );
+
+					final int offset = this.uncompressed.arrayOffset() + this.uncompressed.writerIndex();
+					final int read = this.inflater.inflate( this.uncompressed.array(), offset, this.uncompressed.writableBytes() );
+
+					this.uncompressed.writerIndex( this.uncompressed.writerIndex() + read );
+					if( this.uncompressed.readableBytes() > byteLimit )
+					{
+						throw new IOException( "Item listing exceeds " + byteLimit + " bytes" );
+					}
+				}
+			}
+			catch( final DataFormatException e )
+			{
+				throw new IOException( e );
+			}
+
+			while( this.uncompressed.isReadable() )
+			{
+				out.add( AEItemStack.loadItemStackFromPacket( this.uncompressed ) );
+			}
+
+			if( this.uncompressed.capacity() > RETAINED_CAPACITY )
+			{
+				this.uncompressed = Unpooled.buffer( CHUNK_SIZE );
+			}
+		}
+
+		private void feed( final ByteBuf in ) throws EOFException
+		{
+			final int readable = in.readableBytes();
+			if( readable <= 0 )
+			{
+				throw new EOFException( "Truncated item listing" );
+			}
+
+			if( in.hasArray() )
+			{
+				this.inflater.setInput( in.array(), in.arrayOffset() + in.readerIndex(), readable );
+				in.skipBytes( readable );
+			}
+			else
+			{
+				final int length = Math.min( readable, this.chunk.length );
+				in.readBytes( this.chunk, 0, length );
+				this.inflater.setInput( this.chunk, 0, length );
+			}
+		}
+	}
+}
@@ -20,13 +20,9 @@ package appeng.core.sync.packets;
 
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.BufferOverflowException;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 import javax.annotation.Nullable;
 
@@ -45,18 +41,14 @@ import appeng.client.gui.implementations.GuiCraftConfirm;
 import appeng.client.gui.implementations.GuiCraftingCPU;
 import appeng.client.gui.implementations.GuiMEMonitorable;
 import appeng.client.gui.implementations.GuiNetworkStatus;
-import appeng.core.AELog;
 import appeng.core.sync.AppEngPacket;
 import appeng.core.sync.network.INetworkInfo;
-import appeng.util.item.AEItemStack;
 
 
 public class PacketMEInventoryUpdate extends AppEngPacket
 {
 	private static final int UNCOMPRESSED_PACKET_BYTE_LIMIT = 16 * 1024 * 1024;
 	private static final int OPERATION_BYTE_LIMIT = 2 * 1024;
-	private static final int TEMP_BUFFER_SIZE = 1024;
-	private static final int STREAM_MASK = 0xff;
 
 	// input.
 	@Nullable
@@ -67,53 +59,19 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 	@Nullable
 	private final ByteBuf data;
 	@Nullable
-	private final GZIPOutputStream compressFrame;
+	private ItemListCodec.Encoder encoder;
 
-	private int writtenBytes = 0;
 	private boolean empty = true;
 
 	// automatic.
 	public PacketMEInventoryUpdate( final ByteBuf stream ) throws IOException
 	{
 		this.data = null;
-		this.compressFrame = null;
-		this.list = new LinkedList<IAEItemStack>();
+		this.encoder = null;
+		this.list = new ArrayList<IAEItemStack>();
 		this.ref = stream.readByte();
 
-		// int originalBytes = stream.readableBytes();
-
-		final GZIPInputStream gzReader = new GZIPInputStream( new InputStream(){
-			@Override
-			public int read() throws IOException
-			{
-				if( stream.readableBytes() <= 0 )
-				{
-					return -1;
-				}
-
-				return stream.readByte() & STREAM_MASK;
-			}
-		} );
-
-		final ByteBuf uncompressed = Unpooled.buffer( stream.readableBytes() );
-		final byte[] tmp = new byte[TEMP_BUFFER_SIZE];
-		while( gzReader.available() != 0 )
-		{
-			final int bytes = gzReader.read( tmp );
-			if( bytes > 0 )
-			{
-				uncompressed.writeBytes( tmp, 0, bytes );
-			}
-		}
-		gzReader.close();
-
-		// int uncompressedBytes = uncompressed.readableBytes();
-		// AELog.info( "Receiver: " + originalBytes + " -> " + uncompressedBytes );
-
-		while( uncompressed.readableBytes() > 0 )
-		{
-			this.list.add( AEItemStack.loadItemStackFromPacket( uncompressed ) );
-		}
+		ItemListCodec.decode( stream, this.list, UNCOMPRESSED_PACKET_BYTE_LIMIT );
 
 		this.empty = this.list.isEmpty();
 	}
@@ -132,13 +90,7 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 		this.data.writeInt( this.getPacketID() );
 		this.data.writeByte( this.ref );
 
-		this.compressFrame = new GZIPOutputStream( new OutputStream(){
-			@Override
-			public void write( final int value ) throws IOException
-			{
-				PacketMEInventoryUpdate.this.data.writeByte( value );
-			}
-		} );
+		this.encoder = ItemListCodec.encoder( this.data );
 
 		this.list = null;
 	}
@@ -174,37 +126,26 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 	@Override
 	public FMLProxyPacket getProxy()
 	{
-		try
+		// the same packet may be sent to several listeners, only finish the listing once
+		if( this.encoder != null )
 		{
-			this.compressFrame.close();
+			this.encoder.finish();
+			this.encoder = null;
 
 			this.configureWrite( this.data );
-			return super.getProxy();
-		}
-		catch( final IOException e )
-		{
-			AELog.debug( e );
 		}
 
-		return null;
+		return super.getProxy();
 	}
 
 	public void appendItem( final IAEItemStack is ) throws IOException, BufferOverflowException
 	{
-		final ByteBuf tmp = Unpooled.buffer( OPERATION_BYTE_LIMIT );
-		is.writeToPacket( tmp );
-
-		this.compressFrame.flush();
-		if( this.writtenBytes + tmp.readableBytes() > UNCOMPRESSED_PACKET_BYTE_LIMIT )
+		if( !this.encoder.append( is, UNCOMPRESSED_PACKET_BYTE_LIMIT ) )
 		{
 			throw new BufferOverflowException();
 		}
-		else
-		{
-			this.writtenBytes += tmp.readableBytes();
-			this.compressFrame.write( tmp.array(), 0, tmp.readableBytes() );
-			this.empty = false;
-		}
+
+		this.empty = false;
 	}
 
 	public int getLength()
@@ -91,7 +91,7 @@ public final class WorldData implements IWorldData
 		final StorageData storageData = new StorageData( this.sharedConfig );
 
 		final ThreadFactory compassThreadFactory = new CompassThreadFactory();
-		final CompassService compassService = new CompassService( this.compassDirectory, compassThreadFactory );
+		final CompassService compassService = new CompassService( this.compassDirectory, compassThreadFactory, AEConfig.instance.compassThreads );
 		final CompassData compassData = new CompassData( this.compassDirectory, compassService );
 
 		final IWorldSpawnData spawnData = new SpawnData( this.spawnDirectory );
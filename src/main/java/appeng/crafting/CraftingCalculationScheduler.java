@@ -0,0 +1,313 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.crafting;
+
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import appeng.api.networking.IGrid;
+import appeng.api.networking.crafting.ICraftingJob;
+import appeng.api.networking.security.BaseActionSource;
+import appeng.api.networking.security.IActionHost;
+import appeng.api.networking.security.PlayerSource;
+import appeng.core.AEConfig;
+import appeng.core.AELog;
+
+
+/**
+ * Runs crafting calculations on a bounded number of threads.
+ *
+ * Waiting calculations are queued per owner, a player or the grid of a machine, and started round robin over the
+ * owners, so a single owner submitting lots of requests can not starve everyone else. A new request from the same
+ * player and terminal cancels the one it replaces.
+ *
+ * Calculations still only run while the server tick hands them time, see {@link CraftingJob#simulateFor(int)}, as
+ * they read the live grid.
+ */
+public final class CraftingCalculationScheduler
+{
+
+	public static final CraftingCalculationScheduler INSTANCE = new CraftingCalculationScheduler();
+
+	private final Map<Object, Deque<Pending>> queues = new HashMap<Object, Deque<Pending>>();
+	private final Deque<Object> turns = new ArrayDeque<Object>();
+	private final Map<Requester, Pending> byRequester = new HashMap<Requester, Pending>();
+	private final CraftingCalculationStats stats = new CraftingCalculationStats();
+	private ThreadPoolExecutor pool;
+	private int queued = 0;
+	private int running = 0;
+
+	private CraftingCalculationScheduler()
+	{
+	}
+
+	/**
+	 * @return the key time and threads are shared by, the player for player requests and the grid otherwise
+	 */
+	public static Object getOwner( final IGrid grid, final BaseActionSource src )
+	{
+		if( src instanceof PlayerSource && ( (PlayerSource) src ).player != null )
+		{
+			return ( (PlayerSource) src ).player.getUniqueID();
+		}
+
+		return grid;
+	}
+
+	public Future<ICraftingJob> submit( final CraftingJob job, final BaseActionSource src )
+	{
+		final Pending pending = new Pending( job, Requester.of( src ) );
+		final Pending replaced;
+
+		synchronized( this )
+		{
+			Deque<Pending> queue = this.queues.get( job.getOwner() );
+			if( queue == null )
+			{
+				this.queues.put( job.getOwner(), queue = new ArrayDeque<Pending>() );
+				this.turns.addLast( job.getOwner() );
+			}
+
+			queue.addLast( pending );
+			this.queued++;
+
+			replaced = pending.requester == null ? null : this.byRequester.put( pending.requester, pending );
+		}
+
+		this.stats.addSubmitted();
+
+		if( replaced != null && replaced.cancel( true ) )
+		{
+			this.stats.addSuperseded();
+		}
+
+		this.getPool().execute( new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				CraftingCalculationScheduler.this.runNext();
+			}
+		} );
+
+		return pending;
+	}
+
+	/**
+	 * @return calculations waiting for a thread
+	 */
+	public synchronized int getQueueDepth()
+	{
+		return this.queued;
+	}
+
+	/**
+	 * @return calculations which hold a thread, paused or not
+	 */
+	public synchronized int getRunning()
+	{
+		return this.running;
+	}
+
+	public CraftingCalculationStats getStats()
+	{
+		return this.stats;
+	}
+
+	private synchronized ThreadPoolExecutor getPool()
+	{
+		if( this.pool == null )
+		{
+			final int threads = Math.max( 1, AEConfig.instance.craftingCalculationThreads );
+
+			this.pool = new ThreadPoolExecutor( threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory()
+			{
+
+				@Override
+				public Thread newThread( final Runnable ar )
+				{
+					return new Thread( ar, "AE Crafting Calculator" );
+				}
+			} );
+			this.pool.allowCoreThreadTimeOut( true );
+		}
+
+		return this.pool;
+	}
+
+	/**
+	 * Every submit schedules one of these, each runs whatever is fairest to run at the time it gets a thread.
+	 */
+	private void runNext()
+	{
+		final Pending next;
+
+		synchronized( this )
+		{
+			next = this.poll();
+			if( next == null )
+			{
+				return;
+			}
+
+			this.running++;
+		}
+
+		next.started = System.nanoTime();
+		this.stats.addStarted( next.started - next.submitted );
+
+		try
+		{
+			next.run();
+		}
+		finally
+		{
+			synchronized( this )
+			{
+				this.running--;
+			}
+		}
+	}
+
+	/**
+	 * Takes the oldest calculation of the owner whose turn it is, skipping cancelled ones.
+	 */
+	private Pending poll()
+	{
+		while( !this.turns.isEmpty() )
+		{
+			final Object owner = this.turns.pollFirst();
+			final Deque<Pending> queue = this.queues.get( owner );
+			final Pending p = queue.pollFirst();
+			this.queued--;
+
+			if( queue.isEmpty() )
+			{
+				this.queues.remove( owner );
+			}
+			else
+			{
+				this.turns.addLast( owner );
+			}
+
+			if( !p.isDone() )
+			{
+				return p;
+			}
+		}
+
+		return null;
+	}
+
+	private final class Pending extends FutureTask<ICraftingJob>
+	{
+
+		private final Requester requester;
+		private final long submitted = System.nanoTime();
+		private long started;
+
+		private Pending( final CraftingJob job, final Requester requester )
+		{
+			super( job, job );
+			this.requester = requester;
+		}
+
+		@Override
+		protected void done()
+		{
+			final CraftingCalculationScheduler scheduler = CraftingCalculationScheduler.this;
+
+			synchronized( scheduler )
+			{
+				if( this.requester != null && scheduler.byRequester.get( this.requester ) == this )
+				{
+					scheduler.byRequester.remove( this.requester );
+				}
+			}
+
+			if( this.isCancelled() )
+			{
+				scheduler.stats.addCancelled();
+			}
+			else
+			{
+				scheduler.stats.addCompleted( System.nanoTime() - this.started );
+			}
+
+			AELog.crafting( "Crafting calculations: %d queued, %d running, %s", scheduler.getQueueDepth(), scheduler.getRunning(), scheduler.stats );
+		}
+	}
+
+	/**
+	 * A player at a specific terminal, only their latest request is worth calculating.
+	 */
+	private static final class Requester
+	{
+
+		private final Object player;
+		private final IActionHost via;
+
+		private Requester( final Object player, final IActionHost via )
+		{
+			this.player = player;
+			this.via = via;
+		}
+
+		private static Requester of( final BaseActionSource src )
+		{
+			if( src instanceof PlayerSource )
+			{
+				final PlayerSource ps = (PlayerSource) src;
+				if( ps.player != null && ps.via != null )
+				{
+					return new Requester( ps.player.getUniqueID(), ps.via );
+				}
+			}
+
+			return null;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return this.player.hashCode() * 31 + System.identityHashCode( this.via );
+		}
+
+		@Override
+		public boolean equals( final Object obj )
+		{
+			if( !( obj instanceof Requester ) )
+			{
+				return false;
+			}
+
+			final Requester other = (Requester) obj;
+			return this.player.equals( other.player ) && this.via == other.via;
+		}
+	}
+}
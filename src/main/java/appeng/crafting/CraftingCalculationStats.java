@@ -0,0 +1,120 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.crafting;
+
+
+/**
+ * Metrics about how long crafting calculations wait in the {@link CraftingCalculationScheduler} and how long they take.
+ */
+public final class CraftingCalculationStats
+{
+	private long submitted;
+	private long started;
+	private long completed;
+	private long cancelled;
+	private long superseded;
+	private long waitTime;
+	private long maxWaitTime;
+	private long runTime;
+	private long maxRunTime;
+
+	synchronized void addSubmitted()
+	{
+		this.submitted++;
+	}
+
+	synchronized void addStarted( final long waitNanos )
+	{
+		this.started++;
+		this.waitTime += waitNanos;
+		this.maxWaitTime = Math.max( this.maxWaitTime, waitNanos );
+	}
+
+	synchronized void addCompleted( final long runNanos )
+	{
+		this.completed++;
+		this.runTime += runNanos;
+		this.maxRunTime = Math.max( this.maxRunTime, runNanos );
+	}
+
+	synchronized void addCancelled()
+	{
+		this.cancelled++;
+	}
+
+	/**
+	 * A request was replaced by a newer one from the same terminal.
+	 */
+	synchronized void addSuperseded()
+	{
+		this.superseded++;
+	}
+
+	public synchronized long getSubmitted()
+	{
+		return this.submitted;
+	}
+
+	public synchronized long getCompleted()
+	{
+		return this.completed;
+	}
+
+	public synchronized long getCancelled()
+	{
+		return this.cancelled;
+	}
+
+	public synchronized long getSuperseded()
+	{
+		return this.superseded;
+	}
+
+	/**
+	 * @return average time between submitting and starting a calculation in nanoseconds.
+	 */
+	public synchronized long getAverageWaitTime()
+	{
+		return this.started == 0 ? 0 : this.waitTime / this.started;
+	}
+
+	/**
+	 * @return average time between starting and finishing a calculation in nanoseconds.
+	 */
+	public synchronized long getAverageRunTime()
+	{
+		return this.completed == 0 ? 0 : this.runTime / this.completed;
+	}
+
+	@Override
+	public synchronized String toString()
+	{
+		final StringBuilder sb = new StringBuilder();
+
+		sb.append( this.submitted ).append( " submitted, " );
+		sb.append( this.completed ).append( " completed, " );
+		sb.append( this.cancelled ).append( " cancelled (" ).append( this.superseded ).append( " superseded), " );
+		sb.append( "wait avg " ).append( String.format( "%.1f", this.getAverageWaitTime() / 1000000.0 ) );
+		sb.append( " ms max " ).append( String.format( "%.1f", this.maxWaitTime / 1000000.0 ) ).append( " ms, " );
+		sb.append( "run avg " ).append( String.format( "%.1f", this.getAverageRunTime() / 1000000.0 ) );
+		sb.append( " ms max " ).append( String.format( "%.1f", this.maxRunTime / 1000000.0 ) ).append( " ms" );
+
+		return sb.toString();
+	}
+}
@@ -45,6 +45,7 @@ import appeng.api.networking.storage.IStorageGrid;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IItemList;
 import appeng.api.util.DimensionalCoord;
+import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.hooks.TickHandler;
 
@@ -54,7 +55,7 @@ public class CraftingJob implements Runnable, ICraftingJob
 	private static final String LOG_CRAFTING_JOB = "CraftingJob (%s) issued by %s requesting [%s] using %s bytes took %s ms";
 	private static final String LOG_MACHINE_SOURCE_DETAILS = "Machine[object=%s, %s]";
 
-	private final MECraftingInventory original;
+	private MECraftingInventory original;
 	private final World world;
 	private final IItemList<IAEItemStack> crafting = AEApi.instance().storage().createItemList();
 	private final IItemList<IAEItemStack> missing = AEApi.instance().storage().createItemList();
@@ -62,14 +63,24 @@ public class CraftingJob implements Runnable, ICraftingJob
 	private final Object monitor = new Object();
 	private final Stopwatch watch = Stopwatch.createUnstarted();
 	private CraftingTreeNode tree;
+	private CraftingPlan plan;
 	private final IAEItemStack output;
 	private boolean simulate = false;
 	private MECraftingInventory availableCheck;
 	private long bytes = 0;
 	private final BaseActionSource actionSrc;
+	private final Object owner;
 	private final ICraftingCallback callback;
 	private boolean running = false;
 	private boolean done = false;
+	private boolean planned = false;
+	private boolean failed = false;
+	private final int maxNodes;
+	private final long maxBytes;
+	private int nodes = 0;
+	private long usedBytes = 0;
+	// threads of this calculation which are not waiting for a time slice or for each other
+	private int working = 1;
 	private int time = 5;
 	private int incTime = Integer.MAX_VALUE;
 
@@ -83,16 +94,41 @@ public class CraftingJob implements Runnable, ICraftingJob
 		this.world = this.wrapWorld( w );
 		this.output = what.copy();
 		this.actionSrc = actionSrc;
+		this.owner = CraftingCalculationScheduler.getOwner( grid, actionSrc );
+		this.maxNodes = AEConfig.instance.craftingCalculationMaxNodes;
+		this.maxBytes = AEConfig.instance.craftingCalculationMaxBytes;
 
 		this.callback = callback;
 		final ICraftingGrid cc = grid.getCache( ICraftingGrid.class );
 		final IStorageGrid sg = grid.getCache( IStorageGrid.class );
 		this.original = new MECraftingInventory( sg.getItemInventory(), actionSrc, false, false, false );
 
-		this.setTree( this.getCraftingTree( cc, what ) );
+		try
+		{
+			this.setTree( this.getCraftingTree( cc, what ) );
+		}
+		catch( final CraftingCalculationFailure f )
+		{
+			this.fail();
+		}
+
 		this.availableCheck = null;
 	}
 
+	/**
+	 * A calculation sharing the request and time slices of parent, see {@link CraftingSpeculation}.
+	 */
+	CraftingJob( final CraftingJob parent )
+	{
+		this.world = parent.world;
+		this.output = parent.output;
+		this.actionSrc = parent.actionSrc;
+		this.owner = parent.owner;
+		this.callback = null;
+		this.maxNodes = parent.maxNodes;
+		this.maxBytes = parent.maxBytes;
+	}
+
 	private CraftingTreeNode getCraftingTree( final ICraftingGrid cc, final IAEItemStack what )
 	{
 		return new CraftingTreeNode( cc, this, what, null, -1, 0 );
@@ -134,6 +170,12 @@ public class CraftingJob implements Runnable, ICraftingJob
 	{
 		try
 		{
+			if( this.failed )
+			{
+				this.finish();
+				return;
+			}
+
 			try
 			{
 				TickHandler.INSTANCE.registerCraftingSimulation( this.world, this );
@@ -155,12 +197,14 @@ public class CraftingJob implements Runnable, ICraftingJob
 				}
 
 				this.logCraftingJob( "real", timer );
+				this.planned = true;
 				// if ( mode == Actionable.MODULATE )
 				// craftingInventory.moveItemsToStorage( storage );
 			}
 			catch( final CraftBranchFailure e )
 			{
 				this.simulate = true;
+				this.usedBytes = 0;
 
 				try
 				{
@@ -188,7 +232,7 @@ public class CraftingJob implements Runnable, ICraftingJob
 				}
 				catch( final CraftingCalculationFailure f )
 				{
-					AELog.debug( f );
+					this.fail();
 				}
 				catch( final InterruptedException e1 )
 				{
@@ -199,7 +243,7 @@ public class CraftingJob implements Runnable, ICraftingJob
 			}
 			catch( final CraftingCalculationFailure f )
 			{
-				AELog.debug( f );
+				this.fail();
 			}
 			catch( final InterruptedException e1 )
 			{
@@ -224,39 +268,221 @@ public class CraftingJob implements Runnable, ICraftingJob
 		if( this.incTime > 100 )
 		{
 			this.incTime = 0;
+			this.pause();
+		}
+		this.incTime++;
+	}
+
+	/**
+	 * Gives up the thread until the next time slice once this one is used up.
+	 */
+	void pause() throws InterruptedException
+	{
+		synchronized( this.monitor )
+		{
+			if( this.watch.elapsed( TimeUnit.MICROSECONDS ) > this.time )
+			{
+				this.running = false;
+				this.watch.stop();
+				this.monitor.notifyAll();
+			}
 
-			synchronized( this.monitor )
+			if( !this.running )
 			{
-				if( this.watch.elapsed( TimeUnit.MICROSECONDS ) > this.time )
-				{
-					this.running = false;
-					this.watch.stop();
-					this.monitor.notify();
-				}
+				AELog.craftingDebug( "crafting job will now sleep" );
 
-				if( !this.running )
-				{
-					AELog.craftingDebug( "crafting job will now sleep" );
+				this.working--;
+				this.monitor.notifyAll();
 
-					while( !this.running )
+				try
+				{
+					while( !this.running && !this.done )
 					{
 						this.monitor.wait();
 					}
+				}
+				finally
+				{
+					this.working++;
+				}
+
+				AELog.craftingDebug( "crafting job now active" );
+			}
+
+			if( this.done )
+			{
+				// only speculative threads can outlive the calculation
+				throw new InterruptedException();
+			}
+		}
+
+		if( Thread.interrupted() )
+		{
+			throw new InterruptedException();
+		}
+	}
+
+	/**
+	 * Called by a thread before it waits for other threads of this calculation, the server tick does not wait for it
+	 * meanwhile.
+	 */
+	void beginWaiting()
+	{
+		synchronized( this.monitor )
+		{
+			this.working--;
+			this.monitor.notifyAll();
+		}
+	}
 
-					AELog.craftingDebug( "crafting job now active" );
+	/**
+	 * Called by a thread when it is done waiting, it continues within the next time slice.
+	 */
+	void endWaiting() throws InterruptedException
+	{
+		synchronized( this.monitor )
+		{
+			try
+			{
+				while( !this.running )
+				{
+					this.monitor.wait();
 				}
 			}
+			finally
+			{
+				this.working++;
+			}
+		}
+	}
+
+	/**
+	 * Called by an additional thread before it works on this calculation, it starts within the next time slice.
+	 */
+	void beginWorking() throws InterruptedException
+	{
+		synchronized( this.monitor )
+		{
+			while( !this.running && !this.done )
+			{
+				this.monitor.wait();
+			}
 
-			if( Thread.interrupted() )
+			if( this.done )
 			{
 				throw new InterruptedException();
 			}
+
+			this.working++;
 		}
-		this.incTime++;
+	}
+
+	void endWorking()
+	{
+		synchronized( this.monitor )
+		{
+			this.working--;
+			this.monitor.notifyAll();
+		}
+	}
+
+	/**
+	 * @return true for calculations which may be thrown away, see {@link CraftingSpeculation}
+	 */
+	boolean isSpeculative()
+	{
+		return false;
+	}
+
+	MECraftingInventory getAvailableCheck()
+	{
+		return this.availableCheck;
+	}
+
+	/**
+	 * @return how many more bytes the job may use
+	 */
+	long getRemainingBytes()
+	{
+		return this.maxBytes > 0 ? this.maxBytes - this.usedBytes : Long.MAX_VALUE;
+	}
+
+	/**
+	 * @return how many more nodes the job may build
+	 */
+	int getRemainingNodes()
+	{
+		return this.maxNodes > 0 ? this.maxNodes - this.nodes : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Counts a node of the crafting tree, fails once there are more than allowed.
+	 */
+	void addNode()
+	{
+		this.addNodes( 1 );
+	}
+
+	/**
+	 * Counts several nodes at once, e.g. the ones built by an adopted speculative trial.
+	 */
+	void addNodes( final int count )
+	{
+		this.nodes += count;
+
+		if( this.maxNodes > 0 && this.nodes > this.maxNodes )
+		{
+			throw new CraftingCalculationFailure( this.output, this.output.getStackSize() );
+		}
+	}
+
+	/**
+	 * Counts bytes while the tree is requested, fails as soon as the job would need more than allowed.
+	 */
+	void useBytes( final long bytes )
+	{
+		this.usedBytes += bytes;
+
+		if( this.maxBytes > 0 && this.usedBytes > this.maxBytes )
+		{
+			throw new CraftingCalculationFailure( this.output, this.output.getStackSize() );
+		}
+	}
+
+	/**
+	 * The job got too large, the result only reports the requested output as missing.
+	 */
+	private void fail()
+	{
+		AELog.crafting( "Crafting calculation for %s stopped, it exceeds %d nodes or %d bytes", this.output, this.maxNodes, this.maxBytes );
+
+		this.failed = true;
+		this.simulate = true;
+		this.setTree( null );
+		this.missing.resetStatus();
+		this.missing.add( this.output.copy() );
 	}
 
 	private void finish()
 	{
+		// keep only the result, the tree and the copy of the network are not needed anymore
+		final CraftingPlan.Builder builder = new CraftingPlan.Builder();
+
+		if( this.failed )
+		{
+			builder.miss( this.output, this.output.getStackSize() );
+		}
+		else if( this.getTree() != null )
+		{
+			this.getTree().compile( builder );
+		}
+
+		this.plan = builder.build();
+		this.setTree( null );
+		this.original = null;
+
+		AELog.craftingDebug( "crafting plan has %d items and %d patterns", this.plan.getItemCount(), this.plan.getPatternCount() );
+
 		if( this.callback != null )
 		{
 			this.callback.calculationComplete( this );
@@ -268,10 +494,18 @@ public class CraftingJob implements Runnable, ICraftingJob
 		{
 			this.running = false;
 			this.done = true;
-			this.monitor.notify();
+			this.monitor.notifyAll();
 		}
 	}
 
+	/**
+	 * @return true if the calculation finished with a plan that is not missing anything
+	 */
+	boolean isPlanned()
+	{
+		return this.planned;
+	}
+
 	@Override
 	public boolean isSimulation()
 	{
@@ -287,12 +521,20 @@ public class CraftingJob implements Runnable, ICraftingJob
 	@Override
 	public void populatePlan( final IItemList<IAEItemStack> plan )
 	{
-		if( this.getTree() != null )
+		if( this.plan != null )
 		{
-			this.getTree().getPlan( plan );
+			this.plan.populatePlan( plan );
 		}
 	}
 
+	/**
+	 * @return the finished plan, null while the calculation is running
+	 */
+	public CraftingPlan getCraftingPlan()
+	{
+		return this.plan;
+	}
+
 	@Override
 	public IAEItemStack getOutput()
 	{
@@ -304,6 +546,14 @@ public class CraftingJob implements Runnable, ICraftingJob
 		return this.done;
 	}
 
+	/**
+	 * @return who calculation threads and time are shared by, see {@link CraftingCalculationScheduler#getOwner}
+	 */
+	public Object getOwner()
+	{
+		return this.owner;
+	}
+
 	World getWorld()
 	{
 		return this.world;
@@ -333,13 +583,30 @@ public class CraftingJob implements Runnable, ICraftingJob
 
 			AELog.craftingDebug( "main thread is now going to sleep" );
 
-			this.monitor.notify();
+			this.monitor.notifyAll();
 
-			while( this.running )
+			// the slice ends once every thread of the calculation has stopped
+			while( !this.done && ( this.running || this.working > 0 ) )
 			{
 				try
 				{
-					this.monitor.wait();
+					if( this.running && this.working == 0 )
+					{
+						// every thread waits for another one, end the slice on time
+						if( this.watch.elapsed( TimeUnit.MICROSECONDS ) > this.time )
+						{
+							this.running = false;
+							this.watch.stop();
+						}
+						else
+						{
+							this.monitor.wait( 1 );
+						}
+					}
+					else
+					{
+						this.monitor.wait();
+					}
 				}
 				catch( final InterruptedException ignored )
 				{
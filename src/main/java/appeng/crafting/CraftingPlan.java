@@ -0,0 +1,262 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.crafting;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.crafting.ICraftingPatternDetails;
+import appeng.api.networking.security.BaseActionSource;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+import appeng.me.cluster.implementations.CraftingCPUCluster;
+
+
+/**
+ * The result of a crafting calculation without the tree it was calculated with.
+ *
+ * Every item and pattern the tree touched is stored once, the amounts per item and the crafts per pattern are kept in
+ * arrays indexed the same way. This is all submitting the job or showing its plan needs.
+ */
+public final class CraftingPlan
+{
+
+	/**
+	 * The calculation ran out of the item, crafted it or emitted it, so having more of it changes the plan.
+	 */
+	static final byte WATCHED = 1;
+
+	/**
+	 * The item was used for a slot accepting substitutes, any item of the same type may change the plan.
+	 */
+	static final byte FUZZY = 2;
+
+	private final IAEItemStack[] items;
+	private final long[] used;
+	private final long[] emitted;
+	private final long[] missing;
+	private final byte[] flags;
+	private final ICraftingPatternDetails[] patterns;
+	private final long[] crafts;
+
+	private CraftingPlan( final Builder builder )
+	{
+		final int itemCount = builder.items.size();
+		final int patternCount = builder.patterns.size();
+
+		this.items = builder.items.toArray( new IAEItemStack[itemCount] );
+		this.used = Arrays.copyOf( builder.used, itemCount );
+		this.emitted = Arrays.copyOf( builder.emitted, itemCount );
+		this.missing = Arrays.copyOf( builder.missing, itemCount );
+		this.flags = Arrays.copyOf( builder.flags, itemCount );
+		this.patterns = builder.patterns.toArray( new ICraftingPatternDetails[patternCount] );
+		this.crafts = Arrays.copyOf( builder.crafts, patternCount );
+	}
+
+	/**
+	 * Moves the used items from storage into the cluster and hands it the patterns to run and the items to emit.
+	 */
+	public void setJob( final MECraftingInventory storage, final CraftingCPUCluster craftingCPUCluster, final BaseActionSource src ) throws CraftBranchFailure
+	{
+		for( int x = 0; x < this.items.length; x++ )
+		{
+			if( this.used[x] > 0 )
+			{
+				final IAEItemStack i = this.getStack( x, this.used[x] );
+				final IAEItemStack ex = storage.extractItems( i, Actionable.MODULATE, src );
+
+				if( ex == null || ex.getStackSize() != i.getStackSize() )
+				{
+					throw new CraftBranchFailure( i, i.getStackSize() );
+				}
+
+				craftingCPUCluster.addStorage( ex );
+			}
+
+			if( this.emitted[x] > 0 )
+			{
+				craftingCPUCluster.addEmitable( this.getStack( x, this.emitted[x] ) );
+			}
+		}
+
+		for( int x = 0; x < this.patterns.length; x++ )
+		{
+			craftingCPUCluster.addCrafting( this.patterns[x], this.crafts[x] );
+		}
+	}
+
+	void populatePlan( final IItemList<IAEItemStack> plan )
+	{
+		for( int x = 0; x < this.items.length; x++ )
+		{
+			if( this.missing[x] > 0 )
+			{
+				plan.add( this.getStack( x, this.missing[x] ) );
+			}
+
+			if( this.emitted[x] > 0 )
+			{
+				final IAEItemStack i = this.items[x].copy();
+				i.setCountRequestable( this.emitted[x] );
+				plan.addRequestable( i );
+			}
+
+			if( this.used[x] > 0 )
+			{
+				plan.add( this.getStack( x, this.used[x] ) );
+			}
+		}
+
+		for( int x = 0; x < this.patterns.length; x++ )
+		{
+			for( IAEItemStack i : this.patterns[x].getOutputs() )
+			{
+				i = i.copy();
+				i.setCountRequestable( i.getStackSize() * this.crafts[x] );
+				plan.addRequestable( i );
+			}
+		}
+	}
+
+	void getInputs( final CraftingPlanCache.Plan plan )
+	{
+		for( int x = 0; x < this.items.length; x++ )
+		{
+			if( this.used[x] > 0 )
+			{
+				plan.use( this.getStack( x, this.used[x] ) );
+			}
+
+			if( ( this.flags[x] & FUZZY ) != 0 )
+			{
+				plan.watch( this.items[x], true );
+			}
+
+			if( ( this.flags[x] & WATCHED ) != 0 )
+			{
+				plan.watch( this.items[x], false );
+			}
+		}
+	}
+
+	int getItemCount()
+	{
+		return this.items.length;
+	}
+
+	int getPatternCount()
+	{
+		return this.patterns.length;
+	}
+
+	private IAEItemStack getStack( final int id, final long size )
+	{
+		final IAEItemStack is = this.items[id].copy();
+		is.setStackSize( size );
+		return is;
+	}
+
+	static final class Builder
+	{
+
+		private final Map<IAEItemStack, Integer> itemIds = new HashMap<IAEItemStack, Integer>();
+		private final List<IAEItemStack> items = new ArrayList<IAEItemStack>();
+		private final Map<ICraftingPatternDetails, Integer> patternIds = new HashMap<ICraftingPatternDetails, Integer>();
+		private final List<ICraftingPatternDetails> patterns = new ArrayList<ICraftingPatternDetails>();
+		private long[] used = new long[16];
+		private long[] emitted = new long[16];
+		private long[] missing = new long[16];
+		private byte[] flags = new byte[16];
+		private long[] crafts = new long[16];
+
+		void use( final IAEItemStack what, final long amount )
+		{
+			this.used[this.getItemId( what )] += amount;
+		}
+
+		void emit( final IAEItemStack what, final long amount )
+		{
+			this.emitted[this.getItemId( what )] += amount;
+		}
+
+		void miss( final IAEItemStack what, final long amount )
+		{
+			this.missing[this.getItemId( what )] += amount;
+		}
+
+		void flag( final IAEItemStack what, final byte flag )
+		{
+			this.flags[this.getItemId( what )] |= flag;
+		}
+
+		void craft( final ICraftingPatternDetails details, final long amount )
+		{
+			Integer id = this.patternIds.get( details );
+
+			if( id == null )
+			{
+				id = this.patterns.size();
+				this.patternIds.put( details, id );
+				this.patterns.add( details );
+
+				if( id == this.crafts.length )
+				{
+					this.crafts = Arrays.copyOf( this.crafts, id * 2 );
+				}
+			}
+
+			this.crafts[id] += amount;
+		}
+
+		CraftingPlan build()
+		{
+			return new CraftingPlan( this );
+		}
+
+		private int getItemId( final IAEItemStack what )
+		{
+			Integer id = this.itemIds.get( what );
+
+			if( id == null )
+			{
+				final IAEItemStack key = what.copy();
+				key.reset();
+
+				id = this.items.size();
+				this.itemIds.put( key, id );
+				this.items.add( key );
+
+				if( id == this.used.length )
+				{
+					this.used = Arrays.copyOf( this.used, id * 2 );
+					this.emitted = Arrays.copyOf( this.emitted, id * 2 );
+					this.missing = Arrays.copyOf( this.missing, id * 2 );
+					this.flags = Arrays.copyOf( this.flags, id * 2 );
+				}
+			}
+
+			return id;
+		}
+	}
+}
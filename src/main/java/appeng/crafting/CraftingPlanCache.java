@@ -0,0 +1,408 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.crafting;
+
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+
+import net.minecraft.item.Item;
+
+import appeng.api.AEApi;
+import appeng.api.networking.crafting.ICraftingCallback;
+import appeng.api.networking.crafting.ICraftingJob;
+import appeng.api.networking.security.BaseActionSource;
+import appeng.api.networking.storage.IBaseMonitor;
+import appeng.api.storage.IMEMonitor;
+import appeng.api.storage.IMEMonitorHandlerReceiver;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+import appeng.core.AELog;
+
+
+/**
+ * Remembers finished crafting plans of a grid, so asking for the same output and amount again does not recalculate.
+ *
+ * A plan stays valid while the patterns of the grid do not change and the network still holds what the plan takes
+ * from it. Items the plan ran out of, crafted or emitted are watched for any change, as more of them would change the
+ * plan. Plans which are missing items are never kept, and submitting a plan still extracts everything it uses.
+ */
+public final class CraftingPlanCache implements IMEMonitorHandlerReceiver<IAEItemStack>
+{
+
+	private static final int MAX_PLANS = 64;
+	private static final int MAX_CALCULATIONS = 32;
+	private static final int MAX_TRACKED_CHANGES = 1024;
+
+	private final IMEMonitor<IAEItemStack> monitor;
+	private final Map<Key, Plan> plans = new LinkedHashMap<Key, Plan>( 16, 0.75f, true )
+	{
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry( final Map.Entry<Key, Plan> eldest )
+		{
+			if( this.size() > MAX_PLANS )
+			{
+				CraftingPlanCache.this.unindex( eldest.getValue() );
+				return true;
+			}
+
+			return false;
+		}
+	};
+	private final Multimap<IAEItemStack, Plan> byItem = HashMultimap.create();
+	private final Multimap<Item, Plan> byFuzzyItem = HashMultimap.create();
+	private final List<Calculation> calculations = new ArrayList<Calculation>();
+	private int patternVersion = 0;
+	private long hits = 0;
+	private long misses = 0;
+	private long invalidated = 0;
+
+	public CraftingPlanCache( final IMEMonitor<IAEItemStack> monitor )
+	{
+		this.monitor = monitor;
+	}
+
+	/**
+	 * @param owner see {@link CraftingCalculationScheduler#getOwner}
+	 * @param what the requested output and amount
+	 *
+	 * @return a finished plan for exactly this request or null
+	 */
+	public synchronized ICraftingJob getPlan( final Object owner, final IAEItemStack what )
+	{
+		final Plan plan = this.plans.get( new Key( owner, what, this.patternVersion ) );
+
+		if( plan == null )
+		{
+			this.misses++;
+			return null;
+		}
+
+		this.hits++;
+		AELog.crafting( "Reusing crafting plan for %s, %s", what, this );
+		return plan.job;
+	}
+
+	/**
+	 * Starts following the changes made while a new plan is calculated.
+	 *
+	 * @return the callback to pass to the calculation, it keeps the plan and then calls callback
+	 */
+	public synchronized ICraftingCallback track( final Object owner, final IAEItemStack what, final ICraftingCallback callback )
+	{
+		final Calculation calculation = new Calculation( new Key( owner, what, this.patternVersion ), callback );
+
+		if( this.calculations.size() >= MAX_CALCULATIONS )
+		{
+			// never finished, most likely cancelled before it started
+			this.calculations.remove( 0 );
+		}
+
+		this.calculations.add( calculation );
+
+		return calculation;
+	}
+
+	public synchronized void onPatternsChanged()
+	{
+		this.patternVersion++;
+		this.clear();
+	}
+
+	public synchronized long getHits()
+	{
+		return this.hits;
+	}
+
+	public synchronized long getMisses()
+	{
+		return this.misses;
+	}
+
+	@Override
+	public boolean isValid( final Object verificationToken )
+	{
+		return true;
+	}
+
+	@Override
+	public synchronized void postChange( final IBaseMonitor<IAEItemStack> monitor, final Iterable<IAEItemStack> change, final BaseActionSource actionSource )
+	{
+		for( final IAEItemStack is : change )
+		{
+			for( final Calculation c : this.calculations )
+			{
+				c.changed( is );
+			}
+
+			if( this.plans.isEmpty() )
+			{
+				continue;
+			}
+
+			final Set<Plan> stale = new HashSet<Plan>( this.byFuzzyItem.get( is.getItem() ) );
+
+			for( final Plan plan : this.byItem.get( is ) )
+			{
+				if( plan.watched.contains( is ) )
+				{
+					stale.add( plan );
+				}
+				else
+				{
+					final IAEItemStack used = plan.used.findPrecise( is );
+					final IAEItemStack stored = this.monitor.getStorageList().findPrecise( is );
+
+					if( used != null && ( stored == null || stored.getStackSize() < used.getStackSize() ) )
+					{
+						stale.add( plan );
+					}
+				}
+			}
+
+			for( final Plan plan : stale )
+			{
+				this.plans.remove( plan.key );
+				this.unindex( plan );
+				this.invalidated++;
+			}
+		}
+	}
+
+	@Override
+	public synchronized void onListUpdate()
+	{
+		// cells or power changed, nothing is known about the amounts anymore
+		for( final Calculation c : this.calculations )
+		{
+			c.overflow = true;
+		}
+
+		this.clear();
+	}
+
+	@Override
+	public synchronized String toString()
+	{
+		return this.plans.size() + " plans, " + this.hits + " hits, " + this.misses + " misses, " + this.invalidated + " invalidated";
+	}
+
+	private synchronized void complete( final Calculation calculation, final ICraftingJob job )
+	{
+		if( !this.calculations.remove( calculation ) || calculation.overflow || calculation.key.patternVersion != this.patternVersion )
+		{
+			return;
+		}
+
+		if( !( job instanceof CraftingJob ) || !( (CraftingJob) job ).isPlanned() )
+		{
+			return;
+		}
+
+		final Plan plan = new Plan( calculation.key, (CraftingJob) job );
+		( (CraftingJob) job ).getCraftingPlan().getInputs( plan );
+
+		for( final IAEItemStack is : calculation.changed )
+		{
+			if( plan.used.findPrecise( is ) != null || plan.watched.contains( is ) || plan.fuzzy.contains( is.getItem() ) )
+			{
+				// the network changed under the calculation
+				return;
+			}
+		}
+
+		final Plan replaced = this.plans.put( plan.key, plan );
+		if( replaced != null )
+		{
+			this.unindex( replaced );
+		}
+
+		for( final IAEItemStack is : plan.used )
+		{
+			this.byItem.put( is, plan );
+		}
+
+		for( final IAEItemStack is : plan.watched )
+		{
+			this.byItem.put( is, plan );
+		}
+
+		for( final Item item : plan.fuzzy )
+		{
+			this.byFuzzyItem.put( item, plan );
+		}
+	}
+
+	private void unindex( final Plan plan )
+	{
+		for( final IAEItemStack is : plan.used )
+		{
+			this.byItem.remove( is, plan );
+		}
+
+		for( final IAEItemStack is : plan.watched )
+		{
+			this.byItem.remove( is, plan );
+		}
+
+		for( final Item item : plan.fuzzy )
+		{
+			this.byFuzzyItem.remove( item, plan );
+		}
+	}
+
+	private void clear()
+	{
+		this.invalidated += this.plans.size();
+		this.plans.clear();
+		this.byItem.clear();
+		this.byFuzzyItem.clear();
+	}
+
+	/**
+	 * What a plan takes from the network and which items it depends on beyond that, filled from the {@link CraftingPlan}.
+	 */
+	static final class Plan
+	{
+
+		private final Key key;
+		private final CraftingJob job;
+		private final IItemList<IAEItemStack> used = AEApi.instance().storage().createItemList();
+		private final Set<IAEItemStack> watched = new HashSet<IAEItemStack>();
+		private final Set<Item> fuzzy = new HashSet<Item>();
+
+		private Plan( final Key key, final CraftingJob job )
+		{
+			this.key = key;
+			this.job = job;
+		}
+
+		void use( final IAEItemStack is )
+		{
+			if( is.getStackSize() > 0 )
+			{
+				this.used.add( is );
+			}
+		}
+
+		void watch( final IAEItemStack is, final boolean anyDamageOrTag )
+		{
+			if( anyDamageOrTag )
+			{
+				this.fuzzy.add( is.getItem() );
+			}
+			else
+			{
+				this.watched.add( is.copy() );
+			}
+		}
+	}
+
+	private final class Calculation implements ICraftingCallback
+	{
+
+		private final Key key;
+		private final ICraftingCallback callback;
+		private final Set<IAEItemStack> changed = new HashSet<IAEItemStack>();
+		private boolean overflow = false;
+
+		private Calculation( final Key key, final ICraftingCallback callback )
+		{
+			this.key = key;
+			this.callback = callback;
+		}
+
+		private void changed( final IAEItemStack is )
+		{
+			if( this.overflow )
+			{
+				return;
+			}
+
+			if( this.changed.size() >= MAX_TRACKED_CHANGES )
+			{
+				this.overflow = true;
+				this.changed.clear();
+			}
+			else
+			{
+				this.changed.add( is.copy() );
+			}
+		}
+
+		@Override
+		public void calculationComplete( final ICraftingJob job )
+		{
+			CraftingPlanCache.this.complete( this, job );
+
+			if( this.callback != null )
+			{
+				this.callback.calculationComplete( job );
+			}
+		}
+	}
+
+	private static final class Key
+	{
+
+		private final Object owner;
+		private final IAEItemStack what;
+		private final long amount;
+		private final int patternVersion;
+
+		private Key( final Object owner, final IAEItemStack what, final int patternVersion )
+		{
+			this.owner = owner;
+			this.what = what.copy();
+			this.amount = what.getStackSize();
+			this.patternVersion = patternVersion;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			int result = this.owner.hashCode();
+			result = 31 * result + this.what.hashCode();
+			result = 31 * result + (int) ( this.amount ^ ( this.amount >>> 32 ) );
+			return 31 * result + this.patternVersion;
+		}
+
+		@Override
+		public boolean equals( final Object obj )
+		{
+			if( !( obj instanceof Key ) )
+			{
+				return false;
+			}
+
+			final Key other = (Key) obj;
+			return this.amount == other.amount && this.patternVersion == other.patternVersion && this.owner.equals( other.owner ) && this.what.equals( other.what );
+		}
+	}
+}
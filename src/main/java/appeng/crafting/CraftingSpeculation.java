@@ -0,0 +1,430 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.crafting;
+
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.BaseActionSource;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.core.AEConfig;
+
+
+/**
+ * Tries the first craft of every alternative pattern of a crafting tree node at the same time.
+ *
+ * Each try works on a copy of its part of the tree, its own layer of the crafting inventory and its own layer of the
+ * available items. The tries are then taken over in priority order, just as if they had run one after another: failed
+ * tries are kept as the sequential calculation keeps them, the first successful one is continued and the rest is
+ * cancelled. A try is thrown away and calculated again when it read available items an earlier, kept try changed, so
+ * the resulting plan is always the same as without speculation.
+ */
+final class CraftingSpeculation
+{
+
+	private static ForkJoinPool pool;
+
+	private final CraftingJob job;
+	private final List<CraftingTreeProcess> alternatives;
+	private final BaseActionSource src;
+	private final Trial[] trials;
+	private final Set<IAEItemStack> written = new HashSet<IAEItemStack>();
+	private MECraftingInventory inventory;
+
+	private CraftingSpeculation( final CraftingJob job, final List<CraftingTreeProcess> alternatives, final BaseActionSource src )
+	{
+		this.job = job;
+		this.alternatives = alternatives;
+		this.src = src;
+		this.trials = new Trial[alternatives.size()];
+	}
+
+	/**
+	 * Starts trying the alternatives of a node, unless speculation is disabled or there is nothing to choose from.
+	 *
+	 * @return the running speculation or null
+	 */
+	static CraftingSpeculation start( final CraftingJob job, final CraftingTreeNode node, final List<CraftingTreeProcess> alternatives, final MECraftingInventory inv, final BaseActionSource src )
+	{
+		if( job.isSpeculative() || AEConfig.instance.craftingCalculationSpeculativeThreads <= 0 )
+		{
+			return null;
+		}
+
+		int possible = 0;
+		for( final CraftingTreeProcess pro : alternatives )
+		{
+			if( pro.possible )
+			{
+				possible++;
+			}
+		}
+
+		if( possible < 2 )
+		{
+			return null;
+		}
+
+		final CraftingSpeculation speculation = new CraftingSpeculation( job, alternatives, src );
+
+		try
+		{
+			for( int x = 0; x < alternatives.size(); x++ )
+			{
+				final CraftingTreeProcess pro = alternatives.get( x );
+
+				if( pro.possible )
+				{
+					final SpeculativeJob trialJob = new SpeculativeJob( job );
+					final CraftingTreeProcess copy = pro.copy( trialJob, node );
+					trialJob.copiedNodes = trialJob.usedNodes;
+
+					speculation.trials[x] = speculation.new Trial( trialJob, copy, new MECraftingInventory( inv, true, true, true ) );
+				}
+			}
+		}
+		catch( final CraftingCalculationFailure f )
+		{
+			// the copies alone exceed the nodes left, calculate the alternatives one after another
+			return null;
+		}
+
+		final ForkJoinPool pool = getPool();
+
+		for( final Trial trial : speculation.trials )
+		{
+			if( trial != null )
+			{
+				trial.task = pool.submit( trial );
+			}
+		}
+
+		return speculation;
+	}
+
+	private static synchronized ForkJoinPool getPool()
+	{
+		if( pool == null )
+		{
+			pool = new ForkJoinPool( AEConfig.instance.craftingCalculationSpeculativeThreads, new ForkJoinPool.ForkJoinWorkerThreadFactory()
+			{
+
+				@Override
+				public ForkJoinWorkerThread newThread( final ForkJoinPool fjp )
+				{
+					final ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread( fjp );
+					t.setName( "AE Crafting Speculation " + t.getPoolIndex() );
+					t.setDaemon( true );
+					return t;
+				}
+			}, null, false );
+		}
+
+		return pool;
+	}
+
+	/**
+	 * Takes over the first craft of alternative x, all alternatives before it must have been taken over already.
+	 *
+	 * @return what the calculation should do with alternative x, the speculation is over unless it is
+	 * {@link Outcome#FAILED}
+	 */
+	Outcome adopt( final int x ) throws InterruptedException
+	{
+		final Trial trial = this.trials[x];
+
+		if( trial == null )
+		{
+			// it was not possible to begin with, nothing to run
+			return Outcome.FAILED;
+		}
+
+		final Outcome outcome = this.await( trial );
+
+		if( ( outcome != Outcome.FAILED && outcome != Outcome.SUCCEEDED ) || this.conflicts( trial ) )
+		{
+			this.cancel( x );
+			return Outcome.NONE;
+		}
+
+		if( !trial.availableCheck.commit( this.src ) )
+		{
+			this.cancel( x );
+			return Outcome.NONE;
+		}
+
+		trial.process.rebind( this.job );
+		this.alternatives.set( x, trial.process );
+		this.written.addAll( trial.job.touched );
+
+		try
+		{
+			this.job.useBytes( trial.job.usedBytes );
+
+			// the copy replaces a subtree the job counted already, only what the trial built on top of it is new
+			this.job.addNodes( trial.job.usedNodes - trial.job.copiedNodes );
+		}
+		catch( final CraftingCalculationFailure f )
+		{
+			this.cancel( x + 1 );
+			throw f;
+		}
+
+		if( outcome == Outcome.FAILED )
+		{
+			trial.process.possible = true;
+			return Outcome.FAILED;
+		}
+
+		this.inventory = trial.inventory;
+		this.cancel( x + 1 );
+		return Outcome.SUCCEEDED;
+	}
+
+	/**
+	 * @return the crafting inventory of the successful first craft
+	 */
+	MECraftingInventory getInventory()
+	{
+		return this.inventory;
+	}
+
+	private boolean conflicts( final Trial trial )
+	{
+		for( final IAEItemStack is : trial.job.touched )
+		{
+			if( this.written.contains( is ) )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Stops every trial from index from on and waits for them, so nothing runs while the calculation continues.
+	 */
+	private void cancel( final int from ) throws InterruptedException
+	{
+		for( int x = from; x < this.trials.length; x++ )
+		{
+			if( this.trials[x] != null )
+			{
+				this.trials[x].job.aborted = true;
+			}
+		}
+
+		for( int x = from; x < this.trials.length; x++ )
+		{
+			if( this.trials[x] != null )
+			{
+				this.await( this.trials[x] );
+			}
+		}
+	}
+
+	private Outcome await( final Trial trial ) throws InterruptedException
+	{
+		this.job.beginWaiting();
+
+		try
+		{
+			return trial.task.get();
+		}
+		catch( final InterruptedException e )
+		{
+			for( final Trial t : this.trials )
+			{
+				if( t != null )
+				{
+					t.job.aborted = true;
+				}
+			}
+
+			throw e;
+		}
+		catch( final ExecutionException e )
+		{
+			return Outcome.NONE;
+		}
+		finally
+		{
+			this.job.endWaiting();
+		}
+	}
+
+	enum Outcome
+	{
+		/**
+		 * The first craft failed, continue with the next alternative.
+		 */
+		FAILED,
+
+		/**
+		 * The first craft worked, continue it with {@link CraftingSpeculation#getInventory()}.
+		 */
+		SUCCEEDED,
+
+		/**
+		 * Nothing was taken over, calculate this alternative and the following ones as usual.
+		 */
+		NONE
+	}
+
+	private final class Trial implements Callable<Outcome>
+	{
+
+		private final SpeculativeJob job;
+		private final CraftingTreeProcess process;
+		private final MECraftingInventory inventory;
+		private final MECraftingInventory availableCheck;
+		private ForkJoinTask<Outcome> task;
+
+		private Trial( final SpeculativeJob job, final CraftingTreeProcess process, final MECraftingInventory inventory )
+		{
+			this.job = job;
+			this.process = process;
+			this.inventory = inventory;
+			this.availableCheck = job.availableCheck;
+		}
+
+		@Override
+		public Outcome call() throws Exception
+		{
+			if( this.job.aborted )
+			{
+				return Outcome.NONE;
+			}
+
+			final CraftingJob parent = CraftingSpeculation.this.job;
+			parent.beginWorking();
+
+			try
+			{
+				this.process.request( this.inventory, 1, CraftingSpeculation.this.src );
+				return Outcome.SUCCEEDED;
+			}
+			catch( final CraftBranchFailure e )
+			{
+				return Outcome.FAILED;
+			}
+			catch( final InterruptedException e )
+			{
+				return Outcome.NONE;
+			}
+			catch( final RuntimeException e )
+			{
+				// includes exceeding the byte limit, the sequential calculation finds out again
+				return Outcome.NONE;
+			}
+			finally
+			{
+				parent.endWorking();
+			}
+		}
+	}
+
+	/**
+	 * Runs a trial against its own layer of the available items and remembers which items it looked at.
+	 */
+	private static final class SpeculativeJob extends CraftingJob
+	{
+
+		private final CraftingJob parent;
+		private final MECraftingInventory availableCheck;
+		private final Set<IAEItemStack> touched = new HashSet<IAEItemStack>();
+		private final long remainingBytes;
+		private final int remainingNodes;
+		private long usedBytes = 0;
+		private int usedNodes = 0;
+		private int copiedNodes = 0;
+		private volatile boolean aborted = false;
+
+		private SpeculativeJob( final CraftingJob parent )
+		{
+			super( parent );
+			this.parent = parent;
+			this.availableCheck = new MECraftingInventory( parent.getAvailableCheck(), true, true, false );
+			this.remainingBytes = parent.getRemainingBytes();
+			this.remainingNodes = parent.getRemainingNodes();
+		}
+
+		@Override
+		boolean isSpeculative()
+		{
+			return true;
+		}
+
+		@Override
+		void pause() throws InterruptedException
+		{
+			if( this.aborted )
+			{
+				throw new InterruptedException();
+			}
+
+			this.parent.pause();
+		}
+
+		@Override
+		void refund( final IAEItemStack o )
+		{
+			this.touched.add( o.copy() );
+			this.availableCheck.injectItems( o, Actionable.MODULATE, null );
+		}
+
+		@Override
+		IAEItemStack checkUse( final IAEItemStack available )
+		{
+			this.touched.add( available.copy() );
+			return this.availableCheck.extractItems( available, Actionable.MODULATE, null );
+		}
+
+		@Override
+		void addNodes( final int count )
+		{
+			this.usedNodes += count;
+
+			if( this.usedNodes > this.remainingNodes )
+			{
+				throw new CraftingCalculationFailure( this.getOutput(), this.getOutput().getStackSize() );
+			}
+		}
+
+		@Override
+		void useBytes( final long bytes )
+		{
+			this.usedBytes += bytes;
+
+			if( this.usedBytes > this.remainingBytes )
+			{
+				throw new CraftingCalculationFailure( this.getOutput(), this.getOutput().getStackSize() );
+			}
+		}
+	}
+}
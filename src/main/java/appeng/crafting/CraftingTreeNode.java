@@ -36,7 +36,6 @@ import appeng.api.networking.crafting.ICraftingPatternDetails;
 import appeng.api.networking.security.BaseActionSource;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IItemList;
-import appeng.me.cluster.implementations.CraftingCPUCluster;
 
 
 public class CraftingTreeNode
@@ -44,7 +43,7 @@ public class CraftingTreeNode
 
 	// what slot!
 	private final int slot;
-	private final CraftingJob job;
+	private CraftingJob job;
 	private final IItemList<IAEItemStack> used = AEApi.instance().storage().createItemList();
 	// parent node.
 	private final CraftingTreeProcess parent;
@@ -61,8 +60,40 @@ public class CraftingTreeNode
 
 	private boolean sim;
 
+	/**
+	 * Copies the state of original and everything below it for job, see {@link CraftingSpeculation}.
+	 */
+	private CraftingTreeNode( final CraftingTreeNode original, final CraftingJob job, final CraftingTreeProcess par )
+	{
+		job.addNode();
+
+		this.slot = original.slot;
+		this.job = job;
+		this.parent = par;
+		this.world = original.world;
+		this.what = original.what.copy();
+		this.bytes = original.bytes;
+		this.canEmit = original.canEmit;
+		this.missing = original.missing;
+		this.howManyEmitted = original.howManyEmitted;
+		this.exhausted = original.exhausted;
+		this.sim = original.sim;
+
+		for( final IAEItemStack is : original.used )
+		{
+			this.used.add( is.copy() );
+		}
+
+		for( final CraftingTreeProcess pro : original.nodes )
+		{
+			this.nodes.add( pro.copy( job, this ) );
+		}
+	}
+
 	public CraftingTreeNode( final ICraftingGrid cc, final CraftingJob job, final IAEItemStack wat, final CraftingTreeProcess par, final int slot, final int depth )
 	{
+		job.addNode();
+
 		this.what = wat;
 		this.parent = par;
 		this.slot = slot;
@@ -127,17 +158,16 @@ public class CraftingTreeNode
 		if( this.getSlot() >= 0 && this.parent != null && this.parent.details.isCraftable() )
 		{
 			final Collection<IAEItemStack> itemList;
-			final IItemList<IAEItemStack> inventoryList = inv.getItemList();
 
 			if( this.parent.details.canSubstitute() )
 			{
-				itemList = inventoryList.findFuzzy( this.what, FuzzyMode.IGNORE_ALL );
+				itemList = inv.findFuzzy( this.what, FuzzyMode.IGNORE_ALL );
 			}
 			else
 			{
 				itemList = Lists.newArrayList();
 
-				final IAEItemStack item = inventoryList.findPrecise( this.what );
+				final IAEItemStack item = inv.findPrecise( this.what );
 
 				if( item != null )
 				{
@@ -167,7 +197,7 @@ public class CraftingTreeNode
 							}
 						}
 
-						this.bytes += available.getStackSize();
+						this.addBytes( available.getStackSize() );
 						l -= available.getStackSize();
 
 						if( l == 0 )
@@ -195,7 +225,7 @@ public class CraftingTreeNode
 					}
 				}
 
-				this.bytes += available.getStackSize();
+				this.addBytes( available.getStackSize() );
 				l -= available.getStackSize();
 
 				if( l == 0 )
@@ -211,7 +241,7 @@ public class CraftingTreeNode
 			wat.setStackSize( l );
 
 			this.howManyEmitted = wat.getStackSize();
-			this.bytes += wat.getStackSize();
+			this.addBytes( wat.getStackSize() );
 
 			return wat;
 		}
@@ -234,7 +264,7 @@ public class CraftingTreeNode
 
 				if( available != null )
 				{
-					this.bytes += available.getStackSize();
+					this.addBytes( available.getStackSize() );
 					l -= available.getStackSize();
 
 					if( l <= 0 )
@@ -250,14 +280,48 @@ public class CraftingTreeNode
 		}
 		else if( this.nodes.size() > 1 )
 		{
-			for( final CraftingTreeProcess pro : this.nodes )
+			CraftingSpeculation speculation = CraftingSpeculation.start( this.job, this, this.nodes, inv, src );
+
+			for( int x = 0; x < this.nodes.size(); x++ )
 			{
+				MECraftingInventory speculated = null;
+
+				if( speculation != null )
+				{
+					final CraftingSpeculation.Outcome outcome = speculation.adopt( x );
+
+					if( outcome == CraftingSpeculation.Outcome.FAILED )
+					{
+						continue;
+					}
+
+					if( outcome == CraftingSpeculation.Outcome.SUCCEEDED )
+					{
+						speculated = speculation.getInventory();
+					}
+
+					speculation = null;
+				}
+
+				final CraftingTreeProcess pro = this.nodes.get( x );
+
 				try
 				{
 					while( pro.possible && l > 0 )
 					{
-						final MECraftingInventory subInv = new MECraftingInventory( inv, true, true, true );
-						pro.request( subInv, 1, src );
+						final MECraftingInventory subInv;
+
+						if( speculated != null )
+						{
+							// the first craft already ran on its own
+							subInv = speculated;
+							speculated = null;
+						}
+						else
+						{
+							subInv = new MECraftingInventory( inv, true, true, true );
+							pro.request( subInv, 1, src );
+						}
 
 						this.what.setStackSize( l );
 						final IAEItemStack available = subInv.extractItems( this.what, Actionable.MODULATE, src );
@@ -269,7 +333,7 @@ public class CraftingTreeNode
 								throw new CraftBranchFailure( this.what, l );
 							}
 
-							this.bytes += available.getStackSize();
+							this.addBytes( available.getStackSize() );
 							l -= available.getStackSize();
 
 							if( l <= 0 )
@@ -293,7 +357,7 @@ public class CraftingTreeNode
 		if( this.sim )
 		{
 			this.missing += l;
-			this.bytes += l;
+			this.addBytes( l );
 			final IAEItemStack rv = this.what.copy();
 			rv.setStackSize( l );
 			return rv;
@@ -309,6 +373,33 @@ public class CraftingTreeNode
 		throw new CraftBranchFailure( this.what, l );
 	}
 
+	/**
+	 * @return a copy of this node and everything below it for job
+	 */
+	CraftingTreeNode copy( final CraftingJob job, final CraftingTreeProcess par )
+	{
+		return new CraftingTreeNode( this, job, par );
+	}
+
+	/**
+	 * Hands a copied part of the tree back to the job it was copied from.
+	 */
+	void rebind( final CraftingJob job )
+	{
+		this.job = job;
+
+		for( final CraftingTreeProcess pro : this.nodes )
+		{
+			pro.rebind( job );
+		}
+	}
+
+	private void addBytes( final long bytes )
+	{
+		this.bytes += bytes;
+		this.job.useBytes( bytes );
+	}
+
 	void dive( final CraftingJob job )
 	{
 		if( this.missing > 0 )
@@ -346,57 +437,43 @@ public class CraftingTreeNode
 		}
 	}
 
-	public void setJob( final MECraftingInventory storage, final CraftingCPUCluster craftingCPUCluster, final BaseActionSource src ) throws CraftBranchFailure
+	/**
+	 * Adds this part of the tree to a plan, the requested item of the root is ignored by the calculation and not
+	 * watched.
+	 */
+	void compile( final CraftingPlan.Builder plan )
 	{
-		for( final IAEItemStack i : this.used )
+		if( this.parent != null )
 		{
-			final IAEItemStack ex = storage.extractItems( i, Actionable.MODULATE, src );
-
-			if( ex == null || ex.getStackSize() != i.getStackSize() )
+			if( this.getSlot() >= 0 && this.parent.details.isCraftable() && this.parent.details.canSubstitute() )
 			{
-				throw new CraftBranchFailure( i, i.getStackSize() );
+				plan.flag( this.what, CraftingPlan.FUZZY );
 			}
 
-			craftingCPUCluster.addStorage( ex );
-		}
-
-		if( this.howManyEmitted > 0 )
-		{
-			final IAEItemStack i = this.what.copy();
-			i.setStackSize( this.howManyEmitted );
-			craftingCPUCluster.addEmitable( i );
-		}
-
-		for( final CraftingTreeProcess pro : this.nodes )
-		{
-			pro.setJob( storage, craftingCPUCluster, src );
+			if( this.exhausted || this.howManyEmitted > 0 )
+			{
+				plan.flag( this.what, CraftingPlan.WATCHED );
+			}
 		}
-	}
 
-	void getPlan( final IItemList<IAEItemStack> plan )
-	{
 		if( this.missing > 0 )
 		{
-			final IAEItemStack o = this.what.copy();
-			o.setStackSize( this.missing );
-			plan.add( o );
+			plan.miss( this.what, this.missing );
 		}
 
 		if( this.howManyEmitted > 0 )
 		{
-			final IAEItemStack i = this.what.copy();
-			i.setCountRequestable( this.howManyEmitted );
-			plan.addRequestable( i );
+			plan.emit( this.what, this.howManyEmitted );
 		}
 
 		for( final IAEItemStack i : this.used )
 		{
-			plan.add( i.copy() );
+			plan.use( i, i.getStackSize() );
 		}
 
 		for( final CraftingTreeProcess pro : this.nodes )
 		{
-			pro.getPlan( plan );
+			pro.compile( plan );
 		}
 	}
 
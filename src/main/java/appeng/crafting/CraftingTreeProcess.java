@@ -20,6 +20,7 @@ package appeng.crafting;
 
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -35,9 +36,7 @@ import appeng.api.networking.crafting.ICraftingGrid;
 import appeng.api.networking.crafting.ICraftingPatternDetails;
 import appeng.api.networking.security.BaseActionSource;
 import appeng.api.storage.data.IAEItemStack;
-import appeng.api.storage.data.IItemList;
 import appeng.container.ContainerNull;
-import appeng.me.cluster.implementations.CraftingCPUCluster;
 import appeng.util.Platform;
 
 
@@ -46,8 +45,8 @@ public class CraftingTreeProcess
 
 	private final CraftingTreeNode parent;
 	final ICraftingPatternDetails details;
-	private final CraftingJob job;
-	private final Map<CraftingTreeNode, Long> nodes = new HashMap<CraftingTreeNode, Long>();
+	private CraftingJob job;
+	private final Map<CraftingTreeNode, Long> nodes;
 	private final int depth;
 	boolean possible = true;
 	private World world;
@@ -59,9 +58,12 @@ public class CraftingTreeProcess
 
 	public CraftingTreeProcess( final ICraftingGrid cc, final CraftingJob job, final ICraftingPatternDetails details, final CraftingTreeNode craftingTreeNode, final int depth )
 	{
+		job.addNode();
+
 		this.parent = craftingTreeNode;
 		this.details = details;
 		this.job = job;
+		this.nodes = new HashMap<CraftingTreeNode, Long>();
 		this.depth = depth;
 		final World world = job.getWorld();
 
@@ -170,6 +172,33 @@ public class CraftingTreeProcess
 		}
 	}
 
+	/**
+	 * Copies the state of original and everything below it for job, in the same order, see
+	 * {@link CraftingSpeculation}.
+	 */
+	private CraftingTreeProcess( final CraftingTreeProcess original, final CraftingJob job, final CraftingTreeNode craftingTreeNode )
+	{
+		job.addNode();
+
+		this.parent = craftingTreeNode;
+		this.details = original.details;
+		this.job = job;
+		this.nodes = new LinkedHashMap<CraftingTreeNode, Long>();
+		this.depth = original.depth;
+		this.possible = original.possible;
+		this.world = original.world;
+		this.crafts = original.crafts;
+		this.containerItems = original.containerItems;
+		this.limitQty = original.limitQty;
+		this.fullSimulation = original.fullSimulation;
+		this.bytes = original.bytes;
+
+		for( final Entry<CraftingTreeNode, Long> entry : original.nodes.entrySet() )
+		{
+			this.nodes.put( entry.getKey().copy( job, this ), entry.getValue() );
+		}
+	}
+
 	boolean notRecursive( final ICraftingPatternDetails details )
 	{
 		return this.parent == null || this.parent.notRecursive( details );
@@ -190,6 +219,12 @@ public class CraftingTreeProcess
 
 		if( this.fullSimulation )
 		{
+			if( this.job.isSpeculative() )
+			{
+				// crafting events have to stay on the calculation thread, let it calculate this one itself
+				throw new InterruptedException();
+			}
+
 			final InventoryCrafting ic = new InventoryCrafting( new ContainerNull(), 3, 3 );
 
 			for( final Entry<CraftingTreeNode, Long> entry : this.nodes.entrySet() )
@@ -297,28 +332,31 @@ public class CraftingTreeProcess
 		}
 	}
 
-	void setJob( final MECraftingInventory storage, final CraftingCPUCluster craftingCPUCluster, final BaseActionSource src ) throws CraftBranchFailure
+	/**
+	 * @return a copy of this process and everything below it for job
+	 */
+	CraftingTreeProcess copy( final CraftingJob job, final CraftingTreeNode craftingTreeNode )
 	{
-		craftingCPUCluster.addCrafting( this.details, this.crafts );
+		return new CraftingTreeProcess( this, job, craftingTreeNode );
+	}
+
+	void rebind( final CraftingJob job )
+	{
+		this.job = job;
 
 		for( final CraftingTreeNode pro : this.nodes.keySet() )
 		{
-			pro.setJob( storage, craftingCPUCluster, src );
+			pro.rebind( job );
 		}
 	}
 
-	void getPlan( final IItemList<IAEItemStack> plan )
+	void compile( final CraftingPlan.Builder plan )
 	{
-		for( IAEItemStack i : this.details.getOutputs() )
-		{
-			i = i.copy();
-			i.setCountRequestable( i.getStackSize() * this.crafts );
-			plan.addRequestable( i );
-		}
+		plan.craft( this.details, this.crafts );
 
 		for( final CraftingTreeNode pro : this.nodes.keySet() )
 		{
-			pro.getPlan( plan );
+			pro.compile( plan );
 		}
 	}
 }
@@ -19,8 +19,13 @@
 package appeng.crafting;
 
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 import appeng.api.AEApi;
 import appeng.api.config.Actionable;
+import appeng.api.config.FuzzyMode;
 import appeng.api.networking.security.BaseActionSource;
 import appeng.api.storage.IMEInventory;
 import appeng.api.storage.IMEMonitor;
@@ -29,12 +34,21 @@ import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IItemList;
 
 
+/**
+ * The inventory a crafting calculation works against.
+ *
+ * The first layer copies the network, layers created on top of another {@link MECraftingInventory} only record their
+ * changes and read everything else through the layer below.
+ */
 public class MECraftingInventory implements IMEInventory<IAEItemStack>
 {
 
 	private final MECraftingInventory par;
 
 	private final IMEInventory<IAEItemStack> target;
+	// layer below, null if localCache holds all items
+	private final MECraftingInventory base;
+	// all items, or for layers with a base the signed changes against it
 	private final IItemList<IAEItemStack> localCache;
 
 	private final boolean logExtracted;
@@ -56,6 +70,7 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 		this.logInjections = false;
 		this.logMissing = false;
 		this.target = null;
+		this.base = null;
 		this.par = null;
 	}
 
@@ -93,7 +108,8 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 			this.injectedCache = null;
 		}
 
-		this.localCache = this.target.getAvailableItems( AEApi.instance().storage().createItemList() );
+		this.base = parent;
+		this.localCache = AEApi.instance().storage().createItemList();
 
 		this.par = parent;
 	}
@@ -132,6 +148,7 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 			this.injectedCache = null;
 		}
 
+		this.base = null;
 		this.localCache = AEApi.instance().storage().createItemList();
 		for( final IAEItemStack is : target.getStorageList() )
 		{
@@ -175,7 +192,17 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 			this.injectedCache = null;
 		}
 
-		this.localCache = target.getAvailableItems( AEApi.instance().storage().createItemList() );
+		if( target instanceof MECraftingInventory )
+		{
+			this.base = (MECraftingInventory) target;
+			this.localCache = AEApi.instance().storage().createItemList();
+		}
+		else
+		{
+			this.base = null;
+			this.localCache = target.getAvailableItems( AEApi.instance().storage().createItemList() );
+		}
+
 		this.par = null;
 	}
 
@@ -207,6 +234,37 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 			return null;
 		}
 
+		if( this.base != null )
+		{
+			final long available = this.getAmount( request );
+			if( available <= 0 )
+			{
+				return null;
+			}
+
+			final IAEItemStack ret;
+			if( available >= request.getStackSize() )
+			{
+				ret = request;
+			}
+			else
+			{
+				ret = request.copy();
+				ret.setStackSize( available );
+			}
+
+			if( mode == Actionable.MODULATE )
+			{
+				this.change( ret, -ret.getStackSize() );
+				if( this.logExtracted )
+				{
+					this.extractedCache.add( ret );
+				}
+			}
+
+			return ret;
+		}
+
 		final IAEItemStack list = this.localCache.findPrecise( request );
 		if( list == null || list.getStackSize() == 0 )
 		{
@@ -245,6 +303,28 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 	@Override
 	public IItemList<IAEItemStack> getAvailableItems( final IItemList<IAEItemStack> out )
 	{
+		if( this.base != null )
+		{
+			final IItemList<IAEItemStack> known = this.base.getAvailableItems( AEApi.instance().storage().createItemList() );
+			for( final IAEItemStack is : this.localCache )
+			{
+				known.add( is );
+			}
+
+			for( final IAEItemStack is : known )
+			{
+				final long amount = this.getAmount( is );
+				if( amount > 0 )
+				{
+					final IAEItemStack available = is.copy();
+					available.setStackSize( amount );
+					out.add( available );
+				}
+			}
+
+			return out;
+		}
+
 		for( final IAEItemStack is : this.localCache )
 		{
 			out.add( is );
@@ -259,11 +339,86 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 		return StorageChannel.ITEMS;
 	}
 
+	/**
+	 * @return the items of this inventory, only the changes for a layer on top of another one.
+	 */
 	public IItemList<IAEItemStack> getItemList()
 	{
 		return this.localCache;
 	}
 
+	/**
+	 * @return the available amount of what, or null if there is none
+	 */
+	IAEItemStack findPrecise( final IAEItemStack what )
+	{
+		if( this.base == null )
+		{
+			return this.localCache.findPrecise( what );
+		}
+
+		final long amount = this.getAmount( what );
+		if( amount <= 0 )
+		{
+			return null;
+		}
+
+		final IAEItemStack available = what.copy();
+		available.setStackSize( amount );
+		return available;
+	}
+
+	/**
+	 * @return the available amounts of everything matching filter, in the order of {@link IItemList#findFuzzy}
+	 */
+	Collection<IAEItemStack> findFuzzy( final IAEItemStack filter, final FuzzyMode fuzzy )
+	{
+		if( this.base == null )
+		{
+			return this.localCache.findFuzzy( filter, fuzzy );
+		}
+
+		final IItemList<IAEItemStack> known = AEApi.instance().storage().createItemList();
+		for( final IAEItemStack is : this.base.findFuzzy( filter, fuzzy ) )
+		{
+			known.add( is );
+		}
+
+		for( final IAEItemStack is : this.localCache.findFuzzy( filter, fuzzy ) )
+		{
+			known.add( is );
+		}
+
+		final List<IAEItemStack> out = new ArrayList<IAEItemStack>();
+		for( final IAEItemStack is : known.findFuzzy( filter, fuzzy ) )
+		{
+			final long amount = this.getAmount( is );
+			if( amount > 0 )
+			{
+				final IAEItemStack available = is.copy();
+				available.setStackSize( amount );
+				out.add( available );
+			}
+		}
+
+		return out;
+	}
+
+	private long getAmount( final IAEItemStack what )
+	{
+		final IAEItemStack local = this.localCache.findPrecise( what );
+		final long amount = local == null ? 0 : local.getStackSize();
+
+		return this.base == null ? amount : amount + this.base.getAmount( what );
+	}
+
+	private void change( final IAEItemStack what, final long amount )
+	{
+		final IAEItemStack delta = what.copy();
+		delta.setStackSize( amount );
+		this.localCache.add( delta );
+	}
+
 	public boolean commit( final BaseActionSource src )
 	{
 		final IItemList<IAEItemStack> added = AEApi.instance().storage().createItemList();
@@ -343,6 +498,17 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 
 	void ignore( final IAEItemStack what )
 	{
+		if( this.base != null )
+		{
+			final long amount = this.getAmount( what );
+			if( amount > 0 )
+			{
+				this.change( what, -amount );
+			}
+
+			return;
+		}
+
 		final IAEItemStack list = this.localCache.findPrecise( what );
 		if( list != null )
 		{
@@ -78,6 +78,7 @@ import appeng.api.storage.IStorageMonitorable;
 import appeng.api.storage.StorageChannel;
 import appeng.api.storage.data.IAEFluidStack;
 import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
 import appeng.api.util.AECableType;
 import appeng.api.util.AEPartLocation;
 import appeng.api.util.DimensionalCoord;
@@ -97,6 +98,7 @@ import appeng.tile.inventory.InvOperation;
 import appeng.util.ConfigManager;
 import appeng.util.IConfigManagerHost;
 import appeng.util.InventoryAdaptor;
+import appeng.util.InventoryAdaptorCache;
 import appeng.util.Platform;
 import appeng.util.inv.AdaptorIInventory;
 import appeng.util.inv.IInventoryDestination;
@@ -127,6 +129,7 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 	private final MEMonitorPassThrough<IAEItemStack> items = new MEMonitorPassThrough<IAEItemStack>( new NullInventory<IAEItemStack>(), StorageChannel.ITEMS );
 	private final MEMonitorPassThrough<IAEFluidStack> fluids = new MEMonitorPassThrough<IAEFluidStack>( new NullInventory<IAEFluidStack>(), StorageChannel.FLUIDS );
 	private final UpgradeInventory upgrades;
+	private final InventoryAdaptorCache[] adaptors = new InventoryAdaptorCache[EnumFacing.VALUES.length];
 	private boolean hasConfig = false;
 	private int priority;
 	private List<ICraftingPatternDetails> craftingList = null;
@@ -153,6 +156,27 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		this.items.setChangeSource( actionSource );
 
 		this.interfaceRequestSource = new InterfaceRequestSource( this.iHost );
+
+		for( int x = 0; x < this.adaptors.length; x++ )
+		{
+			this.adaptors[x] = new InventoryAdaptorCache();
+		}
+	}
+
+	/**
+	 * Forgets the adaptors of all neighbours, what they expose may have changed.
+	 */
+	public void onNeighborChanged()
+	{
+		for( final InventoryAdaptorCache cache : this.adaptors )
+		{
+			cache.invalidate();
+		}
+	}
+
+	private InventoryAdaptor getTargetAdaptor( final TileEntity te, final EnumFacing s )
+	{
+		return this.adaptors[s.ordinal()].getAdaptor( te, s.getOpposite() );
 	}
 
 	@Override
@@ -611,7 +635,7 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 					continue;
 				}
 
-				final InventoryAdaptor ad = InventoryAdaptor.getAdaptor( te, s.getOpposite() );
+				final InventoryAdaptor ad = this.getTargetAdaptor( te, s );
 				if( ad != null )
 				{
 					final ItemStack Result = ad.addItems( whatToSend );
@@ -644,111 +668,176 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		}
 	}
 
+	/**
+	 * Works on the plans of all slots at once, so the network is asked once for everything the slots need and once for
+	 * everything they return.
+	 */
 	private boolean updateStorage()
 	{
+		final boolean[] changed = new boolean[NUMBER_OF_STORAGE_SLOTS];
+		this.isWorking = true;
+
+		try
+		{
+			this.destination = this.gridProxy.getStorage().getItemInventory();
+			final IEnergySource src = this.gridProxy.getEnergy();
+
+			final IItemList<IAEItemStack> toAcquire = AEApi.instance().storage().createItemList();
+			final IItemList<IAEItemStack> toStore = AEApi.instance().storage().createItemList();
+			final boolean[] transfer = new boolean[NUMBER_OF_STORAGE_SLOTS];
+
+			for( int x = 0; x < NUMBER_OF_STORAGE_SLOTS; x++ )
+			{
+				final IAEItemStack itemStack = this.requireWork[x];
+
+				if( itemStack != null )
+				{
+					transfer[x] = this.planTransfer( x, itemStack, toAcquire, toStore, changed );
+				}
+			}
+
+			final IItemList<IAEItemStack> acquired = Platform.poweredExtractAll( src, this.destination, toAcquire, this.interfaceRequestSource );
+			final IItemList<IAEItemStack> notStored = Platform.poweredInsertAll( src, this.destination, toStore, this.interfaceRequestSource );
+
+			// what was not stored is handed back to the slots last in line
+			for( final IAEItemStack is : toStore )
+			{
+				final IAEItemStack failed = notStored.findPrecise( is );
+				if( failed != null )
+				{
+					is.decStackSize( failed.getStackSize() );
+				}
+			}
+
+			for( int x = 0; x < NUMBER_OF_STORAGE_SLOTS; x++ )
+			{
+				if( transfer[x] )
+				{
+					changed[x] = this.finishTransfer( x, this.requireWork[x], acquired, toStore ) || changed[x];
+				}
+			}
+		}
+		catch( final GridAccessException e )
+		{
+			// :P
+		}
+
 		boolean didSomething = false;
 
 		for( int x = 0; x < NUMBER_OF_STORAGE_SLOTS; x++ )
 		{
-			if( this.requireWork[x] != null )
+			if( changed[x] )
 			{
-				didSomething = this.usePlan( x, this.requireWork[x] ) || didSomething;
+				this.updatePlan( x );
+				didSomething = true;
 			}
 		}
 
+		this.isWorking = false;
 		return didSomething;
 	}
 
-	private boolean usePlan( final int x, final IAEItemStack itemStack )
+	/**
+	 * Checks the plan of a slot and adds what it needs from or returns to the network to the given lists.
+	 *
+	 * @return true, if the slot takes part in the transfer
+	 */
+	private boolean planTransfer( final int x, final IAEItemStack itemStack, final IItemList<IAEItemStack> toAcquire, final IItemList<IAEItemStack> toStore, final boolean[] changed )
 	{
 		final InventoryAdaptor adaptor = this.getAdaptor( x );
-		this.isWorking = true;
 
-		boolean changed = false;
-		try
+		if( this.craftingTracker.isBusy( x ) )
 		{
-			this.destination = this.gridProxy.getStorage().getItemInventory();
-			final IEnergySource src = this.gridProxy.getEnergy();
-
-			if( this.craftingTracker.isBusy( x ) )
+			changed[x] = this.handleCrafting( x, adaptor, itemStack );
+		}
+		else if( itemStack.getStackSize() > 0 )
+		{
+			// make sure strange things didn't happen...
+			if( adaptor.simulateAdd( itemStack.getItemStack() ) != null )
 			{
-				changed = this.handleCrafting( x, adaptor, itemStack ) || changed;
+				changed[x] = true;
+				return false;
 			}
-			else if( itemStack.getStackSize() > 0 )
-			{
-				// make sure strange things didn't happen...
-				if( adaptor.simulateAdd( itemStack.getItemStack() ) != null )
-				{
-					changed = true;
-					throw new GridAccessException();
-				}
 
-				final IAEItemStack acquired = Platform.poweredExtraction( src, this.destination, itemStack, this.interfaceRequestSource );
-				if( acquired != null )
-				{
-					changed = true;
-					final ItemStack issue = adaptor.addItems( acquired.getItemStack() );
-					if( issue != null )
-					{
-						throw new IllegalStateException( "bad attempt at managing inventory. ( addItems )" );
-					}
-				}
-				else
-				{
-					changed = this.handleCrafting( x, adaptor, itemStack ) || changed;
-				}
-			}
-			else if( itemStack.getStackSize() < 0 )
+			toAcquire.add( itemStack.copy() );
+			return true;
+		}
+		else if( itemStack.getStackSize() < 0 )
+		{
+			final IAEItemStack store = itemStack.copy();
+			store.setStackSize( -store.getStackSize() );
+
+			final long diff = store.getStackSize();
+
+			// make sure strange things didn't happen...
+			final ItemStack canExtract = adaptor.simulateRemove( (int) diff, store.getItemStack(), null );
+			if( canExtract == null || canExtract.stackSize != diff )
 			{
-				IAEItemStack toStore = itemStack.copy();
-				toStore.setStackSize( -toStore.getStackSize() );
+				changed[x] = true;
+				return false;
+			}
 
-				long diff = toStore.getStackSize();
+			toStore.add( store );
+			return true;
+		}
+		// else wtf?
 
-				// make sure strange things didn't happen...
-				final ItemStack canExtract = adaptor.simulateRemove( (int) diff, toStore.getItemStack(), null );
-				if( canExtract == null || canExtract.stackSize != diff )
-				{
-					changed = true;
-					throw new GridAccessException();
-				}
+		return false;
+	}
 
-				toStore = Platform.poweredInsert( src, this.destination, toStore, this.interfaceRequestSource );
+	/**
+	 * Hands the slot its share of the acquired items, or removes its share of the stored items, in slot order.
+	 */
+	private boolean finishTransfer( final int x, final IAEItemStack itemStack, final IItemList<IAEItemStack> acquired, final IItemList<IAEItemStack> stored )
+	{
+		final InventoryAdaptor adaptor = this.getAdaptor( x );
 
-				if( toStore != null )
-				{
-					diff -= toStore.getStackSize();
-				}
+		if( itemStack.getStackSize() > 0 )
+		{
+			final IAEItemStack available = acquired.findPrecise( itemStack );
+			final long amount = available == null ? 0 : Math.min( available.getStackSize(), itemStack.getStackSize() );
 
-				if( diff != 0 )
-				{
-					// extract items!
-					changed = true;
-					final ItemStack removed = adaptor.removeItems( (int) diff, null, null );
-					if( removed == null )
-					{
-						throw new IllegalStateException( "bad attempt at managing inventory. ( removeItems )" );
-					}
-					else if( removed.stackSize != diff )
-					{
-						throw new IllegalStateException( "bad attempt at managing inventory. ( removeItems )" );
-					}
-				}
+			if( amount <= 0 )
+			{
+				return this.handleCrafting( x, adaptor, itemStack );
+			}
+
+			available.decStackSize( amount );
+
+			final IAEItemStack share = itemStack.copy();
+			share.setStackSize( amount );
+
+			final ItemStack issue = adaptor.addItems( share.getItemStack() );
+			if( issue != null )
+			{
+				throw new IllegalStateException( "bad attempt at managing inventory. ( addItems )" );
 			}
-			// else wtf?
+
+			return true;
 		}
-		catch( final GridAccessException e )
+
+		final IAEItemStack done = stored.findPrecise( itemStack );
+		final long diff = done == null ? 0 : Math.min( done.getStackSize(), -itemStack.getStackSize() );
+
+		if( diff <= 0 )
 		{
-			// :P
+			return false;
 		}
 
-		if( changed )
+		done.decStackSize( diff );
+
+		// extract items!
+		final ItemStack removed = adaptor.removeItems( (int) diff, null, null );
+		if( removed == null )
 		{
-			this.updatePlan( x );
+			throw new IllegalStateException( "bad attempt at managing inventory. ( removeItems )" );
+		}
+		else if( removed.stackSize != diff )
+		{
+			throw new IllegalStateException( "bad attempt at managing inventory. ( removeItems )" );
 		}
 
-		this.isWorking = false;
-		return changed;
+		return true;
 	}
 
 	private InventoryAdaptor getAdaptor( final int slot )
@@ -937,7 +1026,7 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 				}
 			}
 
-			final InventoryAdaptor ad = InventoryAdaptor.getAdaptor( te, s.getOpposite() );
+			final InventoryAdaptor ad = this.getTargetAdaptor( te, s );
 			if( ad != null )
 			{
 				if( this.isBlocking() )
@@ -990,7 +1079,7 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 			{
 				final TileEntity te = w.getTileEntity( tile.getPos().offset( s ) );
 
-				final InventoryAdaptor ad = InventoryAdaptor.getAdaptor( te, s.getOpposite() );
+				final InventoryAdaptor ad = this.getTargetAdaptor( te, s );
 				if( ad != null )
 				{
 					if( ad.simulateRemove( 1, null, null ) == null )
@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Queue;
 import java.util.WeakHashMap;
 import java.util.concurrent.TimeUnit;
@@ -51,6 +52,7 @@ import appeng.core.sync.packets.PacketPaintedEntity;
 import appeng.crafting.CraftingJob;
 import appeng.me.Grid;
 import appeng.me.NetworkList;
+import appeng.spatial.SpatialTransferManager;
 import appeng.tile.AEBaseTile;
 import appeng.util.IWorldCallable;
 import appeng.util.Platform;
@@ -201,11 +203,20 @@ public class TickHandler
 				final Collection<CraftingJob> jobSet = this.craftingJobs.get( wte.world );
 				if( !jobSet.isEmpty() )
 				{
-					final int simTime = Math.max( 1, AEConfig.instance.craftingCalculationTimePerTick / jobSet.size() );
+					// split the time between owners first, so one player with many requests gets no more than anyone else
+					final Map<Object, Integer> jobsPerOwner = new HashMap<Object, Integer>();
+					for( final CraftingJob cj : jobSet )
+					{
+						final Integer jobs = jobsPerOwner.get( cj.getOwner() );
+						jobsPerOwner.put( cj.getOwner(), jobs == null ? 1 : jobs + 1 );
+					}
+
+					final int ownerTime = AEConfig.instance.craftingCalculationTimePerTick / jobsPerOwner.size();
 					final Iterator<CraftingJob> i = jobSet.iterator();
 					while( i.hasNext() )
 					{
 						final CraftingJob cj = i.next();
+						final int simTime = Math.max( 1, ownerTime / jobsPerOwner.get( cj.getOwner() ) );
 						if( !cj.simulateFor( simTime ) )
 						{
 							i.remove();
@@ -238,6 +249,9 @@ public class TickHandler
 
 			// cross world queue.
 			this.processQueue( this.serverQueue, null );
+
+			// spatial transfers in progress.
+			SpatialTransferManager.INSTANCE.tick();
 		}
 
 		// world synced queue(s)
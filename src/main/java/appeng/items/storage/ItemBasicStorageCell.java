@@ -163,6 +163,12 @@ public final class ItemBasicStorageCell extends AEBaseItem implements IStorageCe
 		return true;
 	}
 
+	@Override
+	public boolean isStorageCellCacheable()
+	{
+		return true;
+	}
+
 	@Override
 	public double getIdleDrain()
 	{
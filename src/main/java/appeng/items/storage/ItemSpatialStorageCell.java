@@ -33,6 +33,7 @@ import appeng.api.util.WorldCoord;
 import appeng.core.localization.GuiText;
 import appeng.core.worlddata.WorldData;
 import appeng.items.AEBaseItem;
+import appeng.spatial.SpatialTransferManager;
 import appeng.spatial.StorageHelper;
 import appeng.spatial.StorageWorldProvider;
 import appeng.util.Platform;
@@ -166,8 +167,18 @@ public class ItemSpatialStorageCell extends AEBaseItem implements ISpatialStorag
 				}
 
 				final int floorBuffer = 64;
-				StorageHelper.getInstance().swapRegions( w, min.x + 1, min.y + 1, min.z + 1, destination, 0, floorBuffer, 0, targetX - 1, targetY - 1, targetZ - 1 );
-				this.setStoredSize( is, targetX, targetY, targetZ );
+
+				// either region is still being transferred
+				final SpatialTransferManager transfers = SpatialTransferManager.INSTANCE;
+				if( transfers.isLocked( w, min.x, min.y, min.z, max.x, max.y, max.z ) || transfers.isLocked( destination, 0, floorBuffer, 0, targetX, floorBuffer + targetY, targetZ ) )
+				{
+					return new TransitionResult( false, 0 );
+				}
+
+				// the tag is written right away, so copies of the stack made during the transfer show the size, the
+				// server reads the size of the dimension, which is only recorded once the transfer is done
+				final int dim = this.setStoredSize( is, targetX, targetY, targetZ );
+				StorageHelper.getInstance().swapRegions( w, min.x + 1, min.y + 1, min.z + 1, destination, 0, floorBuffer, 0, targetX - 1, targetY - 1, targetZ - 1, () -> WorldData.instance().dimensionData().setStoredSize( dim, targetX, targetY, targetZ ) );
 
 				return new TransitionResult( true, 0 );
 			}
@@ -186,16 +197,17 @@ public class ItemSpatialStorageCell extends AEBaseItem implements ISpatialStorag
 		return DimensionManager.getWorld( newDim );
 	}
 
-	private void setStoredSize( final ItemStack is, final int targetX, final int targetY, final int targetZ )
+	/**
+	 * Writes the size shown by the client into the stack.
+	 *
+	 * @return the storage dimension of the cell
+	 */
+	private int setStoredSize( final ItemStack is, final int targetX, final int targetY, final int targetZ )
 	{
-		if( is.hasTagCompound() )
-		{
-			final NBTTagCompound c = is.getTagCompound();
-			final int dim = c.getInteger( "StorageDim" );
-			c.setInteger( "sizeX", targetX );
-			c.setInteger( "sizeY", targetY );
-			c.setInteger( "sizeZ", targetZ );
-			WorldData.instance().dimensionData().setStoredSize( dim, targetX, targetY, targetZ );
-		}
+		final NBTTagCompound c = Platform.openNbtData( is );
+		c.setInteger( "sizeX", targetX );
+		c.setInteger( "sizeY", targetY );
+		c.setInteger( "sizeZ", targetZ );
+		return c.getInteger( "StorageDim" );
 	}
 }
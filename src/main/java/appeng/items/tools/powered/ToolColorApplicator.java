@@ -486,6 +486,12 @@ public class ToolColorApplicator extends AEBasePoweredItem implements IStorageCe
 		return true;
 	}
 
+	@Override
+	public boolean isStorageCellCacheable()
+	{
+		return true;
+	}
+
 	@Override
 	public double getIdleDrain()
 	{
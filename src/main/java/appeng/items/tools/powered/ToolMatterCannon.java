@@ -513,6 +513,12 @@ public class ToolMatterCannon extends AEBasePoweredItem implements IStorageCell
 		return true;
 	}
 
+	@Override
+	public boolean isStorageCellCacheable()
+	{
+		return true;
+	}
+
 	@Override
 	public double getIdleDrain()
 	{
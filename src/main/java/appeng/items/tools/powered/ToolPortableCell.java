@@ -131,6 +131,12 @@ public class ToolPortableCell extends AEBasePoweredItem implements IStorageCell,
 		return true;
 	}
 
+	@Override
+	public boolean isStorageCellCacheable()
+	{
+		return true;
+	}
+
 	@Override
 	public double getIdleDrain()
 	{
@@ -0,0 +1,99 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.cache;
+
+
+/**
+ * Metrics about how the network storage of a {@link GridStorageCache} is kept in sync with its cells.
+ */
+final class CellUpdateStats
+{
+	private int rebuilds;
+	private long rebuildTime;
+	private int lastRebuildCells;
+	private long lastRebuildTime;
+	private int updates;
+	private long updateTime;
+	private long updatedCells;
+	private int resyncs;
+
+	void addRebuild( final int cells, final long nanos )
+	{
+		this.rebuilds++;
+		this.rebuildTime += nanos;
+		this.lastRebuildCells = cells;
+		this.lastRebuildTime = nanos;
+	}
+
+	void addUpdate( final int cells, final long nanos )
+	{
+		this.updates++;
+		this.updatedCells += cells;
+		this.updateTime += nanos;
+	}
+
+	void addResync()
+	{
+		this.resyncs++;
+	}
+
+	int getRebuilds()
+	{
+		return this.rebuilds;
+	}
+
+	/**
+	 * @return time spent building network storage from scratch in nanoseconds.
+	 */
+	long getRebuildTime()
+	{
+		return this.rebuildTime;
+	}
+
+	int getUpdates()
+	{
+		return this.updates;
+	}
+
+	/**
+	 * @return time spent patching existing network storage in nanoseconds.
+	 */
+	long getUpdateTime()
+	{
+		return this.updateTime;
+	}
+
+	int getResyncs()
+	{
+		return this.resyncs;
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder sb = new StringBuilder();
+
+		sb.append( this.rebuilds ).append( " rebuilds in " ).append( String.format( "%.3f", this.rebuildTime / 1000000.0 ) ).append( " ms" );
+		sb.append( " (last " ).append( this.lastRebuildCells ).append( " cells in " ).append( String.format( "%.3f", this.lastRebuildTime / 1000000.0 ) ).append( " ms), " );
+		sb.append( this.updates ).append( " updates of " ).append( this.updatedCells ).append( " cells in " ).append( String.format( "%.3f", this.updateTime / 1000000.0 ) ).append( " ms, " );
+		sb.append( this.resyncs ).append( " monitor resyncs" );
+
+		return sb.toString();
+	}
+}
@@ -31,16 +31,14 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.ThreadFactory;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.Futures;
 
 import net.minecraft.world.World;
 
@@ -75,9 +73,11 @@ import appeng.api.storage.StorageChannel;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IItemList;
+import appeng.crafting.CraftingCalculationScheduler;
 import appeng.crafting.CraftingJob;
 import appeng.crafting.CraftingLink;
 import appeng.crafting.CraftingLinkNexus;
+import appeng.crafting.CraftingPlanCache;
 import appeng.crafting.CraftingWatcher;
 import appeng.me.cluster.implementations.CraftingCPUCluster;
 import appeng.me.helpers.GenericInterestManager;
@@ -89,7 +89,6 @@ import appeng.util.ItemSorters;
 public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper, ICellProvider, IMEInventoryHandler<IAEStack>
 {
 
-	private static final ExecutorService CRAFTING_POOL;
 	private static final Comparator<ICraftingPatternDetails> COMPARATOR = new Comparator<ICraftingPatternDetails>(){
 		@Override
 		public int compare( final ICraftingPatternDetails firstDetail, final ICraftingPatternDetails nextDetail )
@@ -98,20 +97,6 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 		}
 	};
 
-	static
-	{
-		final ThreadFactory factory = new ThreadFactory(){
-
-			@Override
-			public Thread newThread( final Runnable ar )
-			{
-				return new Thread( ar, "AE Crafting Calculator" );
-			}
-		};
-
-		CRAFTING_POOL = Executors.newCachedThreadPool( factory );
-	}
-
 	private final Set<CraftingCPUCluster> craftingCPUClusters = new HashSet<CraftingCPUCluster>();
 	private final Set<ICraftingProvider> craftingProviders = new HashSet<ICraftingProvider>();
 	private final Map<IGridNode, ICraftingWatcher> craftingWatchers = new HashMap<IGridNode, ICraftingWatcher>();
@@ -124,6 +109,7 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 	private final GenericInterestManager<CraftingWatcher> interestManager = new GenericInterestManager<CraftingWatcher>( this.interests );
 	private IStorageGrid storageGrid;
 	private IEnergyGrid energyGrid;
+	private CraftingPlanCache planCache;
 	private boolean updateList = false;
 
 	public CraftingGridCache( final IGrid grid )
@@ -138,6 +124,9 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 		this.energyGrid = this.grid.getCache( IEnergyGrid.class );
 
 		this.storageGrid.registerCellProvider( this );
+
+		this.planCache = new CraftingPlanCache( this.storageGrid.getItemInventory() );
+		this.storageGrid.getItemInventory().addListener( this.planCache, this.grid );
 	}
 
 	@Override
@@ -253,7 +242,13 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 
 	private void updatePatterns()
 	{
-		final Map<IAEItemStack, ImmutableList<ICraftingPatternDetails>> oldItems = this.craftableItems;
+		// copied, as the map itself is cleared below
+		final Set<IAEItemStack> oldItems = ImmutableSet.copyOf( this.craftableItems.keySet() );
+
+		if( this.planCache != null )
+		{
+			this.planCache.onPatternsChanged();
+		}
 
 		// erase list.
 		this.craftingMethods.clear();
@@ -261,7 +256,7 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 		this.emitableItems.clear();
 
 		// update the stuff that was in the list...
-		this.storageGrid.postAlterationOfStoredItems( StorageChannel.ITEMS, oldItems.keySet(), new BaseActionSource() );
+		this.storageGrid.postAlterationOfStoredItems( StorageChannel.ITEMS, oldItems, new BaseActionSource() );
 
 		// re-create list..
 		for( final ICraftingProvider provider : this.craftingProviders )
@@ -502,9 +497,27 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 			throw new IllegalArgumentException( "Invalid Crafting Job Request" );
 		}
 
-		final CraftingJob job = new CraftingJob( world, grid, actionSrc, slotItem, cb );
+		if( grid != this.grid || this.planCache == null )
+		{
+			return CraftingCalculationScheduler.INSTANCE.submit( new CraftingJob( world, grid, actionSrc, slotItem, cb ), actionSrc );
+		}
+
+		final Object owner = CraftingCalculationScheduler.getOwner( grid, actionSrc );
+		final ICraftingJob cached = this.planCache.getPlan( owner, slotItem );
+
+		if( cached != null )
+		{
+			if( cb != null )
+			{
+				cb.calculationComplete( cached );
+			}
+
+			return Futures.immediateFuture( cached );
+		}
+
+		final CraftingJob job = new CraftingJob( world, grid, actionSrc, slotItem, this.planCache.track( owner, slotItem, cb ) );
 
-		return CRAFTING_POOL.submit( job, (ICraftingJob) job );
+		return CraftingCalculationScheduler.INSTANCE.submit( job, actionSrc );
 	}
 
 	@Override
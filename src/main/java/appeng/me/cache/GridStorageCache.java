@@ -19,13 +19,13 @@
 package appeng.me.cache;
 
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
-
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.SetMultimap;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import appeng.api.AEApi;
 import appeng.api.networking.IGrid;
@@ -50,7 +50,8 @@ import appeng.api.storage.data.IAEFluidStack;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IItemList;
-import appeng.me.helpers.GenericInterestManager;
+import appeng.core.AELog;
+import appeng.me.helpers.StackInterestIndex;
 import appeng.me.storage.ItemWatcher;
 import appeng.me.storage.NetworkInventoryHandler;
 
@@ -59,13 +60,13 @@ public class GridStorageCache implements IStorageGrid
 {
 
 	private final IGrid myGrid;
-	private final HashSet<ICellProvider> activeCellProviders = new HashSet<ICellProvider>();
+	private final HashMap<ICellProvider, ProviderCells> activeCellProviders = new HashMap<ICellProvider, ProviderCells>();
 	private final HashSet<ICellProvider> inactiveCellProviders = new HashSet<ICellProvider>();
-	private final SetMultimap<IAEStack, ItemWatcher> interests = HashMultimap.create();
-	private final GenericInterestManager<ItemWatcher> interestManager = new GenericInterestManager<ItemWatcher>( this.interests );
+	private final StackInterestIndex<ItemWatcher> interestManager = new StackInterestIndex<ItemWatcher>();
 	private final NetworkMonitor<IAEItemStack> itemMonitor = new NetworkMonitor<IAEItemStack>( this, StorageChannel.ITEMS );
 	private final NetworkMonitor<IAEFluidStack> fluidMonitor = new NetworkMonitor<IAEFluidStack>( this, StorageChannel.FLUIDS );
 	private final HashMap<IGridNode, IStackWatcher> watchers = new HashMap<IGridNode, IStackWatcher>();
+	private final CellUpdateStats stats = new CellUpdateStats();
 	private NetworkInventoryHandler<IAEItemStack> myItemNetwork;
 	private NetworkInventoryHandler<IAEFluidStack> myFluidNetwork;
 
@@ -151,22 +152,15 @@ public class GridStorageCache implements IStorageGrid
 		if( this.inactiveCellProviders.contains( cc ) )
 		{
 			this.inactiveCellProviders.remove( cc );
-			this.activeCellProviders.add( cc );
 
-			BaseActionSource actionSrc = new BaseActionSource();
-			if( cc instanceof IActionHost )
-			{
-				actionSrc = new MachineSource( (IActionHost) cc );
-			}
+			final ProviderCells cells = new ProviderCells( cc );
+			this.activeCellProviders.put( cc, cells );
 
-			for( final IMEInventoryHandler<IAEItemStack> h : cc.getCellArray( StorageChannel.ITEMS ) )
-			{
-				tracker.postChanges( StorageChannel.ITEMS, 1, h, actionSrc );
-			}
+			final BaseActionSource actionSrc = this.getActionSource( cc );
 
-			for( final IMEInventoryHandler<IAEFluidStack> h : cc.getCellArray( StorageChannel.FLUIDS ) )
+			for( final IMEInventoryHandler h : cells.handlers.keySet() )
 			{
-				tracker.postChanges( StorageChannel.FLUIDS, 1, h, actionSrc );
+				tracker.addCell( h, actionSrc, true );
 			}
 		}
 
@@ -175,63 +169,93 @@ public class GridStorageCache implements IStorageGrid
 
 	private CellChangeTracker removeCellProvider( final ICellProvider cc, final CellChangeTracker tracker )
 	{
-		if( this.activeCellProviders.contains( cc ) )
+		// the recorded cells, an inactive provider may no longer report what it contributed
+		final ProviderCells cells = this.activeCellProviders.remove( cc );
+
+		if( cells != null )
 		{
 			this.inactiveCellProviders.add( cc );
-			this.activeCellProviders.remove( cc );
 
-			BaseActionSource actionSrc = new BaseActionSource();
-			if( cc instanceof IActionHost )
+			final BaseActionSource actionSrc = this.getActionSource( cc );
+
+			for( final IMEInventoryHandler h : cells.handlers.keySet() )
 			{
-				actionSrc = new MachineSource( (IActionHost) cc );
+				tracker.removeCell( h, actionSrc, true );
 			}
+		}
+
+		return tracker;
+	}
+
+	/**
+	 * Compares the cells of a provider that stayed active with what it contributed before.
+	 *
+	 * @return true if handlers were swapped without the provider telling which, their contents are unknown
+	 */
+	private boolean resyncCellProvider( final ICellProvider cc, final CellChangeTracker tracker )
+	{
+		final ProviderCells before = this.activeCellProviders.get( cc );
+		final ProviderCells after = new ProviderCells( cc );
+		final BaseActionSource actionSrc = this.getActionSource( cc );
+		boolean swapped = false;
+
+		for( final Entry<IMEInventoryHandler, Integer> e : before.handlers.entrySet() )
+		{
+			final Integer priority = after.handlers.get( e.getKey() );
 
-			for( final IMEInventoryHandler<IAEItemStack> h : cc.getCellArray( StorageChannel.ITEMS ) )
+			if( priority == null )
 			{
-				tracker.postChanges( StorageChannel.ITEMS, -1, h, actionSrc );
+				tracker.removeCell( e.getKey(), actionSrc, false );
+				swapped = true;
 			}
+			else if( priority.intValue() != e.getValue().intValue() )
+			{
+				tracker.removeCell( e.getKey(), actionSrc, false );
+				tracker.addCell( e.getKey(), actionSrc, false );
+			}
+		}
 
-			for( final IMEInventoryHandler<IAEFluidStack> h : cc.getCellArray( StorageChannel.FLUIDS ) )
+		for( final IMEInventoryHandler h : after.handlers.keySet() )
+		{
+			if( !before.handlers.containsKey( h ) )
 			{
-				tracker.postChanges( StorageChannel.FLUIDS, -1, h, actionSrc );
+				tracker.addCell( h, actionSrc, false );
+				swapped = true;
 			}
 		}
 
-		return tracker;
+		this.activeCellProviders.put( cc, after );
+
+		return swapped;
 	}
 
 	@MENetworkEventSubscribe
 	public void cellUpdate( final MENetworkCellArrayUpdate ev )
 	{
-		this.myItemNetwork = null;
-		this.myFluidNetwork = null;
+		if( ev.isScoped() && this.updateCells( ev ) )
+		{
+			return;
+		}
 
-		final LinkedList<ICellProvider> ll = new LinkedList();
-		ll.addAll( this.inactiveCellProviders );
-		ll.addAll( this.activeCellProviders );
+		final List<ICellProvider> inactive = new ArrayList<ICellProvider>( this.inactiveCellProviders );
+		final List<ICellProvider> active = new ArrayList<ICellProvider>( this.activeCellProviders.keySet() );
 
 		final CellChangeTracker tracker = new CellChangeTracker();
+		boolean resync = false;
 
-		for( final ICellProvider cc : ll )
+		for( final ICellProvider cc : inactive )
 		{
-			boolean Active = true;
-
-			if( cc instanceof IActionHost )
+			if( this.isActive( cc ) )
 			{
-				final IGridNode node = ( (IActionHost) cc ).getActionableNode();
-				if( node != null && node.isActive() )
-				{
-					Active = true;
-				}
-				else
-				{
-					Active = false;
-				}
+				this.addCellProvider( cc, tracker );
 			}
+		}
 
-			if( Active )
+		for( final ICellProvider cc : active )
+		{
+			if( this.isActive( cc ) )
 			{
-				this.addCellProvider( cc, tracker );
+				resync |= this.resyncCellProvider( cc, tracker );
 			}
 			else
 			{
@@ -239,12 +263,126 @@ public class GridStorageCache implements IStorageGrid
 			}
 		}
 
-		this.itemMonitor.forceUpdate();
-		this.fluidMonitor.forceUpdate();
+		if( resync )
+		{
+			this.stats.addResync();
+			this.itemMonitor.forceUpdate();
+			this.fluidMonitor.forceUpdate();
+		}
 
 		tracker.applyChanges();
 	}
 
+	/**
+	 * Patches the network storage with the cells a single provider swapped, and posts only their contents.
+	 *
+	 * @return false if the provider changed its active state, which needs a full refresh
+	 */
+	private boolean updateCells( final MENetworkCellArrayUpdate ev )
+	{
+		final ICellProvider cc = ev.provider;
+
+		if( !this.isActive( cc ) )
+		{
+			// none of its cells are part of the network, before or after
+			return this.inactiveCellProviders.contains( cc );
+		}
+
+		final ProviderCells cells = this.activeCellProviders.get( cc );
+		if( cells == null )
+		{
+			return false;
+		}
+
+		final BaseActionSource actionSrc = this.getActionSource( cc );
+		final CellChangeTracker tracker = new CellChangeTracker();
+
+		for( final IMEInventoryHandler h : ev.removedCells )
+		{
+			cells.handlers.remove( h );
+
+			// handlers that are re-added only moved to another priority, their contents stay on the network
+			tracker.removeCell( h, actionSrc, !ev.addedCells.contains( h ) );
+		}
+
+		for( final IMEInventoryHandler h : ev.addedCells )
+		{
+			cells.handlers.put( h, h.getPriority() );
+			tracker.addCell( h, actionSrc, !ev.removedCells.contains( h ) );
+		}
+
+		tracker.applyChanges();
+
+		return true;
+	}
+
+	private void updateNetworkStorage( final List<IMEInventoryHandler> removed, final List<IMEInventoryHandler> added )
+	{
+		final long start = System.nanoTime();
+
+		final List<IMEInventoryHandler<IAEItemStack>> removedItems = new ArrayList<IMEInventoryHandler<IAEItemStack>>();
+		final List<IMEInventoryHandler<IAEFluidStack>> removedFluids = new ArrayList<IMEInventoryHandler<IAEFluidStack>>();
+		final List<IMEInventoryHandler<IAEItemStack>> addedItems = new ArrayList<IMEInventoryHandler<IAEItemStack>>();
+		final List<IMEInventoryHandler<IAEFluidStack>> addedFluids = new ArrayList<IMEInventoryHandler<IAEFluidStack>>();
+
+		for( final IMEInventoryHandler h : removed )
+		{
+			if( h.getChannel() == StorageChannel.ITEMS )
+			{
+				removedItems.add( h );
+			}
+			else
+			{
+				removedFluids.add( h );
+			}
+		}
+
+		for( final IMEInventoryHandler h : added )
+		{
+			if( h.getChannel() == StorageChannel.ITEMS )
+			{
+				addedItems.add( h );
+			}
+			else
+			{
+				addedFluids.add( h );
+			}
+		}
+
+		if( this.myItemNetwork != null && !( removedItems.isEmpty() && addedItems.isEmpty() ) )
+		{
+			this.myItemNetwork.updateStorage( removedItems, addedItems );
+		}
+
+		if( this.myFluidNetwork != null && !( removedFluids.isEmpty() && addedFluids.isEmpty() ) )
+		{
+			this.myFluidNetwork.updateStorage( removedFluids, addedFluids );
+		}
+
+		this.stats.addUpdate( removed.size() + added.size(), System.nanoTime() - start );
+	}
+
+	private boolean isActive( final ICellProvider cc )
+	{
+		if( cc instanceof IActionHost )
+		{
+			final IGridNode node = ( (IActionHost) cc ).getActionableNode();
+			return node != null && node.isActive();
+		}
+
+		return true;
+	}
+
+	private BaseActionSource getActionSource( final ICellProvider cc )
+	{
+		if( cc instanceof IActionHost )
+		{
+			return new MachineSource( (IActionHost) cc );
+		}
+
+		return new BaseActionSource();
+	}
+
 	private void postChangesToNetwork( final StorageChannel chan, final int upOrDown, final IItemList availableItems, final BaseActionSource src )
 	{
 		switch( chan )
@@ -270,32 +408,45 @@ public class GridStorageCache implements IStorageGrid
 
 	private void buildNetworkStorage( final StorageChannel chan )
 	{
+		final long start = System.nanoTime();
 		final SecurityCache security = this.getGrid().getCache( ISecurityGrid.class );
+		int cells = 0;
 
 		switch( chan )
 		{
 			case FLUIDS:
 				this.myFluidNetwork = new NetworkInventoryHandler<IAEFluidStack>( StorageChannel.FLUIDS, security );
-				for( final ICellProvider cc : this.activeCellProviders )
+				for( final ProviderCells pc : this.activeCellProviders.values() )
 				{
-					for( final IMEInventoryHandler<IAEFluidStack> h : cc.getCellArray( chan ) )
+					for( final IMEInventoryHandler h : pc.handlers.keySet() )
 					{
-						this.myFluidNetwork.addNewStorage( h );
+						if( h.getChannel() == chan )
+						{
+							this.myFluidNetwork.addNewStorage( h );
+							cells++;
+						}
 					}
 				}
 				break;
 			case ITEMS:
 				this.myItemNetwork = new NetworkInventoryHandler<IAEItemStack>( StorageChannel.ITEMS, security );
-				for( final ICellProvider cc : this.activeCellProviders )
+				for( final ProviderCells pc : this.activeCellProviders.values() )
 				{
-					for( final IMEInventoryHandler<IAEItemStack> h : cc.getCellArray( chan ) )
+					for( final IMEInventoryHandler h : pc.handlers.keySet() )
 					{
-						this.myItemNetwork.addNewStorage( h );
+						if( h.getChannel() == chan )
+						{
+							this.myItemNetwork.addNewStorage( h );
+							cells++;
+						}
 					}
 				}
 				break;
 			default:
 		}
+
+		this.stats.addRebuild( cells, System.nanoTime() - start );
+		AELog.debug( "Built %s network storage of %d cells from %d providers: %s", chan, cells, this.activeCellProviders.size(), this.stats );
 	}
 
 	IMEInventoryHandler<IAEFluidStack> getFluidInventoryHandler()
@@ -346,7 +497,7 @@ public class GridStorageCache implements IStorageGrid
 		return this.fluidMonitor;
 	}
 
-	public GenericInterestManager<ItemWatcher> getInterestManager()
+	public StackInterestIndex<ItemWatcher> getInterestManager()
 	{
 		return this.interestManager;
 	}
@@ -390,18 +541,60 @@ public class GridStorageCache implements IStorageGrid
 		}
 	}
 
+	/**
+	 * The cells a provider contributed to the network storage, with the priority each was filed under.
+	 */
+	private static class ProviderCells
+	{
+
+		final Map<IMEInventoryHandler, Integer> handlers = new LinkedHashMap<IMEInventoryHandler, Integer>();
+
+		public ProviderCells( final ICellProvider cc )
+		{
+			for( final StorageChannel chan : StorageChannel.values() )
+			{
+				for( final IMEInventoryHandler h : (List<IMEInventoryHandler>) cc.getCellArray( chan ) )
+				{
+					this.handlers.put( h, h.getPriority() );
+				}
+			}
+		}
+	}
+
 	private class CellChangeTracker
 	{
 
-		final List<CellChangeTrackerRecord> data = new LinkedList<CellChangeTrackerRecord>();
+		final List<IMEInventoryHandler> removed = new ArrayList<IMEInventoryHandler>();
+		final List<IMEInventoryHandler> added = new ArrayList<IMEInventoryHandler>();
+		final List<CellChangeTrackerRecord> data = new ArrayList<CellChangeTrackerRecord>();
+
+		public void addCell( final IMEInventoryHandler h, final BaseActionSource actionSrc, final boolean postContents )
+		{
+			this.added.add( h );
+
+			if( postContents )
+			{
+				this.data.add( new CellChangeTrackerRecord( h.getChannel(), 1, h, actionSrc ) );
+			}
+		}
 
-		public void postChanges( final StorageChannel channel, final int i, final IMEInventoryHandler<? extends IAEStack> h, final BaseActionSource actionSrc )
+		public void removeCell( final IMEInventoryHandler h, final BaseActionSource actionSrc, final boolean postContents )
 		{
-			this.data.add( new CellChangeTrackerRecord( channel, i, h, actionSrc ) );
+			this.removed.add( h );
+
+			if( postContents )
+			{
+				this.data.add( new CellChangeTrackerRecord( h.getChannel(), -1, h, actionSrc ) );
+			}
 		}
 
 		public void applyChanges()
 		{
+			if( !( this.removed.isEmpty() && this.added.isEmpty() ) )
+			{
+				GridStorageCache.this.updateNetworkStorage( this.removed, this.added );
+			}
+
 			for( final CellChangeTrackerRecord rec : this.data )
 			{
 				rec.applyChanges();
@@ -19,7 +19,6 @@
 package appeng.me.cache;
 
 
-import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -43,6 +42,7 @@ import appeng.api.storage.IMEMonitorHandlerReceiver;
 import appeng.api.storage.StorageChannel;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IItemList;
+import appeng.me.helpers.StackInterestIndex;
 import appeng.me.storage.ItemWatcher;
 
 
@@ -61,9 +61,13 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 	private final Map<IMEMonitorHandlerReceiver<T>, Object> listeners;
 
 	private boolean sendEvent = false;
-	private boolean hasChanged = false;
+	private boolean hasChanged = true;
 	@Nonnegative
 	private int localDepthSemaphore = 0;
+	@Nonnegative
+	private int batchDepth = 0;
+	@Nullable
+	private IItemList<T> batchChanges;
 
 	public NetworkMonitor( final GridStorageCache cache, final StorageChannel chan )
 	{
@@ -97,7 +101,7 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 		final T leftover = this.getHandler().extractItems( request, mode, src );
 		localDepthSemaphore--;
 
-		if( localDepthSemaphore == 0 )
+		if( localDepthSemaphore == 0 || GLOBAL_DEPTH.contains( this ) )
 		{
 			this.monitorDifference( request.copy(), leftover, true, src );
 		}
@@ -105,6 +109,33 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 		return leftover;
 	}
 
+	@Override
+	public IItemList<T> extractAll( final IItemList<T> request, final Actionable mode, final BaseActionSource src )
+	{
+		if( mode == Actionable.SIMULATE )
+		{
+			return this.getHandler().extractAll( request, mode, src );
+		}
+
+		localDepthSemaphore++;
+		final IItemList<T> extracted = this.getHandler().extractAll( request, mode, src );
+		localDepthSemaphore--;
+
+		if( localDepthSemaphore == 0 || GLOBAL_DEPTH.contains( this ) )
+		{
+			this.beginBatch();
+
+			for( final T stack : extracted )
+			{
+				this.monitorDifference( stack.copy(), stack, true, src );
+			}
+
+			this.endBatch( src );
+		}
+
+		return extracted;
+	}
+
 	@Override
 	public AccessRestriction getAccess()
 	{
@@ -161,7 +192,7 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 		final T leftover = this.getHandler().injectItems( input, mode, src );
 		localDepthSemaphore--;
 
-		if( localDepthSemaphore == 0 )
+		if( localDepthSemaphore == 0 || GLOBAL_DEPTH.contains( this ) )
 		{
 			this.monitorDifference( input.copy(), leftover, false, src );
 		}
@@ -169,6 +200,33 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 		return leftover;
 	}
 
+	@Override
+	public IItemList<T> injectAll( final IItemList<T> input, final Actionable mode, final BaseActionSource src )
+	{
+		if( mode == Actionable.SIMULATE )
+		{
+			return this.getHandler().injectAll( input, mode, src );
+		}
+
+		localDepthSemaphore++;
+		final IItemList<T> leftovers = this.getHandler().injectAll( input, mode, src );
+		localDepthSemaphore--;
+
+		if( localDepthSemaphore == 0 || GLOBAL_DEPTH.contains( this ) )
+		{
+			this.beginBatch();
+
+			for( final T stack : input )
+			{
+				this.monitorDifference( stack.copy(), leftovers.findPrecise( stack ), false, src );
+			}
+
+			this.endBatch( src );
+		}
+
+		return leftovers;
+	}
+
 	@Override
 	public boolean isPrioritized( final T input )
 	{
@@ -222,7 +280,14 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 
 		if( diff.getStackSize() != 0 )
 		{
-			this.postChangesToListeners( ImmutableList.of( diff ), src );
+			if( this.batchChanges != null && !GLOBAL_DEPTH.contains( this ) )
+			{
+				this.batchChanges.add( diff );
+			}
+			else
+			{
+				this.postChangesToListeners( ImmutableList.of( diff ), src );
+			}
 		}
 
 		return leftOvers;
@@ -230,7 +295,6 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 
 	private void notifyListenersOfChange( final Iterable<T> diff, final BaseActionSource src )
 	{
-		this.hasChanged = true;
 		final Iterator<Entry<IMEMonitorHandlerReceiver<T>, Object>> i = this.getListeners();
 
 		while( i.hasNext() )
@@ -248,6 +312,63 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 		}
 	}
 
+	/**
+	 * Applies posted amounts to the cached list, anything it can not follow falls back to a full rescan.
+	 */
+	private void updateCachedList( final boolean add, final Iterable<T> changes )
+	{
+		if( this.hasChanged )
+		{
+			return;
+		}
+
+		for( final T change : changes )
+		{
+			if( change == null )
+			{
+				continue;
+			}
+
+			if( change.getStackSize() == 0 )
+			{
+				// craftable entries are announced without an amount
+				if( change.isCraftable() || change.getCountRequestable() != 0 )
+				{
+					this.hasChanged = true;
+					return;
+				}
+
+				continue;
+			}
+
+			final long delta = add ? change.getStackSize() : -change.getStackSize();
+			final T stored = this.cachedList.findPrecise( change );
+
+			if( stored == null )
+			{
+				if( delta < 0 )
+				{
+					this.hasChanged = true;
+					return;
+				}
+
+				final T added = change.copy();
+				added.setStackSize( delta );
+				this.cachedList.addStorage( added );
+			}
+			else
+			{
+				if( stored.getStackSize() + delta < 0 )
+				{
+					this.hasChanged = true;
+					return;
+				}
+
+				stored.incStackSize( delta );
+			}
+		}
+	}
+
 	private void postChangesToListeners( final Iterable<T> changes, final BaseActionSource src )
 	{
 		this.postChange( true, changes, src );
@@ -255,7 +376,17 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 
 	protected void postChange( final boolean add, final Iterable<T> changes, final BaseActionSource src )
 	{
-		if( localDepthSemaphore > 0 || GLOBAL_DEPTH.contains( this ) )
+		final StackInterestIndex<ItemWatcher> interests = this.myGridCache.getInterestManager();
+
+		if( GLOBAL_DEPTH.contains( this ) )
+		{
+			// neither the cached list nor the watchers see these changes, both have to be looked up again
+			this.hasChanged = true;
+			interests.invalidateAmounts();
+			return;
+		}
+
+		if( localDepthSemaphore > 0 )
 		{
 			return;
 		}
@@ -265,42 +396,50 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 
 		this.sendEvent = true;
 
+		this.updateCachedList( add, changes );
 		this.notifyListenersOfChange( changes, src );
 
 		for( final T changedItem : changes )
 		{
+			final int id = interests.getId( changedItem );
+
+			if( id < 0 )
+			{
+				continue;
+			}
+
 			T difference = changedItem;
 
-			if( !add && changedItem != null )
+			if( !add )
 			{
 				difference = changedItem.copy();
 				difference.setStackSize( -changedItem.getStackSize() );
 			}
 
-			if( this.myGridCache.getInterestManager().containsKey( changedItem ) )
+			final long amount;
+			if( interests.isAmountKnown( id ) )
 			{
-				final Collection<ItemWatcher> list = this.myGridCache.getInterestManager().get( changedItem );
-
-				if( !list.isEmpty() )
-				{
-					IAEStack fullStack = this.getStorageList().findPrecise( changedItem );
+				amount = interests.getAmount( id ) + difference.getStackSize();
+			}
+			else
+			{
+				final T stored = this.getStorageList().findPrecise( changedItem );
+				amount = stored == null ? 0 : stored.getStackSize();
+			}
 
-					if( fullStack == null )
-					{
-						fullStack = changedItem.copy();
-						fullStack.setStackSize( 0 );
-					}
+			interests.setAmount( id, amount );
 
-					this.myGridCache.getInterestManager().enableTransactions();
+			final IAEStack fullStack = changedItem.copy();
+			fullStack.setStackSize( amount );
 
-					for( final ItemWatcher iw : list )
-					{
-						iw.getHost().onStackChange( this.getStorageList(), fullStack, difference, src, this.getChannel() );
-					}
+			interests.enableTransactions();
 
-					this.myGridCache.getInterestManager().disableTransactions();
-				}
+			for( final ItemWatcher iw : interests.get( id ) )
+			{
+				iw.getHost().onStackChange( this.cachedList, fullStack, difference, src, this.getChannel() );
 			}
+
+			interests.disableTransactions();
 		}
 
 		final NetworkMonitor<?> last = GLOBAL_DEPTH.pop();
@@ -312,9 +451,48 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 		}
 	}
 
+	/**
+	 * Collects the changes of all following operations until the matching {@link #endBatch(BaseActionSource)}, which
+	 * posts them as a single change. Batches can be nested.
+	 */
+	public void beginBatch()
+	{
+		if( this.batchDepth == 0 )
+		{
+			this.batchChanges = (IItemList<T>) this.myChannel.createList();
+		}
+
+		this.batchDepth++;
+	}
+
+	/**
+	 * @param src source of the collected changes
+	 */
+	public void endBatch( final BaseActionSource src )
+	{
+		if( this.batchDepth <= 0 )
+		{
+			throw new IllegalStateException( "endBatch without beginBatch." );
+		}
+
+		this.batchDepth--;
+
+		if( this.batchDepth == 0 )
+		{
+			final IItemList<T> collected = this.batchChanges;
+			this.batchChanges = null;
+
+			if( !collected.isEmpty() )
+			{
+				this.postChangesToListeners( ImmutableList.copyOf( collected ), src );
+			}
+		}
+	}
+
 	void forceUpdate()
 	{
 		this.hasChanged = true;
+		this.myGridCache.getInterestManager().invalidateAmounts();
 
 		final Iterator<Entry<IMEMonitorHandlerReceiver<T>, Object>> i = this.getListeners();
 		while( i.hasNext() )
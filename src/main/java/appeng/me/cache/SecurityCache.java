@@ -20,6 +20,7 @@ package appeng.me.cache;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -50,6 +51,10 @@ public class SecurityCache implements ISecurityGrid
 	private final HashMap<Integer, EnumSet<SecurityPermissions>> playerPerms = new HashMap<Integer, EnumSet<SecurityPermissions>>();
 	private long securityKey = -1;
 
+	// bumped whenever the permissions are re-read, so cached decisions can be discarded
+	private int permissionVersion = 0;
+	private volatile PermissionMasks permissionMasks = new PermissionMasks( -1, 0 );
+
 	public SecurityCache( final IGrid g )
 	{
 		this.myGrid = g;
@@ -59,6 +64,8 @@ public class SecurityCache implements ISecurityGrid
 	public void updatePermissions( final MENetworkSecurityChange ev )
 	{
 		this.playerPerms.clear();
+		this.permissionVersion++;
+
 		if( this.securityProvider.isEmpty() )
 		{
 			return;
@@ -72,6 +79,14 @@ public class SecurityCache implements ISecurityGrid
 		return this.securityKey;
 	}
 
+	/**
+	 * @return a counter which changes whenever the permissions are re-read
+	 */
+	public int getPermissionVersion()
+	{
+		return this.permissionVersion;
+	}
+
 	@Override
 	public void onUpdateTick()
 	{
@@ -166,23 +181,57 @@ public class SecurityCache implements ISecurityGrid
 	{
 		if( this.isAvailable() )
 		{
-			final EnumSet<SecurityPermissions> perms = this.playerPerms.get( playerID );
+			return ( this.getPermissionMask( playerID ) & ( 1 << perm.ordinal() ) ) != 0;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the permissions of the player as bit mask of {@link SecurityPermissions#ordinal()}, cached until the
+	 * security key or the permissions change.
+	 */
+	private int getPermissionMask( final int playerID )
+	{
+		PermissionMasks masks = this.permissionMasks;
+		if( masks.securityKey != this.securityKey || masks.version != this.permissionVersion )
+		{
+			masks = new PermissionMasks( this.securityKey, this.permissionVersion );
+			this.permissionMasks = masks;
+		}
 
-			if( perms == null )
+		int mask = masks.get( playerID );
+		if( mask == PermissionMasks.MISSING )
+		{
+			mask = this.resolvePermissions( playerID );
+			this.permissionMasks = masks.with( playerID, mask );
+		}
+
+		return mask;
+	}
+
+	private int resolvePermissions( final int playerID )
+	{
+		final EnumSet<SecurityPermissions> perms = this.playerPerms.get( playerID );
+
+		if( perms == null )
+		{
+			if( playerID == -1 ) // no default?
 			{
-				if( playerID == -1 ) // no default?
-				{
-					return false;
-				}
-				else
-				{
-					return this.hasPermission( -1, perm );
-				}
+				return 0;
 			}
+			else
+			{
+				return this.resolvePermissions( -1 );
+			}
+		}
 
-			return perms.contains( perm );
+		int mask = 0;
+		for( final SecurityPermissions perm : perms )
+		{
+			mask |= 1 << perm.ordinal();
 		}
-		return true;
+
+		return mask;
 	}
 
 	@Override
@@ -199,4 +248,54 @@ public class SecurityCache implements ISecurityGrid
 	{
 		return this.myGrid;
 	}
+
+	/**
+	 * Immutable snapshot of resolved permission masks, replaced as a whole so it can be read from any thread.
+	 */
+	private static final class PermissionMasks
+	{
+
+		private static final int MISSING = -1;
+
+		private final long securityKey;
+		private final int version;
+		private final int[] players;
+		private final int[] masks;
+
+		private PermissionMasks( final long securityKey, final int version )
+		{
+			this( securityKey, version, new int[0], new int[0] );
+		}
+
+		private PermissionMasks( final long securityKey, final int version, final int[] players, final int[] masks )
+		{
+			this.securityKey = securityKey;
+			this.version = version;
+			this.players = players;
+			this.masks = masks;
+		}
+
+		private int get( final int playerID )
+		{
+			for( int i = 0; i < this.players.length; i++ )
+			{
+				if( this.players[i] == playerID )
+				{
+					return this.masks[i];
+				}
+			}
+
+			return MISSING;
+		}
+
+		private PermissionMasks with( final int playerID, final int mask )
+		{
+			final int[] newPlayers = Arrays.copyOf( this.players, this.players.length + 1 );
+			final int[] newMasks = Arrays.copyOf( this.masks, this.masks.length + 1 );
+			newPlayers[this.players.length] = playerID;
+			newMasks[this.masks.length] = mask;
+
+			return new PermissionMasks( this.securityKey, this.version, newPlayers, newMasks );
+		}
+	}
 }
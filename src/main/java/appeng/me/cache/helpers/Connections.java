@@ -21,14 +21,11 @@ package appeng.me.cache.helpers;
 
 import java.util.HashMap;
 
-import net.minecraft.world.World;
-
 import appeng.api.networking.IGridNode;
 import appeng.parts.p2p.PartP2PTunnelME;
-import appeng.util.IWorldCallable;
 
 
-public class Connections implements IWorldCallable<Void>
+public class Connections
 {
 
 	private final HashMap<IGridNode, TunnelConnection> connections = new HashMap<IGridNode, TunnelConnection>();
@@ -41,12 +38,9 @@ public class Connections implements IWorldCallable<Void>
 		this.me = o;
 	}
 
-	@Override
-	public Void call( final World world ) throws Exception
+	public PartP2PTunnelME getTunnel()
 	{
-		this.me.updateConnections( this );
-
-		return null;
+		return this.me;
 	}
 
 	public void markDestroy()
@@ -0,0 +1,89 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.cache.helpers;
+
+
+/**
+ * Counts how often ME tunnel connections are torn down and rebuilt.
+ */
+public final class TunnelChurnStats
+{
+	private int batches;
+	private long updates;
+	private long created;
+	private long destroyed;
+	private long deferred;
+
+	void addBatch( final int tunnels )
+	{
+		this.batches++;
+		this.updates += tunnels;
+	}
+
+	public void addCreated()
+	{
+		this.created++;
+	}
+
+	public void addDestroyed()
+	{
+		this.destroyed++;
+	}
+
+	/**
+	 * A tunnel kept its connections although its network was down, waiting for the grace window to pass.
+	 */
+	public void addDeferred()
+	{
+		this.deferred++;
+	}
+
+	public int getBatches()
+	{
+		return this.batches;
+	}
+
+	public long getCreated()
+	{
+		return this.created;
+	}
+
+	public long getDestroyed()
+	{
+		return this.destroyed;
+	}
+
+	public long getDeferred()
+	{
+		return this.deferred;
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder sb = new StringBuilder();
+
+		sb.append( this.batches ).append( " batches of " ).append( this.updates ).append( " tunnel updates, " );
+		sb.append( this.created ).append( " connections created, " );
+		sb.append( this.destroyed ).append( " destroyed, " );
+		sb.append( this.deferred ).append( " teardowns deferred" );
+
+		return sb.toString();
+	}
+}
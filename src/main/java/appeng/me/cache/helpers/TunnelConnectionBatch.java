@@ -0,0 +1,100 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.cache.helpers;
+
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import net.minecraft.world.World;
+
+import appeng.core.AELog;
+import appeng.hooks.TickHandler;
+import appeng.util.IWorldCallable;
+
+
+/**
+ * Collects the ME tunnel connection updates of one world and applies them together at the end of the tick.
+ *
+ * A tunnel is only queued once however often it asks, and all teardowns run before any connection is created, so
+ * the grids involved settle once and repath on their next tick instead of after every single tunnel.
+ */
+public final class TunnelConnectionBatch implements IWorldCallable<Void>
+{
+
+	private static final Map<World, TunnelConnectionBatch> PENDING = new WeakHashMap<World, TunnelConnectionBatch>();
+	private static final TunnelChurnStats STATS = new TunnelChurnStats();
+
+	private final Set<Connections> updates = new LinkedHashSet<Connections>();
+
+	private TunnelConnectionBatch()
+	{
+	}
+
+	public static void schedule( final World world, final Connections update )
+	{
+		TunnelConnectionBatch batch = PENDING.get( world );
+
+		if( batch == null )
+		{
+			batch = new TunnelConnectionBatch();
+			PENDING.put( world, batch );
+			TickHandler.INSTANCE.addCallable( world, batch );
+		}
+
+		batch.updates.add( update );
+	}
+
+	public static TunnelChurnStats getStats()
+	{
+		return STATS;
+	}
+
+	@Override
+	public Void call( final World world ) throws Exception
+	{
+		if( PENDING.get( world ) == this )
+		{
+			PENDING.remove( world );
+		}
+
+		for( final Connections c : this.updates )
+		{
+			if( c.isDestroy() )
+			{
+				c.getTunnel().updateConnections( c, STATS );
+			}
+		}
+
+		for( final Connections c : this.updates )
+		{
+			if( c.isCreate() )
+			{
+				c.getTunnel().updateConnections( c, STATS );
+			}
+		}
+
+		STATS.addBatch( this.updates.size() );
+		AELog.debug( "Applied %d ME tunnel updates: %s", this.updates.size(), STATS );
+
+		return null;
+	}
+}
@@ -819,20 +819,21 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 		final IStorageGrid sg = g.getCache( IStorageGrid.class );
 		final IMEInventory<IAEItemStack> ii = sg.getItemInventory();
 
-		for( IAEItemStack is : this.inventory.getItemList() )
+		final IItemList<IAEItemStack> stored = AEApi.instance().storage().createItemList();
+		for( final IAEItemStack is : this.inventory.getItemList() )
 		{
-			is = this.inventory.extractItems( is.copy(), Actionable.MODULATE, this.machineSrc );
+			final IAEItemStack extracted = this.inventory.extractItems( is.copy(), Actionable.MODULATE, this.machineSrc );
 
-			if( is != null )
+			if( extracted != null )
 			{
-				this.postChange( is, this.machineSrc );
-				is = ii.injectItems( is, Actionable.MODULATE, this.machineSrc );
+				this.postChange( extracted, this.machineSrc );
+				stored.add( extracted );
 			}
+		}
 
-			if( is != null )
-			{
-				this.inventory.injectItems( is, Actionable.MODULATE, this.machineSrc );
-			}
+		for( final IAEItemStack is : ii.injectAll( stored, Actionable.MODULATE, this.machineSrc ) )
+		{
+			this.inventory.injectItems( is, Actionable.MODULATE, this.machineSrc );
 		}
 
 		if( this.inventory.getItemList().isEmpty() )
@@ -850,7 +851,7 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 			return null;
 		}
 
-		if( !( job instanceof CraftingJob ) )
+		if( !( job instanceof CraftingJob ) || ( (CraftingJob) job ).getCraftingPlan() == null )
 		{
 			return null;
 		}
@@ -867,10 +868,11 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 		try
 		{
 			this.waitingFor.resetStatus();
-			( (CraftingJob) job ).getTree().setJob( ci, this, src );
+			( (CraftingJob) job ).getCraftingPlan().setJob( ci, this, src );
 			if( ci.commit( src ) )
 			{
-				this.finalOutput = job.getOutput();
+				// the job may be submitted again, it must not count down its output
+				this.finalOutput = job.getOutput().copy();
 				this.waiting = false;
 				this.isComplete = false;
 				this.markDirty();
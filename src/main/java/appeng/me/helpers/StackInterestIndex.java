@@ -0,0 +1,298 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.helpers;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntObjectHashMap;
+
+import net.minecraft.item.Item;
+
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IAEStack;
+import appeng.util.Platform;
+
+
+/**
+ * Interest manager that hands out a dense id for every watched stack, so watchers and the watched amount can be
+ * looked up by id once a change has been resolved.
+ *
+ * Stacks are first looked up by a primitive key made of their item id and damage, only the few watched stacks sharing
+ * that key are compared in full. Ids are only valid while the stack is watched, they are reused once the last watcher
+ * is gone.
+ */
+public class StackInterestIndex<T>
+{
+
+	private static final long UNKNOWN = Long.MIN_VALUE;
+
+	private final TIntObjectHashMap<Entry> ids = new TIntObjectHashMap<Entry>();
+	private final List<Set<T>> watchers = new ArrayList<Set<T>>();
+	private final TIntArrayList freeIds = new TIntArrayList();
+	private long[] amounts = new long[16];
+	private LinkedList<SavedTransactions> transactions = null;
+	private int transDepth = 0;
+
+	public void enableTransactions()
+	{
+		if( this.transDepth == 0 )
+		{
+			this.transactions = new LinkedList<SavedTransactions>();
+		}
+
+		this.transDepth++;
+	}
+
+	public void disableTransactions()
+	{
+		this.transDepth--;
+
+		if( this.transDepth == 0 )
+		{
+			final LinkedList<SavedTransactions> myActions = this.transactions;
+			this.transactions = null;
+
+			for( final SavedTransactions t : myActions )
+			{
+				if( t.put )
+				{
+					this.put( t.stack, t.iw );
+				}
+				else
+				{
+					this.remove( t.stack, t.iw );
+				}
+			}
+		}
+	}
+
+	public boolean put( final IAEStack stack, final T iw )
+	{
+		if( this.transactions != null )
+		{
+			this.transactions.add( new SavedTransactions( true, stack, iw ) );
+			return true;
+		}
+
+		int id = this.getId( stack );
+		if( id < 0 )
+		{
+			id = this.intern( stack );
+		}
+
+		return this.watchers.get( id ).add( iw );
+	}
+
+	public boolean remove( final IAEStack stack, final T iw )
+	{
+		if( this.transactions != null )
+		{
+			this.transactions.add( new SavedTransactions( false, stack, iw ) );
+			return true;
+		}
+
+		final int id = this.getId( stack );
+		if( id < 0 )
+		{
+			return false;
+		}
+
+		final Set<T> set = this.watchers.get( id );
+		if( !set.remove( iw ) )
+		{
+			return false;
+		}
+
+		if( set.isEmpty() )
+		{
+			this.unlink( stack, id );
+			this.watchers.set( id, null );
+			this.freeIds.add( id );
+		}
+
+		return true;
+	}
+
+	public boolean containsKey( final IAEStack stack )
+	{
+		return this.getId( stack ) >= 0;
+	}
+
+	/**
+	 * @return the id of a watched stack, or -1 if nothing watches it
+	 */
+	public int getId( final IAEStack stack )
+	{
+		if( stack == null || this.ids.isEmpty() )
+		{
+			return -1;
+		}
+
+		for( Entry e = this.ids.get( keyOf( stack ) ); e != null; e = e.next )
+		{
+			if( e.stack.equals( stack ) )
+			{
+				return e.id;
+			}
+		}
+
+		return -1;
+	}
+
+	public Collection<T> get( final int id )
+	{
+		return this.watchers.get( id );
+	}
+
+	public boolean isAmountKnown( final int id )
+	{
+		return this.amounts[id] != UNKNOWN;
+	}
+
+	public long getAmount( final int id )
+	{
+		return this.amounts[id];
+	}
+
+	public void setAmount( final int id, final long amount )
+	{
+		this.amounts[id] = amount;
+	}
+
+	/**
+	 * Forgets all watched amounts, for when changes could not be followed; they are looked up again on the next change.
+	 */
+	public void invalidateAmounts()
+	{
+		Arrays.fill( this.amounts, UNKNOWN );
+	}
+
+	private int intern( final IAEStack stack )
+	{
+		final int id;
+
+		if( this.freeIds.isEmpty() )
+		{
+			id = this.watchers.size();
+			this.watchers.add( null );
+
+			if( id >= this.amounts.length )
+			{
+				final int oldLength = this.amounts.length;
+				this.amounts = Arrays.copyOf( this.amounts, oldLength * 2 );
+				Arrays.fill( this.amounts, oldLength, this.amounts.length, UNKNOWN );
+			}
+		}
+		else
+		{
+			id = this.freeIds.removeAt( this.freeIds.size() - 1 );
+		}
+
+		this.watchers.set( id, new HashSet<T>() );
+		this.amounts[id] = UNKNOWN;
+		final int key = keyOf( stack );
+		this.ids.put( key, new Entry( stack.copy(), id, this.ids.get( key ) ) );
+
+		return id;
+	}
+
+	private void unlink( final IAEStack stack, final int id )
+	{
+		final int key = keyOf( stack );
+		Entry previous = null;
+
+		for( Entry e = this.ids.get( key ); e != null; e = e.next )
+		{
+			if( e.id == id )
+			{
+				if( previous != null )
+				{
+					previous.next = e.next;
+				}
+				else if( e.next != null )
+				{
+					this.ids.put( key, e.next );
+				}
+				else
+				{
+					this.ids.remove( key );
+				}
+
+				return;
+			}
+
+			previous = e;
+		}
+	}
+
+	/**
+	 * Item id and damage for items, other stacks use their hash, which AE stacks keep precomputed.
+	 */
+	private static int keyOf( final IAEStack stack )
+	{
+		if( stack instanceof IAEItemStack )
+		{
+			final IAEItemStack is = (IAEItemStack) stack;
+			return Item.getIdFromItem( is.getItem() ) << Platform.DEF_OFFSET | is.getItemDamage();
+		}
+
+		return stack.hashCode();
+	}
+
+	/**
+	 * A watched stack, chained with the other watched stacks sharing its key.
+	 */
+	private static final class Entry
+	{
+
+		private final IAEStack stack;
+		private final int id;
+		private Entry next;
+
+		private Entry( final IAEStack stack, final int id, final Entry next )
+		{
+			this.stack = stack;
+			this.id = id;
+			this.next = next;
+		}
+	}
+
+	private class SavedTransactions
+	{
+
+		private final boolean put;
+		private final IAEStack stack;
+		private final T iw;
+
+		public SavedTransactions( final boolean putOperation, final IAEStack myStack, final T watcher )
+		{
+			this.put = putOperation;
+			this.stack = myStack;
+			this.iw = watcher;
+		}
+	}
+}
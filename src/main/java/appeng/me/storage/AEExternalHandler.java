@@ -47,6 +47,13 @@ public class AEExternalHandler implements IExternalStorageHandler
 		return te instanceof TileCondenser;
 	}
 
+	@Override
+	public boolean isCacheable( final TileEntity te, final EnumFacing d, final StorageChannel channel )
+	{
+		// monitorable tiles decide by their current state
+		return !( te instanceof ITileStorageMonitorable );
+	}
+
 	@Override
 	public IMEInventory getInventory( final TileEntity te, final EnumFacing d, final StorageChannel channel, final BaseActionSource src )
 	{
@@ -67,6 +67,11 @@ public class CellInventory implements ICellInventory
 	private IItemList<IAEItemStack> cellItems;
 	private ItemStack i;
 	private IStorageCell cellType;
+	// saves are collected while a batch is running and written once it is done
+	private boolean inBatch = false;
+	private boolean pendingSave = false;
+	// type count written to the tag when the batch began
+	private short batchStoredItems = 0;
 
 	protected CellInventory( final NBTTagCompound data, final ISaveProvider container )
 	{
@@ -338,6 +343,63 @@ public class CellInventory implements ICellInventory
 		return Results;
 	}
 
+	@Override
+	public IItemList<IAEItemStack> injectAll( final IItemList<IAEItemStack> input, final Actionable mode, final BaseActionSource src )
+	{
+		if( this.inBatch )
+		{
+			return ICellInventory.super.injectAll( input, mode, src );
+		}
+
+		this.beginBatch();
+		try
+		{
+			return ICellInventory.super.injectAll( input, mode, src );
+		}
+		finally
+		{
+			this.endBatch();
+		}
+	}
+
+	@Override
+	public IItemList<IAEItemStack> extractAll( final IItemList<IAEItemStack> request, final Actionable mode, final BaseActionSource src )
+	{
+		if( this.inBatch )
+		{
+			return ICellInventory.super.extractAll( request, mode, src );
+		}
+
+		this.beginBatch();
+		try
+		{
+			return ICellInventory.super.extractAll( request, mode, src );
+		}
+		finally
+		{
+			this.endBatch();
+		}
+	}
+
+	private void beginBatch()
+	{
+		this.inBatch = true;
+		this.batchStoredItems = this.storedItems;
+	}
+
+	private void endBatch()
+	{
+		this.inBatch = false;
+
+		if( this.pendingSave )
+		{
+			this.pendingSave = false;
+			// the save cleans up the slots of the types written before the batch, not the interim count
+			this.storedItems = this.batchStoredItems;
+			this.saveChanges();
+		}
+	}
+
 	IItemList<IAEItemStack> getCellItems()
 	{
 		if( this.cellItems == null )
@@ -357,6 +419,14 @@ public class CellInventory implements ICellInventory
 
 	void saveChanges()
 	{
+		if( this.inBatch )
+		{
+			// the type count limits further injections, everything else is written once the batch is done
+			this.storedItems = (short) this.cellItems.size();
+			this.pendingSave = true;
+			return;
+		}
+
 		// cellItems.clean();
 		int itemCount = 0;
 
@@ -27,6 +27,7 @@ import appeng.api.networking.security.BaseActionSource;
 import appeng.api.storage.ICellHandler;
 import appeng.api.storage.IMEInventory;
 import appeng.api.storage.data.IAEStack;
+import appeng.api.storage.data.IItemList;
 
 
 public class DriveWatcher<T extends IAEStack<T>> extends MEInventoryHandler<T>
@@ -54,12 +55,7 @@ public class DriveWatcher<T extends IAEStack<T>> extends MEInventoryHandler<T>
 
 		if( a == null || a.getStackSize() != size )
 		{
-			final int newStatus = this.handler.getStatusForCell( this.is, this.getInternal() );
-
-			if( newStatus != this.oldStatus )
-			{
-				this.cord.blinkCell( this.getSlot() );
-			}
+			this.updateStatus();
 		}
 
 		return a;
@@ -72,14 +68,50 @@ public class DriveWatcher<T extends IAEStack<T>> extends MEInventoryHandler<T>
 
 		if( a != null )
 		{
-			final int newStatus = this.handler.getStatusForCell( this.is, this.getInternal() );
+			this.updateStatus();
+		}
+
+		return a;
+	}
 
-			if( newStatus != this.oldStatus )
+	@Override
+	public IItemList<T> injectAll( final IItemList<T> input, final Actionable type, final BaseActionSource src )
+	{
+		final IItemList<T> leftovers = super.injectAll( input, type, src );
+
+		for( final T stack : input )
+		{
+			final T l = leftovers.findPrecise( stack );
+			if( l == null || l.getStackSize() != stack.getStackSize() )
 			{
-				this.cord.blinkCell( this.getSlot() );
+				this.updateStatus();
+				break;
 			}
 		}
 
-		return a;
+		return leftovers;
+	}
+
+	@Override
+	public IItemList<T> extractAll( final IItemList<T> request, final Actionable type, final BaseActionSource src )
+	{
+		final IItemList<T> extracted = super.extractAll( request, type, src );
+
+		if( !extracted.isEmpty() )
+		{
+			this.updateStatus();
+		}
+
+		return extracted;
+	}
+
+	private void updateStatus()
+	{
+		final int newStatus = this.handler.getStatusForCell( this.is, this.getInternal() );
+
+		if( newStatus != this.oldStatus )
+		{
+			this.cord.blinkCell( this.getSlot() );
+		}
 	}
 }
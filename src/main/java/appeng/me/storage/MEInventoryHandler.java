@@ -117,6 +117,46 @@ public class MEInventoryHandler<T extends IAEStack<T>> implements IMEInventoryHa
 		return this.internal.extractItems( request, type, src );
 	}
 
+	@Override
+	public IItemList<T> injectAll( final IItemList<T> input, final Actionable type, final BaseActionSource src )
+	{
+		final IItemList<T> accepted = this.getChannel().createList();
+		final IItemList<T> leftovers = this.getChannel().createList();
+
+		for( final T stack : input )
+		{
+			if( this.canAccept( stack ) )
+			{
+				accepted.add( stack );
+			}
+			else
+			{
+				leftovers.add( stack );
+			}
+		}
+
+		if( !accepted.isEmpty() )
+		{
+			for( final T stack : this.internal.injectAll( accepted, type, src ) )
+			{
+				leftovers.add( stack );
+			}
+		}
+
+		return leftovers;
+	}
+
+	@Override
+	public IItemList<T> extractAll( final IItemList<T> request, final Actionable type, final BaseActionSource src )
+	{
+		if( !this.hasReadAccess )
+		{
+			return this.getChannel().createList();
+		}
+
+		return this.internal.extractAll( request, type, src );
+	}
+
 	@Override
 	public IItemList<T> getAvailableItems( final IItemList<T> out )
 	{
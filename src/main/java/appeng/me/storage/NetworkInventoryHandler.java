@@ -19,13 +19,20 @@
 package appeng.me.storage;
 
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.MapMaker;
 
 import appeng.api.config.AccessRestriction;
 import appeng.api.config.Actionable;
@@ -47,8 +54,22 @@ import appeng.util.ItemSorters;
 public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInventoryHandler<T>
 {
 
-	private static final ThreadLocal<LinkedList> DEPTH_MOD = new ThreadLocal<LinkedList>();
-	private static final ThreadLocal<LinkedList> DEPTH_SIM = new ThreadLocal<LinkedList>();
+	private static final ThreadLocal<DepthGuard> DEPTH_MOD = new ThreadLocal<DepthGuard>(){
+
+		@Override
+		protected DepthGuard initialValue()
+		{
+			return new DepthGuard();
+		}
+	};
+	private static final ThreadLocal<DepthGuard> DEPTH_SIM = new ThreadLocal<DepthGuard>(){
+
+		@Override
+		protected DepthGuard initialValue()
+		{
+			return new DepthGuard();
+		}
+	};
 	private static final Comparator<Integer> PRIORITY_SORTER = new Comparator<Integer>(){
 
 		@Override
@@ -57,12 +78,18 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 			return ItemSorters.compareInt( o2, o1 );
 		}
 	};
-	private static int currentPass = 0;
+	// pass numbers are unique across threads, a stamp left by another thread never matches
+	private static final AtomicLong PASSES = new AtomicLong();
 	private final StorageChannel myChannel;
 	private final SecurityCache security;
 	// final TreeMultimap<Integer, IMEInventoryHandler<T>> priorityInventory;
-	private final NavigableMap<Integer, List<IMEInventoryHandler<T>>> priorityInventory;
-	private int myPass = 0;
+	private volatile NavigableMap<Integer, List<IMEInventoryHandler<T>>> priorityInventory;
+	// array copy of the priority map that passes iterate without allocating
+	private volatile IMEInventoryHandler<T>[][] tiers;
+	private volatile long myPass = 0;
+
+	// decisions per grid machine sources came from, dropped together with the grid
+	private final ConcurrentMap<IGrid, SourceDecisions> sourceDecisions = new MapMaker().weakKeys().makeMap();
 
 	public NetworkInventoryHandler( final StorageChannel chan, final SecurityCache security )
 	{
@@ -73,7 +100,7 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 																										// hashSorter );
 	}
 
-	public void addNewStorage( final IMEInventoryHandler<T> h )
+	public synchronized void addNewStorage( final IMEInventoryHandler<T> h )
 	{
 		final int priority = h.getPriority();
 		List<IMEInventoryHandler<T>> list = this.priorityInventory.get( priority );
@@ -83,6 +110,82 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 		}
 
 		list.add( h );
+		this.tiers = null;
+	}
+
+	/**
+	 * Swaps in a patched copy of the priority map, passes already iterating the current one are not disturbed.
+	 */
+	public synchronized void updateStorage( final Collection<IMEInventoryHandler<T>> removed, final Collection<IMEInventoryHandler<T>> added )
+	{
+		final NavigableMap<Integer, List<IMEInventoryHandler<T>>> next = new TreeMap<Integer, List<IMEInventoryHandler<T>>>( PRIORITY_SORTER );
+
+		for( final Entry<Integer, List<IMEInventoryHandler<T>>> e : this.priorityInventory.entrySet() )
+		{
+			final List<IMEInventoryHandler<T>> list = new ArrayList<IMEInventoryHandler<T>>( e.getValue().size() );
+			for( final IMEInventoryHandler<T> h : e.getValue() )
+			{
+				if( !removed.contains( h ) )
+				{
+					list.add( h );
+				}
+			}
+
+			if( !list.isEmpty() )
+			{
+				next.put( e.getKey(), list );
+			}
+		}
+
+		for( final IMEInventoryHandler<T> h : added )
+		{
+			List<IMEInventoryHandler<T>> list = next.get( h.getPriority() );
+			if( list == null )
+			{
+				next.put( h.getPriority(), list = new ArrayList<IMEInventoryHandler<T>>() );
+			}
+
+			list.add( h );
+		}
+
+		this.priorityInventory = next;
+		this.tiers = this.createTiers( next );
+	}
+
+	/**
+	 * @return the handlers grouped by priority, highest first; never modified once published
+	 */
+	private IMEInventoryHandler<T>[][] getTiers()
+	{
+		final IMEInventoryHandler<T>[][] current = this.tiers;
+		if( current != null )
+		{
+			return current;
+		}
+
+		synchronized( this )
+		{
+			if( this.tiers == null )
+			{
+				this.tiers = this.createTiers( this.priorityInventory );
+			}
+
+			return this.tiers;
+		}
+	}
+
+	@SuppressWarnings( "unchecked" )
+	private IMEInventoryHandler<T>[][] createTiers( final NavigableMap<Integer, List<IMEInventoryHandler<T>>> map )
+	{
+		final IMEInventoryHandler<T>[][] out = new IMEInventoryHandler[map.size()][];
+
+		int x = 0;
+		for( final List<IMEInventoryHandler<T>> list : map.values() )
+		{
+			out[x++] = list.toArray( new IMEInventoryHandler[list.size()] );
+		}
+
+		return out;
 	}
 
 	@Override
@@ -99,12 +202,11 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 			return input;
 		}
 
-		for( final List<IMEInventoryHandler<T>> invList : this.priorityInventory.values() )
+		for( final IMEInventoryHandler<T>[] invList : this.getTiers() )
 		{
-			Iterator<IMEInventoryHandler<T>> ii = invList.iterator();
-			while( ii.hasNext() && input != null )
+			for( int x = 0; x < invList.length && input != null; x++ )
 			{
-				final IMEInventoryHandler<T> inv = ii.next();
+				final IMEInventoryHandler<T> inv = invList[x];
 
 				if( inv.validForPass( 1 ) && inv.canAccept( input ) && ( inv.isPrioritized( input ) || inv.extractItems( input, Actionable.SIMULATE, src ) != null ) )
 				{
@@ -116,10 +218,9 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 			// during the first pass, they will do so in the second, but as this is stateless we will just report twice
 			// the amount of storable items.
 			// ignores craftingcache on the second pass.
-			ii = invList.iterator();
-			while( ii.hasNext() && input != null )
+			for( int x = 0; x < invList.length && input != null; x++ )
 			{
-				final IMEInventoryHandler<T> inv = ii.next();
+				final IMEInventoryHandler<T> inv = invList[x];
 
 				if( inv.validForPass( 2 ) && inv.canAccept( input ) && !inv.isPrioritized( input ) )
 				{
@@ -133,9 +234,137 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 		return input;
 	}
 
+	/**
+	 * Routes the whole list through the priority tiers, each handler is offered everything still left that it would
+	 * take on its own, in the same passes as {@link #injectItems}.
+	 */
+	@Override
+	public IItemList<T> injectAll( final IItemList<T> input, final Actionable type, final BaseActionSource src )
+	{
+		final IItemList<T> leftovers = this.myChannel.createList();
+
+		if( this.diveList( this, type ) )
+		{
+			this.addAll( leftovers, input );
+			return leftovers;
+		}
+
+		if( this.testPermission( src, SecurityPermissions.INJECT ) )
+		{
+			this.surface( this, type );
+			this.addAll( leftovers, input );
+			return leftovers;
+		}
+
+		final List<T> pending = new ArrayList<T>();
+		for( final T stack : input )
+		{
+			pending.add( stack.copy() );
+		}
+
+		final List<T> offer = new ArrayList<T>();
+		for( final IMEInventoryHandler<T>[] invList : this.getTiers() )
+		{
+			for( int x = 0; x < invList.length && !pending.isEmpty(); x++ )
+			{
+				final IMEInventoryHandler<T> inv = invList[x];
+
+				if( inv.validForPass( 1 ) )
+				{
+					for( final T stack : pending )
+					{
+						if( inv.canAccept( stack ) && ( inv.isPrioritized( stack ) || inv.extractItems( stack, Actionable.SIMULATE, src ) != null ) )
+						{
+							offer.add( stack );
+						}
+					}
+
+					this.offer( inv, offer, pending, type, src );
+				}
+			}
+
+			// see injectItems, prioritized inventories already had their chance during the first pass
+			for( int x = 0; x < invList.length && !pending.isEmpty(); x++ )
+			{
+				final IMEInventoryHandler<T> inv = invList[x];
+
+				if( inv.validForPass( 2 ) )
+				{
+					for( final T stack : pending )
+					{
+						if( inv.canAccept( stack ) && !inv.isPrioritized( stack ) )
+						{
+							offer.add( stack );
+						}
+					}
+
+					this.offer( inv, offer, pending, type, src );
+				}
+			}
+		}
+
+		this.surface( this, type );
+
+		for( final T stack : pending )
+		{
+			leftovers.add( stack );
+		}
+
+		return leftovers;
+	}
+
+	/**
+	 * Injects the offered stacks into inv, then updates them to what is left and drops the ones that were stored.
+	 */
+	private void offer( final IMEInventoryHandler<T> inv, final List<T> offer, final List<T> pending, final Actionable type, final BaseActionSource src )
+	{
+		if( offer.isEmpty() )
+		{
+			return;
+		}
+
+		final IItemList<T> batch = this.myChannel.createList();
+		for( final T stack : offer )
+		{
+			batch.add( stack );
+		}
+
+		final IItemList<T> left = inv.injectAll( batch, type, src );
+
+		boolean stored = false;
+		for( final T stack : offer )
+		{
+			final T l = left.findPrecise( stack );
+			stack.setStackSize( l == null ? 0 : l.getStackSize() );
+			stored |= stack.getStackSize() <= 0;
+		}
+
+		offer.clear();
+
+		if( stored )
+		{
+			final Iterator<T> i = pending.iterator();
+			while( i.hasNext() )
+			{
+				if( i.next().getStackSize() <= 0 )
+				{
+					i.remove();
+				}
+			}
+		}
+	}
+
+	private void addAll( final IItemList<T> out, final IItemList<T> in )
+	{
+		for( final T stack : in )
+		{
+			out.add( stack );
+		}
+	}
+
 	private boolean diveList( final NetworkInventoryHandler<T> networkInventoryHandler, final Actionable type )
 	{
-		final LinkedList cDepth = this.getDepth( type );
+		final DepthGuard cDepth = this.getDepth( type );
 		if( cDepth.contains( networkInventoryHandler ) )
 		{
 			return true;
@@ -165,16 +394,9 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 				}
 
 				final IGrid gn = n.getGrid();
-				if( gn != this.security.getGrid() )
+				if( gn != this.security.getGrid() && !this.isSourceAllowed( gn, permission ) )
 				{
-
-					final ISecurityGrid sg = gn.getCache( ISecurityGrid.class );
-					final int playerID = sg.getOwner();
-
-					if( !this.security.hasPermission( playerID, permission ) )
-					{
-						return true;
-					}
+					return true;
 				}
 			}
 		}
@@ -182,26 +404,54 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 		return false;
 	}
 
-	private void surface( final NetworkInventoryHandler<T> networkInventoryHandler, final Actionable type )
+	/**
+	 * Decides if the owner of the source grid has the permission on this network, remembered per source grid, owner
+	 * and permission until the security key or the permissions of this network change.
+	 */
+	private boolean isSourceAllowed( final IGrid grid, final SecurityPermissions permission )
 	{
-		if( this.getDepth( type ).pop() != this )
+		SourceDecisions decisions = this.sourceDecisions.get( grid );
+		ISecurityGrid source = decisions == null ? null : decisions.source.get();
+
+		if( source == null )
 		{
-			throw new IllegalStateException( "Invalid Access to Networked Storage API detected." );
+			source = grid.getCache( ISecurityGrid.class );
+			decisions = new SourceDecisions( new WeakReference<ISecurityGrid>( source ), -1, 0, 0, 0, 0 );
 		}
-	}
 
-	private LinkedList getDepth( final Actionable type )
-	{
-		final ThreadLocal<LinkedList> depth = type == Actionable.MODULATE ? DEPTH_MOD : DEPTH_SIM;
+		// the owner is -1 while the source security is unavailable, which changes without an event
+		final int playerID = source.getOwner();
+		final long securityKey = this.security.getSecurityKey();
+		final int version = this.security.getPermissionVersion();
 
-		LinkedList s = depth.get();
+		if( decisions.playerID != playerID || decisions.securityKey != securityKey || decisions.version != version )
+		{
+			decisions = new SourceDecisions( decisions.source, playerID, securityKey, version, 0, 0 );
+		}
 
-		if( s == null )
+		final int bit = 1 << permission.ordinal();
+		if( ( decisions.known & bit ) != 0 )
 		{
-			depth.set( s = new LinkedList() );
+			return ( decisions.allowed & bit ) != 0;
 		}
 
-		return s;
+		final boolean allowed = this.security.hasPermission( playerID, permission );
+		this.sourceDecisions.put( grid, new SourceDecisions( decisions.source, playerID, securityKey, version, decisions.known | bit, allowed ? decisions.allowed | bit : decisions.allowed ) );
+
+		return allowed;
+	}
+
+	private void surface( final NetworkInventoryHandler<T> networkInventoryHandler, final Actionable type )
+	{
+		if( this.getDepth( type ).pop() != this )
+		{
+			throw new IllegalStateException( "Invalid Access to Networked Storage API detected." );
+		}
+	}
+
+	private DepthGuard getDepth( final Actionable type )
+	{
+		return ( type == Actionable.MODULATE ? DEPTH_MOD : DEPTH_SIM ).get();
 	}
 
 	@Override
@@ -218,21 +468,21 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 			return null;
 		}
 
-		final Iterator<List<IMEInventoryHandler<T>>> i = this.priorityInventory.descendingMap().values().iterator();// priorityInventory.asMap().descendingMap().entrySet().iterator();
+		final IMEInventoryHandler<T>[][] tiers = this.getTiers();
 
 		final T output = request.copy();
 		request = request.copy();
 		output.setStackSize( 0 );
 		final long req = request.getStackSize();
 
-		while( i.hasNext() )
+		// lowest priority first
+		for( int t = tiers.length - 1; t >= 0; t-- )
 		{
-			final List<IMEInventoryHandler<T>> invList = i.next();
+			final IMEInventoryHandler<T>[] invList = tiers[t];
 
-			final Iterator<IMEInventoryHandler<T>> ii = invList.iterator();
-			while( ii.hasNext() && output.getStackSize() < req )
+			for( int x = 0; x < invList.length && output.getStackSize() < req; x++ )
 			{
-				final IMEInventoryHandler<T> inv = ii.next();
+				final IMEInventoryHandler<T> inv = invList[x];
 
 				request.setStackSize( req - output.getStackSize() );
 				output.add( inv.extractItems( request, mode, src ) );
@@ -249,6 +499,51 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 		return output;
 	}
 
+	@Override
+	public IItemList<T> extractAll( final IItemList<T> request, final Actionable mode, final BaseActionSource src )
+	{
+		final IItemList<T> output = this.myChannel.createList();
+
+		if( this.diveList( this, mode ) )
+		{
+			return output;
+		}
+
+		if( this.testPermission( src, SecurityPermissions.EXTRACT ) )
+		{
+			this.surface( this, mode );
+			return output;
+		}
+
+		final IMEInventoryHandler<T>[][] tiers = this.getTiers();
+		final IItemList<T> pending = this.myChannel.createList();
+		this.addAll( pending, request );
+
+		// lowest priority first
+		for( int t = tiers.length - 1; t >= 0 && !pending.isEmpty(); t-- )
+		{
+			final IMEInventoryHandler<T>[] invList = tiers[t];
+
+			for( int x = 0; x < invList.length && !pending.isEmpty(); x++ )
+			{
+				for( final T got : invList[x].extractAll( pending, mode, src ) )
+				{
+					output.add( got );
+
+					final T p = pending.findPrecise( got );
+					if( p != null )
+					{
+						p.decStackSize( got.getStackSize() );
+					}
+				}
+			}
+		}
+
+		this.surface( this, mode );
+
+		return output;
+	}
+
 	@Override
 	public IItemList<T> getAvailableItems( IItemList out )
 	{
@@ -257,8 +552,7 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 			return out;
 		}
 
-		// for (Entry<Integer, IMEInventoryHandler<T>> h : priorityInventory.entries())
-		for( final List<IMEInventoryHandler<T>> i : this.priorityInventory.values() )
+		for( final IMEInventoryHandler<T>[] i : this.getTiers() )
 		{
 			for( final IMEInventoryHandler<T> j : i )
 			{
@@ -273,24 +567,17 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 
 	private boolean diveIteration( final NetworkInventoryHandler<T> networkInventoryHandler, final Actionable type )
 	{
-		final LinkedList cDepth = this.getDepth( type );
+		final DepthGuard cDepth = this.getDepth( type );
 		if( cDepth.isEmpty() )
 		{
-			currentPass++;
-			this.myPass = currentPass;
+			cDepth.pass = PASSES.incrementAndGet();
 		}
-		else
+		else if( this.myPass == cDepth.pass )
 		{
-			if( currentPass == this.myPass )
-			{
-				return true;
-			}
-			else
-			{
-				this.myPass = currentPass;
-			}
+			return true;
 		}
 
+		this.myPass = cDepth.pass;
 		cDepth.push( this );
 		return false;
 	}
@@ -336,4 +623,81 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 	{
 		return true;
 	}
+
+	/**
+	 * The networks a thread is currently inside of, innermost last.
+	 */
+	private static final class DepthGuard
+	{
+
+		private NetworkInventoryHandler<?>[] stack = new NetworkInventoryHandler<?>[4];
+		private int depth = 0;
+		private long pass = 0;
+
+		private boolean isEmpty()
+		{
+			return this.depth == 0;
+		}
+
+		private boolean contains( final NetworkInventoryHandler<?> h )
+		{
+			for( int x = 0; x < this.depth; x++ )
+			{
+				if( this.stack[x] == h )
+				{
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		private void push( final NetworkInventoryHandler<?> h )
+		{
+			if( this.depth == this.stack.length )
+			{
+				this.stack = Arrays.copyOf( this.stack, this.depth * 2 );
+			}
+
+			this.stack[this.depth++] = h;
+		}
+
+		private NetworkInventoryHandler<?> pop()
+		{
+			if( this.depth == 0 )
+			{
+				return null;
+			}
+
+			final NetworkInventoryHandler<?> h = this.stack[--this.depth];
+			this.stack[this.depth] = null;
+			return h;
+		}
+	}
+
+	/**
+	 * Immutable decisions for one source grid, replaced as a whole so it can be read from any thread.
+	 */
+	private static final class SourceDecisions
+	{
+
+		// weak, the grid cache references the grid used as key
+		private final WeakReference<ISecurityGrid> source;
+		private final int playerID;
+		private final long securityKey;
+		private final int version;
+		// bit masks of SecurityPermissions#ordinal()
+		private final int known;
+		private final int allowed;
+
+		private SourceDecisions( final WeakReference<ISecurityGrid> source, final int playerID, final long securityKey, final int version, final int known, final int allowed )
+		{
+			this.source = source;
+			this.playerID = playerID;
+			this.securityKey = securityKey;
+			this.version = version;
+			this.known = known;
+			this.allowed = allowed;
+		}
+	}
 }
@@ -37,6 +37,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
 
+import appeng.api.AEApi;
 import appeng.api.config.Actionable;
 import appeng.api.config.PowerMultiplier;
 import appeng.api.networking.IGridNode;
@@ -54,6 +55,7 @@ import appeng.api.parts.IPart;
 import appeng.api.parts.IPartCollisionHelper;
 import appeng.api.parts.IPartHost;
 import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
 import appeng.api.util.AECableType;
 import appeng.api.util.AEPartLocation;
 import appeng.core.settings.TickRates;
@@ -541,11 +543,17 @@ public class PartAnnihilationPlane extends PartBasicState implements IGridTickab
 		{
 			final IStorageGrid storage = this.getProxy().getStorage();
 
+			final IItemList<IAEItemStack> itemsToTest = AEApi.instance().storage().createItemList();
 			for( final ItemStack itemStack : itemStacks )
 			{
-				final IAEItemStack itemToTest = AEItemStack.create( itemStack );
-				final IAEItemStack overflow = storage.getItemInventory().injectItems( itemToTest, Actionable.SIMULATE, this.mySrc );
-				if( overflow == null || itemToTest.getStackSize() > overflow.getStackSize() )
+				itemsToTest.add( AEItemStack.create( itemStack ) );
+			}
+
+			final IItemList<IAEItemStack> overflow = storage.getItemInventory().injectAll( itemsToTest, Actionable.SIMULATE, this.mySrc );
+			for( final IAEItemStack itemToTest : itemsToTest )
+			{
+				final IAEItemStack left = overflow.findPrecise( itemToTest );
+				if( left == null || itemToTest.getStackSize() > left.getStackSize() )
 				{
 					canStore = true;
 				}
@@ -47,6 +47,7 @@ import appeng.api.parts.IPartCollisionHelper;
 import appeng.api.storage.IMEInventory;
 import appeng.api.storage.IMEMonitor;
 import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
 import appeng.api.util.AECableType;
 import appeng.core.AppEng;
 import appeng.core.settings.TickRates;
@@ -177,6 +178,7 @@ public class PartImportBus extends PartSharedItemBus implements IInventoryDestin
 
 				final IMEMonitor<IAEItemStack> inv = this.getProxy().getStorage().getItemInventory();
 				final IEnergyGrid energy = this.getProxy().getEnergy();
+				final IItemList<IAEItemStack> imported = AEApi.instance().storage().createItemList();
 
 				boolean Configured = false;
 				for( int x = 0; x < this.availableSlots(); x++ )
@@ -187,7 +189,7 @@ public class PartImportBus extends PartSharedItemBus implements IInventoryDestin
 						Configured = true;
 						while( this.itemToSend > 0 )
 						{
-							if( this.importStuff( myAdaptor, ais, inv, energy, fzMode ) )
+							if( this.importStuff( myAdaptor, ais, inv, energy, fzMode, imported ) )
 							{
 								break;
 							}
@@ -199,12 +201,14 @@ public class PartImportBus extends PartSharedItemBus implements IInventoryDestin
 				{
 					while( this.itemToSend > 0 )
 					{
-						if( this.importStuff( myAdaptor, null, inv, energy, fzMode ) )
+						if( this.importStuff( myAdaptor, null, inv, energy, fzMode, imported ) )
 						{
 							break;
 						}
 					}
 				}
+
+				this.storeImported( myAdaptor, energy, imported );
 			}
 			catch( final GridAccessException e )
 			{
@@ -219,7 +223,7 @@ public class PartImportBus extends PartSharedItemBus implements IInventoryDestin
 		return this.worked ? TickRateModulation.FASTER : TickRateModulation.SLOWER;
 	}
 
-	private boolean importStuff( final InventoryAdaptor myAdaptor, final IAEItemStack whatToImport, final IMEMonitor<IAEItemStack> inv, final IEnergySource energy, final FuzzyMode fzMode )
+	private boolean importStuff( final InventoryAdaptor myAdaptor, final IAEItemStack whatToImport, final IMEMonitor<IAEItemStack> inv, final IEnergySource energy, final FuzzyMode fzMode, final IItemList<IAEItemStack> imported )
 	{
 		final int toSend = this.calculateMaximumAmountToImport( myAdaptor, whatToImport, inv, fzMode );
 		final ItemStack newItems;
@@ -247,17 +251,13 @@ public class PartImportBus extends PartSharedItemBus implements IInventoryDestin
 				this.lastItemChecked.setStackSize( newItems.stackSize );
 			}
 
-			final IAEItemStack failed = Platform.poweredInsert( energy, this.destination, this.lastItemChecked, this.source );
-
-			if( failed != null )
+			if( newItems.stackSize <= 0 )
 			{
-				myAdaptor.addItems( failed.getItemStack() );
 				return true;
 			}
-			else
-			{
-				this.worked = true;
-			}
+
+			// stored together with everything else taken this tick
+			imported.add( this.lastItemChecked.copy() );
 		}
 		else
 		{
@@ -267,6 +267,41 @@ public class PartImportBus extends PartSharedItemBus implements IInventoryDestin
 		return false;
 	}
 
+	/**
+	 * Stores everything taken from the neighbour this tick with one insert, anything the network refused goes back.
+	 */
+	private void storeImported( final InventoryAdaptor myAdaptor, final IEnergySource energy, final IItemList<IAEItemStack> imported )
+	{
+		if( imported.isEmpty() )
+		{
+			return;
+		}
+
+		final IItemList<IAEItemStack> failed = Platform.poweredInsertAll( energy, this.destination, imported, this.source );
+
+		for( final IAEItemStack is : imported )
+		{
+			final IAEItemStack notStored = failed.findPrecise( is );
+			if( notStored == null || notStored.getStackSize() < is.getStackSize() )
+			{
+				this.worked = true;
+			}
+		}
+
+		for( final IAEItemStack is : failed )
+		{
+			long left = is.getStackSize();
+
+			while( left > 0 )
+			{
+				final ItemStack back = is.getItemStack();
+				back.stackSize = (int) Math.min( left, back.getMaxStackSize() );
+				left -= back.stackSize;
+				myAdaptor.addItems( back );
+			}
+		}
+	}
+
 	private int calculateMaximumAmountToImport( final InventoryAdaptor myAdaptor, final IAEItemStack whatToImport, final IMEMonitor<IAEItemStack> inv, final FuzzyMode fzMode )
 	{
 		final int toSend = Math.min( this.itemToSend, 64 );
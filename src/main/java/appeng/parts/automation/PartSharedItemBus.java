@@ -32,15 +32,14 @@ import appeng.api.networking.ticking.TickRateModulation;
 import appeng.me.GridAccessException;
 import appeng.tile.inventory.AppEngInternalAEInventory;
 import appeng.util.InventoryAdaptor;
-import appeng.util.Platform;
+import appeng.util.InventoryAdaptorCache;
 
 
 public abstract class PartSharedItemBus extends PartUpgradeable implements IGridTickable
 {
 
 	private final AppEngInternalAEInventory config = new AppEngInternalAEInventory( this, 9 );
-	private int adaptorHash = 0;
-	private InventoryAdaptor adaptor;
+	private final InventoryAdaptorCache adaptor = new InventoryAdaptorCache();
 	private boolean lastRedstone = false;
 
 	public PartSharedItemBus( final ItemStack is )
@@ -82,6 +81,7 @@ public abstract class PartSharedItemBus extends PartUpgradeable implements IGrid
 	@Override
 	public void onNeighborChanged()
 	{
+		this.adaptor.invalidate();
 		this.updateState();
 		if( this.lastRedstone != this.getHost().hasRedstone( this.getSide() ) )
 		{
@@ -98,17 +98,7 @@ public abstract class PartSharedItemBus extends PartUpgradeable implements IGrid
 		final TileEntity self = this.getHost().getTile();
 		final TileEntity target = this.getTileEntity( self, self.getPos().offset( this.getSide().getFacing() ) );
 
-		final int newAdaptorHash = Platform.generateTileHash( target );
-
-		if( this.adaptorHash == newAdaptorHash && newAdaptorHash != 0 )
-		{
-			return this.adaptor;
-		}
-
-		this.adaptorHash = newAdaptorHash;
-		this.adaptor = InventoryAdaptor.getAdaptor( target, this.getSide().getFacing().getOpposite() );
-
-		return this.adaptor;
+		return this.adaptor.getAdaptor( target, this.getSide().getFacing().getOpposite() );
 	}
 
 	private TileEntity getTileEntity( final TileEntity self, final BlockPos pos )
@@ -115,6 +115,12 @@ public class PartInterface extends PartBasicState implements IGridTickable, ISto
 		this.duality.notifyNeighbors();
 	}
 
+	@Override
+	public void onNeighborChanged()
+	{
+		this.duality.onNeighborChanged();
+	}
+
 	@Override
 	public void getBoxes( final IPartCollisionHelper bch )
 	{
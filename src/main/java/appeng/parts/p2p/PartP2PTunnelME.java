@@ -30,6 +30,7 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.World;
 
 import appeng.api.AEApi;
 import appeng.api.exceptions.FailedConnection;
@@ -41,13 +42,15 @@ import appeng.api.networking.ticking.TickingRequest;
 import appeng.api.parts.IPartHost;
 import appeng.api.util.AECableType;
 import appeng.api.util.AEPartLocation;
+import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.core.settings.TickRates;
-import appeng.hooks.TickHandler;
 import appeng.items.parts.PartModels;
 import appeng.me.GridAccessException;
 import appeng.me.cache.helpers.Connections;
+import appeng.me.cache.helpers.TunnelChurnStats;
 import appeng.me.cache.helpers.TunnelConnection;
+import appeng.me.cache.helpers.TunnelConnectionBatch;
 import appeng.me.helpers.AENetworkProxy;
 
 
@@ -64,6 +67,8 @@ public class PartP2PTunnelME extends PartP2PTunnel<PartP2PTunnelME> implements I
 
 	private final Connections connection = new Connections( this );
 	private final AENetworkProxy outerProxy = new AENetworkProxy( this, "outer", null, true );
+	// world time the network of this tunnel went down, -1 while it is up
+	private long downSince = -1;
 
 	public PartP2PTunnelME( final ItemStack is )
 	{
@@ -157,23 +162,35 @@ public class PartP2PTunnelME extends PartP2PTunnel<PartP2PTunnelME> implements I
 		{
 			if( !this.getProxy().getPath().isNetworkBooting() )
 			{
-				if( !this.getProxy().getEnergy().isNetworkPowered() )
+				final World world = this.getTile().getWorld();
+
+				if( this.getProxy().getEnergy().isNetworkPowered() && this.getProxy().isActive() )
 				{
-					this.connection.markDestroy();
-					TickHandler.INSTANCE.addCallable( this.getTile().getWorld(), this.connection );
+					this.downSince = -1;
+					this.connection.markCreate();
+					TunnelConnectionBatch.schedule( world, this.connection );
 				}
 				else
 				{
-					if( this.getProxy().isActive() )
+					final boolean wentDown = this.downSince < 0;
+					if( wentDown )
 					{
-						this.connection.markCreate();
-						TickHandler.INSTANCE.addCallable( this.getTile().getWorld(), this.connection );
+						this.downSince = world.getTotalWorldTime();
 					}
-					else
+
+					// ride out short power dips, tearing the connections down splits and repaths both sides
+					if( !this.connection.getConnections().isEmpty() && world.getTotalWorldTime() - this.downSince < AEConfig.instance.meTunnelGraceTicks )
 					{
-						this.connection.markDestroy();
-						TickHandler.INSTANCE.addCallable( this.getTile().getWorld(), this.connection );
+						if( wentDown )
+						{
+							TunnelConnectionBatch.getStats().addDeferred();
+						}
+
+						return TickRateModulation.IDLE;
 					}
+
+					this.connection.markDestroy();
+					TunnelConnectionBatch.schedule( world, this.connection );
 				}
 
 				return TickRateModulation.SLEEP;
@@ -187,13 +204,14 @@ public class PartP2PTunnelME extends PartP2PTunnel<PartP2PTunnelME> implements I
 		return TickRateModulation.IDLE;
 	}
 
-	public void updateConnections( final Connections connections )
+	public void updateConnections( final Connections connections, final TunnelChurnStats stats )
 	{
 		if( connections.isDestroy() )
 		{
 			for( final TunnelConnection cw : this.connection.getConnections().values() )
 			{
 				cw.getConnection().destroy();
+				stats.addDestroyed();
 			}
 
 			this.connection.getConnections().clear();
@@ -210,11 +228,13 @@ public class PartP2PTunnelME extends PartP2PTunnel<PartP2PTunnelME> implements I
 					if( cw.getTunnel().getProxy().getGrid() != this.getProxy().getGrid() )
 					{
 						cw.getConnection().destroy();
+						stats.addDestroyed();
 						i.remove();
 					}
 					else if( !cw.getTunnel().getProxy().isActive() )
 					{
 						cw.getConnection().destroy();
+						stats.addDestroyed();
 						i.remove();
 					}
 				}
@@ -240,6 +260,7 @@ public class PartP2PTunnelME extends PartP2PTunnel<PartP2PTunnelME> implements I
 					try
 					{
 						connections.getConnections().put( me.getGridNode(), new TunnelConnection( me, AEApi.instance().createGridConnection( this.outerProxy.getNode(), me.outerProxy.getNode() ) ) );
+						stats.addCreated();
 					}
 					catch( final FailedConnection e )
 					{
@@ -0,0 +1,373 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.recipes;
+
+
+import java.io.BufferedReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import appeng.api.recipes.IRecipeLoader;
+
+
+/**
+ * A tokenized recipe file, split into the statements {@link RecipeHandler} processes one after another.
+ *
+ * Tokenizing does not depend on aliases or groups, so every file reachable through imports is read up front on a few
+ * worker threads, and processing then only walks the statements.
+ */
+final class RecipeFile
+{
+
+	private static final int MAX_THREADS = 4;
+
+	private final String path;
+	private final List<Statement> statements;
+	private final List<String> imports;
+	private final Throwable loadError;
+	private final Throwable readError;
+	private final long readTime;
+
+	private RecipeFile( final String path, final List<Statement> statements, final List<String> imports, final Throwable loadError, final Throwable readError, final long readTime )
+	{
+		this.path = path;
+		this.statements = ImmutableList.copyOf( statements );
+		this.imports = ImmutableList.copyOf( imports );
+		this.loadError = loadError;
+		this.readError = readError;
+		this.readTime = readTime;
+	}
+
+	/**
+	 * Reads the file at path and every file it imports, directly or through other imports.
+	 *
+	 * @return the files by path
+	 */
+	static Map<String, RecipeFile> readAll( final IRecipeLoader loader, final String path )
+	{
+		final Map<String, RecipeFile> files = new HashMap<String, RecipeFile>();
+		final ExecutorService pool = Executors.newFixedThreadPool( Math.max( 1, Math.min( MAX_THREADS, Runtime.getRuntime().availableProcessors() ) ), new ParserThreadFactory() );
+
+		try
+		{
+			List<String> wave = Collections.singletonList( path );
+
+			while( !wave.isEmpty() )
+			{
+				final List<Future<RecipeFile>> pending = new ArrayList<Future<RecipeFile>>( wave.size() );
+				for( final String file : wave )
+				{
+					pending.add( pool.submit( new Callable<RecipeFile>()
+					{
+						@Override
+						public RecipeFile call() throws Exception
+						{
+							return read( loader, file );
+						}
+					} ) );
+				}
+
+				for( final Future<RecipeFile> f : pending )
+				{
+					final RecipeFile file = f.get();
+					files.put( file.getPath(), file );
+				}
+
+				final List<String> next = new ArrayList<String>();
+				for( final String file : wave )
+				{
+					for( final String imported : files.get( file ).getImports() )
+					{
+						if( !files.containsKey( imported ) && !next.contains( imported ) )
+						{
+							next.add( imported );
+						}
+					}
+				}
+
+				wave = next;
+			}
+		}
+		catch( final InterruptedException e )
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException( e );
+		}
+		catch( final ExecutionException e )
+		{
+			throw new IllegalStateException( e.getCause() );
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+
+		return files;
+	}
+
+	/**
+	 * Tokenizes a single file, failures are kept in the result and reported once the file is processed.
+	 */
+	static RecipeFile read( final IRecipeLoader loader, final String path )
+	{
+		Preconditions.checkNotNull( loader );
+		Preconditions.checkNotNull( path );
+
+		final long start = System.nanoTime();
+		final List<Statement> statements = new ArrayList<Statement>();
+		final List<String> imports = new ArrayList<String>();
+
+		final BufferedReader reader;
+		try
+		{
+			reader = loader.getFile( path );
+		}
+		catch( final Exception err )
+		{
+			return new RecipeFile( path, statements, imports, err, null, System.nanoTime() - start );
+		}
+
+		final List<String> tokens = new ArrayList<String>();
+		Throwable readError = null;
+
+		try
+		{
+			boolean inQuote = false;
+			boolean inComment = false;
+
+			final StringBuilder token = new StringBuilder();
+			int line = 0;
+
+			int val = -1;
+			while( ( val = reader.read() ) != -1 )
+			{
+				final char c = (char) val;
+
+				if( c == '\n' )
+				{
+					line++;
+				}
+
+				if( inComment )
+				{
+					if( c == '\n' || c == '\r' )
+					{
+						inComment = false;
+					}
+				}
+				else if( inQuote )
+				{
+					switch( c )
+					{
+						case '"':
+							inQuote = !inQuote;
+							break;
+						default:
+							token.append( c );
+					}
+				}
+				else
+				{
+					switch( c )
+					{
+						case '"':
+							inQuote = !inQuote;
+							break;
+						case ',':
+
+							if( token.length() > 0 )
+							{
+								tokens.add( token.toString() );
+								tokens.add( "," );
+							}
+							token.setLength( 0 );
+							break;
+
+						case '=':
+
+							addStatement( statements, imports, tokens, line );
+
+							if( token.length() > 0 )
+							{
+								tokens.add( token.toString() );
+							}
+							token.setLength( 0 );
+
+							break;
+
+						case '#':
+							inComment = true;
+							// then add a token if you can...
+
+						case '\n':
+						case '\t':
+						case '\r':
+						case ' ':
+
+							if( token.length() > 0 )
+							{
+								tokens.add( token.toString() );
+							}
+							token.setLength( 0 );
+
+							break;
+						default:
+							token.append( c );
+					}
+				}
+			}
+
+			if( token.length() > 0 )
+			{
+				tokens.add( token.toString() );
+			}
+
+			reader.close();
+			addStatement( statements, imports, tokens, line );
+		}
+		catch( final Throwable e )
+		{
+			readError = e;
+		}
+
+		return new RecipeFile( path, statements, imports, null, readError, System.nanoTime() - start );
+	}
+
+	private static void addStatement( final List<Statement> statements, final List<String> imports, final List<String> tokens, final int line )
+	{
+		if( tokens.isEmpty() )
+		{
+			return;
+		}
+
+		final Statement s = new Statement( tokens, line );
+		statements.add( s );
+		tokens.clear();
+
+		if( s.getImport() != null )
+		{
+			imports.add( s.getImport() );
+		}
+	}
+
+	String getPath()
+	{
+		return this.path;
+	}
+
+	List<Statement> getStatements()
+	{
+		return this.statements;
+	}
+
+	List<String> getImports()
+	{
+		return this.imports;
+	}
+
+	/**
+	 * @return why the file could not be opened, or null
+	 */
+	Throwable getLoadError()
+	{
+		return this.loadError;
+	}
+
+	/**
+	 * @return why reading stopped early, or null; the statements before it are still valid.
+	 */
+	Throwable getReadError()
+	{
+		return this.readError;
+	}
+
+	/**
+	 * @return time spent opening and tokenizing this file in nanoseconds.
+	 */
+	long getReadTime()
+	{
+		return this.readTime;
+	}
+
+	/**
+	 * The tokens of one statement, starting with its operation, and the line it was finished on.
+	 */
+	static final class Statement
+	{
+
+		private final List<String> tokens;
+		private final int line;
+
+		Statement( final List<String> tokens, final int line )
+		{
+			this.tokens = ImmutableList.copyOf( tokens );
+			this.line = line;
+		}
+
+		List<String> getTokens()
+		{
+			return this.tokens;
+		}
+
+		int getLine()
+		{
+			return this.line;
+		}
+
+		/**
+		 * @return the imported file if this is an import, otherwise null
+		 */
+		String getImport()
+		{
+			if( this.tokens.size() == 2 && !this.tokens.contains( "->" ) && this.tokens.get( 0 ).toLowerCase().equals( "import" ) )
+			{
+				return this.tokens.get( 1 );
+			}
+
+			return null;
+		}
+	}
+
+	private static final class ParserThreadFactory implements ThreadFactory
+	{
+
+		private final AtomicInteger threads = new AtomicInteger();
+
+		@Override
+		public Thread newThread( final Runnable r )
+		{
+			final Thread t = new Thread( r, "AE2 Recipe Parser " + this.threads.incrementAndGet() );
+			t.setDaemon( true );
+			return t;
+		}
+	}
+}
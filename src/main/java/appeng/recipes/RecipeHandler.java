@@ -19,10 +19,10 @@
 package appeng.recipes;
 
 
-import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -75,19 +75,12 @@ import appeng.recipes.handlers.OreRegistration;
 public class RecipeHandler implements IRecipeHandler
 {
 	private final RecipeData data;
-	private final List<String> tokens = new LinkedList<String>();
 
 	public RecipeHandler()
 	{
 		this.data = new RecipeData();
 	}
 
-	RecipeHandler( final RecipeHandler parent )
-	{
-		Preconditions.checkNotNull( parent );
-		this.data = parent.data;
-	}
-
 	private void addCrafting( final ICraftHandler ch )
 	{
 		this.data.handlers.add( ch );
@@ -242,115 +235,48 @@ public class RecipeHandler implements IRecipeHandler
 		Preconditions.checkNotNull( loader );
 		Preconditions.checkNotNull( path );
 
-		try
-		{
-			BufferedReader reader = null;
-			try
-			{
-				reader = loader.getFile( path );
-			}
-			catch( final Exception err )
-			{
-				AELog.warn( "Error Loading Recipe File:" + path );
-				if( this.data.exceptions )
-				{
-					AELog.debug( err );
-				}
-				return;
-			}
-
-			boolean inQuote = false;
-			boolean inComment = false;
-
-			String token = "";
-			int line = 0;
-
-			int val = -1;
-			while( ( val = reader.read() ) != -1 )
-			{
-				final char c = (char) val;
-
-				if( c == '\n' )
-				{
-					line++;
-				}
-
-				if( inComment )
-				{
-					if( c == '\n' || c == '\r' )
-					{
-						inComment = false;
-					}
-				}
-				else if( inQuote )
-				{
-					switch( c )
-					{
-						case '"':
-							inQuote = !inQuote;
-							break;
-						default:
-							token += c;
-					}
-				}
-				else
-				{
-					switch( c )
-					{
-						case '"':
-							inQuote = !inQuote;
-							break;
-						case ',':
+		final long start = System.nanoTime();
+		final Map<String, RecipeFile> files = RecipeFile.readAll( loader, path );
+		final long read = System.nanoTime();
 
-							if( token.length() > 0 )
-							{
-								this.tokens.add( token );
-								this.tokens.add( "," );
-							}
-							token = "";
-							break;
-
-						case '=':
-
-							this.processTokens( loader, path, line );
-
-							if( token.length() > 0 )
-							{
-								this.tokens.add( token );
-							}
-							token = "";
-
-							break;
+		long readTime = 0;
+		for( final RecipeFile file : files.values() )
+		{
+			readTime += file.getReadTime();
+			AELog.debug( "Recipes Parsing: read %s in %.3f ms", file.getPath(), file.getReadTime() / 1000000.0 );
+		}
 
-						case '#':
-							inComment = true;
-							// then add a token if you can...
+		this.processFile( files, path );
 
-						case '\n':
-						case '\t':
-						case '\r':
-						case ' ':
+		final long end = System.nanoTime();
+		AELog.info( "Recipes Parsing: read %d files in %.3f ms (%.3f ms per thread), processed in %.3f ms", files.size(), ( read - start ) / 1000000.0, readTime / 1000000.0, ( end - read ) / 1000000.0 );
+	}
 
-							if( token.length() > 0 )
-							{
-								this.tokens.add( token );
-							}
-							token = "";
+	private void processFile( final Map<String, RecipeFile> files, final String path )
+	{
+		final RecipeFile file = files.get( path );
 
-							break;
-						default:
-							token += c;
-					}
-				}
+		if( file.getLoadError() != null )
+		{
+			AELog.warn( "Error Loading Recipe File:" + path );
+			if( this.data.exceptions )
+			{
+				AELog.debug( file.getLoadError() );
 			}
+			return;
+		}
 
-			if( token.length() > 0 )
+		try
+		{
+			for( final RecipeFile.Statement statement : file.getStatements() )
 			{
-				this.tokens.add( token );
+				this.processTokens( files, path, statement );
 			}
 
-			reader.close();
-			this.processTokens( loader, path, line );
+			if( file.getReadError() != null )
+			{
+				throw file.getReadError();
+			}
 		}
 		catch( final Throwable e )
 		{
@@ -370,6 +296,7 @@ public class RecipeHandler implements IRecipeHandler
 			throw new IllegalStateException( "Recipes must now be loaded in Init." );
 		}
 
+		final long start = System.nanoTime();
 		final Map<Class, Integer> processed = new HashMap<Class, Integer>();
 		try
 		{
@@ -436,6 +363,8 @@ public class RecipeHandler implements IRecipeHandler
 			AELog.info( "Recipes Loading: " + e.getKey().getSimpleName() + ": " + e.getValue() + " loaded." );
 		}
 
+		AELog.info( "Recipes Loading: registered %d recipes in %.3f ms", this.data.handlers.size(), ( System.nanoTime() - start ) / 1000000.0 );
+
 		if( AEConfig.instance.isFeatureEnabled( AEFeature.WebsiteRecipes ) )
 		{
 			try
@@ -535,27 +464,24 @@ public class RecipeHandler implements IRecipeHandler
 		return this.data;
 	}
 
-	private void processTokens( final IRecipeLoader loader, final String file, final int line ) throws RecipeError
+	private void processTokens( final Map<String, RecipeFile> files, final String file, final RecipeFile.Statement statement ) throws RecipeError
 	{
+		final List<String> tokens = new ArrayList<String>( statement.getTokens() );
+
 		try
 		{
 			final IRecipeHandlerRegistry cr = AEApi.instance().registries().recipes();
 
-			if( this.tokens.isEmpty() )
-			{
-				return;
-			}
-
-			final int split = this.tokens.indexOf( "->" );
+			final int split = tokens.indexOf( "->" );
 			if( split != -1 )
 			{
-				final String operation = this.tokens.remove( 0 ).toLowerCase( Locale.ENGLISH );
+				final String operation = tokens.remove( 0 ).toLowerCase( Locale.ENGLISH );
 
 				if( operation.equals( "alias" ) )
 				{
-					if( this.tokens.size() == 3 && this.tokens.indexOf( "->" ) == 1 )
+					if( tokens.size() == 3 && tokens.indexOf( "->" ) == 1 )
 					{
-						this.data.aliases.put( this.tokens.get( 0 ), this.tokens.get( 2 ) );
+						this.data.aliases.put( tokens.get( 0 ), tokens.get( 2 ) );
 					}
 					else
 					{
@@ -564,8 +490,8 @@ public class RecipeHandler implements IRecipeHandler
 				}
 				else if( operation.equals( "group" ) )
 				{
-					final List<String> pre = this.tokens.subList( 0, split - 1 );
-					final List<String> post = this.tokens.subList( split, this.tokens.size() );
+					final List<String> pre = tokens.subList( 0, split - 1 );
+					final List<String> post = tokens.subList( split, tokens.size() );
 
 					final List<List<IIngredient>> inputs = this.parseLines( pre );
 
@@ -580,8 +506,8 @@ public class RecipeHandler implements IRecipeHandler
 				}
 				else if( operation.equals( "ore" ) )
 				{
-					final List<String> pre = this.tokens.subList( 0, split - 1 );
-					final List<String> post = this.tokens.subList( split, this.tokens.size() );
+					final List<String> pre = tokens.subList( 0, split - 1 );
+					final List<String> post = tokens.subList( split, tokens.size() );
 
 					final List<List<IIngredient>> inputs = this.parseLines( pre );
 
@@ -597,8 +523,8 @@ public class RecipeHandler implements IRecipeHandler
 				}
 				else
 				{
-					final List<String> pre = this.tokens.subList( 0, split - 1 );
-					final List<String> post = this.tokens.subList( split, this.tokens.size() );
+					final List<String> pre = tokens.subList( 0, split - 1 );
+					final List<String> post = tokens.subList( split, tokens.size() );
 
 					final List<List<IIngredient>> inputs = this.parseLines( pre );
 					final List<List<IIngredient>> outputs = this.parseLines( post );
@@ -618,24 +544,24 @@ public class RecipeHandler implements IRecipeHandler
 			}
 			else
 			{
-				final String operation = this.tokens.remove( 0 ).toLowerCase();
+				final String operation = tokens.remove( 0 ).toLowerCase();
 
-				if( operation.equals( "exceptions" ) && ( this.tokens.get( 0 ).equals( "true" ) || this.tokens.get( 0 ).equals( "false" ) ) )
+				if( operation.equals( "exceptions" ) && ( tokens.get( 0 ).equals( "true" ) || tokens.get( 0 ).equals( "false" ) ) )
 				{
-					if( this.tokens.size() == 1 )
+					if( tokens.size() == 1 )
 					{
-						this.data.exceptions = this.tokens.get( 0 ).equals( "true" );
+						this.data.exceptions = tokens.get( 0 ).equals( "true" );
 					}
 					else
 					{
 						throw new RecipeError( "exceptions must be true or false explicitly." );
 					}
 				}
-				else if( operation.equals( "crash" ) && ( this.tokens.get( 0 ).equals( "true" ) || this.tokens.get( 0 ).equals( "false" ) ) )
+				else if( operation.equals( "crash" ) && ( tokens.get( 0 ).equals( "true" ) || tokens.get( 0 ).equals( "false" ) ) )
 				{
-					if( this.tokens.size() == 1 )
+					if( tokens.size() == 1 )
 					{
-						this.data.crash = this.tokens.get( 0 ).equals( "true" );
+						this.data.crash = tokens.get( 0 ).equals( "true" );
 					}
 					else
 					{
@@ -644,9 +570,9 @@ public class RecipeHandler implements IRecipeHandler
 				}
 				else if( operation.equals( "erroronmissing" ) )
 				{
-					if( this.tokens.size() == 1 && ( this.tokens.get( 0 ).equals( "true" ) || this.tokens.get( 0 ).equals( "false" ) ) )
+					if( tokens.size() == 1 && ( tokens.get( 0 ).equals( "true" ) || tokens.get( 0 ).equals( "false" ) ) )
 					{
-						this.data.errorOnMissing = this.tokens.get( 0 ).equals( "true" );
+						this.data.errorOnMissing = tokens.get( 0 ).equals( "true" );
 					}
 					else
 					{
@@ -655,9 +581,9 @@ public class RecipeHandler implements IRecipeHandler
 				}
 				else if( operation.equals( "import" ) )
 				{
-					if( this.tokens.size() == 1 )
+					if( tokens.size() == 1 )
 					{
-						( new RecipeHandler( this ) ).parseRecipes( loader, this.tokens.get( 0 ) );
+						this.processFile( files, tokens.get( 0 ) );
 					}
 					else
 					{
@@ -666,13 +592,13 @@ public class RecipeHandler implements IRecipeHandler
 				}
 				else
 				{
-					throw new RecipeError( operation + ": " + this.tokens.toString() + "; recipe without an output." );
+					throw new RecipeError( operation + ": " + tokens.toString() + "; recipe without an output." );
 				}
 			}
 		}
 		catch( final RecipeError e )
 		{
-			AELog.warn( "Recipe Error '" + e.getMessage() + "' near line:" + line + " in " + file + " with: " + this.tokens.toString() );
+			AELog.warn( "Recipe Error '" + e.getMessage() + "' near line:" + statement.getLine() + " in " + file + " with: " + tokens.toString() );
 			if( this.data.exceptions )
 			{
 				AELog.debug( e );
@@ -682,8 +608,6 @@ public class RecipeHandler implements IRecipeHandler
 				throw e;
 			}
 		}
-
-		this.tokens.clear();
 	}
 
 	private List<List<IIngredient>> parseLines( final Iterable<String> subList ) throws RecipeError
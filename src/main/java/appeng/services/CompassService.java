@@ -20,18 +20,24 @@ package appeng.services;
 
 
 import java.io.File;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nonnull;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.MapMaker;
 
 import net.minecraft.block.Block;
 import net.minecraft.world.World;
@@ -46,33 +52,82 @@ import appeng.services.compass.ICompassCallback;
 import appeng.util.Platform;
 
 
+/**
+ * Answers meteorite compass requests and keeps the compass data in sync with the world.
+ *
+ * Jobs are distributed over a small pool of single threaded workers. Every job is assigned to a worker based on its
+ * chunk, so updates of the same area are always applied in order. Identical jobs, which are still waiting to be
+ * processed, are coalesced into a single one.
+ *
+ * Region files are kept open across jobs and only closed after they were idle for {@link #READER_IDLE_TIMEOUT}.
+ */
 public final class CompassService
 {
 	private static final int CHUNK_SIZE = 16;
 
-	private final Map<World, CompassReader> worldSet = new HashMap<World, CompassReader>( 10 );
-	private final ExecutorService executor;
+	/**
+	 * Time in nanoseconds after which an unused region will be closed.
+	 */
+	private static final long READER_IDLE_TIMEOUT = TimeUnit.SECONDS.toNanos( 30 );
+
+	/**
+	 * Time in seconds between checks for idle regions.
+	 */
+	private static final long READER_EVICTION_INTERVAL = 10;
+
+	private final Map<World, CompassReader> worldSet = new ConcurrentHashMap<World, CompassReader>( 10 );
+	// worlds are never loaded again once unloaded, jobs still queued for them are dropped
+	private final Set<World> unloadedWorlds = Collections.newSetFromMap( new MapMaker().weakKeys().<World, Boolean>makeMap() );
+	private final Map<CompassKey, CMDirectionRequest> pendingRequests = new ConcurrentHashMap<CompassKey, CMDirectionRequest>();
+	private final Map<CompassKey, CMUpdatePost> pendingUpdates = new ConcurrentHashMap<CompassKey, CMUpdatePost>();
+	private final ScheduledExecutorService[] workers;
 
 	/**
 	 * AE2 Folder for each world
 	 */
 	private final File worldCompassFolder;
 
-	private int jobSize;
-
-	public CompassService( @Nonnull final File worldCompassFolder, @Nonnull final ThreadFactory factory )
+	public CompassService( @Nonnull final File worldCompassFolder, @Nonnull final ThreadFactory factory, final int threads )
 	{
 		Preconditions.checkNotNull( worldCompassFolder );
+		Preconditions.checkNotNull( factory );
+		Preconditions.checkArgument( threads > 0 );
 
 		this.worldCompassFolder = worldCompassFolder;
-		this.executor = Executors.newSingleThreadExecutor( factory );
-		this.jobSize = 0;
+		this.workers = new ScheduledExecutorService[threads];
+
+		for( int i = 0; i < threads; i++ )
+		{
+			this.workers[i] = Executors.newSingleThreadScheduledExecutor( factory );
+		}
+
+		this.workers[0].scheduleWithFixedDelay( this::closeIdleReaders, READER_EVICTION_INTERVAL, READER_EVICTION_INTERVAL, TimeUnit.SECONDS );
 	}
 
 	public Future<?> getCompassDirection( final DimensionalCoord coord, final int maxRange, final ICompassCallback cc )
 	{
-		this.jobSize++;
-		return this.executor.submit( new CMDirectionRequest( coord, maxRange, cc ) );
+		final World w = coord.getWorld();
+		final int cx = coord.x >> 4;
+		final int cz = coord.z >> 4;
+		final CompassKey key = new CompassKey( w.provider.getDimension(), cx, cz, maxRange );
+
+		while( true )
+		{
+			final CMDirectionRequest pending = this.pendingRequests.get( key );
+
+			if( pending != null && pending.addCallback( cc ) )
+			{
+				return pending.task;
+			}
+
+			final CMDirectionRequest request = new CMDirectionRequest( key, w, cx, cz, maxRange, cc );
+
+			if( this.pendingRequests.putIfAbsent( key, request ) == null )
+			{
+				this.getWorker( key ).execute( request.task );
+				return request.task;
+			}
+		}
 	}
 
 	/**
@@ -83,24 +138,16 @@ public final class CompassService
 	@SubscribeEvent
 	public void unloadWorld( final WorldEvent.Unload event )
 	{
-		if( Platform.isServer() && this.worldSet.containsKey( event.getWorld() ) )
+		if( Platform.isServer() )
 		{
-			final CompassReader compassReader = this.worldSet.remove( event.getWorld() );
-
-			compassReader.close();
-		}
-	}
+			this.unloadedWorlds.add( event.getWorld() );
 
-	private int jobSize()
-	{
-		return this.jobSize;
-	}
+			final CompassReader compassReader = this.worldSet.remove( event.getWorld() );
 
-	private void cleanUp()
-	{
-		for( final CompassReader cr : this.worldSet.values() )
-		{
-			cr.close();
+			if( compassReader != null )
+			{
+				compassReader.close();
+			}
 		}
 	}
 
@@ -122,8 +169,6 @@ public final class CompassService
 
 	public Future<?> updateArea( final World w, final int x, final int y, final int z )
 	{
-		this.jobSize++;
-
 		final int cx = x >> 4;
 		final int cdy = y >> 5;
 		final int cz = z >> 4;
@@ -147,24 +192,32 @@ public final class CompassService
 						final Block blk = c.getBlockState( i, k, j ).getBlock();
 						if( blk == skyStoneBlock )
 						{
-							return this.executor.submit( new CMUpdatePost( w, cx, cz, cdy, true ) );
+							return this.postUpdate( w, cx, cz, cdy, true );
 						}
 					}
 				}
 			}
 		}
 
-		return this.executor.submit( new CMUpdatePost( w, cx, cz, cdy, false ) );
+		return this.postUpdate( w, cx, cz, cdy, false );
 	}
 
 	public void kill()
 	{
-		this.executor.shutdown();
+		for( final ScheduledExecutorService worker : this.workers )
+		{
+			worker.shutdown();
+		}
 
 		try
 		{
-			this.executor.awaitTermination( 6, TimeUnit.MINUTES );
-			this.jobSize = 0;
+			for( final ScheduledExecutorService worker : this.workers )
+			{
+				worker.awaitTermination( 6, TimeUnit.MINUTES );
+			}
+
+			this.pendingRequests.clear();
+			this.pendingUpdates.clear();
 
 			for( final CompassReader cr : this.worldSet.values() )
 			{
@@ -179,14 +232,68 @@ public final class CompassService
 		}
 	}
 
+	private Future<?> postUpdate( final World w, final int cx, final int cz, final int cdy, final boolean value )
+	{
+		final CompassKey key = new CompassKey( w.provider.getDimension(), cx, cz, cdy );
+
+		while( true )
+		{
+			final CMUpdatePost pending = this.pendingUpdates.get( key );
+
+			if( pending != null && pending.replaceValue( value ) )
+			{
+				return pending.task;
+			}
+
+			final CMUpdatePost post = new CMUpdatePost( key, w, cx, cz, cdy, value );
+
+			if( this.pendingUpdates.putIfAbsent( key, post ) == null )
+			{
+				this.getWorker( key ).execute( post.task );
+				return post.task;
+			}
+		}
+	}
+
+	private ScheduledExecutorService getWorker( final CompassKey key )
+	{
+		// only the chunk, so every job of a chunk runs on the same worker
+		int hash = key.dimension;
+		hash = 31 * hash + key.chunkX;
+		hash = 31 * hash + key.chunkZ;
+
+		return this.workers[Math.floorMod( hash, this.workers.length )];
+	}
+
+	private void closeIdleReaders()
+	{
+		for( final CompassReader cr : this.worldSet.values() )
+		{
+			cr.closeIdle( READER_IDLE_TIMEOUT );
+		}
+	}
+
+	/**
+	 * @return the reader of the world, or null if the world was unloaded meanwhile
+	 */
 	private CompassReader getReader( final World w )
 	{
-		CompassReader cr = this.worldSet.get( w );
+		if( this.unloadedWorlds.contains( w ) )
+		{
+			return null;
+		}
+
+		final CompassReader cr = this.worldSet.computeIfAbsent( w, world -> new CompassReader( world.provider.getDimension(), this.worldCompassFolder ) );
 
-		if( cr == null )
+		// the world might have been unloaded while the reader was created
+		if( this.unloadedWorlds.contains( w ) )
 		{
-			cr = new CompassReader( w.provider.getDimension(), this.worldCompassFolder );
-			this.worldSet.put( w, cr );
+			if( this.worldSet.remove( w, cr ) )
+			{
+				cr.close();
+			}
+
+			return null;
 		}
 
 		return cr;
@@ -208,18 +315,70 @@ public final class CompassService
 		return Math.atan2( -up, side ) - Math.PI / 2.0;
 	}
 
+	/**
+	 * Identifies jobs which can be coalesced.
+	 */
+	private static final class CompassKey
+	{
+		private final int dimension;
+		private final int chunkX;
+		private final int chunkZ;
+		private final int extra;
+
+		private CompassKey( final int dimension, final int chunkX, final int chunkZ, final int extra )
+		{
+			this.dimension = dimension;
+			this.chunkX = chunkX;
+			this.chunkZ = chunkZ;
+			this.extra = extra;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			int result = this.dimension;
+			result = 31 * result + this.chunkX;
+			result = 31 * result + this.chunkZ;
+			result = 31 * result + this.extra;
+			return result;
+		}
+
+		@Override
+		public boolean equals( final Object obj )
+		{
+			if( this == obj )
+			{
+				return true;
+			}
+			if( obj == null || this.getClass() != obj.getClass() )
+			{
+				return false;
+			}
+
+			final CompassKey other = (CompassKey) obj;
+			return this.dimension == other.dimension && this.chunkX == other.chunkX && this.chunkZ == other.chunkZ && this.extra == other.extra;
+		}
+	}
+
 	private class CMUpdatePost implements Runnable
 	{
 
+		public final CompassKey key;
+		public final FutureTask<Void> task;
+
 		public final World world;
 
 		public final int chunkX;
 		public final int chunkZ;
 		public final int doubleChunkY; // 32 blocks instead of 16.
-		public final boolean value;
 
-		public CMUpdatePost( final World w, final int cx, final int cz, final int dcy, final boolean val )
+		private boolean value;
+		private boolean started = false;
+
+		public CMUpdatePost( final CompassKey key, final World w, final int cx, final int cz, final int dcy, final boolean val )
 		{
+			this.key = key;
+			this.task = new FutureTask<Void>( this, null );
 			this.world = w;
 			this.chunkX = cx;
 			this.doubleChunkY = dcy;
@@ -227,17 +386,38 @@ public final class CompassService
 			this.value = val;
 		}
 
+		/**
+		 * @return false, if the update is already running and a new one has to be posted
+		 */
+		public synchronized boolean replaceValue( final boolean val )
+		{
+			if( this.started )
+			{
+				return false;
+			}
+
+			this.value = val;
+			return true;
+		}
+
 		@Override
 		public void run()
 		{
-			CompassService.this.jobSize--;
+			final boolean val;
+
+			synchronized( this )
+			{
+				this.started = true;
+				val = this.value;
+			}
+
+			CompassService.this.pendingUpdates.remove( this.key, this );
 
 			final CompassReader cr = CompassService.this.getReader( this.world );
-			cr.setHasBeacon( this.chunkX, this.chunkZ, this.doubleChunkY, this.value );
 
-			if( CompassService.this.jobSize() < 2 )
+			if( cr != null )
 			{
-				CompassService.this.cleanUp();
+				cr.setHasBeacon( this.chunkX, this.chunkZ, this.doubleChunkY, val );
 			}
 		}
 	}
@@ -245,36 +425,80 @@ public final class CompassService
 	private class CMDirectionRequest implements Runnable
 	{
 
+		public final CompassKey key;
+		public final FutureTask<Void> task;
+
+		public final World world;
+		public final int chunkX;
+		public final int chunkZ;
 		public final int maxRange;
-		public final DimensionalCoord coord;
-		public final ICompassCallback callback;
 
-		public CMDirectionRequest( final DimensionalCoord coord, final int getMaxRange, final ICompassCallback cc )
+		private final List<ICompassCallback> callbacks = new ArrayList<ICompassCallback>( 1 );
+		private boolean started = false;
+
+		public CMDirectionRequest( final CompassKey key, final World w, final int cx, final int cz, final int getMaxRange, final ICompassCallback cc )
 		{
-			this.coord = coord;
+			this.key = key;
+			this.task = new FutureTask<Void>( this, null );
+			this.world = w;
+			this.chunkX = cx;
+			this.chunkZ = cz;
 			this.maxRange = getMaxRange;
-			this.callback = cc;
+			this.callbacks.add( cc );
+		}
+
+		/**
+		 * @return false, if the request is already running and a new one has to be posted
+		 */
+		public synchronized boolean addCallback( final ICompassCallback cc )
+		{
+			if( this.started )
+			{
+				return false;
+			}
+
+			this.callbacks.add( cc );
+			return true;
 		}
 
 		@Override
 		public void run()
 		{
-			CompassService.this.jobSize--;
+			synchronized( this )
+			{
+				this.started = true;
+			}
+
+			CompassService.this.pendingRequests.remove( this.key, this );
+
+			this.calculate();
+		}
+
+		private void sendResult( final boolean hasResult, final boolean spin, final double radians, final double dist )
+		{
+			for( final ICompassCallback cc : this.callbacks )
+			{
+				cc.calculatedDirection( hasResult, spin, radians, dist );
+			}
+		}
 
-			final int cx = this.coord.x >> 4;
-			final int cz = this.coord.z >> 4;
+		private void calculate()
+		{
+			final int cx = this.chunkX;
+			final int cz = this.chunkZ;
 
-			final CompassReader cr = CompassService.this.getReader( this.coord.getWorld() );
+			final CompassReader cr = CompassService.this.getReader( this.world );
+
+			if( cr == null )
+			{
+				this.sendResult( false, true, -999, 999 );
+				return;
+			}
 
 			// Am I standing on it?
 			if( cr.hasBeacon( cx, cz ) )
 			{
-				this.callback.calculatedDirection( true, true, -999, 0 );
-
-				if( CompassService.this.jobSize() < 2 )
-				{
-					CompassService.this.cleanUp();
-				}
+				this.sendResult( true, true, -999, 0 );
 
 				return;
 			}
@@ -343,24 +567,14 @@ public final class CompassService
 
 				if( closest < Integer.MAX_VALUE )
 				{
-					this.callback.calculatedDirection( true, false, CompassService.this.rad( cx, cz, chosen_x, chosen_z ), CompassService.this.dist( cx, cz, chosen_x, chosen_z ) );
-
-					if( CompassService.this.jobSize() < 2 )
-					{
-						CompassService.this.cleanUp();
-					}
+					this.sendResult( true, false, CompassService.this.rad( cx, cz, chosen_x, chosen_z ), CompassService.this.dist( cx, cz, chosen_x, chosen_z ) );
 
 					return;
 				}
 			}
 
 			// didn't find shit...
-			this.callback.calculatedDirection( false, true, -999, 999 );
-
-			if( CompassService.this.jobSize() < 2 )
-			{
-				CompassService.this.cleanUp();
-			}
+			this.sendResult( false, true, -999, 999 );
 		}
 	}
 }
@@ -20,20 +20,35 @@ package appeng.services.compass;
 
 
 import java.io.File;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 
 import javax.annotation.Nonnull;
 
 import com.google.common.base.Preconditions;
 
 
+/**
+ * Provides access to all compass regions of a single dimension.
+ *
+ * Can be shared between the workers of the {@link appeng.services.CompassService}, each region is guarded by its own
+ * read/write lock. Regions are kept open until they were not accessed for a while and get evicted by
+ * {@link #closeIdle(long)}.
+ */
 public final class CompassReader
 {
-	private final Map<Long, CompassRegion> regions = new HashMap<Long, CompassRegion>( 100 );
+	private final Map<Long, CompassRegion> regions = new ConcurrentHashMap<Long, CompassRegion>( 100 );
 	private final int dimensionId;
 	private final File worldCompassFolder;
 
+	/**
+	 * Guards opening new regions against {@link #close()}.
+	 */
+	private final Object regionLock = new Object();
+	private boolean closed = false;
+
 	public CompassReader( final int dimensionId, @Nonnull final File worldCompassFolder )
 	{
 		Preconditions.checkNotNull( worldCompassFolder );
@@ -43,30 +58,140 @@ public final class CompassReader
 		this.worldCompassFolder = worldCompassFolder;
 	}
 
+	/**
+	 * Closes all regions, no new regions are opened afterwards.
+	 *
+	 * Workers still holding this reader will no longer find any beacons and their updates are dropped.
+	 */
 	public void close()
 	{
-		for( final CompassRegion r : this.regions.values() )
+		synchronized( this.regionLock )
 		{
-			r.close();
+			this.closed = true;
 		}
 
-		this.regions.clear();
+		final Iterator<CompassRegion> it = this.regions.values().iterator();
+
+		while( it.hasNext() )
+		{
+			final CompassRegion r = it.next();
+			final Lock l = r.writeLock();
+
+			l.lock();
+			try
+			{
+				r.close();
+				it.remove();
+			}
+			finally
+			{
+				l.unlock();
+			}
+		}
 	}
 
-	public void setHasBeacon( final int cx, final int cz, final int cdy, final boolean hasBeacon )
+	/**
+	 * Closes every region, which was not accessed within the given time.
+	 *
+	 * @param idleNanos maximum idle time in nanoseconds
+	 *
+	 * @return the amount of closed regions
+	 */
+	public int closeIdle( final long idleNanos )
 	{
-		final CompassRegion r = this.getRegion( cx, cz );
+		final long now = System.nanoTime();
+		final Iterator<CompassRegion> it = this.regions.values().iterator();
+		int closed = 0;
+
+		while( it.hasNext() )
+		{
+			final CompassRegion r = it.next();
+
+			if( r.isIdle( now, idleNanos ) )
+			{
+				final Lock l = r.writeLock();
+
+				l.lock();
+				try
+				{
+					// might have been used while waiting for the lock
+					if( !r.isClosed() && r.isIdle( now, idleNanos ) )
+					{
+						r.close();
+						it.remove();
+						closed++;
+					}
+				}
+				finally
+				{
+					l.unlock();
+				}
+			}
+		}
 
-		r.setHasBeacon( cx, cz, cdy, hasBeacon );
+		return closed;
 	}
 
-	public boolean hasBeacon( final int cx, final int cz )
+	public void setHasBeacon( final int cx, final int cz, final int cdy, final boolean hasBeacon )
 	{
-		final CompassRegion r = this.getRegion( cx, cz );
+		while( true )
+		{
+			final CompassRegion r = this.getRegion( cx, cz );
+
+			if( r == null )
+			{
+				return;
+			}
+
+			final Lock l = r.writeLock();
+
+			l.lock();
+			try
+			{
+				if( !r.isClosed() )
+				{
+					r.setHasBeacon( cx, cz, cdy, hasBeacon );
+					return;
+				}
+			}
+			finally
+			{
+				l.unlock();
+			}
+		}
+	}
 
-		return r.hasBeacon( cx, cz );
+	public boolean hasBeacon( final int cx, final int cz )
+	{
+		while( true )
+		{
+			final CompassRegion r = this.getRegion( cx, cz );
+
+			if( r == null )
+			{
+				return false;
+			}
+
+			final Lock l = r.readLock();
+
+			l.lock();
+			try
+			{
+				if( !r.isClosed() )
+				{
+					return r.hasBeacon( cx, cz );
+				}
+			}
+			finally
+			{
+				l.unlock();
+			}
+		}
 	}
 
+	/**
+	 * @return the region containing the chunk or null, if this reader was closed
+	 */
 	private CompassRegion getRegion( final int cx, final int cz )
 	{
 		long pos = cx >> 10;
@@ -77,10 +202,20 @@ public final class CompassReader
 
 		if( cr == null )
 		{
-			cr = new CompassRegion( cx, cz, this.dimensionId, this.worldCompassFolder );
-			this.regions.put( pos, cr );
+			synchronized( this.regionLock )
+			{
+				// opening a region opens its file, which would never be closed again once this reader is gone
+				if( this.closed )
+				{
+					return null;
+				}
+
+				cr = this.regions.computeIfAbsent( pos, key -> new CompassRegion( cx, cz, this.dimensionId, this.worldCompassFolder ) );
+			}
 		}
 
+		cr.touch();
+
 		return cr;
 	}
 }
@@ -23,6 +23,9 @@ import java.io.File;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.annotation.Nonnull;
 
@@ -39,9 +42,16 @@ public final class CompassRegion
 	private final File worldCompassFolder;
 	private final MeteorDataNameEncoder encoder;
 
+	/**
+	 * Guards the mapped buffer, lookups share the read lock while updates and closing need the write lock.
+	 */
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
 	private boolean hasFile = false;
+	private boolean closed = false;
 	private RandomAccessFile raf = null;
 	private ByteBuffer buffer;
+	private volatile long lastAccess = System.nanoTime();
 
 	public CompassRegion( final int cx, final int cz, final int worldID, @Nonnull final File worldCompassFolder )
 	{
@@ -61,10 +71,45 @@ public final class CompassRegion
 		this.openFile( false );
 	}
 
+	Lock readLock()
+	{
+		return this.lock.readLock();
+	}
+
+	Lock writeLock()
+	{
+		return this.lock.writeLock();
+	}
+
+	void touch()
+	{
+		this.lastAccess = System.nanoTime();
+	}
+
+	boolean isIdle( final long now, final long idleNanos )
+	{
+		return now - this.lastAccess > idleNanos;
+	}
+
+	/**
+	 * Only valid while holding either lock.
+	 *
+	 * @return true, if this region was closed and has to be looked up again
+	 */
+	boolean isClosed()
+	{
+		return this.closed;
+	}
+
+	/**
+	 * Has to be called while holding the write lock.
+	 */
 	void close()
 	{
 		try
 		{
+			this.closed = true;
+
 			if( this.hasFile )
 			{
 				this.buffer = null;
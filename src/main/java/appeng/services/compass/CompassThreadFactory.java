@@ -20,6 +20,7 @@ package appeng.services.compass;
 
 
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nonnull;
 
@@ -33,11 +34,13 @@ import com.google.common.base.Preconditions;
  */
 public final class CompassThreadFactory implements ThreadFactory
 {
+	private final AtomicInteger threadCount = new AtomicInteger();
+
 	@Override
 	public Thread newThread( @Nonnull final Runnable job )
 	{
 		Preconditions.checkNotNull( job );
 
-		return new Thread( job, "AE Compass Service" );
+		return new Thread( job, "AE Compass Service #" + this.threadCount.incrementAndGet() );
 	}
 }
@@ -19,7 +19,7 @@
 package appeng.spatial;
 
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map.Entry;
@@ -31,6 +31,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.NextTickListEntry;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.NibbleArray;
 import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
 
 import appeng.api.AEApi;
@@ -49,20 +50,23 @@ public class CachedPlane
 	private final int x_size;
 	private final int z_size;
 	private final int cx_size;
+	private final int cy_size;
 	private final int cz_size;
+	private final int minCX;
+	private final int minCY;
+	private final int minCZ;
 	private final int x_offset;
 	private final int y_offset;
 	private final int z_offset;
 	private final int y_size;
 	private final Chunk[][] myChunks;
 	private final Column[][] myColumns;
-	private final LinkedList<TileEntity> tiles = new LinkedList<TileEntity>();
-	private final LinkedList<NextTickListEntry> ticks = new LinkedList<NextTickListEntry>();
 	private final World world;
 	private final IMovableRegistry reg = AEApi.instance().registries().movable();
 	private final LinkedList<WorldCoord> updates = new LinkedList<WorldCoord>();
 	private final IBlockDefinition matrixFrame = AEApi.instance().definitions().blocks().matrixFrame();
 	private int verticalBits;
+	private int tileCount;
 	private final IBlockState matrixBlockState;
 
 	public CachedPlane( final World w, final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ )
@@ -88,47 +92,239 @@ public class CachedPlane
 		this.y_offset = minY;
 		this.z_offset = minZ;
 
-		final int minCX = minX >> 4;
-		final int minCY = minY >> 4;
-		final int minCZ = minZ >> 4;
+		this.minCX = minX >> 4;
+		this.minCY = minY >> 4;
+		this.minCZ = minZ >> 4;
 		final int maxCX = maxX >> 4;
 		final int maxCY = maxY >> 4;
 		final int maxCZ = maxZ >> 4;
 
-		this.cx_size = maxCX - minCX + 1;
-		final int cy_size = maxCY - minCY + 1;
-		this.cz_size = maxCZ - minCZ + 1;
+		this.cx_size = maxCX - this.minCX + 1;
+		this.cy_size = maxCY - this.minCY + 1;
+		this.cz_size = maxCZ - this.minCZ + 1;
 
 		this.myChunks = new Chunk[this.cx_size][this.cz_size];
 		this.myColumns = new Column[this.x_size][this.z_size];
 
 		this.verticalBits = 0;
-		for( int cy = 0; cy < cy_size; cy++ )
+		for( int cy = 0; cy < this.cy_size; cy++ )
 		{
-			this.verticalBits |= 1 << ( minCY + cy );
+			this.verticalBits |= 1 << ( this.minCY + cy );
 		}
 
-		for( int x = 0; x < this.x_size; x++ )
+		// tiles and scheduled updates stay in the world, they are taken when their section is committed
+		for( int cx = 0; cx < this.cx_size; cx++ )
 		{
-			for( int z = 0; z < this.z_size; z++ )
+			for( int cz = 0; cz < this.cz_size; cz++ )
 			{
-				this.myColumns[x][z] = new Column( w.getChunkFromChunkCoords( ( minX + x ) >> 4, ( minZ + z ) >> 4 ), ( minX + x ) & 0xF, ( minZ + z ) & 0xF, minCY, cy_size );
+				final Chunk c = w.getChunkFromChunkCoords( this.minCX + cx, this.minCZ + cz );
+				this.myChunks[cx][cz] = c;
+
+				// make sure storage exists before hand...
+				final ExtendedBlockStorage[] storage = c.getBlockStorageArray();
+				for( int cy = 0; cy < this.cy_size; cy++ )
+				{
+					final int by = cy + this.minCY;
+					if( storage[by] == null )
+					{
+						storage[by] = new ExtendedBlockStorage( by << 4, !w.provider.getHasNoSky() );
+					}
+				}
 			}
 		}
+	}
 
+	private IMovableHandler getHandler( final TileEntity te )
+	{
 		final IMovableRegistry mr = AEApi.instance().registries().movable();
+		return mr.getHandler( te );
+	}
+
+	private Column getColumn( final int x, final int z )
+	{
+		Column c = this.myColumns[x][z];
+
+		if( c == null )
+		{
+			final int worldX = this.x_offset + x;
+			final int worldZ = this.z_offset + z;
+
+			c = this.myColumns[x][z] = new Column( this.myChunks[( worldX >> 4 ) - this.minCX][( worldZ >> 4 ) - this.minCZ], worldX & 0xF, worldZ & 0xF );
+		}
+
+		return c;
+	}
+
+	/**
+	 * Splits the plane into one unit of work per section. Sections fully covered by both planes, which share their
+	 * alignment, become candidates to be exchanged as a whole and get a snapshot of both sides.
+	 *
+	 * @return null, if the destination does not match the size of this plane.
+	 */
+	List<SectionTransfer> planTransfer( final CachedPlane dst )
+	{
+		if( dst.x_size != this.x_size || dst.y_size != this.y_size || dst.z_size != this.z_size )
+		{
+			return null;
+		}
+
+		// whole sections can only be exchanged, if both planes share the same alignment inside their sections
+		final boolean aligned = ( ( dst.x_offset - this.x_offset ) & 0xF ) == 0 && ( ( dst.y_offset - this.y_offset ) & 0xF ) == 0 && ( ( dst.z_offset - this.z_offset ) & 0xF ) == 0;
+		final List<SectionTransfer> units = new ArrayList<SectionTransfer>( this.cx_size * this.cy_size * this.cz_size );
 
 		for( int cx = 0; cx < this.cx_size; cx++ )
 		{
-			for( int cz = 0; cz < this.cz_size; cz++ )
+			for( int cy = 0; cy < this.cy_size; cy++ )
 			{
-				final LinkedList<Entry<BlockPos, TileEntity>> rawTiles = new LinkedList<Entry<BlockPos, TileEntity>>();
-				final LinkedList<BlockPos> deadTiles = new LinkedList<BlockPos>();
+				for( int cz = 0; cz < this.cz_size; cz++ )
+				{
+					// bounds of this section inside the plane, relative to the plane.
+					final int minX = Math.max( ( this.minCX + cx ) << 4, this.x_offset ) - this.x_offset;
+					final int minY = Math.max( ( this.minCY + cy ) << 4, this.y_offset ) - this.y_offset;
+					final int minZ = Math.max( ( this.minCZ + cz ) << 4, this.z_offset ) - this.z_offset;
+					final int maxX = Math.min( ( ( this.minCX + cx ) << 4 ) + 15 - this.x_offset, this.x_size - 1 );
+					final int maxY = Math.min( ( ( this.minCY + cy ) << 4 ) + 15 - this.y_offset, this.y_size - 1 );
+					final int maxZ = Math.min( ( ( this.minCZ + cz ) << 4 ) + 15 - this.z_offset, this.z_size - 1 );
+
+					final SectionTransfer unit = new SectionTransfer( minX, minY, minZ, maxX, maxY, maxZ );
+					final boolean fullSection = maxX - minX == 15 && maxY - minY == 15 && maxZ - minZ == 15;
+
+					if( aligned && fullSection )
+					{
+						final int dcx = ( ( minX + dst.x_offset ) >> 4 ) - dst.minCX;
+						final int dcy = ( ( minY + dst.y_offset ) >> 4 ) - dst.minCY;
+						final int dcz = ( ( minZ + dst.z_offset ) >> 4 ) - dst.minCZ;
 
-				final Chunk c = w.getChunkFromChunkCoords( minCX + cx, minCZ + cz );
-				this.myChunks[cx][cz] = c;
+						unit.setCandidate( cx, cy, cz, new SectionSnapshot( this.getSection( cx, cy, cz ) ), dcx, dcy, dcz, new SectionSnapshot( dst.getSection( dcx, dcy, dcz ) ) );
+					}
+
+					units.add( unit );
+				}
+			}
+		}
+
+		return units;
+	}
+
+	/**
+	 * Moves a single unit of work between this plane and the destination, together with the tiles and scheduled block
+	 * updates inside it. Everything is taken from the world as it is now, so changes made since the capture are moved
+	 * as well.
+	 */
+	void commit( final CachedPlane dst, final SectionTransfer unit, final SpatialTransferStats stats )
+	{
+		final List<TileEntity> srcTiles = new ArrayList<TileEntity>();
+		final List<TileEntity> dstTiles = new ArrayList<TileEntity>();
+
+		// immovable tiles stay in place, which only the per block path can handle.
+		final boolean srcMovable = this.takeTiles( unit, srcTiles );
+		final boolean dstMovable = dst.takeTiles( unit, dstTiles );
+
+		final List<NextTickListEntry> srcTicks = this.getTicks( unit );
+		final List<NextTickListEntry> dstTicks = dst.getTicks( unit );
+
+		if( !unit.isExchange() || !srcMovable || !dstMovable || !this.exchangeSection( dst, unit, stats ) )
+		{
+			stats.addCopiedBlocks( this.swapBlocks( dst, unit.minX, unit.minY, unit.minZ, unit.maxX, unit.maxY, unit.maxZ ) );
+		}
+
+		final IMovableRegistry mr = AEApi.instance().registries().movable();
+
+		for( final TileEntity te : srcTiles )
+		{
+			final BlockPos tePOS = te.getPos();
+			dst.addTile( tePOS.getX() - this.x_offset, tePOS.getY() - this.y_offset, tePOS.getZ() - this.z_offset, te, this, mr );
+		}
+
+		for( final TileEntity te : dstTiles )
+		{
+			final BlockPos tePOS = te.getPos();
+			this.addTile( tePOS.getX() - dst.x_offset, tePOS.getY() - dst.y_offset, tePOS.getZ() - dst.z_offset, te, dst, mr );
+		}
+
+		for( final NextTickListEntry entry : srcTicks )
+		{
+			final BlockPos tePOS = entry.position;
+			dst.addTick( tePOS.getX() - this.x_offset, tePOS.getY() - this.y_offset, tePOS.getZ() - this.z_offset, entry );
+		}
+
+		for( final NextTickListEntry entry : dstTicks )
+		{
+			final BlockPos tePOS = entry.position;
+			this.addTick( tePOS.getX() - dst.x_offset, tePOS.getY() - dst.y_offset, tePOS.getZ() - dst.z_offset, entry );
+		}
+
+		this.tileCount += srcTiles.size();
+		dst.tileCount += dstTiles.size();
+	}
+
+	/**
+	 * Exchanges a whole section with the destination, unless either side changed since it was captured.
+	 *
+	 * @return false, if the section has to be moved block by block instead.
+	 */
+	private boolean exchangeSection( final CachedPlane dst, final SectionTransfer unit, final SpatialTransferStats stats )
+	{
+		final ExtendedBlockStorage[] a = this.myChunks[unit.getSourceX()][unit.getSourceZ()].getBlockStorageArray();
+		final ExtendedBlockStorage[] b = dst.myChunks[unit.getDestinationX()][unit.getDestinationZ()].getBlockStorageArray();
+		final int ay = this.minCY + unit.getSourceY();
+		final int by = dst.minCY + unit.getDestinationY();
+
+		final SectionSnapshot source = new SectionSnapshot( a[ay] );
+		final SectionSnapshot destination = new SectionSnapshot( b[by] );
+
+		// the inspected snapshot no longer describes the section
+		if( !source.hasSameBlocks( unit.getSource() ) || !destination.hasSameBlocks( unit.getDestination() ) )
+		{
+			stats.addChangedSection();
+			return false;
+		}
+
+		if( ay == by )
+		{
+			// same height, the storage can simply change owners.
+			final ExtendedBlockStorage tmp = a[ay];
+			a[ay] = b[by];
+			b[by] = tmp;
+			stats.addReferencedSection();
+		}
+		else
+		{
+			destination.applyTo( a[ay] );
+			source.applyTo( b[by] );
+			stats.addCopiedSection( destination.getByteSize() + source.getByteSize() );
+		}
+
+		this.prepareSkylight( a[ay] );
+		dst.prepareSkylight( b[by] );
+		return true;
+	}
+
+	/**
+	 * Removes all movable tiles inside the bounds of the unit from the world. Immovable tiles are kept and their block
+	 * is skipped, unless it is air anyway.
+	 *
+	 * @return false, if an immovable tile was found.
+	 */
+	private boolean takeTiles( final SectionTransfer unit, final List<TileEntity> out )
+	{
+		final IMovableRegistry mr = AEApi.instance().registries().movable();
+		final int minX = unit.minX + this.x_offset;
+		final int minY = unit.minY + this.y_offset;
+		final int minZ = unit.minZ + this.z_offset;
+		final int maxX = unit.maxX + this.x_offset;
+		final int maxY = unit.maxY + this.y_offset;
+		final int maxZ = unit.maxZ + this.z_offset;
+		boolean movable = true;
+
+		for( int cx = ( minX >> 4 ) - this.minCX; cx <= ( maxX >> 4 ) - this.minCX; cx++ )
+		{
+			for( int cz = ( minZ >> 4 ) - this.minCZ; cz <= ( maxZ >> 4 ) - this.minCZ; cz++ )
+			{
+				final Chunk c = this.myChunks[cx][cz];
 
-				rawTiles.addAll( ( (HashMap<BlockPos, TileEntity>) c.getTileEntityMap() ).entrySet() );
+				// copy, as removing tiles modifies the map
+				final List<Entry<BlockPos, TileEntity>> rawTiles = new ArrayList<Entry<BlockPos, TileEntity>>( c.getTileEntityMap().entrySet() );
 				for( final Entry<BlockPos, TileEntity> tx : rawTiles )
 				{
 					final BlockPos cp = tx.getKey();
@@ -139,34 +335,54 @@ public class CachedPlane
 					{
 						if( mr.askToMove( te ) )
 						{
-							this.tiles.add( te );
-							deadTiles.add( cp );
+							c.getTileEntityMap().remove( cp );
+							this.world.loadedTileEntityList.remove( te );
+							this.world.tickableTileEntities.remove( te );
+							out.add( te );
 						}
 						else
 						{
-							final Object[] details = this.myColumns[tePOS.getX() - minX][tePOS.getZ() - minZ].getDetails( tePOS.getY() );
-							final Block blk = (Block) details[0];
+							final Object[] details = this.getColumn( tePOS.getX() - this.x_offset, tePOS.getZ() - this.z_offset ).getDetails( tePOS.getY() );
+							final Block blk = ( (IBlockState) details[0] ).getBlock();
 
 							// don't skip air, just let the code replace it...
-							if( blk != null && blk.isAir( c.getWorld().getBlockState( tePOS ), c.getWorld(), tePOS ) && blk.isReplaceable( c.getWorld(), tePOS ) )
+							if( blk.isAir( this.world.getBlockState( tePOS ), this.world, tePOS ) && blk.isReplaceable( this.world, tePOS ) )
 							{
-								c.getWorld().setBlockToAir( tePOS );
+								this.world.setBlockToAir( tePOS );
 							}
 							else
 							{
-								this.myColumns[tePOS.getX() - minX][tePOS.getZ() - minZ].setSkip( tePOS.getY() );
+								this.getColumn( tePOS.getX() - this.x_offset, tePOS.getZ() - this.z_offset ).setSkip( tePOS.getY() );
+								movable = false;
 							}
 						}
 					}
 				}
+			}
+		}
 
-				for( final BlockPos cp : deadTiles )
-				{
-					c.getTileEntityMap().remove( cp );
-				}
+		return movable;
+	}
 
-				final long k = this.getWorld().getTotalWorldTime();
-				final List list = this.getWorld().getPendingBlockUpdates( c, false );
+	/**
+	 * @return copies of the block updates scheduled inside the bounds of the unit, relative to the current time.
+	 */
+	private List<NextTickListEntry> getTicks( final SectionTransfer unit )
+	{
+		final List<NextTickListEntry> ticks = new ArrayList<NextTickListEntry>();
+		final int minX = unit.minX + this.x_offset;
+		final int minY = unit.minY + this.y_offset;
+		final int minZ = unit.minZ + this.z_offset;
+		final int maxX = unit.maxX + this.x_offset;
+		final int maxY = unit.maxY + this.y_offset;
+		final int maxZ = unit.maxZ + this.z_offset;
+		final long k = this.world.getTotalWorldTime();
+
+		for( int cx = ( minX >> 4 ) - this.minCX; cx <= ( maxX >> 4 ) - this.minCX; cx++ )
+		{
+			for( int cz = ( minZ >> 4 ) - this.minCZ; cz <= ( maxZ >> 4 ) - this.minCZ; cz++ )
+			{
+				final List list = this.world.getPendingBlockUpdates( this.myChunks[cx][cz], false );
 				if( list != null )
 				{
 					for( final Object o : list )
@@ -177,107 +393,99 @@ public class CachedPlane
 						{
 							final NextTickListEntry newEntry = new NextTickListEntry( tePOS, entry.getBlock() );
 							newEntry.scheduledTime = entry.scheduledTime - k;
-							this.ticks.add( newEntry );
+							ticks.add( newEntry );
 						}
 					}
 				}
 			}
 		}
 
-		for( final TileEntity te : this.tiles )
+		return ticks;
+	}
+
+	IBlockState getMatrixBlockState()
+	{
+		return this.matrixBlockState;
+	}
+
+	/**
+	 * @return the number of tiles moved out of this plane so far.
+	 */
+	int getTileCount()
+	{
+		return this.tileCount;
+	}
+
+	/**
+	 * Touches every chunk of the plane, so none of them is unloaded while a transfer is in progress.
+	 */
+	void keepLoaded()
+	{
+		for( int x = 0; x < this.cx_size; x++ )
 		{
-			try
-			{
-				this.getWorld().loadedTileEntityList.remove( te );
-			}
-			catch( final Exception e )
+			for( int z = 0; z < this.cz_size; z++ )
 			{
-				AELog.debug( e );
+				this.world.getChunkFromChunkCoords( this.minCX + x, this.minCZ + z );
 			}
 		}
 	}
 
-	private IMovableHandler getHandler( final TileEntity te )
+	private ExtendedBlockStorage getSection( final int cx, final int cy, final int cz )
 	{
-		final IMovableRegistry mr = AEApi.instance().registries().movable();
-		return mr.getHandler( te );
+		return this.myChunks[cx][cz].getBlockStorageArray()[this.minCY + cy];
 	}
 
-	void swap( final CachedPlane dst )
+	/**
+	 * Sections coming from a world without sky have no skylight, which is recalculated by the chunk update anyway.
+	 */
+	private void prepareSkylight( final ExtendedBlockStorage section )
 	{
-		final IMovableRegistry mr = AEApi.instance().registries().movable();
-
-		if( dst.x_size == this.x_size && dst.y_size == this.y_size && dst.z_size == this.z_size )
+		if( !this.world.provider.getHasNoSky() && section.getSkylightArray() == null )
 		{
-			AELog.info( "Block Copy Scale: " + this.x_size + ", " + this.y_size + ", " + this.z_size );
+			section.setSkylightArray( new NibbleArray() );
+		}
+	}
 
-			long startTime = System.nanoTime();
+	/**
+	 * Swaps the blocks inside the given bounds, relative to the plane, one by one.
+	 *
+	 * @return the number of swapped blocks
+	 */
+	private int swapBlocks( final CachedPlane dst, final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ )
+	{
+		int copied = 0;
 
-			for( int x = 0; x < this.x_size; x++ )
+		for( int x = minX; x <= maxX; x++ )
+		{
+			for( int z = minZ; z <= maxZ; z++ )
 			{
-				for( int z = 0; z < this.z_size; z++ )
+				final Column a = this.getColumn( x, z );
+				final Column b = dst.getColumn( x, z );
+
+				for( int y = minY; y <= maxY; y++ )
 				{
-					final Column a = this.myColumns[x][z];
-					final Column b = dst.myColumns[x][z];
+					final int src_y = y + this.y_offset;
+					final int dst_y = y + dst.y_offset;
 
-					for( int y = 0; y < this.y_size; y++ )
+					if( a.doNotSkip( src_y ) && b.doNotSkip( dst_y ) )
 					{
-						final int src_y = y + this.y_offset;
-						final int dst_y = y + dst.y_offset;
-
-						if( a.doNotSkip( src_y ) && b.doNotSkip( dst_y ) )
-						{
-							final Object[] aD = a.getDetails( src_y );
-							final Object[] bD = b.getDetails( dst_y );
+						final Object[] aD = a.getDetails( src_y );
+						final Object[] bD = b.getDetails( dst_y );
 
-							a.setBlockIDWithMetadata( src_y, bD );
-							b.setBlockIDWithMetadata( dst_y, aD );
-						}
-						else
-						{
-							this.markForUpdate( x + this.x_offset, src_y, z + this.z_offset );
-							dst.markForUpdate( x + dst.x_offset, dst_y, z + dst.z_offset );
-						}
+						a.setBlockIDWithMetadata( src_y, bD );
+						b.setBlockIDWithMetadata( dst_y, aD );
+						copied++;
+					}
+					else
+					{
+						this.markForUpdate( x + this.x_offset, src_y, z + this.z_offset );
+						dst.markForUpdate( x + dst.x_offset, dst_y, z + dst.z_offset );
 					}
 				}
 			}
-
-			long endTime = System.nanoTime();
-			long duration = endTime - startTime;
-			AELog.info( "Block Copy Time: " + duration );
-
-			for( final TileEntity te : this.tiles )
-			{
-				final BlockPos tePOS = te.getPos();
-				dst.addTile( tePOS.getX() - this.x_offset, tePOS.getY() - this.y_offset, tePOS.getZ() - this.z_offset, te, this, mr );
-			}
-
-			for( final TileEntity te : dst.tiles )
-			{
-				final BlockPos tePOS = te.getPos();
-				this.addTile( tePOS.getX() - dst.x_offset, tePOS.getY() - dst.y_offset, tePOS.getZ() - dst.z_offset, te, dst, mr );
-			}
-
-			for( final NextTickListEntry entry : this.ticks )
-			{
-				final BlockPos tePOS = entry.position;
-				dst.addTick( tePOS.getX() - this.x_offset, tePOS.getY() - this.y_offset, tePOS.getZ() - this.z_offset, entry );
-			}
-
-			for( final NextTickListEntry entry : dst.ticks )
-			{
-				final BlockPos tePOS = entry.position;
-				this.addTick( tePOS.getX() - dst.x_offset, tePOS.getY() - dst.y_offset, tePOS.getZ() - dst.z_offset, entry );
-			}
-
-			startTime = System.nanoTime();
-			this.updateChunks();
-			dst.updateChunks();
-			endTime = System.nanoTime();
-
-			duration = endTime - startTime;
-			AELog.info( "Update Time: " + duration );
 		}
+
+		return copied;
 	}
 
 	private void markForUpdate( final int x, final int y, final int z )
@@ -298,7 +506,7 @@ public class CachedPlane
 	{
 		try
 		{
-			final Column c = this.myColumns[x][z];
+			final Column c = this.getColumn( x, z );
 
 			if( c.doNotSkip( y + this.y_offset ) || alternateDestination == null )
 			{
@@ -340,37 +548,30 @@ public class CachedPlane
 		}
 	}
 
-	private void updateChunks()
+	int getChunkCount()
 	{
+		return this.cx_size * this.cz_size;
+	}
 
-		// update shit..
-		for( int x = 0; x < this.cx_size; x++ )
-		{
-			for( int z = 0; z < this.cz_size; z++ )
-			{
-				final Chunk c = this.myChunks[x][z];
-				c.resetRelightChecks();
-				c.generateSkylightMap();
-				c.setModified( true );
-			}
-		}
-
-		// send shit...
-		for( int x = 0; x < this.cx_size; x++ )
-		{
-			for( int z = 0; z < this.cz_size; z++ )
-			{
+	/**
+	 * Relights and resends a single chunk of this plane.
+	 *
+	 * @param index between 0 and {@link #getChunkCount()}
+	 */
+	void updateChunk( final int index )
+	{
+		final Chunk c = this.myChunks[index / this.cz_size][index % this.cz_size];
 
-				final Chunk c = this.myChunks[x][z];
+		c.resetRelightChecks();
+		c.generateSkylightMap();
+		c.setModified( true );
 
-				for( int y = 1; y < 255; y += 32 )
-				{
-					WorldData.instance().compassData().service().updateArea( this.getWorld(), c.xPosition << 4, y, c.zPosition << 4 );
-				}
-
-				Platform.sendChunk( c, this.verticalBits );
-			}
+		for( int y = 1; y < 255; y += 32 )
+		{
+			WorldData.instance().compassData().service().updateArea( this.getWorld(), c.xPosition << 4, y, c.zPosition << 4 );
 		}
+
+		Platform.sendChunk( c, this.verticalBits );
 	}
 
 	LinkedList<WorldCoord> getUpdates()
@@ -393,23 +594,12 @@ public class CachedPlane
 		private final ExtendedBlockStorage[] storage;
 		private List<Integer> skipThese = null;
 
-		public Column( final Chunk chunk, final int x, final int z, final int chunkY, final int chunkHeight )
+		public Column( final Chunk chunk, final int x, final int z )
 		{
 			this.x = x;
 			this.z = z;
 			this.c = chunk;
 			this.storage = this.c.getBlockStorageArray();
-
-			// make sure storage exists before hand...
-			for( int ay = 0; ay < chunkHeight; ay++ )
-			{
-				final int by = ( ay + chunkY );
-				ExtendedBlockStorage extendedblockstorage = this.storage[by];
-				if( extendedblockstorage == null )
-				{
-					extendedblockstorage = this.storage[by] = new ExtendedBlockStorage( by << 4, !this.c.getWorld().provider.getHasNoSky() );
-				}
-			}
 		}
 
 		private void setBlockIDWithMetadata( final int y, final Object[] blk )
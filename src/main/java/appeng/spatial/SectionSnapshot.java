@@ -0,0 +1,148 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package appeng.spatial;
+
+
+import java.util.Arrays;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.world.chunk.NibbleArray;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import appeng.api.movable.IMovableRegistry;
+
+
+/**
+ * A copy of the block and block light data of a single 16³ section.
+ *
+ * Created on the server thread, it can be inspected from any thread afterwards.
+ */
+final class SectionSnapshot
+{
+	private static final int SECTION_VOLUME = 16 * 16 * 16;
+
+	private final byte[] blockIds = new byte[SECTION_VOLUME];
+	private final NibbleArray blockData = new NibbleArray();
+	private final NibbleArray blockIdExtension;
+	private final NibbleArray blockLight;
+
+	SectionSnapshot( final ExtendedBlockStorage section )
+	{
+		this.blockIdExtension = section.getData().getDataForNBT( this.blockIds, this.blockData );
+		this.blockLight = new NibbleArray( section.getBlocklightArray().getData().clone() );
+	}
+
+	/**
+	 * Checks, if the section can be moved as a whole.
+	 *
+	 * @param matrixFrame the state of the matrix frame, which is never moved.
+	 * @param registry to look up blacklisted blocks.
+	 *
+	 * @return false, if a block in this section requires the per block path.
+	 */
+	boolean isMovable( final IBlockState matrixFrame, final IMovableRegistry registry )
+	{
+		Block lastBlock = null;
+
+		for( int i = 0; i < SECTION_VOLUME; i++ )
+		{
+			final IBlockState state = Block.BLOCK_STATE_IDS.getByValue( this.getStateId( i ) );
+
+			if( state == null )
+			{
+				continue;
+			}
+
+			if( state == matrixFrame )
+			{
+				return false;
+			}
+
+			final Block blk = state.getBlock();
+			if( blk != lastBlock )
+			{
+				if( registry.isBlacklisted( blk ) )
+				{
+					return false;
+				}
+
+				lastBlock = blk;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Compares the blocks of both snapshots, ignoring the block light.
+	 *
+	 * @return true, if both snapshots contain the same block states.
+	 */
+	boolean hasSameBlocks( final SectionSnapshot other )
+	{
+		if( !Arrays.equals( this.blockIds, other.blockIds ) || !Arrays.equals( this.blockData.getData(), other.blockData.getData() ) )
+		{
+			return false;
+		}
+
+		if( this.blockIdExtension == null || other.blockIdExtension == null )
+		{
+			return this.blockIdExtension == other.blockIdExtension;
+		}
+
+		return Arrays.equals( this.blockIdExtension.getData(), other.blockIdExtension.getData() );
+	}
+
+	/**
+	 * Replaces the content of the given section with this snapshot. Has to be called from the server thread.
+	 */
+	void applyTo( final ExtendedBlockStorage section )
+	{
+		section.getData().setDataFromNBT( this.blockIds, this.blockData, this.blockIdExtension );
+		section.setBlocklightArray( new NibbleArray( this.blockLight.getData().clone() ) );
+		section.removeInvalidBlocks();
+	}
+
+	/**
+	 * @return the number of bytes copied when applying this snapshot.
+	 */
+	int getByteSize()
+	{
+		int size = this.blockIds.length + this.blockData.getData().length + this.blockLight.getData().length;
+
+		if( this.blockIdExtension != null )
+		{
+			size += this.blockIdExtension.getData().length;
+		}
+
+		return size;
+	}
+
+	private int getStateId( final int index )
+	{
+		// same layout as used by BlockStateContainer#getDataForNBT
+		final int x = index & 15;
+		final int y = index >> 8 & 15;
+		final int z = index >> 4 & 15;
+
+		final int extension = this.blockIdExtension == null ? 0 : this.blockIdExtension.get( x, y, z );
+
+		return extension << 12 | ( this.blockIds[index] & 255 ) << 4 | this.blockData.get( x, y, z );
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package appeng.spatial;
+
+
+import net.minecraft.block.state.IBlockState;
+
+import appeng.api.movable.IMovableRegistry;
+
+
+/**
+ * A single unit of work of a spatial transfer, covering the part of one section inside the source plane.
+ *
+ * Sections, which are candidates to be exchanged as a whole, carry a snapshot of both sides until
+ * {@link #prepare(IBlockState, IMovableRegistry)} decided whether they can be exchanged, everything else falls back
+ * to copying the blocks inside the bounds one by one. The snapshots only describe the sections at capture time, the
+ * exchange is therefore dropped when committing, if either section changed in the meantime.
+ */
+final class SectionTransfer
+{
+	// bounds inside the plane, relative to the plane
+	final int minX;
+	final int minY;
+	final int minZ;
+	final int maxX;
+	final int maxY;
+	final int maxZ;
+
+	// section indexes relative to the source and destination plane
+	private int cx;
+	private int cy;
+	private int cz;
+	private int dcx;
+	private int dcy;
+	private int dcz;
+
+	private SectionSnapshot source;
+	private SectionSnapshot destination;
+	private boolean exchange = false;
+
+	SectionTransfer( final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ )
+	{
+		this.minX = minX;
+		this.minY = minY;
+		this.minZ = minZ;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		this.maxZ = maxZ;
+	}
+
+	void setCandidate( final int cx, final int cy, final int cz, final SectionSnapshot source, final int dcx, final int dcy, final int dcz, final SectionSnapshot destination )
+	{
+		this.cx = cx;
+		this.cy = cy;
+		this.cz = cz;
+		this.dcx = dcx;
+		this.dcy = dcy;
+		this.dcz = dcz;
+		this.source = source;
+		this.destination = destination;
+	}
+
+	/**
+	 * Can be called from any thread, as it only inspects the snapshots.
+	 */
+	void prepare( final IBlockState matrixFrame, final IMovableRegistry registry )
+	{
+		if( this.source != null )
+		{
+			this.exchange = this.source.isMovable( matrixFrame, registry ) && this.destination.isMovable( matrixFrame, registry );
+
+			if( !this.exchange )
+			{
+				this.source = null;
+				this.destination = null;
+			}
+		}
+	}
+
+	boolean isExchange()
+	{
+		return this.exchange;
+	}
+
+	int getSourceX()
+	{
+		return this.cx;
+	}
+
+	int getSourceY()
+	{
+		return this.cy;
+	}
+
+	int getSourceZ()
+	{
+		return this.cz;
+	}
+
+	int getDestinationX()
+	{
+		return this.dcx;
+	}
+
+	int getDestinationY()
+	{
+		return this.dcy;
+	}
+
+	int getDestinationZ()
+	{
+		return this.dcz;
+	}
+
+	SectionSnapshot getSource()
+	{
+		return this.source;
+	}
+
+	SectionSnapshot getDestination()
+	{
+		return this.destination;
+	}
+}
@@ -0,0 +1,269 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package appeng.spatial;
+
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import appeng.api.AEApi;
+import appeng.api.movable.IMovableRegistry;
+import appeng.core.AELog;
+
+
+/**
+ * Swaps two regions over several ticks.
+ *
+ * Both planes are captured on the server thread, including a snapshot of every section which could be exchanged as a
+ * whole. The snapshots are inspected on a separate thread, afterwards the sections together with their tiles, the
+ * chunk updates and entities are committed on the server thread with a limited time per tick. Both regions stay locked
+ * by the {@link SpatialTransferManager} until the transfer is done.
+ */
+final class SpatialTransfer
+{
+	enum Stage
+	{
+		CAPTURE, PREPARE, COMMIT_SECTIONS, UPDATE_CHUNKS, MOVE_ENTITIES, DONE
+	}
+
+	private final World srcWorld;
+	private final int srcX;
+	private final int srcY;
+	private final int srcZ;
+	private final World dstWorld;
+	private final int dstX;
+	private final int dstY;
+	private final int dstZ;
+	private final int scaleX;
+	private final int scaleY;
+	private final int scaleZ;
+	private final Runnable onDone;
+
+	private final SpatialTransferStats stats = new SpatialTransferStats();
+
+	private Stage stage = Stage.CAPTURE;
+	private CachedPlane cSrc;
+	private CachedPlane cDst;
+	private List<SectionTransfer> units;
+	private Future<?> preparation;
+	private int nextUnit;
+	private int nextChunk;
+
+	SpatialTransfer( final World srcWorld, final int srcX, final int srcY, final int srcZ, final World dstWorld, final int dstX, final int dstY, final int dstZ, final int scaleX, final int scaleY, final int scaleZ, final Runnable onDone )
+	{
+		this.srcWorld = srcWorld;
+		this.srcX = srcX;
+		this.srcY = srcY;
+		this.srcZ = srcZ;
+		this.dstWorld = dstWorld;
+		this.dstX = dstX;
+		this.dstY = dstY;
+		this.dstZ = dstZ;
+		this.scaleX = scaleX;
+		this.scaleY = scaleY;
+		this.scaleZ = scaleZ;
+		this.onDone = onDone;
+	}
+
+	boolean isDone()
+	{
+		return this.stage == Stage.DONE;
+	}
+
+	/**
+	 * @return true, if the position is part of either region or their surrounding matrix frame.
+	 */
+	boolean isLocked( final World w, final BlockPos pos )
+	{
+		return this.intersects( w, pos.getX(), pos.getY(), pos.getZ(), pos.getX(), pos.getY(), pos.getZ() );
+	}
+
+	/**
+	 * @return true, if the given box overlaps either region or their surrounding matrix frame.
+	 */
+	boolean intersects( final World w, final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ )
+	{
+		if( w == this.srcWorld && this.overlaps( this.srcX, this.srcY, this.srcZ, minX, minY, minZ, maxX, maxY, maxZ ) )
+		{
+			return true;
+		}
+
+		return w == this.dstWorld && this.overlaps( this.dstX, this.dstY, this.dstZ, minX, minY, minZ, maxX, maxY, maxZ );
+	}
+
+	/**
+	 * Advances the transfer, until either the time is used up or it has to wait for the preparation. At least one step
+	 * is made on every call.
+	 *
+	 * @param budget time in nanoseconds
+	 * @param finish ignore the budget and wait for the preparation, completing the transfer.
+	 */
+	void process( final long budget, final boolean finish )
+	{
+		final long start = System.nanoTime();
+
+		this.stats.addTick();
+
+		if( this.cSrc != null )
+		{
+			this.cSrc.keepLoaded();
+			this.cDst.keepLoaded();
+		}
+
+		while( this.stage != Stage.DONE )
+		{
+			final Stage current = this.stage;
+			final long stageStart = System.nanoTime();
+			final boolean progress = this.step( finish );
+
+			this.stats.addStageTime( current, System.nanoTime() - stageStart );
+
+			if( !progress || ( !finish && System.nanoTime() - start >= budget ) )
+			{
+				break;
+			}
+		}
+	}
+
+	private boolean step( final boolean finish )
+	{
+		switch( this.stage )
+		{
+			case CAPTURE:
+				this.capture();
+				return true;
+
+			case PREPARE:
+				return this.awaitPreparation( finish );
+
+			case COMMIT_SECTIONS:
+				if( this.nextUnit < this.units.size() )
+				{
+					this.cSrc.commit( this.cDst, this.units.get( this.nextUnit ), this.stats );
+					this.units.set( this.nextUnit, null );
+					this.nextUnit++;
+				}
+				else
+				{
+					this.stage = Stage.UPDATE_CHUNKS;
+				}
+				return true;
+
+			case UPDATE_CHUNKS:
+				final int srcChunks = this.cSrc.getChunkCount();
+				if( this.nextChunk < srcChunks )
+				{
+					this.cSrc.updateChunk( this.nextChunk );
+				}
+				else if( this.nextChunk < srcChunks + this.cDst.getChunkCount() )
+				{
+					this.cDst.updateChunk( this.nextChunk - srcChunks );
+				}
+				else
+				{
+					this.stage = Stage.MOVE_ENTITIES;
+				}
+				this.nextChunk++;
+				return true;
+
+			case MOVE_ENTITIES:
+				StorageHelper.getInstance().moveEntities( this.srcWorld, this.srcX, this.srcY, this.srcZ, this.dstWorld, this.dstX, this.dstY, this.dstZ, this.scaleX, this.scaleY, this.scaleZ );
+				StorageHelper.getInstance().triggerUpdates( this.cSrc, this.cDst, this.srcX, this.srcY, this.srcZ, this.dstX, this.dstY, this.dstZ, this.scaleX, this.scaleY, this.scaleZ );
+				this.stage = Stage.DONE;
+
+				AELog.info( "Spatial transfer of %dx%dx%d with %d tiles done: %s", this.scaleX + 1, this.scaleY + 1, this.scaleZ + 1, this.cSrc.getTileCount() + this.cDst.getTileCount(), this.stats );
+
+				if( this.onDone != null )
+				{
+					this.onDone.run();
+				}
+				return true;
+
+			default:
+				return false;
+		}
+	}
+
+	private void capture()
+	{
+		StorageHelper.getInstance().wrapInMatrixFrame( this.dstWorld, this.dstX, this.dstY, this.dstZ, this.scaleX, this.scaleY, this.scaleZ );
+
+		this.cDst = new CachedPlane( this.dstWorld, this.dstX, this.dstY, this.dstZ, this.dstX + this.scaleX, this.dstY + this.scaleY, this.dstZ + this.scaleZ );
+		this.cSrc = new CachedPlane( this.srcWorld, this.srcX, this.srcY, this.srcZ, this.srcX + this.scaleX, this.srcY + this.scaleY, this.srcZ + this.scaleZ );
+
+		final List<SectionTransfer> plan = this.cSrc.planTransfer( this.cDst );
+		this.units = plan == null ? Collections.<SectionTransfer>emptyList() : plan;
+
+		final IBlockState matrixFrame = this.cSrc.getMatrixBlockState();
+		final IMovableRegistry registry = AEApi.instance().registries().movable();
+		final List<SectionTransfer> work = this.units;
+		final SpatialTransferStats metrics = this.stats;
+
+		this.preparation = SpatialTransferManager.INSTANCE.submit( () ->
+		{
+			final long start = System.nanoTime();
+
+			for( final SectionTransfer unit : work )
+			{
+				unit.prepare( matrixFrame, registry );
+			}
+
+			metrics.setPreparationTime( System.nanoTime() - start );
+		} );
+
+		this.stage = Stage.PREPARE;
+	}
+
+	private boolean awaitPreparation( final boolean finish )
+	{
+		if( !finish && !this.preparation.isDone() )
+		{
+			return false;
+		}
+
+		try
+		{
+			this.preparation.get();
+		}
+		catch( final InterruptedException e )
+		{
+			Thread.currentThread().interrupt();
+			AELog.debug( e );
+		}
+		catch( final ExecutionException e )
+		{
+			// units which were not prepared simply use the per block path.
+			AELog.debug( e );
+		}
+
+		this.stage = Stage.COMMIT_SECTIONS;
+		return true;
+	}
+
+	private boolean overlaps( final int x, final int y, final int z, final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ )
+	{
+		// include the matrix frame around the region
+		return maxX >= x - 1 && minX <= x + this.scaleX + 1 && maxY >= y - 1 && minY <= y + this.scaleY + 1 && maxZ >= z - 1 && minZ <= z + this.scaleZ + 1;
+	}
+}
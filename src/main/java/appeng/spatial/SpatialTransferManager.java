@@ -0,0 +1,185 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package appeng.spatial;
+
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.entity.player.PlayerInteractEvent;
+import net.minecraftforge.event.world.ExplosionEvent;
+import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import appeng.core.AEConfig;
+
+
+/**
+ * Keeps track of all spatial transfers in progress, advances them every server tick and prevents players and
+ * explosions from modifying the affected regions until they are done. Any other change is picked up when the affected
+ * section is committed.
+ */
+public final class SpatialTransferManager
+{
+
+	public static final SpatialTransferManager INSTANCE = new SpatialTransferManager();
+
+	private static final ExecutorService PREPARATION_POOL;
+
+	static
+	{
+		final ThreadFactory factory = new ThreadFactory(){
+
+			@Override
+			public Thread newThread( final Runnable ar )
+			{
+				final Thread thread = new Thread( ar, "AE Spatial Transfer" );
+				thread.setDaemon( true );
+				return thread;
+			}
+		};
+
+		PREPARATION_POOL = Executors.newSingleThreadExecutor( factory );
+	}
+
+	private final List<SpatialTransfer> transfers = new ArrayList<SpatialTransfer>();
+
+	private SpatialTransferManager()
+	{
+	}
+
+	void start( final SpatialTransfer transfer )
+	{
+		this.transfers.add( transfer );
+	}
+
+	Future<?> submit( final Runnable task )
+	{
+		return PREPARATION_POOL.submit( task );
+	}
+
+	/**
+	 * Advances all transfers, sharing the configured time per tick between them.
+	 */
+	public void tick()
+	{
+		if( this.transfers.isEmpty() )
+		{
+			return;
+		}
+
+		final long budget = TimeUnit.MILLISECONDS.toNanos( AEConfig.instance.spatialTransferTimePerTick ) / this.transfers.size();
+		final Iterator<SpatialTransfer> i = this.transfers.iterator();
+
+		while( i.hasNext() )
+		{
+			final SpatialTransfer transfer = i.next();
+
+			transfer.process( budget, false );
+
+			if( transfer.isDone() )
+			{
+				i.remove();
+			}
+		}
+	}
+
+	/**
+	 * Completes all transfers at once, e.g. before the server saves its worlds while stopping.
+	 */
+	public void finishAll()
+	{
+		for( final SpatialTransfer transfer : this.transfers )
+		{
+			transfer.process( 0, true );
+		}
+
+		this.transfers.clear();
+	}
+
+	public boolean isLocked( final World w, final BlockPos pos )
+	{
+		for( final SpatialTransfer transfer : this.transfers )
+		{
+			if( transfer.isLocked( w, pos ) )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	public boolean isLocked( final World w, final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ )
+	{
+		for( final SpatialTransfer transfer : this.transfers )
+		{
+			if( transfer.intersects( w, minX, minY, minZ, maxX, maxY, maxZ ) )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@SubscribeEvent
+	public void onBlockBreak( final BlockEvent.BreakEvent event )
+	{
+		if( !event.getWorld().isRemote && this.isLocked( event.getWorld(), event.getPos() ) )
+		{
+			event.setCanceled( true );
+		}
+	}
+
+	@SubscribeEvent
+	public void onBlockPlace( final BlockEvent.PlaceEvent event )
+	{
+		if( !event.getWorld().isRemote && this.isLocked( event.getWorld(), event.getPos() ) )
+		{
+			event.setCanceled( true );
+		}
+	}
+
+	@SubscribeEvent
+	public void onExplosion( final ExplosionEvent.Detonate event )
+	{
+		if( !event.getWorld().isRemote && !this.transfers.isEmpty() )
+		{
+			final World w = event.getWorld();
+			event.getAffectedBlocks().removeIf( pos -> this.isLocked( w, pos ) );
+		}
+	}
+
+	@SubscribeEvent
+	public void onRightClickBlock( final PlayerInteractEvent.RightClickBlock event )
+	{
+		if( !event.getWorld().isRemote && this.isLocked( event.getWorld(), event.getPos() ) )
+		{
+			event.setCanceled( true );
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package appeng.spatial;
+
+
+/**
+ * Metrics collected while a {@link SpatialTransfer} is in progress.
+ */
+final class SpatialTransferStats
+{
+	private final long[] stageTime = new long[SpatialTransfer.Stage.values().length];
+	private long preparationTime;
+	private int ticks;
+	private int referencedSections;
+	private int copiedSections;
+	private int changedSections;
+	private long copiedBlocks;
+	private long bytesMoved;
+
+	void addTick()
+	{
+		this.ticks++;
+	}
+
+	void addStageTime( final SpatialTransfer.Stage stage, final long nanos )
+	{
+		this.stageTime[stage.ordinal()] += nanos;
+	}
+
+	void setPreparationTime( final long nanos )
+	{
+		this.preparationTime = nanos;
+	}
+
+	void addReferencedSection()
+	{
+		this.referencedSections++;
+	}
+
+	void addCopiedSection( final long bytes )
+	{
+		this.copiedSections++;
+		this.bytesMoved += bytes;
+	}
+
+	void addChangedSection()
+	{
+		this.changedSections++;
+	}
+
+	void addCopiedBlocks( final int blocks )
+	{
+		this.copiedBlocks += blocks;
+	}
+
+	int getTicks()
+	{
+		return this.ticks;
+	}
+
+	long getStageTime( final SpatialTransfer.Stage stage )
+	{
+		return this.stageTime[stage.ordinal()];
+	}
+
+	/**
+	 * @return time spent inspecting the snapshots off the server thread in nanoseconds.
+	 */
+	long getPreparationTime()
+	{
+		return this.preparationTime;
+	}
+
+	int getReferencedSections()
+	{
+		return this.referencedSections;
+	}
+
+	int getCopiedSections()
+	{
+		return this.copiedSections;
+	}
+
+	/**
+	 * @return sections, which changed between capture and commit and were copied block by block instead.
+	 */
+	int getChangedSections()
+	{
+		return this.changedSections;
+	}
+
+	long getCopiedBlocks()
+	{
+		return this.copiedBlocks;
+	}
+
+	long getBytesMoved()
+	{
+		return this.bytesMoved;
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder sb = new StringBuilder();
+
+		sb.append( this.ticks ).append( " ticks, " );
+		sb.append( this.referencedSections ).append( " sections swapped, " );
+		sb.append( this.copiedSections ).append( " sections copied, " );
+		sb.append( this.changedSections ).append( " sections changed, " );
+		sb.append( this.copiedBlocks ).append( " blocks copied, " );
+		sb.append( this.bytesMoved ).append( " bytes moved" );
+
+		for( final SpatialTransfer.Stage stage : SpatialTransfer.Stage.values() )
+		{
+			if( stage != SpatialTransfer.Stage.DONE )
+			{
+				sb.append( ", " ).append( stage.name() ).append( ": " ).append( String.format( "%.3f", this.getStageTime( stage ) / 1000000.0 ) ).append( " ms" );
+			}
+		}
+
+		sb.append( " (" ).append( String.format( "%.3f", this.preparationTime / 1000000.0 ) ).append( " ms off-thread)" );
+
+		return sb.toString();
+	}
+}
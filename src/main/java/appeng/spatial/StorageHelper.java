@@ -172,26 +172,50 @@ public class StorageHelper
 		}
 	}
 
+	/**
+	 * Starts swapping both regions. The transfer is spread over several ticks by the {@link SpatialTransferManager},
+	 * both regions are locked until it is done.
+	 */
 	public void swapRegions( final World srcWorld,
 			final int srcX, final int srcY, final int srcZ,
 			final World dstWorld,
 			final int dstX, final int dstY, final int dstZ,
 			final int scaleX, final int scaleY, final int scaleZ )
+	{
+		this.swapRegions( srcWorld, srcX, srcY, srcZ, dstWorld, dstX, dstY, dstZ, scaleX, scaleY, scaleZ, null );
+	}
+
+	/**
+	 * Same as {@link #swapRegions(World, int, int, int, World, int, int, int, int, int, int)}, onDone is run on the
+	 * server thread once the transfer is complete.
+	 */
+	public void swapRegions( final World srcWorld,
+			final int srcX, final int srcY, final int srcZ,
+			final World dstWorld,
+			final int dstX, final int dstY, final int dstZ,
+			final int scaleX, final int scaleY, final int scaleZ,
+			final Runnable onDone )
+	{
+		SpatialTransferManager.INSTANCE.start( new SpatialTransfer( srcWorld, srcX, srcY, srcZ, dstWorld, dstX, dstY, dstZ, scaleX, scaleY, scaleZ, onDone ) );
+	}
+
+	void wrapInMatrixFrame( final World dstWorld, final int dstX, final int dstY, final int dstZ, final int scaleX, final int scaleY, final int scaleZ )
 	{
 		AEApi.instance().definitions().blocks().matrixFrame().maybeBlock().ifPresent( matrixFrameBlock ->
 				this.transverseEdges( dstX - 1, dstY - 1, dstZ - 1, dstX + scaleX + 1, dstY + scaleY + 1, dstZ + scaleZ + 1, new WrapInMatrixFrame( matrixFrameBlock.getDefaultState(), dstWorld ) )
 		);
+	}
 
+	void moveEntities( final World srcWorld,
+			final int srcX, final int srcY, final int srcZ,
+			final World dstWorld,
+			final int dstX, final int dstY, final int dstZ,
+			final int scaleX, final int scaleY, final int scaleZ )
+	{
 		final AxisAlignedBB srcBox = new AxisAlignedBB( srcX, srcY, srcZ, srcX + scaleX + 1, srcY + scaleY + 1, srcZ + scaleZ + 1 );
 
 		final AxisAlignedBB dstBox = new AxisAlignedBB( dstX, dstY, dstZ, dstX + scaleX + 1, dstY + scaleY + 1, dstZ + scaleZ + 1 );
 
-		final CachedPlane cDst = new CachedPlane( dstWorld, dstX, dstY, dstZ, dstX + scaleX, dstY + scaleY, dstZ + scaleZ );
-		final CachedPlane cSrc = new CachedPlane( srcWorld, srcX, srcY, srcZ, srcX + scaleX, srcY + scaleY, srcZ + scaleZ );
-
-		// do nearly all the work... swaps blocks, tiles, and block ticks
-		cSrc.swap( cDst );
-
 		final List<Entity> srcE = srcWorld.getEntitiesWithinAABB( Entity.class, srcBox );
 		final List<Entity> dstE = dstWorld.getEntitiesWithinAABB( Entity.class, dstBox );
 
@@ -204,6 +228,15 @@ public class StorageHelper
 		{
 			this.teleportEntity( e, new TelDestination( dstWorld, dstBox, e.posX, e.posY, e.posZ, -srcX + dstX, -srcY + dstY, -srcZ + dstZ ) );
 		}
+	}
+
+	void triggerUpdates( final CachedPlane cSrc, final CachedPlane cDst,
+			final int srcX, final int srcY, final int srcZ,
+			final int dstX, final int dstY, final int dstZ,
+			final int scaleX, final int scaleY, final int scaleZ )
+	{
+		final World srcWorld = cSrc.getWorld();
+		final World dstWorld = cDst.getWorld();
 
 		for( final WorldCoord wc : cDst.getUpdates() )
 		{
@@ -227,7 +260,6 @@ public class StorageHelper
 		 * srv = (ChunkProviderServer) cp; srv.unloadAllChunks(); }
 		 * cp.unloadQueuedChunks();
 		 */
-
 	}
 
 	private static class TriggerUpdates implements ISpatialVisitor
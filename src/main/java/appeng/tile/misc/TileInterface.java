@@ -91,6 +91,11 @@ public class TileInterface extends AENetworkInvTile implements IGridTickable, IT
 		this.duality.notifyNeighbors();
 	}
 
+	public void onNeighborChanged()
+	{
+		this.duality.onNeighborChanged();
+	}
+
 	public void setSide( final EnumFacing facing )
 	{
 		if( Platform.isClient() )
@@ -64,7 +64,6 @@ import appeng.api.networking.security.ISecurityGrid;
 import appeng.api.networking.security.MachineSource;
 import appeng.api.networking.security.PlayerSource;
 import appeng.api.networking.storage.IBaseMonitor;
-import appeng.api.networking.storage.IStorageGrid;
 import appeng.api.storage.ICellHandler;
 import appeng.api.storage.IMEInventory;
 import appeng.api.storage.IMEInventoryHandler;
@@ -526,16 +525,22 @@ public class TileChest extends AENetworkPowerTile implements IMEChest, IFluidHan
 	{
 		if( slot == 1 )
 		{
+			final List<IMEInventoryHandler> removedCells = this.getCachedCells();
+
 			this.itemCell = null;
 			this.fluidCell = null;
 			this.isCached = false; // recalculate the storage cell.
 
 			try
 			{
-				this.getProxy().getGrid().postEvent( new MENetworkCellArrayUpdate() );
-
-				final IStorageGrid gs = this.getProxy().getStorage();
-				Platform.postChanges( gs, removed, added, this.mySrc );
+				if( removedCells == null )
+				{
+					this.getProxy().getGrid().postEvent( new MENetworkCellArrayUpdate() );
+				}
+				else
+				{
+					this.getProxy().getGrid().postEvent( new MENetworkCellArrayUpdate( this, removedCells, this.getCells() ) );
+				}
 			}
 			catch( final GridAccessException ignored )
 			{
@@ -664,13 +669,32 @@ public class TileChest extends AENetworkPowerTile implements IMEChest, IFluidHan
 	{
 		this.priority = newValue;
 
-		this.itemCell = null;
-		this.fluidCell = null;
-		this.isCached = false; // recalculate the storage cell.
+		final List<IMEInventoryHandler> cells = this.getCachedCells();
+
+		if( cells == null )
+		{
+			this.itemCell = null;
+			this.fluidCell = null;
+		}
+		else
+		{
+			// the handlers keep their cell, they only move to another priority
+			for( final IMEInventoryHandler cell : cells )
+			{
+				( (ChestMonitorHandler) cell ).setPriority( newValue );
+			}
+		}
 
 		try
 		{
-			this.getProxy().getGrid().postEvent( new MENetworkCellArrayUpdate() );
+			if( cells == null )
+			{
+				this.getProxy().getGrid().postEvent( new MENetworkCellArrayUpdate() );
+			}
+			else
+			{
+				this.getProxy().getGrid().postEvent( new MENetworkCellArrayUpdate( this, cells, cells ) );
+			}
 		}
 		catch( final GridAccessException e )
 		{
@@ -678,6 +702,46 @@ public class TileChest extends AENetworkPowerTile implements IMEChest, IFluidHan
 		}
 	}
 
+	/**
+	 * @return the handlers currently handed out for the cell, or null if they were never built
+	 */
+	private List<IMEInventoryHandler> getCachedCells()
+	{
+		if( !this.isCached )
+		{
+			return null;
+		}
+
+		final List<IMEInventoryHandler> cells = new ArrayList<IMEInventoryHandler>( 2 );
+		if( this.itemCell != null )
+		{
+			cells.add( this.itemCell );
+		}
+		if( this.fluidCell != null )
+		{
+			cells.add( this.fluidCell );
+		}
+		return cells;
+	}
+
+	private List<IMEInventoryHandler> getCells()
+	{
+		final List<IMEInventoryHandler> cells = new ArrayList<IMEInventoryHandler>( 2 );
+
+		for( final StorageChannel channel : StorageChannel.values() )
+		{
+			try
+			{
+				cells.add( this.getHandler( channel ) );
+			}
+			catch( final ChestNoHandler ignored )
+			{
+			}
+		}
+
+		return cells;
+	}
+
 	@Override
 	public void blinkCell( final int slot )
 	{
@@ -926,6 +990,11 @@ public class TileChest extends AENetworkPowerTile implements IMEChest, IFluidHan
 			super( t );
 		}
 
+		private void setPriority( final int priority )
+		{
+			( (MEInventoryHandler<T>) this.getHandler() ).setPriority( priority );
+		}
+
 		private IMEInventoryHandler<T> getInternalHandler()
 		{
 			final IMEInventoryHandler<T> h = this.getHandler();
@@ -37,9 +37,6 @@ import appeng.api.networking.events.MENetworkCellArrayUpdate;
 import appeng.api.networking.events.MENetworkChannelsChanged;
 import appeng.api.networking.events.MENetworkEventSubscribe;
 import appeng.api.networking.events.MENetworkPowerStatusChange;
-import appeng.api.networking.security.BaseActionSource;
-import appeng.api.networking.security.MachineSource;
-import appeng.api.networking.storage.IStorageGrid;
 import appeng.api.storage.ICellHandler;
 import appeng.api.storage.IMEInventory;
 import appeng.api.storage.IMEInventoryHandler;
@@ -67,7 +64,8 @@ public class TileDrive extends AENetworkInvTile implements IChestOrDrive, IPrior
 	private final AppEngInternalInventory inv = new AppEngInternalInventory( this, 10 );
 	private final ICellHandler[] handlersBySlot = new ICellHandler[10];
 	private final DriveWatcher<IAEItemStack>[] invBySlot = new DriveWatcher[10];
-	private final BaseActionSource mySrc;
+	private final ItemStack[] cellBySlot = new ItemStack[10];
+	private final double[] drainBySlot = new double[10];
 	private boolean isCached = false;
 	private List<MEInventoryHandler> items = new LinkedList<MEInventoryHandler>();
 	private List<MEInventoryHandler> fluids = new LinkedList<MEInventoryHandler>();
@@ -78,7 +76,6 @@ public class TileDrive extends AENetworkInvTile implements IChestOrDrive, IPrior
 
 	public TileDrive()
 	{
-		this.mySrc = new MachineSource( this );
 		this.getProxy().setFlags( GridFlags.REQUIRE_CHANNEL );
 	}
 
@@ -277,19 +274,39 @@ public class TileDrive extends AENetworkInvTile implements IChestOrDrive, IPrior
 	{
 		if( this.isCached )
 		{
-			this.isCached = false; // recalculate the storage cell.
-			this.updateState();
-		}
+			final List<IMEInventoryHandler> removedCells = new ArrayList<IMEInventoryHandler>( 1 );
+			final List<IMEInventoryHandler> addedCells = new ArrayList<IMEInventoryHandler>( 1 );
 
-		try
-		{
-			this.getProxy().getGrid().postEvent( new MENetworkCellArrayUpdate() );
+			// only the bays holding a different stack, or one changed in place, get a new handler
+			for( int x = 0; x < this.inv.getSizeInventory(); x++ )
+			{
+				if( this.inv.getStackInSlot( x ) != this.cellBySlot[x] || ( x == slot && mc == InvOperation.markDirty ) )
+				{
+					if( this.invBySlot[x] != null )
+					{
+						removedCells.add( this.invBySlot[x] );
+					}
 
-			final IStorageGrid gs = this.getProxy().getStorage();
-			Platform.postChanges( gs, removed, added, this.mySrc );
+					this.updateSlot( x );
+
+					if( this.invBySlot[x] != null )
+					{
+						addedCells.add( this.invBySlot[x] );
+					}
+				}
+			}
+
+			if( removedCells.isEmpty() && addedCells.isEmpty() )
+			{
+				return;
+			}
+
+			this.updateCellLists();
+			this.postCellUpdate( removedCells, addedCells );
 		}
-		catch( final GridAccessException ignored )
+		else
 		{
+			this.postCellUpdate( null, null );
 		}
 
 		this.markForUpdate();
@@ -305,55 +322,98 @@ public class TileDrive extends AENetworkInvTile implements IChestOrDrive, IPrior
 	{
 		if( !this.isCached )
 		{
-			this.items = new LinkedList();
-			this.fluids = new LinkedList();
+			for( int x = 0; x < this.inv.getSizeInventory(); x++ )
+			{
+				this.updateSlot( x );
+			}
 
-			double power = 2.0;
+			this.updateCellLists();
 
-			for( int x = 0; x < this.inv.getSizeInventory(); x++ )
+			this.isCached = true;
+		}
+	}
+
+	private void updateSlot( final int x )
+	{
+		final ItemStack is = this.inv.getStackInSlot( x );
+		this.cellBySlot[x] = is;
+		this.invBySlot[x] = null;
+		this.handlersBySlot[x] = null;
+		this.drainBySlot[x] = 0;
+
+		if( is != null )
+		{
+			this.handlersBySlot[x] = AEApi.instance().registries().cell().getHandler( is );
+
+			if( this.handlersBySlot[x] != null )
 			{
-				final ItemStack is = this.inv.getStackInSlot( x );
-				this.invBySlot[x] = null;
-				this.handlersBySlot[x] = null;
+				IMEInventoryHandler cell = this.handlersBySlot[x].getCellInventory( is, this, StorageChannel.ITEMS );
 
-				if( is != null )
+				if( cell == null )
 				{
-					this.handlersBySlot[x] = AEApi.instance().registries().cell().getHandler( is );
+					cell = this.handlersBySlot[x].getCellInventory( is, this, StorageChannel.FLUIDS );
+				}
 
-					if( this.handlersBySlot[x] != null )
-					{
-						IMEInventoryHandler cell = this.handlersBySlot[x].getCellInventory( is, this, StorageChannel.ITEMS );
-
-						if( cell != null )
-						{
-							power += this.handlersBySlot[x].cellIdleDrain( is, cell );
-
-							final DriveWatcher<IAEItemStack> ih = new DriveWatcher( cell, is, this.handlersBySlot[x], this );
-							ih.setPriority( this.priority );
-							this.invBySlot[x] = ih;
-							this.items.add( ih );
-						}
-						else
-						{
-							cell = this.handlersBySlot[x].getCellInventory( is, this, StorageChannel.FLUIDS );
-
-							if( cell != null )
-							{
-								power += this.handlersBySlot[x].cellIdleDrain( is, cell );
-
-								final DriveWatcher<IAEItemStack> ih = new DriveWatcher( cell, is, this.handlersBySlot[x], this );
-								ih.setPriority( this.priority );
-								this.invBySlot[x] = ih;
-								this.fluids.add( ih );
-							}
-						}
-					}
+				if( cell != null )
+				{
+					this.drainBySlot[x] = this.handlersBySlot[x].cellIdleDrain( is, cell );
+
+					final DriveWatcher<IAEItemStack> ih = new DriveWatcher( cell, is, this.handlersBySlot[x], this );
+					ih.setPriority( this.priority );
+					this.invBySlot[x] = ih;
 				}
 			}
+		}
+	}
 
-			this.getProxy().setIdlePowerUsage( power );
+	private void updateCellLists()
+	{
+		this.items = new LinkedList();
+		this.fluids = new LinkedList();
 
-			this.isCached = true;
+		double power = 2.0;
+
+		for( int x = 0; x < this.inv.getSizeInventory(); x++ )
+		{
+			final DriveWatcher<IAEItemStack> ih = this.invBySlot[x];
+
+			if( ih != null )
+			{
+				power += this.drainBySlot[x];
+
+				if( ih.getChannel() == StorageChannel.ITEMS )
+				{
+					this.items.add( ih );
+				}
+				else
+				{
+					this.fluids.add( ih );
+				}
+			}
+		}
+
+		this.getProxy().setIdlePowerUsage( power );
+	}
+
+	/**
+	 * Lets the network patch in just the changed cells, or refresh everything if the handlers were never built.
+	 */
+	private void postCellUpdate( final List<IMEInventoryHandler> removedCells, final List<IMEInventoryHandler> addedCells )
+	{
+		try
+		{
+			if( removedCells == null )
+			{
+				this.getProxy().getGrid().postEvent( new MENetworkCellArrayUpdate() );
+			}
+			else
+			{
+				this.getProxy().getGrid().postEvent( new MENetworkCellArrayUpdate( this, removedCells, addedCells ) );
+			}
+		}
+		catch( final GridAccessException e )
+		{
+			// :P
 		}
 	}
 
@@ -387,16 +447,29 @@ public class TileDrive extends AENetworkInvTile implements IChestOrDrive, IPrior
 		this.priority = newValue;
 		this.markDirty();
 
-		this.isCached = false; // recalculate the storage cell.
-		this.updateState();
-
-		try
+		if( this.isCached )
 		{
-			this.getProxy().getGrid().postEvent( new MENetworkCellArrayUpdate() );
+			// the handlers keep their cells, they only move to another priority
+			final List<IMEInventoryHandler> cells = new ArrayList<IMEInventoryHandler>( this.items.size() + this.fluids.size() );
+
+			for( final MEInventoryHandler cell : this.items )
+			{
+				cell.setPriority( newValue );
+				cells.add( cell );
+			}
+
+			for( final MEInventoryHandler cell : this.fluids )
+			{
+				cell.setPriority( newValue );
+				cells.add( cell );
+			}
+
+			this.postCellUpdate( cells, cells );
 		}
-		catch( final GridAccessException e )
+		else
 		{
-			// :P
+			this.updateState();
+			this.postCellUpdate( null, null );
 		}
 	}
 
@@ -57,6 +57,7 @@ import appeng.api.util.AECableType;
 import appeng.api.util.AEPartLocation;
 import appeng.api.util.DimensionalCoord;
 import appeng.api.util.IConfigManager;
+import appeng.core.AELog;
 import appeng.core.settings.TickRates;
 import appeng.helpers.Reflected;
 import appeng.me.GridAccessException;
@@ -104,6 +105,8 @@ public class TileIOPort extends AENetworkInvTile implements IUpgradeableHost, IC
 	private ItemStack currentCell;
 	private IMEInventory<IAEFluidStack> cachedFluid;
 	private IMEInventory<IAEItemStack> cachedItem;
+	private long cellMoved;
+	private long cellTicks;
 
 	@Reflected
 	public TileIOPort()
@@ -335,6 +338,9 @@ public class TileIOPort extends AENetworkInvTile implements IUpgradeableHost, IC
 				break;
 		}
 
+		// the budget is per operation as before, elapsed ticks only feed the items per tick statistic
+		final int ticks = Math.max( 1, ticksSinceLastCall );
+
 		try
 		{
 			final IMEInventory<IAEItemStack> itemNet = this.getProxy().getStorage().getItemInventory();
@@ -373,9 +379,16 @@ public class TileIOPort extends AENetworkInvTile implements IUpgradeableHost, IC
 							}
 						}
 
-						if( ItemsToMove > 0 && this.shouldMove( itemInv, fluidInv ) && !this.moveSlot( x ) )
+						this.cellTicks += ticks;
+
+						if( ItemsToMove > 0 && this.shouldMove( itemInv, fluidInv ) )
 						{
-							return TickRateModulation.IDLE;
+							AELog.debug( "IO Port at %s moved %d items in %d ticks, %.1f items per tick", this.getPos(), this.cellMoved, this.cellTicks, this.getItemsPerTick() );
+
+							if( !this.moveSlot( x ) )
+							{
+								return TickRateModulation.IDLE;
+							}
 						}
 
 						return TickRateModulation.URGENT;
@@ -407,6 +420,8 @@ public class TileIOPort extends AENetworkInvTile implements IUpgradeableHost, IC
 		if( this.currentCell != is )
 		{
 			this.currentCell = is;
+			this.cellMoved = 0;
+			this.cellTicks = 0;
 			this.cachedFluid = AEApi.instance().registries().cell().getCellInventory( is, null, StorageChannel.FLUIDS );
 			this.cachedItem = AEApi.instance().registries().cell().getCellInventory( is, null, StorageChannel.ITEMS );
 		}
@@ -419,7 +434,7 @@ public class TileIOPort extends AENetworkInvTile implements IUpgradeableHost, IC
 		return this.cachedFluid;
 	}
 
-	private long transferContents( final IEnergySource energy, final IMEInventory src, final IMEInventory destination, long itemsToMove, final StorageChannel chan )
+	private long transferContents( final IEnergySource energy, final IMEInventory src, final IMEInventory destination, final long itemsToMove, final StorageChannel chan )
 	{
 		final IItemList<? extends IAEStack> myList;
 		if( src instanceof IMEMonitor )
@@ -431,61 +446,23 @@ public class TileIOPort extends AENetworkInvTile implements IUpgradeableHost, IC
 			myList = src.getAvailableItems( src.getChannel().createList() );
 		}
 
-		boolean didStuff;
-
-		do
-		{
-			didStuff = false;
-
-			for( final IAEStack s : myList )
-			{
-				final long totalStackSize = s.getStackSize();
-				if( totalStackSize > 0 )
-				{
-					final IAEStack stack = destination.injectItems( s, Actionable.SIMULATE, this.mySrc );
-
-					long possible = 0;
-					if( stack == null )
-					{
-						possible = totalStackSize;
-					}
-					else
-					{
-						possible = totalStackSize - stack.getStackSize();
-					}
-
-					if( possible > 0 )
-					{
-						possible = Math.min( possible, itemsToMove );
-						s.setStackSize( possible );
-
-						final IAEStack extracted = src.extractItems( s, Actionable.MODULATE, this.mySrc );
-						if( extracted != null )
-						{
-							possible = extracted.getStackSize();
-							final IAEStack failed = Platform.poweredInsert( energy, destination, extracted, this.mySrc );
+		final long moved = Platform.poweredTransfer( energy, src, destination, myList, itemsToMove, this.mySrc );
+		this.cellMoved += moved;
 
-							if( failed != null )
-							{
-								possible -= failed.getStackSize();
-								src.injectItems( failed, Actionable.MODULATE, this.mySrc );
-							}
-
-							if( possible > 0 )
-							{
-								itemsToMove -= possible;
-								didStuff = true;
-							}
+		return itemsToMove - moved;
+	}
 
-							break;
-						}
-					}
-				}
-			}
+	/**
+	 * @return the average amount of items moved per tick for the cell currently being worked on.
+	 */
+	public double getItemsPerTick()
+	{
+		if( this.cellTicks == 0 )
+		{
+			return 0;
 		}
-		while( itemsToMove > 0 && didStuff );
 
-		return itemsToMove;
+		return (double) this.cellMoved / this.cellTicks;
 	}
 
 	private boolean shouldMove( final IMEInventory<IAEItemStack> itemInv, final IMEInventory<IAEFluidStack> fluidInv )
@@ -0,0 +1,112 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util;
+
+
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.tileentity.TileEntityChest;
+import net.minecraft.util.EnumFacing;
+
+import appeng.api.implementations.tiles.ITileStorageMonitorable;
+import appeng.core.AELog;
+
+
+/**
+ * Keeps the {@link InventoryAdaptor} for one neighbouring tile.
+ *
+ * The adaptor is rebuilt when a different tile shows up, which covers placement, removal and chunk loading, when the
+ * tile was invalidated, when a chest gains or loses its partner, or after {@link #invalidate()} was called for a
+ * neighbour update. Storage monitorable tiles are resolved on every call.
+ */
+public final class InventoryAdaptorCache
+{
+
+	private TileEntity target;
+	private TileEntity partner;
+	private InventoryAdaptor adaptor;
+	private boolean stale = true;
+	private int rebuilds = 0;
+
+	public void invalidate()
+	{
+		this.stale = true;
+	}
+
+	public InventoryAdaptor getAdaptor( final TileEntity te, final EnumFacing side )
+	{
+		if( te instanceof ITileStorageMonitorable )
+		{
+			// what these expose depends on their own state, they are never cached
+			this.stale = true;
+			return InventoryAdaptor.getAdaptor( te, side );
+		}
+
+		final TileEntity currentPartner = getPartner( te );
+
+		if( this.stale || te != this.target || currentPartner != this.partner || ( te != null && te.isInvalid() ) )
+		{
+			this.stale = false;
+			this.target = te;
+			this.partner = currentPartner;
+			this.adaptor = InventoryAdaptor.getAdaptor( te, side );
+
+			if( te != null )
+			{
+				this.rebuilds++;
+				AELog.debug( "Rebuilt inventory adaptor for %s, %d rebuilds", te, this.rebuilds );
+			}
+		}
+
+		return this.adaptor;
+	}
+
+	/**
+	 * @return how often an adaptor was created for a tile
+	 */
+	public int getRebuilds()
+	{
+		return this.rebuilds;
+	}
+
+	private static TileEntity getPartner( final TileEntity te )
+	{
+		if( te instanceof TileEntityChest )
+		{
+			final TileEntityChest chest = (TileEntityChest) te;
+			chest.checkForAdjacentChests();
+
+			if( chest.adjacentChestZNeg != null )
+			{
+				return chest.adjacentChestZNeg;
+			}
+			else if( chest.adjacentChestZPos != null )
+			{
+				return chest.adjacentChestZPos;
+			}
+			else if( chest.adjacentChestXPos != null )
+			{
+				return chest.adjacentChestXPos;
+			}
+
+			return chest.adjacentChestXNeg;
+		}
+
+		return null;
+	}
+}
@@ -111,12 +111,9 @@ import appeng.api.networking.security.IActionHost;
 import appeng.api.networking.security.ISecurityGrid;
 import appeng.api.networking.security.MachineSource;
 import appeng.api.networking.security.PlayerSource;
-import appeng.api.networking.storage.IStorageGrid;
 import appeng.api.storage.IMEInventory;
 import appeng.api.storage.IMEMonitor;
 import appeng.api.storage.IMEMonitorHandlerReceiver;
-import appeng.api.storage.StorageChannel;
-import appeng.api.storage.data.IAEFluidStack;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IAETagCompound;
@@ -136,6 +133,7 @@ import appeng.integration.IntegrationRegistry;
 import appeng.integration.IntegrationType;
 import appeng.me.GridAccessException;
 import appeng.me.GridNode;
+import appeng.me.cache.NetworkMonitor;
 import appeng.me.helpers.AENetworkProxy;
 import appeng.util.item.AEItemStack;
 import appeng.util.item.AESharedNBT;
@@ -1668,52 +1666,245 @@ public class Platform
 		return input;
 	}
 
-	public static void postChanges( final IStorageGrid gs, final ItemStack removed, final ItemStack added, final BaseActionSource src )
+	/**
+	 * Moves up to limit items of the given stacks from src to destination as one operation. The amount that fits is
+	 * planned with one simulated {@link IMEInventory#injectAll} and {@link IMEInventory#extractAll}, then paid for with
+	 * a single energy debit and moved with one modulating call on each side. Networks on either side post all of their
+	 * changes at once.
+	 *
+	 * @param stacks the stacks to move, usually the contents of src
+	 *
+	 * @return the amount of items moved
+	 */
+	@SuppressWarnings( "unchecked" )
+	public static <StackType extends IAEStack<StackType>> long poweredTransfer( final IEnergySource energy, final IMEInventory<StackType> src, final IMEInventory<StackType> destination, final Iterable<StackType> stacks, final long limit, final BaseActionSource actionSource )
 	{
-		final IItemList<IAEItemStack> itemChanges = AEApi.instance().storage().createItemList();
-		final IItemList<IAEFluidStack> fluidChanges = AEApi.instance().storage().createFluidList();
+		final IItemList<StackType> request = destination.getChannel().createList();
+		long requested = 0;
 
-		if( removed != null )
+		for( final StackType s : stacks )
 		{
-			final IMEInventory<IAEItemStack> myItems = AEApi.instance().registries().cell().getCellInventory( removed, null, StorageChannel.ITEMS );
+			if( requested >= limit )
+			{
+				break;
+			}
 
-			if( myItems != null )
+			if( s.getStackSize() <= 0 )
 			{
-				for( final IAEItemStack is : myItems.getAvailableItems( itemChanges ) )
-				{
-					is.setStackSize( -is.getStackSize() );
-				}
+				continue;
 			}
 
-			final IMEInventory<IAEFluidStack> myFluids = AEApi.instance().registries().cell().getCellInventory( removed, null, StorageChannel.FLUIDS );
+			final StackType r = s.copy();
+			r.setStackSize( Math.min( s.getStackSize(), limit - requested ) );
+			request.add( r );
+			requested += r.getStackSize();
+		}
 
-			if( myFluids != null )
+		if( requested == 0 )
+		{
+			return 0;
+		}
+
+		// what fits into the destination...
+		for( final StackType leftover : destination.injectAll( request, Actionable.SIMULATE, actionSource ) )
+		{
+			final StackType r = request.findPrecise( leftover );
+			if( r != null )
 			{
-				for( final IAEFluidStack is : myFluids.getAvailableItems( fluidChanges ) )
-				{
-					is.setStackSize( -is.getStackSize() );
-				}
+				r.decStackSize( leftover.getStackSize() );
 			}
 		}
 
-		if( added != null )
+		// ... and is available in the source
+		final IItemList<StackType> plan = src.extractAll( request, Actionable.SIMULATE, actionSource );
+		final long planned = getTotalSize( plan );
+
+		if( planned == 0 )
+		{
+			return 0;
+		}
+
+		final double availablePower = energy.extractAEPower( planned, Actionable.SIMULATE, PowerMultiplier.CONFIG );
+		limitTotalSize( plan, Math.min( (long) ( availablePower + 0.9 ), planned ) );
+
+		final long moved;
+
+		beginBatch( src );
+		beginBatch( destination );
+
+		try
 		{
-			final IMEInventory<IAEItemStack> myItems = AEApi.instance().registries().cell().getCellInventory( added, null, StorageChannel.ITEMS );
+			final IItemList<StackType> extracted = src.extractAll( plan, Actionable.MODULATE, actionSource );
+			final IItemList<StackType> failed = destination.injectAll( extracted, Actionable.MODULATE, actionSource );
 
-			if( myItems != null )
+			if( !failed.isEmpty() )
 			{
-				myItems.getAvailableItems( itemChanges );
+				src.injectAll( failed, Actionable.MODULATE, actionSource );
 			}
 
-			final IMEInventory<IAEFluidStack> myFluids = AEApi.instance().registries().cell().getCellInventory( added, null, StorageChannel.FLUIDS );
+			moved = getTotalSize( extracted ) - getTotalSize( failed );
+		}
+		finally
+		{
+			endBatch( destination, actionSource );
+			endBatch( src, actionSource );
+		}
 
-			if( myFluids != null )
+		if( moved > 0 )
+		{
+			energy.extractAEPower( moved, Actionable.MODULATE, PowerMultiplier.CONFIG );
+		}
+
+		return moved;
+	}
+
+	/**
+	 * Extracts the requested stacks as far as the energy allows, like {@link #poweredExtraction} for every stack, but
+	 * with one simulated and one modulating {@link IMEInventory#extractAll}.
+	 *
+	 * @param request items to request, left unchanged.
+	 *
+	 * @return a new list with the items extracted
+	 */
+	public static <StackType extends IAEStack<StackType>> IItemList<StackType> poweredExtractAll( final IEnergySource energy, final IMEInventory<StackType> cell, final IItemList<StackType> request, final BaseActionSource src )
+	{
+		final IItemList<StackType> possible = cell.extractAll( request, Actionable.SIMULATE, src );
+		final long retrieved = getTotalSize( possible );
+
+		if( retrieved == 0 )
+		{
+			return possible;
+		}
+
+		final double availablePower = energy.extractAEPower( retrieved, Actionable.SIMULATE, PowerMultiplier.CONFIG );
+		final long itemToExtract = Math.min( (long) ( availablePower + 0.9 ), retrieved );
+
+		if( itemToExtract <= 0 )
+		{
+			return cell.getChannel().createList();
+		}
+
+		limitTotalSize( possible, itemToExtract );
+
+		final IItemList<StackType> ret = cell.extractAll( possible, Actionable.MODULATE, src );
+		final long extracted = getTotalSize( ret );
+
+		if( extracted > 0 )
+		{
+			energy.extractAEPower( extracted, Actionable.MODULATE, PowerMultiplier.CONFIG );
+
+			if( src.isPlayer() )
 			{
-				myFluids.getAvailableItems( fluidChanges );
+				Stats.ItemsExtracted.addToPlayer( ( (PlayerSource) src ).player, (int) extracted );
 			}
 		}
 
-		gs.postAlterationOfStoredItems( StorageChannel.ITEMS, itemChanges, src );
+		return ret;
+	}
+
+	/**
+	 * Stores the given stacks as far as the energy allows, like {@link #poweredInsert} for every stack, but with one
+	 * simulated and one modulating {@link IMEInventory#injectAll}.
+	 *
+	 * @param input items to store, left unchanged.
+	 *
+	 * @return a new list with the items not stored
+	 */
+	public static <StackType extends IAEStack<StackType>> IItemList<StackType> poweredInsertAll( final IEnergySource energy, final IMEInventory<StackType> cell, final IItemList<StackType> input, final BaseActionSource src )
+	{
+		final IItemList<StackType> toStore = cell.getChannel().createList();
+		final IItemList<StackType> notStored = cell.getChannel().createList();
+
+		for( final StackType s : input )
+		{
+			toStore.add( s.copy() );
+			notStored.add( s.copy() );
+		}
+
+		for( final StackType leftover : cell.injectAll( input, Actionable.SIMULATE, src ) )
+		{
+			final StackType s = toStore.findPrecise( leftover );
+			if( s != null )
+			{
+				s.decStackSize( leftover.getStackSize() );
+			}
+		}
+
+		final long stored = getTotalSize( toStore );
+
+		if( stored == 0 )
+		{
+			return notStored;
+		}
+
+		final double availablePower = energy.extractAEPower( stored, Actionable.SIMULATE, PowerMultiplier.CONFIG );
+		limitTotalSize( toStore, Math.min( (long) ( availablePower + 0.9 ), stored ) );
+
+		final IItemList<StackType> failed = cell.injectAll( toStore, Actionable.MODULATE, src );
+		long inserted = 0;
+
+		for( final StackType s : toStore )
+		{
+			final StackType f = failed.findPrecise( s );
+			final long done = f == null ? s.getStackSize() : s.getStackSize() - f.getStackSize();
+
+			notStored.findPrecise( s ).decStackSize( done );
+			inserted += done;
+		}
+
+		if( inserted > 0 )
+		{
+			energy.extractAEPower( inserted, Actionable.MODULATE, PowerMultiplier.CONFIG );
+
+			if( src.isPlayer() )
+			{
+				Stats.ItemsInserted.addToPlayer( ( (PlayerSource) src ).player, (int) inserted );
+			}
+		}
+
+		return notStored;
+	}
+
+	/**
+	 * Reduces the stacks of the list in iteration order, until they add up to at most limit.
+	 */
+	private static void limitTotalSize( final IItemList<?> list, final long limit )
+	{
+		long remaining = limit;
+
+		for( final IAEStack<?> s : list )
+		{
+			s.setStackSize( Math.min( s.getStackSize(), remaining ) );
+			remaining -= s.getStackSize();
+		}
+	}
+
+	private static long getTotalSize( final IItemList<?> list )
+	{
+		long total = 0;
+
+		for( final IAEStack<?> s : list )
+		{
+			total += s.getStackSize();
+		}
+
+		return total;
+	}
+
+	private static void beginBatch( final IMEInventory<?> inv )
+	{
+		if( inv instanceof NetworkMonitor )
+		{
+			( (NetworkMonitor<?>) inv ).beginBatch();
+		}
+	}
+
+	private static void endBatch( final IMEInventory<?> inv, final BaseActionSource src )
+	{
+		if( inv instanceof NetworkMonitor )
+		{
+			( (NetworkMonitor<?>) inv ).endBatch( src );
+		}
 	}
 
 	public static <T extends IAEStack<T>> void postListChanges( final IItemList<T> before, final IItemList<T> after, final IMEMonitorHandlerReceiver<T> meMonitorPassthrough, final BaseActionSource source )
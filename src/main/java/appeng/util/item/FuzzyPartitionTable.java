@@ -0,0 +1,234 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package appeng.util.item;
+
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
+
+import net.minecraft.item.Item;
+import net.minecraftforge.oredict.OreDictionary;
+
+import appeng.api.config.FuzzyMode;
+import appeng.api.storage.data.IAEItemStack;
+
+
+/**
+ * Flattened form of a fuzzy partition list. For every configured {@link Item} it keeps the sorted (damage, display
+ * damage) pairs of its entries, so testing a stack is a binary search over the same range {@link ItemList#findFuzzy}
+ * would query, without building range bounds or map views.
+ *
+ * Tables are immutable and shared between all partition lists using the same entries and mode.
+ */
+public final class FuzzyPartitionTable
+{
+
+	private static final LoadingCache<Key, FuzzyPartitionTable> TABLES = CacheBuilder.newBuilder().weakValues().build( new CacheLoader<Key, FuzzyPartitionTable>(){
+		@Override
+		public FuzzyPartitionTable load( final Key key )
+		{
+			return new FuzzyPartitionTable( key );
+		}
+	} );
+
+	private final FuzzyMode mode;
+	private final Map<Item, long[]> ranges = new HashMap<Item, long[]>();
+
+	private FuzzyPartitionTable( final Key key )
+	{
+		this.mode = key.mode;
+
+		final Map<Item, long[]> keys = new HashMap<Item, long[]>();
+		final Map<Item, Integer> sizes = new HashMap<Item, Integer>();
+
+		for( final AEItemStack entry : key.entries )
+		{
+			final Item item = entry.getDefinition().getItem();
+			final Integer size = sizes.get( item );
+			final int index = size == null ? 0 : size;
+
+			long[] itemKeys = keys.get( item );
+			if( itemKeys == null )
+			{
+				itemKeys = new long[4];
+			}
+			else if( itemKeys.length == index )
+			{
+				itemKeys = Arrays.copyOf( itemKeys, index * 2 );
+			}
+
+			itemKeys[index] = toKey( entry.getDefinition().getDamageValue(), entry.getDefinition().getDisplayDamage() );
+			keys.put( item, itemKeys );
+			sizes.put( item, index + 1 );
+		}
+
+		for( final Map.Entry<Item, long[]> entry : keys.entrySet() )
+		{
+			final long[] itemKeys = Arrays.copyOf( entry.getValue(), sizes.get( entry.getKey() ) );
+			Arrays.sort( itemKeys );
+			this.ranges.put( entry.getKey(), itemKeys );
+		}
+	}
+
+	/**
+	 * @return the shared table for the given entries, or null if any entry is not an {@link AEItemStack}
+	 */
+	public static FuzzyPartitionTable compile( final Iterable<IAEItemStack> entries, final FuzzyMode mode )
+	{
+		final ImmutableSet.Builder<AEItemStack> builder = ImmutableSet.builder();
+		for( final IAEItemStack entry : entries )
+		{
+			if( !( entry instanceof AEItemStack ) )
+			{
+				return null;
+			}
+
+			builder.add( (AEItemStack) entry );
+		}
+
+		return TABLES.getUnchecked( new Key( builder.build(), mode ) );
+	}
+
+	/**
+	 * Equivalent to a non-empty {@link ItemList#findFuzzy} result on a list holding the entries of this table.
+	 */
+	public boolean isListed( final IAEItemStack input )
+	{
+		final AEItemStack ais = (AEItemStack) input;
+
+		if( ais.isOre() )
+		{
+			for( final IAEItemStack is : ais.getDefinition().getIsOre().getAEEquivalents() )
+			{
+				if( this.isInRange( (AEItemStack) is, is.getItemDamage() == OreDictionary.WILDCARD_VALUE ) )
+				{
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		return this.isInRange( ais, false );
+	}
+
+	/**
+	 * Mirrors the bounds of {@link AEItemStack#getLow} and {@link AEItemStack#getHigh}.
+	 */
+	private boolean isInRange( final AEItemStack filter, final boolean ignoreMeta )
+	{
+		final AEItemDef def = filter.getDefinition();
+		final long[] itemKeys = this.ranges.get( def.getItem() );
+		if( itemKeys == null )
+		{
+			return false;
+		}
+
+		if( ignoreMeta )
+		{
+			return true;
+		}
+
+		final long low;
+		final long high;
+
+		if( def.getItem().isDamageable() )
+		{
+			final int lowDamage;
+			final int highDamage;
+
+			if( this.mode == FuzzyMode.IGNORE_ALL )
+			{
+				lowDamage = 0;
+				highDamage = def.getMaxDamage() + 1;
+			}
+			else if( this.mode == FuzzyMode.PERCENT_99 )
+			{
+				lowDamage = def.getDamageValue() == 0 ? 0 : 1;
+				highDamage = def.getDamageValue() == 0 ? 0 : def.getMaxDamage() + 1;
+			}
+			else
+			{
+				final int breakpoint = this.mode.calculateBreakPoint( def.getMaxDamage() );
+				lowDamage = breakpoint <= def.getDisplayDamage() ? breakpoint : 0;
+				highDamage = def.getDisplayDamage() < breakpoint ? breakpoint - 1 : def.getMaxDamage() + 1;
+			}
+
+			low = toKey( lowDamage, lowDamage );
+			high = toKey( highDamage, highDamage );
+		}
+		else
+		{
+			low = high = toKey( def.getDamageValue(), def.getDisplayDamage() );
+		}
+
+		int index = Arrays.binarySearch( itemKeys, low );
+		if( index >= 0 )
+		{
+			return true;
+		}
+
+		index = -index - 1;
+		return index < itemKeys.length && itemKeys[index] <= high;
+	}
+
+	/**
+	 * Orders (damage, display damage) pairs the same way {@link AEItemStack#compareTo} does.
+	 */
+	private static long toKey( final int damage, final int displayDamage )
+	{
+		return ( (long) damage << 32 ) + ( (long) displayDamage - Integer.MIN_VALUE );
+	}
+
+	private static final class Key
+	{
+
+		private final ImmutableSet<AEItemStack> entries;
+		private final FuzzyMode mode;
+
+		private Key( final ImmutableSet<AEItemStack> entries, final FuzzyMode mode )
+		{
+			this.entries = entries;
+			this.mode = mode;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return this.entries.hashCode() * 31 + this.mode.hashCode();
+		}
+
+		@Override
+		public boolean equals( final Object obj )
+		{
+			if( obj == null || this.getClass() != obj.getClass() )
+			{
+				return false;
+			}
+
+			final Key other = (Key) obj;
+			return this.mode == other.mode && this.entries.equals( other.entries );
+		}
+	}
+}
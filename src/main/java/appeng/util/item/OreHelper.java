@@ -20,11 +20,13 @@ package appeng.util.item;
 
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
@@ -35,9 +37,10 @@ import net.minecraft.item.ItemStack;
 import net.minecraftforge.oredict.OreDictionary;
 
 import appeng.api.storage.data.IAEItemStack;
+import appeng.recipes.ores.IOreListener;
 
 
-public class OreHelper
+public class OreHelper implements IOreListener
 {
 
 	public static final OreHelper INSTANCE = new OreHelper();
@@ -53,7 +56,18 @@ public class OreHelper
 		}
 	} );
 
-	private final Map<ItemRef, OreReference> references = new HashMap<ItemRef, OreReference>();
+	/**
+	 * Marks items which are known to have no ore dictionary entry, as the concurrent map cannot hold null.
+	 */
+	private static final OreReference NO_ORE = new OreReference();
+
+	/**
+	 * Inverted ore dictionary, maps each item to the ore ids it is registered under. Entries are immutable and replaced
+	 * as a whole, so lookups from the crafting calculators never see a partial update.
+	 */
+	private final Map<Item, OreIndexEntry> oreIndex = new ConcurrentHashMap<Item, OreIndexEntry>();
+
+	private final Map<ItemRef, OreReference> references = new ConcurrentHashMap<ItemRef, OreReference>();
 
 	/**
 	 * Test if the passed {@link ItemStack} is an ore.
@@ -64,51 +78,66 @@ public class OreHelper
 	 */
 	public OreReference isOre( final ItemStack itemStack )
 	{
-		final ItemRef ir = new ItemRef( itemStack );
+		final OreReference ref = this.references.computeIfAbsent( new ItemRef( itemStack ), this::createReference );
+
+		return ref == NO_ORE ? null : ref;
+	}
 
-		if( !this.references.containsKey( ir ) )
+	/**
+	 * Adds a single ore dictionary registration to the index, called for every existing entry once this helper is
+	 * observed and for every entry registered later on.
+	 */
+	@Override
+	public void oreRegistered( final String name, final ItemStack item )
+	{
+		if( item.getItem() == null )
 		{
-			final OreReference ref = new OreReference();
-			final Collection<Integer> ores = ref.getOres();
-			final Collection<String> set = ref.getEquivalents();
+			return;
+		}
 
-			final Set<String> toAdd = new HashSet<String>();
+		final int oreId = OreDictionary.getOreID( name );
 
-			for( final String ore : OreDictionary.getOreNames() )
-			{
-				// skip ore if it is a match already or null.
-				if( ore == null || toAdd.contains( ore ) )
-				{
-					continue;
-				}
-
-				for( final ItemStack oreItem : this.oreDictCache.getUnchecked( ore ) )
-				{
-					if( OreDictionary.itemMatches( oreItem, itemStack, false ) )
-					{
-						toAdd.add( ore );
-						break;
-					}
-				}
-			}
+		synchronized( this.oreIndex )
+		{
+			final OreIndexEntry entry = this.oreIndex.get( item.getItem() );
+			this.oreIndex.put( item.getItem(), entry == null ? new OreIndexEntry( oreId, item.getItemDamage() ) : entry.with( oreId, item.getItemDamage() ) );
+		}
 
-			for( final String ore : toAdd )
-			{
-				set.add( ore );
-				ores.add( OreDictionary.getOreID( ore ) );
-			}
+		// only references of this item can be missing the new entry, the index is updated first so a reference
+		// resolved meanwhile is either current or removed here
+		if( item.getItemDamage() == OreDictionary.WILDCARD_VALUE )
+		{
+			final Item registered = item.getItem();
+			this.references.keySet().removeIf( ir -> ir.ref == registered );
+		}
+		else
+		{
+			this.references.remove( new ItemRef( item ) );
+		}
+	}
 
-			if( !set.isEmpty() )
-			{
-				this.references.put( ir, ref );
-			}
-			else
-			{
-				this.references.put( ir, null );
-			}
+	private OreReference createReference( final ItemRef ir )
+	{
+		final OreIndexEntry entry = this.oreIndex.get( ir.ref );
+		if( entry == null )
+		{
+			return NO_ORE;
+		}
+
+		final Set<Integer> oreIds = entry.getOreIds( ir.damage );
+		if( oreIds.isEmpty() )
+		{
+			return NO_ORE;
+		}
+
+		final OreReference ref = new OreReference();
+		for( final Integer oreId : oreIds )
+		{
+			ref.getOres().add( oreId );
+			ref.getEquivalents().add( OreDictionary.getOreName( oreId ) );
 		}
 
-		return this.references.get( ir );
+		return ref;
 	}
 
 	boolean sameOre( final AEItemStack aeItemStack, final IAEItemStack is )
@@ -151,23 +180,75 @@ public class OreHelper
 			return false;
 		}
 
-		for( final String oreName : a.getEquivalents() )
+		return this.sameOre( a, this.isOre( o ) );
+	}
+
+	List<ItemStack> getCachedOres( final String oreName )
+	{
+		return this.oreDictCache.getUnchecked( oreName );
+	}
+
+	/**
+	 * The ore ids of a single item, split into those registered for any damage value and those for a specific one.
+	 */
+	private static class OreIndexEntry
+	{
+
+		private final Set<Integer> wildcard;
+		private final Map<Integer, Set<Integer>> byDamage;
+
+		OreIndexEntry( final int oreId, final int damage )
 		{
-			for( final ItemStack oreItem : this.oreDictCache.getUnchecked( oreName ) )
+			this( Collections.<Integer>emptySet(), Collections.<Integer, Set<Integer>>emptyMap(), oreId, damage );
+		}
+
+		private OreIndexEntry( final Set<Integer> wildcard, final Map<Integer, Set<Integer>> byDamage, final int oreId, final int damage )
+		{
+			if( damage == OreDictionary.WILDCARD_VALUE )
+			{
+				this.wildcard = withOre( wildcard, oreId );
+				this.byDamage = byDamage;
+			}
+			else
 			{
-				if( OreDictionary.itemMatches( oreItem, o, false ) )
-				{
-					return true;
-				}
+				final Set<Integer> current = byDamage.get( damage );
+				this.wildcard = wildcard;
+				this.byDamage = new HashMap<Integer, Set<Integer>>( byDamage );
+				this.byDamage.put( damage, withOre( current == null ? Collections.<Integer>emptySet() : current, oreId ) );
 			}
 		}
 
-		return false;
-	}
+		private static Set<Integer> withOre( final Set<Integer> ores, final int oreId )
+		{
+			final Set<Integer> copy = new TreeSet<Integer>( ores );
+			copy.add( oreId );
+			return copy;
+		}
 
-	List<ItemStack> getCachedOres( final String oreName )
-	{
-		return this.oreDictCache.getUnchecked( oreName );
+		OreIndexEntry with( final int oreId, final int damage )
+		{
+			return new OreIndexEntry( this.wildcard, this.byDamage, oreId, damage );
+		}
+
+		/**
+		 * @return the ore ids matching the damage value, ordered by id
+		 */
+		Set<Integer> getOreIds( final int damage )
+		{
+			final Set<Integer> specific = this.byDamage.get( damage );
+			if( specific == null )
+			{
+				return this.wildcard;
+			}
+			if( this.wildcard.isEmpty() )
+			{
+				return specific;
+			}
+
+			final Set<Integer> all = new TreeSet<Integer>( this.wildcard );
+			all.addAll( specific );
+			return all;
+		}
 	}
 
 	private static class ItemRef
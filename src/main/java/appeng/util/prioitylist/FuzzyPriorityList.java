@@ -22,25 +22,40 @@ package appeng.util.prioitylist;
 import java.util.Collection;
 
 import appeng.api.config.FuzzyMode;
+import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IItemList;
+import appeng.util.item.FuzzyPartitionTable;
 
 
+/**
+ * Item lists are compiled into a shared {@link FuzzyPartitionTable}, other stack types query the list directly.
+ */
 public class FuzzyPriorityList<T extends IAEStack<T>> implements IPartitionList<T>
 {
 
 	private final IItemList<T> list;
 	private final FuzzyMode mode;
+	private final FuzzyPartitionTable table;
 
+	@SuppressWarnings( "unchecked" )
 	public FuzzyPriorityList( final IItemList<T> in, final FuzzyMode mode )
 	{
 		this.list = in;
 		this.mode = mode;
+
+		final T first = in.getFirstItem();
+		this.table = first != null && first.isItem() ? FuzzyPartitionTable.compile( (Iterable<IAEItemStack>) in, mode ) : null;
 	}
 
 	@Override
 	public boolean isListed( final T input )
 	{
+		if( this.table != null && input instanceof IAEItemStack )
+		{
+			return this.table.isListed( (IAEItemStack) input );
+		}
+
 		final Collection<T> out = this.list.findFuzzy( input, this.mode );
 		return out != null && !out.isEmpty();
 	}
@@ -19,30 +19,42 @@
 package appeng.util.prioitylist;
 
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IItemList;
 
 
+/**
+ * Tests stacks against a hash set of the configured entries. Equal configurations share one set.
+ */
 public class PrecisePriorityList<T extends IAEStack<T>> implements IPartitionList<T>
 {
 
+	private static final Interner<ImmutableSet<?>> SETS = Interners.newWeakInterner();
+
 	private final IItemList<T> list;
+	private final ImmutableSet<T> entries;
 
+	@SuppressWarnings( "unchecked" )
 	public PrecisePriorityList( final IItemList<T> in )
 	{
 		this.list = in;
+		this.entries = (ImmutableSet<T>) SETS.intern( ImmutableSet.copyOf( in ) );
 	}
 
 	@Override
 	public boolean isListed( final T input )
 	{
-		return this.list.findPrecise( input ) != null;
+		return this.entries.contains( input );
 	}
 
 	@Override
 	public boolean isEmpty()
 	{
-		return this.list.isEmpty();
+		return this.entries.isEmpty();
 	}
 
 	@Override
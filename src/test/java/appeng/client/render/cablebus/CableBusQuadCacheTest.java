@@ -0,0 +1,125 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package appeng.client.render.cablebus;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.util.BlockRenderLayer;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.ResourceLocation;
+
+import appeng.api.util.AECableType;
+import appeng.api.util.AEColor;
+
+
+/**
+ * Tests for {@link CableBusQuadCache} using synthetic render states.
+ */
+public final class CableBusQuadCacheTest
+{
+	private static final ResourceLocation PART_MODEL = new ResourceLocation( "appliedenergistics2", "part/test" );
+
+	private int builds = 0;
+
+	@Test
+	public void testEqualRenderStates_shouldBeEqual()
+	{
+		assertEquals( createState( AEColor.RED, 4 ), createState( AEColor.RED, 4 ) );
+		assertEquals( createState( AEColor.RED, 4 ).hashCode(), createState( AEColor.RED, 4 ).hashCode() );
+		assertNotEquals( createState( AEColor.RED, 4 ), createState( AEColor.RED, 5 ) );
+		assertNotEquals( createState( AEColor.RED, 4 ), createState( AEColor.BLUE, 4 ) );
+	}
+
+	@Test
+	public void testEqualRenderState_shouldHit()
+	{
+		final CableBusQuadCache cache = new CableBusQuadCache( 16 );
+
+		final List<BakedQuad> first = cache.get( createState( AEColor.RED, 4 ), BlockRenderLayer.CUTOUT, this::build );
+		final List<BakedQuad> second = cache.get( createState( AEColor.RED, 4 ), BlockRenderLayer.CUTOUT, this::build );
+
+		assertSame( first, second );
+		assertEquals( 1, this.builds );
+		assertEquals( 1, cache.getHits() );
+		assertEquals( 1, cache.getMisses() );
+	}
+
+	@Test
+	public void testDifferentLayer_shouldMiss()
+	{
+		final CableBusQuadCache cache = new CableBusQuadCache( 16 );
+
+		cache.get( createState( AEColor.RED, 4 ), BlockRenderLayer.CUTOUT, this::build );
+		cache.get( createState( AEColor.RED, 4 ), BlockRenderLayer.TRANSLUCENT, this::build );
+
+		assertEquals( 2, this.builds );
+		assertEquals( 0, cache.getHits() );
+		assertEquals( 2, cache.getMisses() );
+	}
+
+	@Test
+	public void testFullCache_shouldEvictLeastRecentlyUsed()
+	{
+		final CableBusQuadCache cache = new CableBusQuadCache( 2 );
+
+		cache.get( createState( AEColor.RED, 1 ), BlockRenderLayer.CUTOUT, this::build );
+		cache.get( createState( AEColor.RED, 2 ), BlockRenderLayer.CUTOUT, this::build );
+		cache.get( createState( AEColor.RED, 1 ), BlockRenderLayer.CUTOUT, this::build );
+		cache.get( createState( AEColor.RED, 3 ), BlockRenderLayer.CUTOUT, this::build );
+
+		assertEquals( 2, cache.size() );
+
+		// 1 was used more recently than 2, so 2 had to go
+		cache.get( createState( AEColor.RED, 1 ), BlockRenderLayer.CUTOUT, this::build );
+		assertEquals( 3, this.builds );
+
+		cache.get( createState( AEColor.RED, 2 ), BlockRenderLayer.CUTOUT, this::build );
+		assertEquals( 4, this.builds );
+	}
+
+	private List<BakedQuad> build()
+	{
+		this.builds++;
+		return Collections.emptyList();
+	}
+
+	private static CableBusRenderState createState( final AEColor color, final int channels )
+	{
+		final CableBusRenderState state = new CableBusRenderState();
+
+		state.setCableType( AECableType.SMART );
+		state.setCoreType( CableCoreType.COVERED );
+		state.setCableColor( color );
+		state.getConnectionTypes().put( EnumFacing.NORTH, AECableType.SMART );
+		state.getConnectionTypes().put( EnumFacing.SOUTH, AECableType.SMART );
+		state.getChannelsOnSide().put( EnumFacing.NORTH, channels );
+		state.getChannelsOnSide().put( EnumFacing.SOUTH, channels );
+		state.getAttachments().put( EnumFacing.UP, Collections.singletonList( PART_MODEL ) );
+
+		return state;
+	}
+}
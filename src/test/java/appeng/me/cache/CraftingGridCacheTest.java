@@ -0,0 +1,191 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package appeng.me.cache;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import appeng.api.networking.IGrid;
+import appeng.api.networking.IGridHost;
+import appeng.api.networking.crafting.ICraftingMedium;
+import appeng.api.networking.crafting.ICraftingPatternDetails;
+import appeng.api.networking.crafting.ICraftingProvider;
+import appeng.api.networking.crafting.ICraftingProviderHelper;
+import appeng.api.networking.storage.IStorageGrid;
+import appeng.api.storage.IMEMonitor;
+import appeng.api.storage.StorageChannel;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IAEStack;
+
+
+/**
+ * Tests for the craftable items {@link CraftingGridCache} announces to the storage grid, using stubbed grid parts.
+ */
+public final class CraftingGridCacheTest
+{
+	private static final Map<Class<?>, Object> DEFAULTS = ImmutableMap.<Class<?>, Object>builder()
+			.put( boolean.class, false )
+			.put( byte.class, (byte) 0 )
+			.put( short.class, (short) 0 )
+			.put( char.class, '\0' )
+			.put( int.class, 0 )
+			.put( long.class, 0L )
+			.put( float.class, 0f )
+			.put( double.class, 0d )
+			.build();
+
+	private final List<List<IAEStack>> posts = new ArrayList<List<IAEStack>>();
+
+	private CraftingGridCache cache;
+
+	@Before
+	public void setUp()
+	{
+		final IMEMonitor<?> monitor = stub( IMEMonitor.class, null );
+		final IStorageGrid storage = stub( IStorageGrid.class, ( proxy, method, args ) ->
+		{
+			if( method.getName().equals( "postAlterationOfStoredItems" ) && args[0] == StorageChannel.ITEMS )
+			{
+				final List<IAEStack> post = new ArrayList<IAEStack>();
+				for( final Object is : (Iterable<?>) args[1] )
+				{
+					post.add( (IAEStack) is );
+				}
+				this.posts.add( post );
+			}
+
+			return method.getName().equals( "getItemInventory" ) ? monitor : null;
+		} );
+
+		this.cache = new CraftingGridCache( stub( IGrid.class, ( proxy, method, args ) -> method.getName().equals( "getCache" ) ? storage : null ) );
+		this.cache.afterCacheConstruction( null );
+	}
+
+	@Test
+	public void testAddingPatternProvider_shouldPostCraftable()
+	{
+		final IAEItemStack output = createStack();
+
+		this.cache.addNode( null, createProvider( output ) );
+
+		assertEquals( 2, this.posts.size() );
+		assertTrue( this.posts.get( 0 ).isEmpty() );
+		assertEquals( 1, this.posts.get( 1 ).size() );
+		assertTrue( this.posts.get( 1 ).contains( output ) );
+	}
+
+	@Test
+	public void testRemovingLastPatternProvider_shouldPostFormerCraftable()
+	{
+		final IAEItemStack output = createStack();
+		final IGridHost provider = createProvider( output );
+
+		this.cache.addNode( null, provider );
+		this.posts.clear();
+		this.cache.removeNode( null, provider );
+
+		assertEquals( 2, this.posts.size() );
+		assertEquals( 1, this.posts.get( 0 ).size() );
+		assertTrue( this.posts.get( 0 ).contains( output ) );
+		assertTrue( this.posts.get( 1 ).isEmpty() );
+	}
+
+	private static IGridHost createProvider( final IAEItemStack output )
+	{
+		final ICraftingPatternDetails details = stub( ICraftingPatternDetails.class, ( proxy, method, args ) -> method.getName().equals( "getOutputs" ) ? new IAEItemStack[] { output } : null );
+		final ICraftingMedium medium = stub( ICraftingMedium.class, null );
+
+		return (IGridHost) Proxy.newProxyInstance( CraftingGridCacheTest.class.getClassLoader(), new Class<?>[] { IGridHost.class, ICraftingProvider.class }, handler( ( proxy, method, args ) ->
+		{
+			if( method.getName().equals( "provideCrafting" ) )
+			{
+				( (ICraftingProviderHelper) args[0] ).addCraftingOption( medium, details );
+			}
+
+			return null;
+		} ) );
+	}
+
+	/**
+	 * A stack which is its own copy, compared by identity.
+	 */
+	private static IAEItemStack createStack()
+	{
+		return stub( IAEItemStack.class, ( proxy, method, args ) -> method.getName().equals( "copy" ) ? proxy : null );
+	}
+
+	private static <T> T stub( final Class<T> type, final InvocationHandler answers )
+	{
+		return type.cast( Proxy.newProxyInstance( CraftingGridCacheTest.class.getClassLoader(), new Class<?>[] { type }, handler( answers ) ) );
+	}
+
+	/**
+	 * Handles the methods of {@link Object} by identity and answers everything else through the given handler,
+	 * returning defaults for primitives.
+	 */
+	private static InvocationHandler handler( final InvocationHandler answers )
+	{
+		return ( proxy, method, args ) ->
+		{
+			switch( method.getName() )
+			{
+				case "equals":
+					if( method.getParameterCount() == 1 )
+					{
+						return proxy == args[0];
+					}
+					break;
+				case "hashCode":
+					if( method.getParameterCount() == 0 )
+					{
+						return System.identityHashCode( proxy );
+					}
+					break;
+				case "toString":
+					if( method.getParameterCount() == 0 )
+					{
+						return "stub " + method.getDeclaringClass().getSimpleName();
+					}
+					break;
+				default:
+					break;
+			}
+
+			final Object result = answers == null ? null : answers.invoke( proxy, method, args );
+
+			if( result == null && method.getReturnType().isPrimitive() && method.getReturnType() != void.class )
+			{
+				return DEFAULTS.get( method.getReturnType() );
+			}
+
+			return result;
+		};
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.recipes;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import appeng.api.recipes.IRecipeLoader;
+
+
+/**
+ * Tests for {@link RecipeFile}
+ */
+public final class RecipeFileTest
+{
+	private final Map<String, String> sources = new HashMap<String, String>();
+
+	private final IRecipeLoader loader = new IRecipeLoader()
+	{
+		@Override
+		public BufferedReader getFile( final String path ) throws Exception
+		{
+			final String source = RecipeFileTest.this.sources.get( path );
+			if( source == null )
+			{
+				throw new FileNotFoundException( path );
+			}
+			return new BufferedReader( new StringReader( source ) );
+		}
+	};
+
+	@Test
+	public void testStatements_shouldPass()
+	{
+		this.sources.put( "index.recipe", "# comment\nalias=minecraft -> mc\nshaped=\n  mc:stick \"with space\", _ -> 2 mc:torch\n" );
+
+		final RecipeFile file = RecipeFile.read( this.loader, "index.recipe" );
+
+		assertNull( file.getLoadError() );
+		assertNull( file.getReadError() );
+		assertEquals( 2, file.getStatements().size() );
+		assertEquals( Arrays.asList( "alias", "minecraft", "->", "mc" ), file.getStatements().get( 0 ).getTokens() );
+		assertEquals( Arrays.asList( "shaped", "mc:stick", "with space", ",", "_", "->", "2", "mc:torch" ), file.getStatements().get( 1 ).getTokens() );
+		assertTrue( file.getImports().isEmpty() );
+	}
+
+	@Test
+	public void testImports_shouldPass()
+	{
+		this.sources.put( "index.recipe", "import=a.recipe\nimport=b.recipe\n" );
+		this.sources.put( "a.recipe", "import=b.recipe\nimport=c.recipe\n" );
+		this.sources.put( "b.recipe", "crash=false\n" );
+
+		final Map<String, RecipeFile> files = RecipeFile.readAll( this.loader, "index.recipe" );
+
+		assertEquals( 4, files.size() );
+		assertEquals( Arrays.asList( "a.recipe", "b.recipe" ), files.get( "index.recipe" ).getImports() );
+		assertNull( files.get( "b.recipe" ).getLoadError() );
+		assertNotNull( files.get( "c.recipe" ).getLoadError() );
+	}
+}